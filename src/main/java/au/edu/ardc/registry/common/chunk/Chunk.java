@@ -0,0 +1,22 @@
+package au.edu.ardc.registry.common.chunk;
+
+import java.io.IOException;
+
+/**
+ * A handle on a fragment of a payload, handed to the task importing it. The content is
+ * only read when the task runs
+ */
+public interface Chunk {
+
+	/**
+	 * @return the size of the content in bytes
+	 */
+	long getLength();
+
+	/**
+	 * @return the content of the fragment
+	 * @throws IOException when the content can't be read
+	 */
+	String getContent() throws IOException;
+
+}
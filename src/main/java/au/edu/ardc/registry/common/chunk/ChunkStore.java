@@ -0,0 +1,26 @@
+package au.edu.ardc.registry.common.chunk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Holds the fragments of a payload while they are imported. Fragments are added while
+ * the payload is read, the {@link Chunk} of a fragment can be read as soon as it is
+ * added. Closing the store stops the adding, the chunks stay readable
+ */
+public interface ChunkStore extends Closeable {
+
+	/**
+	 * @param content the content of the fragment
+	 * @return the {@link Chunk} of the fragment
+	 * @throws IOException when the fragment can't be stored
+	 */
+	Chunk add(String content) throws IOException;
+
+	/**
+	 * @return the chunks in the order they were added
+	 */
+	List<Chunk> getChunks();
+
+}
@@ -0,0 +1,34 @@
+package au.edu.ardc.registry.common.chunk;
+
+import au.edu.ardc.registry.common.util.Helpers;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A {@link Chunk} stored in a file of its own
+ */
+public class FileChunk implements Chunk {
+
+	private final File file;
+
+	public FileChunk(File file) {
+		this.file = file;
+	}
+
+	@Override
+	public long getLength() {
+		return file.length();
+	}
+
+	@Override
+	public String getContent() throws IOException {
+		return Helpers.readFile(file);
+	}
+
+	@Override
+	public String toString() {
+		return file.getAbsolutePath();
+	}
+
+}
@@ -0,0 +1,31 @@
+package au.edu.ardc.registry.common.chunk;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link Chunk} held in memory
+ */
+public class MemoryChunk implements Chunk {
+
+	private final byte[] content;
+
+	public MemoryChunk(String content) {
+		this.content = content.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public long getLength() {
+		return content.length;
+	}
+
+	@Override
+	public String getContent() {
+		return new String(content, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public String toString() {
+		return "memory[" + content.length + "]";
+	}
+
+}
@@ -0,0 +1,30 @@
+package au.edu.ardc.registry.common.chunk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link ChunkStore} keeping the fragments in memory, for payloads small enough
+ */
+public class MemoryChunkStore implements ChunkStore {
+
+	private final List<Chunk> chunks = Collections.synchronizedList(new ArrayList<>());
+
+	@Override
+	public Chunk add(String content) {
+		Chunk chunk = new MemoryChunk(content);
+		chunks.add(chunk);
+		return chunk;
+	}
+
+	@Override
+	public List<Chunk> getChunks() {
+		return Collections.unmodifiableList(chunks);
+	}
+
+	@Override
+	public void close() {
+	}
+
+}
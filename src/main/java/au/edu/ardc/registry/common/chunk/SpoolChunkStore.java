@@ -0,0 +1,217 @@
+package au.edu.ardc.registry.common.chunk;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link ChunkStore} appending the fragments to a single spool file. A {@link Chunk} is
+ * the offset and length of its fragment in the file, the index of the store. Chunks are
+ * read through a memory mapping of the file. A chunk past the end of the mapping is read
+ * from the file, the file is mapped again once it doubled since it was last mapped so
+ * reading while adding maps it a logarithmic number of times. Closing the store maps the
+ * whole file a last time and closes the file, the mapping is released once the chunks are
+ * no longer referenced. The file is only accessed under the lock of the store, an
+ * interrupted thread closing it reopens it for the others before failing
+ */
+public class SpoolChunkStore implements ChunkStore {
+
+	private final Path path;
+
+	private FileChannel channel;
+
+	private final List<Chunk> chunks = new ArrayList<>();
+
+	private long size = 0;
+
+	private MappedByteBuffer mapping;
+
+	private int mapCount = 0;
+
+	private boolean closed = false;
+
+	/**
+	 * An existing spool file is deleted rather than truncated, the store of a previous run
+	 * may still have it mapped. Its chunks keep reading the deleted file, truncating it
+	 * would fail them
+	 * @param path the path to the spool file, replaced if it exists
+	 * @throws IOException when the file can't be created or the existing one deleted
+	 */
+	public SpoolChunkStore(Path path) throws IOException {
+		this.path = path;
+		Files.deleteIfExists(path);
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+	}
+
+	@Override
+	public synchronized Chunk add(String content) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+
+		// chunks are read through a single mapping, indexed by int
+		if (size + buffer.remaining() > Integer.MAX_VALUE) {
+			throw new IOException(String.format("Spool file %s is full", path));
+		}
+		Chunk chunk = new SpoolChunk(this, size, buffer.remaining());
+		// a failed write is overwritten by the next one
+		long end = size + buffer.remaining();
+		onChannel(channel -> {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer, end - buffer.remaining());
+			}
+			return null;
+		});
+		size = end;
+		chunks.add(chunk);
+		return chunk;
+	}
+
+	@Override
+	public synchronized List<Chunk> getChunks() {
+		return Collections.unmodifiableList(new ArrayList<>(chunks));
+	}
+
+	/**
+	 * @param offset the offset of the content in the spool file
+	 * @param length the length of the content in bytes
+	 * @return the content
+	 * @throws IOException when the spool file can't be mapped or read
+	 */
+	String read(long offset, int length) throws IOException {
+		byte[] content = new byte[length];
+		getView(offset, length).get(content);
+		return new String(content, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @param offset the offset of the content in the spool file
+	 * @param length the length of the content in bytes
+	 * @return a view of the mapping positioned at the content if it covers the content, a
+	 * buffer with the content read from the file otherwise
+	 * @throws IOException when the spool file can't be mapped or read
+	 */
+	private synchronized ByteBuffer getView(long offset, int length) throws IOException {
+		long end = offset + length;
+		// the mapping of a closed store covers the whole file
+		if (!closed && (mapping == null || (mapping.capacity() < end && size >= 2L * mapping.capacity()))) {
+			map();
+		}
+		if (mapping != null && mapping.capacity() >= end) {
+			ByteBuffer view = mapping.duplicate();
+			view.position((int) offset);
+			return view;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		onChannel(channel -> {
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer, offset + buffer.position()) < 0) {
+					throw new EOFException(String.format("Spool file %s ends before %d", path, end));
+				}
+			}
+			return null;
+		});
+		buffer.flip();
+		return buffer;
+	}
+
+	private synchronized void map() throws IOException {
+		mapping = onChannel(channel -> channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+		mapCount++;
+	}
+
+	/**
+	 * Run an operation on the file. An interrupted thread closes the file it is
+	 * operating on, it is reopened for the other threads
+	 * @param operation the operation
+	 * @param <T> the result of the operation
+	 * @return the result
+	 * @throws IOException when the operation fails, including by being interrupted
+	 */
+	private synchronized <T> T onChannel(ChannelOperation<T> operation) throws IOException {
+		try {
+			return operation.apply(channel);
+		}
+		catch (ClosedByInterruptException e) {
+			channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the number of times the file was mapped
+	 */
+	synchronized int getMapCount() {
+		return mapCount;
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		if (mapping == null || mapping.capacity() < size) {
+			map();
+		}
+		channel.close();
+		closed = true;
+	}
+
+	private interface ChannelOperation<T> {
+
+		T apply(FileChannel channel) throws IOException;
+
+	}
+
+	/**
+	 * A fragment in the spool file
+	 */
+	static class SpoolChunk implements Chunk {
+
+		private final SpoolChunkStore store;
+
+		private final long offset;
+
+		private final int length;
+
+		SpoolChunk(SpoolChunkStore store, long offset, int length) {
+			this.store = store;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		public long getOffset() {
+			return offset;
+		}
+
+		@Override
+		public long getLength() {
+			return length;
+		}
+
+		@Override
+		public String getContent() throws IOException {
+			return store.read(offset, length);
+		}
+
+		@Override
+		public String toString() {
+			return store.getPath() + "[" + offset + "+" + length + "]";
+		}
+
+	}
+
+}
@@ -57,7 +57,8 @@ public class APIRestControllerAdvice {
 	 * @param locale the injected Locale for the service
 	 * @return ResponseEntity
 	 */
-	@ExceptionHandler(value = { SchemaNotSupportedException.class, VersionContentAlreadyExistsException.class })
+	@ExceptionHandler(value = { SchemaNotSupportedException.class, VersionContentAlreadyExistsException.class,
+			TransformerNotFoundException.class, ContentProviderNotFoundException.class })
 	public ResponseEntity<Object> handleBadRequest(APIException ex, HttpServletRequest request, Locale locale) {
 		String message = messageSource.getMessage(ex.getMessageID(), ex.getArgs(), locale);
 		APIExceptionResponse response = new APIExceptionResponse(message, HttpStatus.BAD_REQUEST, request);
@@ -0,0 +1,31 @@
+package au.edu.ardc.registry.common.controller.api.admin;
+
+import au.edu.ardc.registry.common.service.TransformCacheService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+@Controller
+@Tag(name = "Admin Operations")
+@RequestMapping("/api/admin/caches/transforms")
+public class EvictTransformCacheController {
+
+	@Autowired
+	TransformCacheService transformCacheService;
+
+	@GetMapping("")
+	public ResponseEntity<?> index() {
+		return ResponseEntity.ok().body(transformCacheService.getStatistics());
+	}
+
+	@DeleteMapping("")
+	public ResponseEntity<?> destroy() {
+		transformCacheService.evict();
+		return ResponseEntity.accepted().body("Transform cache has been evicted");
+	}
+
+}
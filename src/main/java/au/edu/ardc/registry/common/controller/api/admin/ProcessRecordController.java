@@ -1,12 +1,16 @@
 package au.edu.ardc.registry.common.controller.api.admin;
 
 import au.edu.ardc.registry.common.entity.Record;
+import au.edu.ardc.registry.common.entity.Request;
+import au.edu.ardc.registry.common.model.JobProgress;
 import au.edu.ardc.registry.common.service.RecordProcessingService;
 import au.edu.ardc.registry.common.service.RecordService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -38,9 +42,27 @@ public class ProcessRecordController {
 		}
 
 		// id is null, queue all records
-		recordProcessingService.queueAllRecords();
+		Request job = recordProcessingService.queueAllRecords();
 
-		return ResponseEntity.ok("All records are queued");
+		return ResponseEntity.accepted().body(recordProcessingService.getProgress(job.getId().toString()));
+	}
+
+	@GetMapping("/jobs/{id}")
+	public ResponseEntity<?> show(@PathVariable String id) {
+		JobProgress progress = recordProcessingService.getProgress(id);
+		if (progress == null) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok(progress);
+	}
+
+	@PostMapping("/jobs/{id}/resume")
+	public ResponseEntity<?> resume(@PathVariable String id) {
+		Request job = recordProcessingService.resume(id);
+		if (job == null) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.accepted().body(recordProcessingService.getProgress(id));
 	}
 
 }
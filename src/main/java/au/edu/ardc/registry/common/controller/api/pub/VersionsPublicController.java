@@ -12,6 +12,7 @@ import au.edu.ardc.registry.common.repository.specs.VersionSpecification;
 import au.edu.ardc.registry.common.service.RecordService;
 import au.edu.ardc.registry.common.service.SchemaService;
 import au.edu.ardc.registry.common.service.VersionService;
+import au.edu.ardc.registry.common.util.JSONUtil;
 import au.edu.ardc.registry.exception.APIExceptionResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -26,6 +27,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.UUID;
 
 @RestController
@@ -94,7 +96,9 @@ public class VersionsPublicController {
 	@ApiResponse(responseCode = "404", description = "Version is not found",
 			content = @Content(schema = @Schema(implementation = APIExceptionResponse.class)))
 	public ResponseEntity<?> showContent(@Parameter(required = true, description = "the id of the version (uuid)",
-			schema = @Schema(implementation = UUID.class)) @PathVariable String id) {
+			schema = @Schema(implementation = UUID.class)) @PathVariable String id,
+			@Parameter(description = "indent JSON content") @RequestParam(required = false,
+					defaultValue = "false") boolean pretty) throws IOException {
 		Version version = versionService.findPublicById(id);
 
 		MediaType mediaType = MediaType.APPLICATION_XML;
@@ -102,7 +106,8 @@ public class VersionsPublicController {
 			mediaType = MediaType.APPLICATION_JSON;
 		}
 
-		return ResponseEntity.ok().contentType(mediaType).body(version.getContent());
+		return ResponseEntity.ok().contentType(mediaType)
+				.body(JSONUtil.format(version.getContent(), mediaType, pretty));
 	}
 
 }
@@ -13,6 +13,7 @@ import au.edu.ardc.registry.common.repository.specs.VersionSpecification;
 import au.edu.ardc.registry.common.service.KeycloakService;
 import au.edu.ardc.registry.common.service.SchemaService;
 import au.edu.ardc.registry.common.service.VersionService;
+import au.edu.ardc.registry.common.util.JSONUtil;
 import au.edu.ardc.registry.exception.APIExceptionResponse;
 import au.edu.ardc.registry.exception.VersionNotFoundException;
 import io.swagger.v3.oas.annotations.Operation;
@@ -30,6 +31,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
 import java.util.UUID;
@@ -139,7 +141,9 @@ public class VersionResourceController {
 	@ApiResponse(responseCode = "404", description = "Version is not found",
 			content = @Content(schema = @Schema(implementation = APIExceptionResponse.class)))
 	public ResponseEntity<?> content(
-			@Parameter(schema = @Schema(implementation = UUID.class)) @PathVariable String id) {
+			@Parameter(schema = @Schema(implementation = UUID.class)) @PathVariable String id,
+			@Parameter(description = "indent JSON content") @RequestParam(required = false,
+					defaultValue = "false") boolean pretty) throws IOException {
 		if (!versionService.exists(id)) {
 			throw new VersionNotFoundException(id);
 		}
@@ -150,7 +154,8 @@ public class VersionResourceController {
 			mediaType = MediaType.APPLICATION_JSON;
 		}
 
-		return ResponseEntity.ok().contentType(mediaType).body(version.getContent());
+		return ResponseEntity.ok().contentType(mediaType)
+				.body(JSONUtil.format(version.getContent(), mediaType, pretty));
 	}
 
 }
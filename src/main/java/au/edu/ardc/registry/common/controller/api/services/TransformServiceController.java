@@ -2,40 +2,67 @@ package au.edu.ardc.registry.common.controller.api.services;
 
 import au.edu.ardc.registry.common.entity.Version;
 import au.edu.ardc.registry.common.model.Schema;
+import au.edu.ardc.registry.common.model.TransformResult;
+import au.edu.ardc.registry.common.model.schema.XMLSchema;
+import au.edu.ardc.registry.common.provider.FragmentProvider;
+import au.edu.ardc.registry.common.provider.Metadata;
+import au.edu.ardc.registry.common.provider.MetadataProviderFactory;
 import au.edu.ardc.registry.common.service.SchemaService;
+import au.edu.ardc.registry.common.service.TransformCacheService;
+import au.edu.ardc.registry.common.service.TransformService;
 import au.edu.ardc.registry.common.transform.Transformer;
-import au.edu.ardc.registry.common.transform.TransformerFactory;
+import au.edu.ardc.registry.exception.ContentNotSupportedException;
 import au.edu.ardc.registry.exception.SchemaNotSupportedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.HtmlUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 
 @Controller
 @RequestMapping("/api/services/transform")
 public class TransformServiceController {
 
+	public static final String FORMAT_XML = "xml";
+
+	public static final String FORMAT_NDJSON = "ndjson";
+
+	public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+
 	@Autowired
 	SchemaService schemaService;
 
+	@Autowired
+	TransformService transformService;
+
+	@Autowired
+	TransformCacheService transformCacheService;
+
 	@PostMapping("")
 	public ResponseEntity<?> transform(@RequestParam String fromSchemaID, @RequestParam String toSchemaID,
 			@RequestBody String payload) {
 		// validate fromSchema and toSchema
-		Schema fromSchema = schemaService.getSchemaByID(fromSchemaID);
-		if (fromSchema == null) {
-			throw new SchemaNotSupportedException(fromSchemaID);
-		}
-		Schema toSchema = schemaService.getSchemaByID(toSchemaID);
-		if (toSchema == null) {
-			throw new SchemaNotSupportedException(toSchemaID);
-		}
+		Schema fromSchema = getSchema(fromSchemaID);
+		Schema toSchema = getSchema(toSchemaID);
 
 		// attempt to create the transformer
-		Transformer transformer = (Transformer) TransformerFactory.create(fromSchema, toSchema);
+		Transformer transformer = transformCacheService.create(fromSchema, toSchema);
 		if (transformer == null) {
 			throw new RuntimeException("Transformer not found");
 		}
@@ -51,4 +78,116 @@ public class TransformServiceController {
 		return ResponseEntity.ok(outputVersion.getContent());
 	}
 
+	/**
+	 * Transform every fragment of a multi resource payload in parallel. The results are
+	 * streamed back as they complete, so they are not in payload order, each carries the
+	 * 0 based position of its fragment. A failed fragment produces an error entry and
+	 * doesn't stop the others, a payload malformed past its first fragments ends with an
+	 * error entry without a position
+	 * @param fromSchemaID the id of the payload schema
+	 * @param toSchemaID the id of the target schema
+	 * @param format ndjson for one JSON object per line, a transforms container element
+	 * otherwise
+	 * @param request the request, its body is read as a stream
+	 * @return the streamed results
+	 */
+	@PostMapping("/bulk")
+	public ResponseEntity<StreamingResponseBody> bulkTransform(@RequestParam String fromSchemaID,
+			@RequestParam String toSchemaID, @RequestParam(defaultValue = FORMAT_XML) String format,
+			HttpServletRequest request) {
+		Schema fromSchema = getSchema(fromSchemaID);
+		Schema toSchema = getSchema(toSchemaID);
+		boolean ndjson = format.equalsIgnoreCase(FORMAT_NDJSON);
+		boolean embedXML = toSchema instanceof XMLSchema;
+
+		// resolved before the response is committed so that they fail with a 400
+		FragmentProvider fragmentProvider = (FragmentProvider) MetadataProviderFactory.create(fromSchema,
+				Metadata.Fragment);
+		Transformer transformer = transformCacheService.create(fromSchema, toSchema);
+
+		StreamingResponseBody body = outputStream -> {
+			try (InputStream payload = request.getInputStream()) {
+				if (!ndjson) {
+					write(outputStream, String.format(
+							"<?xml version=\"1.0\" encoding=\"UTF-8\"?>%n<transforms fromSchemaID=\"%s\" toSchemaID=\"%s\">%n",
+							HtmlUtils.htmlEscape(fromSchemaID), HtmlUtils.htmlEscape(toSchemaID)));
+				}
+				try {
+					transformService.transformFragments(fromSchema, fragmentProvider, transformer, payload,
+							result -> {
+								try {
+									write(outputStream, ndjson ? toNDJSON(result) : toXML(result, embedXML));
+									outputStream.flush();
+								}
+								catch (IOException e) {
+									throw new UncheckedIOException(e);
+								}
+							});
+				}
+				catch (ContentNotSupportedException e) {
+					// the payload is malformed past the fragments already written
+					write(outputStream, ndjson ? toNDJSONError(e.getMessage()) : toXMLError(e.getMessage()));
+				}
+				if (!ndjson) {
+					write(outputStream, "</transforms>\n");
+				}
+			}
+			catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+		};
+
+		return ResponseEntity.ok().contentType(ndjson ? APPLICATION_NDJSON : MediaType.APPLICATION_XML).body(body);
+	}
+
+	private Schema getSchema(String schemaID) {
+		Schema schema = schemaService.getSchemaByID(schemaID);
+		if (schema == null) {
+			throw new SchemaNotSupportedException(schemaID);
+		}
+		return schema;
+	}
+
+	private static void write(OutputStream outputStream, String content) throws IOException {
+		outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String toNDJSON(TransformResult result) throws IOException {
+		ObjectNode node = mapper.createObjectNode();
+		node.put("position", result.getPosition());
+		if (result.isSuccess()) {
+			node.put("content", new String(result.getContent(), StandardCharsets.UTF_8));
+		}
+		else {
+			node.put("error", result.getError());
+		}
+		return mapper.writeValueAsString(node) + "\n";
+	}
+
+	private static String toNDJSONError(String message) throws IOException {
+		ObjectNode node = mapper.createObjectNode();
+		node.put("error", message);
+		return mapper.writeValueAsString(node) + "\n";
+	}
+
+	private static String toXMLError(String message) {
+		return String.format("<error>%s</error>%n", HtmlUtils.htmlEscape(String.valueOf(message)));
+	}
+
+	private static String toXML(TransformResult result, boolean embedXML) {
+		if (!result.isSuccess()) {
+			return String.format("<transform position=\"%d\" error=\"%s\"/>%n", result.getPosition(),
+					HtmlUtils.htmlEscape(String.valueOf(result.getError())));
+		}
+		String content = new String(result.getContent(), StandardCharsets.UTF_8);
+		if (embedXML) {
+			// drop the XML declaration of the document to embed it
+			content = content.replaceFirst("^\\s*<\\?xml[^>]*\\?>\\s*", "");
+		}
+		else {
+			content = "<![CDATA[" + content.replace("]]>", "]]]]><![CDATA[>") + "]]>";
+		}
+		return String.format("<transform position=\"%d\">%s</transform>%n", result.getPosition(), content);
+	}
+
 }
@@ -6,9 +6,9 @@ import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Entity
 @Table(name = "requests")
@@ -40,7 +40,7 @@ public class Request {
 	private String type;
 
 	public Request() {
-		this.attributes = new HashMap<>();
+		this.attributes = new ConcurrentHashMap<>();
 	}
 
 	public UUID getId() {
@@ -83,37 +83,47 @@ public class Request {
 		this.createdBy = id;
 	}
 
-	public String getAttribute(String key) {
+	public synchronized String getAttribute(String key) {
 		return this.attributes.getOrDefault(key, null);
 	}
 
-	public Request setAttribute(String key, String value) {
-		this.attributes.put(key, value);
+	public synchronized Request setAttribute(String key, String value) {
+		// the attributes are concurrent, a null value removes the attribute
+		if (value == null) {
+			this.attributes.remove(key);
+		}
+		else {
+			this.attributes.put(key, value);
+		}
 		return this;
 	}
 
-	public Request setAttribute(Attribute key, String value) {
-		this.attributes.put(key.toString(), value);
-		return this;
+	public synchronized Request setAttribute(Attribute key, String value) {
+		return setAttribute(key.toString(), value);
 	}
 
-	public Request setAttribute(Attribute key, int value) {
+	public synchronized Request setAttribute(Attribute key, int value) {
 		this.attributes.put(key.toString(), String.valueOf(value));
 		return this;
 	}
 
-	public Request setAttribute(Attribute key, Long value) {
+	public synchronized Request setAttribute(Attribute key, Long value) {
 		this.attributes.put(key.toString(), String.valueOf(value));
 		return this;
 	}
 
-	public void incrementAttributeValue(Attribute key){
+	/**
+	 * Increment a counting attribute, atomically since the tasks of a request may run on
+	 * several threads at once
+	 * @param key the {@link Attribute} to increment
+	 */
+	public synchronized void incrementAttributeValue(Attribute key){
 		String currentValue = this.attributes.getOrDefault(key.toString(), "0");
 		Integer numValue = new Integer(currentValue);
 		this.attributes.put(key.toString(), String.valueOf(numValue + 1));
 	}
 
-	public String getAttribute(Attribute attribute) {
+	public synchronized String getAttribute(Attribute attribute) {
 		return this.attributes.getOrDefault(attribute.toString(), null);
 	}
 
@@ -141,12 +151,16 @@ public class Request {
 		this.type = type;
 	}
 
+	/**
+	 * @return the attributes, a concurrent map that the tasks of the request may update
+	 * while it is iterated or saved
+	 */
 	public Map<String, String> getAttributes() {
 		return attributes;
 	}
 
 	public void setAttributes(Map<String, String> attributes) {
-		this.attributes = attributes;
+		this.attributes = HashMapAttributeConverter.toConcurrentMap(attributes);
 	}
 
 	public enum Status {
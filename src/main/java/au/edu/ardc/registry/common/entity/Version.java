@@ -47,6 +47,10 @@ public class Version {
 
 	private String hash;
 
+	private String sourceHash;
+
+	private String transformRevision;
+
 	@Column(columnDefinition = "BINARY(16)")
 	private UUID requestID;
 
@@ -136,6 +140,30 @@ public class Version {
 		this.hash = hash;
 	}
 
+	/**
+	 * @return the hash of the version this version is derived from, null if it's not
+	 * derived
+	 */
+	public String getSourceHash() {
+		return sourceHash;
+	}
+
+	public void setSourceHash(String sourceHash) {
+		this.sourceHash = sourceHash;
+	}
+
+	/**
+	 * @return the revision of the transformers this version is derived with, see
+	 * {@link au.edu.ardc.registry.common.transform.TransformRevision}
+	 */
+	public String getTransformRevision() {
+		return transformRevision;
+	}
+
+	public void setTransformRevision(String transformRevision) {
+		this.transformRevision = transformRevision;
+	}
+
 	public UUID getEndedBy() {
 		return endedBy;
 	}
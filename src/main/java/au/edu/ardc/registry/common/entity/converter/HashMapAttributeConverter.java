@@ -6,14 +6,18 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import javax.persistence.AttributeConverter;
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class HashMapAttributeConverter implements AttributeConverter<Map<String, String>, String> {
 
+	// ObjectMapper is thread safe once configured, there's no need for one per conversion
+	private static final ObjectMapper mapper = new ObjectMapper();
+
 	@Override
 	public String convertToDatabaseColumn(Map<String, String> attributeMap) {
 		String jsonString = null;
 		try {
-			jsonString = new ObjectMapper().writeValueAsString(attributeMap);
+			jsonString = mapper.writeValueAsString(attributeMap);
 		}
 		catch (final JsonProcessingException e) {
 			e.printStackTrace();
@@ -26,12 +30,33 @@ public class HashMapAttributeConverter implements AttributeConverter<Map<String,
 	public Map<String, String> convertToEntityAttribute(String s) {
 		Map<String, String> attributes = null;
 		try {
-			attributes = new ObjectMapper().readValue(s, Map.class);
+			attributes = mapper.readValue(s, Map.class);
 		}
 		catch (final IOException e) {
 
 		}
-		return attributes;
+		return toConcurrentMap(attributes);
+	}
+
+	/**
+	 * Copy attributes into a concurrent map, so that the entity can be saved while other
+	 * threads set its attributes. Concurrent maps hold no null values, those are skipped
+	 * @param attributes the attributes, may be null
+	 * @return a {@link ConcurrentHashMap} of the attributes
+	 */
+	public static Map<String, String> toConcurrentMap(Map<String, String> attributes) {
+		if (attributes instanceof ConcurrentHashMap) {
+			return attributes;
+		}
+		Map<String, String> concurrent = new ConcurrentHashMap<>();
+		if (attributes != null) {
+			attributes.forEach((key, value) -> {
+				if (key != null && value != null) {
+					concurrent.put(key, value);
+				}
+			});
+		}
+		return concurrent;
 	}
 
 }
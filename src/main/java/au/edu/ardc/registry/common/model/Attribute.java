@@ -6,13 +6,16 @@ public enum Attribute {
 	DATA_PATH, LOG_PATH,
 
 	// extended attributes
-	CREATOR_ID, OWNER_TYPE, OWNER_ID, ALLOCATION_ID, ALLOCATION_PREFIX, REQUESTED_IDENTIFIERS_PATH, IMPORTED_IDENTIFIERS_PATH, PAYLOAD_PATH, CHUNKED_PAYLOAD_PATH, SCHEMA_ID,
+	CREATOR_ID, OWNER_TYPE, OWNER_ID, ALLOCATION_ID, ALLOCATION_PREFIX, REQUESTED_IDENTIFIERS_PATH, IMPORTED_IDENTIFIERS_PATH, PAYLOAD_PATH, CHUNKED_PAYLOAD_PATH, SCHEMA_ID, INVALID_FRAGMENTS,
 
 	// job type
 	EVENT_TYPE,
 
+	// the id of the last record up to which a job is done
+	CHECKPOINT,
+
 	// summary
-	NUM_OF_RECORDS_RECEIVED, NUM_OF_RECORDS_CREATED, NUM_OF_RECORDS_UPDATED, NUM_OF_IGSN_REGISTERED,
+	NUM_OF_RECORDS_RECEIVED, NUM_OF_RECORDS_CREATED, NUM_OF_RECORDS_UPDATED, NUM_OF_IGSN_REGISTERED, NUM_OF_RECORDS_TOTAL, NUM_OF_RECORDS_PROCESSED,
 
 	// summary error
 	NUM_OF_ERROR, NUM_OF_RECORD_ALREADY_EXISTS, NUM_OF_RECORDS_FORBIDDEN, NUM_OF_RECORD_CONTENT_NOT_CHANGED, NUM_OF_FAILED_REGISTRATION,
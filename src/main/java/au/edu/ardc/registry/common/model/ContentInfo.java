@@ -0,0 +1,38 @@
+package au.edu.ardc.registry.common.model;
+
+/**
+ * What is known about a content after sniffing its first few kilobytes: the media type,
+ * the namespace of the root element (XML content only), the file extension matching the
+ * media type
+ */
+public class ContentInfo {
+
+	private final String mediaType;
+
+	private final String namespace;
+
+	private final String extension;
+
+	public ContentInfo(String mediaType, String namespace, String extension) {
+		this.mediaType = mediaType;
+		this.namespace = namespace;
+		this.extension = extension;
+	}
+
+	public String getMediaType() {
+		return mediaType;
+	}
+
+	/**
+	 * @return the namespace URI of the root element, null if the content is not XML or
+	 * the root element has no namespace
+	 */
+	public String getNamespace() {
+		return namespace;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+}
@@ -0,0 +1,86 @@
+package au.edu.ardc.registry.common.model;
+
+import au.edu.ardc.registry.common.entity.Identifier;
+import au.edu.ardc.registry.common.entity.Record;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The Identifier values of a payload classified in one lookup, as new, existing or
+ * existing and owned by the User, so that they are not looked up again one by one
+ */
+public class IdentifierClassification {
+
+	public enum Status {
+
+		NEW, EXISTING, OWNED
+
+	}
+
+	private final Map<String, Status> statuses = new LinkedHashMap<>();
+
+	private final Map<String, Identifier> identifiers;
+
+	/**
+	 * @param values the classified Identifier values
+	 * @param identifiers the existing Identifiers by value
+	 * @param owned tells if the Record of an existing Identifier is owned
+	 */
+	public IdentifierClassification(Collection<String> values, Map<String, Identifier> identifiers,
+			Predicate<Record> owned) {
+		this.identifiers = identifiers;
+		for (String value : values) {
+			Identifier identifier = identifiers.get(value);
+			if (identifier == null) {
+				statuses.put(value, Status.NEW);
+			}
+			else if (identifier.getRecord() != null && owned.test(identifier.getRecord())) {
+				statuses.put(value, Status.OWNED);
+			}
+			else {
+				statuses.put(value, Status.EXISTING);
+			}
+		}
+	}
+
+	/**
+	 * @param value the Identifier value
+	 * @return true if the value was classified
+	 */
+	public boolean contains(String value) {
+		return statuses.containsKey(value);
+	}
+
+	/**
+	 * @param value the Identifier value
+	 * @return the {@link Status} of the value, null if it wasn't classified
+	 */
+	public Status getStatus(String value) {
+		return statuses.get(value);
+	}
+
+	/**
+	 * @param value the Identifier value
+	 * @return the existing {@link Identifier}, null if there is none
+	 */
+	public Identifier getIdentifier(String value) {
+		return identifiers.get(value);
+	}
+
+	public Map<String, Status> getStatuses() {
+		return Collections.unmodifiableMap(statuses);
+	}
+
+	/**
+	 * @param status the {@link Status}
+	 * @return the number of values with the status
+	 */
+	public long count(Status status) {
+		return statuses.values().stream().filter(status::equals).count();
+	}
+
+}
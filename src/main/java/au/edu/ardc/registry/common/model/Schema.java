@@ -29,6 +29,8 @@ public class Schema {
 
 	private Map<String, String> transforms;
 
+	private boolean autoDerive;
+
 	private String namespace;
 
 	private String schemaLocation;
@@ -106,6 +108,18 @@ public class Schema {
 		this.transforms = transforms;
 	}
 
+	/**
+	 * @return true if this schema is regenerated whenever a schema it is transformed
+	 * from changes, see {@link au.edu.ardc.registry.common.transform.DerivationGraph}
+	 */
+	public boolean isAutoDerive() {
+		return autoDerive;
+	}
+
+	public void setAutoDerive(boolean autoDerive) {
+		this.autoDerive = autoDerive;
+	}
+
 	public String getOaiexport() {
 		return oaiexport;
 	}
@@ -0,0 +1,53 @@
+package au.edu.ardc.registry.common.model;
+
+/**
+ * The outcome of transforming a single fragment of a bulk payload
+ */
+public class TransformResult {
+
+	private final int position;
+
+	private final byte[] content;
+
+	private final String error;
+
+	private TransformResult(int position, byte[] content, String error) {
+		this.position = position;
+		this.content = content;
+		this.error = error;
+	}
+
+	public static TransformResult success(int position, byte[] content) {
+		return new TransformResult(position, content, null);
+	}
+
+	public static TransformResult failure(int position, String error) {
+		return new TransformResult(position, null, error);
+	}
+
+	/**
+	 * @return the 0 based position of the fragment in the payload
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	/**
+	 * @return the transformed content, null if the transform failed
+	 */
+	public byte[] getContent() {
+		return content;
+	}
+
+	/**
+	 * @return the reason the transform failed, null if it succeeded
+	 */
+	public String getError() {
+		return error;
+	}
+
+	public boolean isSuccess() {
+		return error == null;
+	}
+
+}
@@ -0,0 +1,55 @@
+package au.edu.ardc.registry.common.model.schema;
+
+/**
+ * A schema validation error found in a payload, attributed to the fragment (eg a single
+ * resource element) it occurred in
+ */
+public class FragmentValidationError {
+
+	/**
+	 * The position given to errors found outside of any fragment
+	 */
+	public static final int DOCUMENT = -1;
+
+	private final int position;
+
+	private final String message;
+
+	private String identifier;
+
+	public FragmentValidationError(int position, String message) {
+		this.position = position;
+		this.message = message;
+	}
+
+	/**
+	 * @return the 0 based position of the fragment in the payload, {@link #DOCUMENT} if
+	 * the error isn't within a fragment
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * @return the identifier of the fragment if it could be obtained, null otherwise
+	 */
+	public String getIdentifier() {
+		return identifier;
+	}
+
+	public void setIdentifier(String identifier) {
+		this.identifier = identifier;
+	}
+
+	/**
+	 * @return true if the error is not attributed to a single fragment
+	 */
+	public boolean isDocumentError() {
+		return position == DOCUMENT;
+	}
+
+}
@@ -19,13 +19,14 @@ public class SchemaValidatorFactory {
 	}
 
 	public static SchemaValidator getValidator(String content) throws IOException {
-		if (Helpers.probeContentType(content).equals("application/xml")) {
+		String mediaType = Helpers.probeContentType(content);
+		if (mediaType.equals("application/xml")) {
 			return new XMLValidator();
 		}
-		else if (Helpers.probeContentType(content).equals("application/json")) {
+		else if (mediaType.equals("application/json")) {
 			return new JSONValidator();
 		}
-		else if (Helpers.probeContentType(content).equals("text/plain")) {
+		else if (mediaType.equals("text/plain")) {
 			return new PlainTextValidator();
 		}
 		return null;
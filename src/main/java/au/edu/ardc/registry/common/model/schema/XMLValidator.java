@@ -4,35 +4,226 @@ import au.edu.ardc.registry.exception.XMLValidationException;
 import au.edu.ardc.registry.common.model.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.XMLFilterImpl;
 
 import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
+import javax.xml.validation.ValidatorHandler;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Validates XML content against the XSD of an {@link XMLSchema}. The XSD (and all of its
+ * includes) is compiled once per {@link XMLSchema} id and kept, the compiled
+ * {@link javax.xml.validation.Schema} being thread safe. {@link Validator} are not thread
+ * safe so they are pooled per {@link XMLSchema} id and reset before being returned to
+ * the pool. Large payloads can be validated as a stream with the errors collected per
+ * fragment, see {@link #validateFragments}
+ */
 public class XMLValidator implements SchemaValidator {
 
+	private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+	private static final Map<String, javax.xml.validation.Schema> compiledSchemas = new ConcurrentHashMap<>();
+
+	private static final Map<String, BlockingQueue<Validator>> validatorPools = new ConcurrentHashMap<>();
+
+	private static final SAXParserFactory saxParserFactory = createSAXParserFactory();
+
 	Logger logger = LoggerFactory.getLogger(XMLValidator.class);
 
 	public boolean validate(Schema schema, String xmlString) {
+		XMLSchema xmlSchema = (XMLSchema) schema;
+		logger.debug("Validating XML String with schema {} schemaLocation: {}", schema.getId(),
+				xmlSchema.getLocalSchemaLocation());
+		Validator validator = borrowValidator(xmlSchema);
 		try {
-			XMLSchema xmlSchema = (XMLSchema) schema;
-			String XSDPath = xmlSchema.getLocalSchemaLocation();
-			logger.debug("Validating XML String with schema {} schemaLocation: {}", schema.getId(), XSDPath);
-			SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-			javax.xml.validation.Schema validationSchema = factory
-					.newSchema(getClass().getClassLoader().getResource(XSDPath));
-			Validator validator = validationSchema.newValidator();
-			StringReader reader = new StringReader(xmlString);
-			validator.validate(new StreamSource(reader));
+			validator.validate(new StreamSource(new StringReader(xmlString)));
 			return true;
 		}
 		catch (IOException | SAXException e) {
 			throw new XMLValidationException(e.getMessage());
 		}
+		finally {
+			returnValidator(xmlSchema, validator);
+		}
+	}
+
+	/**
+	 * Validate a whole payload in a single streaming pass, collecting the errors per
+	 * fragment instead of failing on the first one. Only the first error of every
+	 * fragment is kept
+	 * @param schema the {@link XMLSchema} to validate against
+	 * @param content the {@link InputStream} of the payload
+	 * @param fragmentName the local name of the fragment elements found directly under
+	 * the root element, eg resource
+	 * @return the errors found in the payload in document order, empty if it's valid
+	 * @throws XMLValidationException when the payload is not well formed or can't be read
+	 */
+	public List<FragmentValidationError> validateFragments(XMLSchema schema, InputStream content,
+			String fragmentName) {
+		logger.debug("Validating XML stream with schema {} per {}", schema.getId(), fragmentName);
+		Map<Integer, FragmentValidationError> errors = new LinkedHashMap<>();
+		FragmentTracker tracker = new FragmentTracker(fragmentName);
+		ValidatorHandler validatorHandler = getCompiledSchema(schema).newValidatorHandler();
+		validatorHandler.setErrorHandler(new ErrorHandler() {
+			@Override
+			public void warning(SAXParseException e) {
+			}
+
+			@Override
+			public void error(SAXParseException e) {
+				int position = tracker.getPosition();
+				errors.putIfAbsent(position, new FragmentValidationError(position, e.getMessage()));
+			}
+
+			@Override
+			public void fatalError(SAXParseException e) throws SAXException {
+				throw e;
+			}
+		});
+		try {
+			tracker.setParent(saxParserFactory.newSAXParser().getXMLReader());
+			tracker.setContentHandler(validatorHandler);
+			tracker.parse(new InputSource(content));
+		}
+		catch (IOException | SAXException | ParserConfigurationException e) {
+			throw new XMLValidationException(e.getMessage());
+		}
+		return new ArrayList<>(errors.values());
+	}
+
+	/**
+	 * Compile the XSD of the given {@link XMLSchema} and prepare a {@link Validator} so
+	 * the first validation doesn't pay for the compilation
+	 * @param schema the {@link XMLSchema} to warm up
+	 */
+	public static void warmUp(XMLSchema schema) {
+		returnValidator(schema, borrowValidator(schema));
+	}
+
+	/**
+	 * Obtain the compiled {@link javax.xml.validation.Schema} of an {@link XMLSchema},
+	 * compiling it on first use
+	 * @param schema the {@link XMLSchema}
+	 * @return the compiled and thread safe {@link javax.xml.validation.Schema}
+	 * @throws XMLValidationException when the XSD can't be found or compiled
+	 */
+	public static javax.xml.validation.Schema getCompiledSchema(XMLSchema schema) {
+		javax.xml.validation.Schema compiled = compiledSchemas.get(schema.getId());
+		if (compiled != null) {
+			return compiled;
+		}
+		URL xsd = schema.getLocalSchemaLocation() != null
+				? XMLValidator.class.getClassLoader().getResource(schema.getLocalSchemaLocation()) : null;
+		if (xsd == null) {
+			throw new XMLValidationException(
+					String.format("Schema file %s is not found", schema.getLocalSchemaLocation()));
+		}
+		try {
+			SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+			compiled = factory.newSchema(xsd);
+		}
+		catch (SAXException e) {
+			throw new XMLValidationException(e.getMessage());
+		}
+		compiledSchemas.putIfAbsent(schema.getId(), compiled);
+		return compiledSchemas.get(schema.getId());
+	}
+
+	/**
+	 * @param schema the {@link XMLSchema}
+	 * @return true if the XSD of the {@link XMLSchema} is compiled and kept
+	 */
+	public static boolean isCompiled(XMLSchema schema) {
+		return compiledSchemas.containsKey(schema.getId());
+	}
+
+	private static Validator borrowValidator(XMLSchema schema) {
+		Validator validator = getPool(schema).poll();
+		return validator != null ? validator : getCompiledSchema(schema).newValidator();
+	}
+
+	private static void returnValidator(XMLSchema schema, Validator validator) {
+		validator.reset();
+		getPool(schema).offer(validator);
+	}
+
+	private static BlockingQueue<Validator> getPool(XMLSchema schema) {
+		return validatorPools.computeIfAbsent(schema.getId(), id -> new ArrayBlockingQueue<>(POOL_SIZE));
+	}
+
+	private static SAXParserFactory createSAXParserFactory() {
+		SAXParserFactory factory = SAXParserFactory.newInstance();
+		factory.setNamespaceAware(true);
+		try {
+			factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+			factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+		}
+		catch (ParserConfigurationException | SAXException e) {
+			throw new IllegalStateException(e);
+		}
+		return factory;
+	}
+
+	/**
+	 * Keeps track of the fragment the parser is in while passing every event through
+	 */
+	private static class FragmentTracker extends XMLFilterImpl {
+
+		private final String fragmentName;
+
+		private int depth = 0;
+
+		private int count = 0;
+
+		private int position = FragmentValidationError.DOCUMENT;
+
+		FragmentTracker(String fragmentName) {
+			this.fragmentName = fragmentName;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+			depth++;
+			if (depth == 2 && localName.equals(fragmentName)) {
+				position = count++;
+			}
+			super.startElement(uri, localName, qName, atts);
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) throws SAXException {
+			// errors for incomplete content are reported on the end element
+			super.endElement(uri, localName, qName);
+			if (depth == 2) {
+				position = FragmentValidationError.DOCUMENT;
+			}
+			depth--;
+		}
+
+		int getPosition() {
+			return position;
+		}
+
 	}
 
 }
@@ -6,4 +6,13 @@ public interface EmbargoEndProvider {
 
 	Date get(String content);
 
+	/**
+	 * Obtain the embargo end date of a {@link ParsedContent} without parsing its content again
+	 * @param content the {@link ParsedContent}
+	 * @return the embargo end date
+	 */
+	default Date get(ParsedContent content) {
+		return get(content.getContent());
+	}
+
 }
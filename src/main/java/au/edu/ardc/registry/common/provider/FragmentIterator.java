@@ -0,0 +1,20 @@
+package au.edu.ardc.registry.common.provider;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * A single pass {@link Iterator} over the fragments of a payload, as provided by
+ * {@link FragmentProvider#iterate(java.io.InputStream)}. Fragments are read as the
+ * iterator advances so the entire payload is never held in memory. Must be closed when
+ * no longer needed
+ */
+public interface FragmentIterator extends Iterator<String>, Closeable {
+
+	/**
+	 * Advance past the next fragment without building it
+	 * @return true if a fragment was skipped, false if there's no more fragment
+	 */
+	boolean skip();
+
+}
@@ -1,6 +1,6 @@
 package au.edu.ardc.registry.common.provider;
 
-import java.util.List;
+import java.io.InputStream;
 
 public interface FragmentProvider {
 
@@ -8,4 +8,18 @@ public interface FragmentProvider {
 
 	int getCount(String content);
 
+	/**
+	 * Stream every fragment of the content in a single pass. The caller is responsible
+	 * for closing both the returned {@link FragmentIterator} and the {@link InputStream}
+	 * @param content the {@link InputStream} of the entire payload
+	 * @return a {@link FragmentIterator} producing each fragment in document order
+	 */
+	FragmentIterator iterate(InputStream content);
+
+	/**
+	 * @param content the {@link InputStream} of the entire payload
+	 * @return the number of fragments in the payload, counted in a single pass
+	 */
+	int getCount(InputStream content);
+
 }
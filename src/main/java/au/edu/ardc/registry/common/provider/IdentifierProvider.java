@@ -1,17 +1,42 @@
 package au.edu.ardc.registry.common.provider;
 
 import au.edu.ardc.registry.common.model.Schema;
+import org.apache.commons.io.IOUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
 
 public interface IdentifierProvider {
 
 	String get(String content);
 
+	/**
+	 * Obtain the identifier of a {@link ParsedContent} without parsing its content again
+	 * @param content the {@link ParsedContent}
+	 * @return the identifier
+	 */
+	default String get(ParsedContent content) {
+		return get(content.getContent());
+	}
+
 	String get(String content, int position);
 
 	List<String> getAll(String content);
 
+	/**
+	 * Lazily iterate over all identifiers of the content. The default implementation
+	 * reads the entire content and delegates to {@link #getAll(String)}
+	 * @param content the {@link InputStream} of the content, closed by the caller
+	 * @return an {@link Iterator} of identifier values
+	 * @throws IOException when the content can't be read
+	 */
+	default Iterator<String> iterate(InputStream content) throws IOException {
+		return getAll(IOUtils.toString(content, StandardCharsets.UTF_8)).iterator();
+	}
+
 	void setPrefix(String prefix);
 
 }
@@ -6,4 +6,13 @@ public interface LandingPageProvider {
 
 	String get(String content);
 
+	/**
+	 * Obtain the landing page of a {@link ParsedContent} without parsing its content again
+	 * @param content the {@link ParsedContent}
+	 * @return the landing page
+	 */
+	default String get(ParsedContent content) {
+		return get(content.getContent());
+	}
+
 }
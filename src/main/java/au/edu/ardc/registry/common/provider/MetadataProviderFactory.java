@@ -5,12 +5,20 @@ import au.edu.ardc.registry.exception.ContentProviderNotFoundException;
 
 public class MetadataProviderFactory {
 
+	/**
+	 * Obtain the provider of a {@link Metadata} for a {@link Schema}, as resolved by the
+	 * {@link ProviderRegistry}
+	 * @param schema the {@link Schema} declaring the provider
+	 * @param metadata the {@link Metadata} to provide
+	 * @return the provider instance
+	 * @throws ContentProviderNotFoundException when the schema has no such provider
+	 */
 	public static Object create(Schema schema, Metadata metadata) throws ContentProviderNotFoundException {
 		try {
 			String fqdn = schema.getProviders().get(metadata);
-			return Class.forName(fqdn).newInstance();
+			return ProviderRegistry.get(fqdn);
 		}
-		catch (NullPointerException | InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+		catch (NullPointerException | ReflectiveOperationException e) {
 			throw new ContentProviderNotFoundException(schema, metadata);
 		}
 	}
@@ -0,0 +1,150 @@
+package au.edu.ardc.registry.common.provider;
+
+import au.edu.ardc.registry.common.model.Schema;
+import au.edu.ardc.registry.common.util.XMLUtil;
+import au.edu.ardc.registry.exception.ContentNotSupportedException;
+import au.edu.ardc.registry.exception.ContentProviderNotFoundException;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A single content (fragment) of a given {@link Schema} that is parsed at most once. Every
+ * metadata value is obtained through the {@link Schema} providers the first time it is
+ * requested and then kept, so extracting the identifier, visibility, landing page and
+ * embargo of the same content only parses it once. Not thread safe, meant to be used for
+ * the processing of a single record
+ */
+public class ParsedContent {
+
+	private final String content;
+
+	private final Schema schema;
+
+	private final String prefix;
+
+	private Document document;
+
+	private final Map<Metadata, Object> values = new EnumMap<>(Metadata.class);
+
+	/**
+	 * @param content the String content, usually a single fragment
+	 * @param schema the {@link Schema} of the content
+	 */
+	public ParsedContent(String content, Schema schema) {
+		this(content, schema, null);
+	}
+
+	/**
+	 * @param content the String content, usually a single fragment
+	 * @param schema the {@link Schema} of the content
+	 * @param prefix the prefix given to the {@link IdentifierProvider} if not null
+	 */
+	public ParsedContent(String content, Schema schema, String prefix) {
+		this.content = content;
+		this.schema = schema;
+		this.prefix = prefix;
+	}
+
+	public String getContent() {
+		return content;
+	}
+
+	public Schema getSchema() {
+		return schema;
+	}
+
+	/**
+	 * @return the parsed (non namespace aware) {@link Document}, parsed on first access
+	 * @throws ContentNotSupportedException when the content is not well formed XML
+	 */
+	public Document getDocument() throws ContentNotSupportedException {
+		if (document == null) {
+			try {
+				document = XMLUtil.parse(content);
+			}
+			catch (ParserConfigurationException | IOException | SAXException e) {
+				throw new ContentNotSupportedException(e.getMessage());
+			}
+		}
+		return document;
+	}
+
+	/**
+	 * @return the identifier value as provided by the {@link IdentifierProvider}
+	 * @throws ContentProviderNotFoundException when the schema has no identifier provider
+	 */
+	public String getIdentifier() throws ContentProviderNotFoundException {
+		return (String) resolve(Metadata.Identifier, () -> {
+			IdentifierProvider provider = (IdentifierProvider) MetadataProviderFactory.create(schema,
+					Metadata.Identifier);
+			if (prefix != null) {
+				provider.setPrefix(prefix);
+			}
+			return provider.get(this);
+		});
+	}
+
+	/**
+	 * @return the title as provided by the {@link TitleProvider}
+	 * @throws ContentProviderNotFoundException when the schema has no title provider
+	 */
+	public String getTitle() throws ContentProviderNotFoundException {
+		return (String) resolve(Metadata.Title,
+				() -> ((TitleProvider) MetadataProviderFactory.create(schema, Metadata.Title)).get(this));
+	}
+
+	/**
+	 * @return the landing page as provided by the {@link LandingPageProvider}
+	 * @throws ContentProviderNotFoundException when the schema has no landing page
+	 * provider
+	 */
+	public String getLandingPage() throws ContentProviderNotFoundException {
+		return (String) resolve(Metadata.LandingPage, () -> ((LandingPageProvider) MetadataProviderFactory
+				.create(schema, Metadata.LandingPage)).get(this));
+	}
+
+	/**
+	 * @return the visibility as provided by the {@link VisibilityProvider}
+	 * @throws ContentProviderNotFoundException when the schema has no visibility provider
+	 */
+	public boolean isVisible() throws ContentProviderNotFoundException {
+		return (boolean) resolve(Metadata.Visibility, () -> ((VisibilityProvider) MetadataProviderFactory
+				.create(schema, Metadata.Visibility)).get(this));
+	}
+
+	/**
+	 * @return the embargo end date as provided by the {@link EmbargoEndProvider}, null
+	 * if there's none
+	 * @throws ContentProviderNotFoundException when the schema has no embargo end
+	 * provider
+	 */
+	public Date getEmbargoEnd() throws ContentProviderNotFoundException {
+		return (Date) resolve(Metadata.EmbargoEnd, () -> ((EmbargoEndProvider) MetadataProviderFactory
+				.create(schema, Metadata.EmbargoEnd)).get(this));
+	}
+
+	/**
+	 * @return the status described by the content as provided by the
+	 * {@link StatusProvider}
+	 * @throws ContentProviderNotFoundException when the schema has no status provider
+	 */
+	public String getStatus() throws ContentProviderNotFoundException {
+		return (String) resolve(Metadata.Status,
+				() -> ((StatusProvider) MetadataProviderFactory.create(schema, Metadata.Status)).get(this));
+	}
+
+	private Object resolve(Metadata metadata, Supplier<Object> supplier) {
+		if (!values.containsKey(metadata)) {
+			values.put(metadata, supplier.get());
+		}
+		return values.get(metadata);
+	}
+
+}
@@ -0,0 +1,113 @@
+package au.edu.ardc.registry.common.provider;
+
+import au.edu.ardc.registry.common.model.Schema;
+import au.edu.ardc.registry.exception.ContentProviderNotFoundException;
+import au.edu.ardc.registry.exception.TransformerNotFoundException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Holds an instance {@link Supplier} for every provider and transformer class declared
+ * in the schemas configuration. Classes are resolved once, when the {@link Schema} are
+ * loaded, so {@link MetadataProviderFactory} and
+ * {@link au.edu.ardc.registry.common.transform.TransformerFactory} don't have to use
+ * reflection on every call.
+ *
+ * Classes without any instance field are stateless and a single instance is shared.
+ * Stateful classes (eg. an IdentifierProvider with a prefix or a Transformer with
+ * parameters) get a new instance for every call
+ */
+public class ProviderRegistry {
+
+	private static final Map<String, Supplier<Object>> suppliers = new ConcurrentHashMap<>();
+
+	/**
+	 * Resolve all the providers and transformers of a {@link Schema}
+	 * @param schema the {@link Schema} to register
+	 * @throws ContentProviderNotFoundException when a provider class can't be instantiated
+	 * @throws TransformerNotFoundException when a transformer class can't be instantiated
+	 */
+	public static void register(Schema schema) throws ContentProviderNotFoundException, TransformerNotFoundException {
+		if (schema.getProviders() != null) {
+			for (Map.Entry<Metadata, String> provider : schema.getProviders().entrySet()) {
+				try {
+					get(provider.getValue());
+				}
+				catch (ReflectiveOperationException e) {
+					throw new ContentProviderNotFoundException(schema, provider.getKey());
+				}
+			}
+		}
+		if (schema.getTransforms() != null) {
+			for (Map.Entry<String, String> transform : schema.getTransforms().entrySet()) {
+				try {
+					get(transform.getValue());
+				}
+				catch (ReflectiveOperationException e) {
+					throw new TransformerNotFoundException(schema.getId(), transform.getKey());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Obtain an instance of the given class, resolving it on first use if it wasn't
+	 * registered
+	 * @param fqdn the fully qualified class name
+	 * @return an instance of the class, shared if the class is stateless
+	 * @throws ReflectiveOperationException when the class can't be resolved or
+	 * instantiated
+	 */
+	public static Object get(String fqdn) throws ReflectiveOperationException {
+		Supplier<Object> supplier = suppliers.get(fqdn);
+		if (supplier == null) {
+			supplier = createSupplier(fqdn);
+			suppliers.put(fqdn, supplier);
+		}
+		return supplier.get();
+	}
+
+	private static Supplier<Object> createSupplier(String fqdn) throws ReflectiveOperationException {
+		Class<?> clazz = Class.forName(fqdn);
+		MethodHandle constructor = MethodHandles.publicLookup().findConstructor(clazz,
+				MethodType.methodType(void.class));
+
+		// instantiate once to fail early if the constructor throws
+		Object instance = newInstance(constructor);
+		if (isStateless(clazz)) {
+			return () -> instance;
+		}
+		return () -> newInstance(constructor);
+	}
+
+	private static Object newInstance(MethodHandle constructor) {
+		try {
+			return constructor.invoke();
+		}
+		catch (RuntimeException e) {
+			throw e;
+		}
+		catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static boolean isStateless(Class<?> clazz) {
+		for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (!Modifier.isStatic(field.getModifiers())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+}
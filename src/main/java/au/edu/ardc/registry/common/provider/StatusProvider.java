@@ -4,4 +4,14 @@ import au.edu.ardc.registry.common.entity.Record;
 
 public interface StatusProvider {
     String get(Record record);
+
+    /**
+     * Obtain the status as described by a single content, regardless of the state of the
+     * record it belongs to
+     * @param content the {@link ParsedContent}
+     * @return the status, null if the content doesn't describe one
+     */
+    default String get(ParsedContent content) {
+        return null;
+    }
 }
@@ -4,4 +4,13 @@ public interface TitleProvider {
 
 	String get(String content);
 
+	/**
+	 * Obtain the title of a {@link ParsedContent} without parsing its content again
+	 * @param content the {@link ParsedContent}
+	 * @return the title
+	 */
+	default String get(ParsedContent content) {
+		return get(content.getContent());
+	}
+
 }
@@ -4,4 +4,13 @@ public interface VisibilityProvider {
 
 	boolean get(String content);
 
+	/**
+	 * Obtain the visibility of a {@link ParsedContent} without parsing its content again
+	 * @param content the {@link ParsedContent}
+	 * @return the visibility
+	 */
+	default boolean get(ParsedContent content) {
+		return get(content.getContent());
+	}
+
 }
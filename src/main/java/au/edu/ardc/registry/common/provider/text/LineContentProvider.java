@@ -1,5 +1,10 @@
 package au.edu.ardc.registry.common.provider.text;
 import au.edu.ardc.registry.common.provider.IdentifierProvider;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 public class LineContentProvider implements IdentifierProvider {
@@ -7,41 +12,53 @@ public class LineContentProvider implements IdentifierProvider {
     /**
      * Finds the resourceIdentifier of an IGSN record with ARDC v1 schema
      * @param content a list of identifiers from a text file
-     * @return The resourceIdentifier as String
+     * @return The resourceIdentifier as String, the first line that isn't blank
      */
     @Override
     public String get(String content) {
-        String[] lines = content.split("\\r?\\n");
-        return lines[0].toUpperCase();
+        return get(content, 0);
     }
 
     /**
      * Finds the resourceIdentifier of an IGSN record with ARDC v1 schema
      * @param content a list of identifiers from a text file
-     * @param position int the position of the identifier to retrieve
+     * @param position int the position of the identifier to retrieve, blank lines are not counted
      * @return The Upper cased resourceIdentifier as String
      */
     @Override
     public String get(String content, int position) {
-        String[] lines = content.split("\\r?\\n");
-        if(position < 0 || lines.length <= position) return null;
-        return lines[position].toUpperCase();
+        List<String> identifiers = getAll(content);
+        if(position < 0 || identifiers.size() <= position) return null;
+        return identifiers.get(position);
     }
 
     /**
      * @param content a list of identifiers from a text file
-     * @return a List is identifier values (Upper cased) from the given document
+     * @return a List is identifier values (Upper cased) from the given document, blank lines are skipped
      */
     @Override
     public List<String> getAll(String content) {
         List<String> identifiers = new ArrayList<>();
         String[] lines = content.split("\\r?\\n");
         for (String line : lines) {
-            identifiers.add(line.toUpperCase());
+            if (!line.trim().isEmpty()) {
+                identifiers.add(line.toUpperCase());
+            }
         }
         return identifiers;
     }
 
+    /**
+     * Reads the identifiers line by line as the iterator advances, blank lines are skipped
+     * @param content the {@link InputStream} of a text file with an identifier per line
+     * @return an {@link Iterator} of identifier values (Upper cased)
+     */
+    @Override
+    public Iterator<String> iterate(InputStream content) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+        return reader.lines().filter(line -> !line.trim().isEmpty()).map(String::toUpperCase).iterator();
+    }
+
     @Override
     public void setPrefix(String prefix) {
         // prefix is provided in the content
@@ -0,0 +1,289 @@
+package au.edu.ardc.registry.common.provider.xml;
+
+import au.edu.ardc.registry.common.provider.FragmentIterator;
+import au.edu.ardc.registry.common.util.XMLUtil;
+import au.edu.ardc.registry.exception.ContentNotSupportedException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.NoSuchElementException;
+
+/**
+ * A StAX backed {@link FragmentIterator} that emits every fragment element found directly
+ * under the root element of an XML document, in a single pass. Each fragment is wrapped
+ * in the provided container document, only the fragment being emitted is ever built in
+ * memory.
+ *
+ * Elements are matched by their local name, and fragments are serialized the same way a
+ * non namespace aware DOM import would, so the output of this iterator is identical to
+ * the previous XPath based implementation and the hash of stored versions stays stable
+ */
+public class XMLFragmentIterator implements FragmentIterator {
+
+	private static final XMLInputFactory inputFactory = createInputFactory();
+
+	private final XMLStreamReader reader;
+
+	private final String rootName;
+
+	private final String fragmentName;
+
+	private final Document container;
+
+	private final Node containerRoot;
+
+	private final Transformer transformer;
+
+	private int depth = 0;
+
+	private boolean pending = false;
+
+	private boolean finished = false;
+
+	/**
+	 * @param content the {@link InputStream} of the XML document, encoding is detected
+	 * from the XML declaration
+	 * @param container the XML String of the container document each fragment is wrapped
+	 * into
+	 * @param rootName the local name of the root element, eg resources
+	 * @param fragmentName the local name of the fragment elements, eg resource
+	 */
+	public XMLFragmentIterator(InputStream content, String container, String rootName, String fragmentName) {
+		this(createReader(content), container, rootName, fragmentName);
+	}
+
+	/**
+	 * @param content the {@link Reader} of the XML document
+	 * @param container the XML String of the container document each fragment is wrapped
+	 * into
+	 * @param rootName the local name of the root element, eg resources
+	 * @param fragmentName the local name of the fragment elements, eg resource
+	 */
+	public XMLFragmentIterator(Reader content, String container, String rootName, String fragmentName) {
+		this(createReader(content), container, rootName, fragmentName);
+	}
+
+	private XMLFragmentIterator(XMLStreamReader reader, String container, String rootName, String fragmentName) {
+		this.reader = reader;
+		this.rootName = rootName;
+		this.fragmentName = fragmentName;
+		try {
+			this.container = XMLUtil.parse(container);
+			this.containerRoot = this.container.getDocumentElement();
+			this.transformer = TransformerFactory.newInstance().newTransformer();
+		}
+		catch (ParserConfigurationException | SAXException | IOException | TransformerException e) {
+			throw new ContentNotSupportedException(e.getMessage());
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (pending) {
+			return true;
+		}
+		if (finished) {
+			return false;
+		}
+		try {
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					depth++;
+					if (depth == 1 && !reader.getLocalName().equals(rootName)) {
+						break;
+					}
+					if (depth == 2 && reader.getLocalName().equals(fragmentName)) {
+						pending = true;
+						return true;
+					}
+				}
+				else if (event == XMLStreamConstants.END_ELEMENT) {
+					depth--;
+				}
+			}
+		}
+		catch (XMLStreamException e) {
+			throw new ContentNotSupportedException(e.getMessage());
+		}
+		finished = true;
+		return false;
+	}
+
+	@Override
+	public String next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		pending = false;
+		try {
+			Element fragment = readElement();
+			containerRoot.appendChild(fragment);
+			StringWriter buffer = new StringWriter();
+			transformer.transform(new DOMSource(container), new StreamResult(buffer));
+			containerRoot.removeChild(fragment);
+			return buffer.toString();
+		}
+		catch (XMLStreamException | TransformerException e) {
+			throw new ContentNotSupportedException(e.getMessage());
+		}
+	}
+
+	@Override
+	public boolean skip() {
+		if (!hasNext()) {
+			return false;
+		}
+		pending = false;
+		try {
+			int fragmentDepth = depth;
+			while (depth >= fragmentDepth) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					depth++;
+				}
+				else if (event == XMLStreamConstants.END_ELEMENT) {
+					depth--;
+				}
+			}
+		}
+		catch (XMLStreamException e) {
+			throw new ContentNotSupportedException(e.getMessage());
+		}
+		return true;
+	}
+
+	/**
+	 * Skip through the remaining of the document
+	 * @return the number of remaining fragments
+	 */
+	public int count() {
+		int count = 0;
+		while (skip()) {
+			count++;
+		}
+		return count;
+	}
+
+	@Override
+	public void close() {
+		try {
+			reader.close();
+		}
+		catch (XMLStreamException e) {
+			throw new ContentNotSupportedException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Build the fragment element the reader is currently positioned at as a node of the
+	 * container document, consuming the reader up to the matching end element
+	 * @return the fragment {@link Element}
+	 * @throws XMLStreamException when the document is malformed
+	 */
+	private Element readElement() throws XMLStreamException {
+		Element fragment = createElement();
+		Node current = fragment;
+		int fragmentDepth = depth;
+		while (depth >= fragmentDepth) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				Element child = createElement();
+				current.appendChild(child);
+				current = child;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				depth--;
+				current = current.getParentNode();
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.SPACE:
+			case XMLStreamConstants.ENTITY_REFERENCE:
+				current.appendChild(container.createTextNode(reader.getText()));
+				break;
+			case XMLStreamConstants.CDATA:
+				current.appendChild(container.createCDATASection(reader.getText()));
+				break;
+			case XMLStreamConstants.COMMENT:
+				current.appendChild(container.createComment(reader.getText()));
+				break;
+			case XMLStreamConstants.PROCESSING_INSTRUCTION:
+				current.appendChild(container.createProcessingInstruction(reader.getPITarget(), reader.getPIData()));
+				break;
+			default:
+				break;
+			}
+		}
+		return fragment;
+	}
+
+	/**
+	 * Create a non namespace aware {@link Element} off the current start element,
+	 * namespace declarations are kept as plain attributes
+	 * @return the {@link Element} with all of its attributes
+	 */
+	private Element createElement() {
+		Element element = container.createElement(qualifiedName(reader.getPrefix(), reader.getLocalName()));
+		for (int i = 0; i < reader.getNamespaceCount(); i++) {
+			String prefix = reader.getNamespacePrefix(i);
+			String name = (prefix == null || prefix.isEmpty()) ? "xmlns" : "xmlns:" + prefix;
+			element.setAttribute(name, reader.getNamespaceURI(i));
+		}
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			element.setAttribute(qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+					reader.getAttributeValue(i));
+		}
+		return element;
+	}
+
+	private static String qualifiedName(String prefix, String localName) {
+		if (prefix == null || prefix.isEmpty()) {
+			return localName;
+		}
+		return prefix + ":" + localName;
+	}
+
+	private static XMLInputFactory createInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		return factory;
+	}
+
+	private static XMLStreamReader createReader(InputStream content) {
+		try {
+			return inputFactory.createXMLStreamReader(content);
+		}
+		catch (XMLStreamException e) {
+			throw new ContentNotSupportedException(e.getMessage());
+		}
+	}
+
+	private static XMLStreamReader createReader(Reader content) {
+		try {
+			return inputFactory.createXMLStreamReader(content);
+		}
+		catch (XMLStreamException e) {
+			throw new ContentNotSupportedException(e.getMessage());
+		}
+	}
+
+}
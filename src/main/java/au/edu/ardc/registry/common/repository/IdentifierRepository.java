@@ -4,8 +4,11 @@ import au.edu.ardc.registry.common.entity.Identifier;
 import au.edu.ardc.registry.common.entity.Record;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -22,4 +25,14 @@ public interface IdentifierRepository extends JpaRepository<Identifier, String>,
 
 	boolean existsByTypeAndValue(Identifier.Type type, String value);
 
+	/**
+	 * Find the Identifiers of a type by their upper cased value, along with their Record.
+	 * Identifiers without a Record are still found so that they aren't mistaken for new
+	 * @param type the {@link Identifier.Type}
+	 * @param values the upper cased values
+	 * @return the Identifiers found
+	 */
+	@Query("SELECT i FROM Identifier i LEFT JOIN FETCH i.record WHERE i.type = ?1 AND UPPER(i.value) IN ?2")
+	List<Identifier> findAllByTypeAndUpperValueIn(Identifier.Type type, Collection<String> values);
+
 }
@@ -14,11 +14,9 @@ import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Stream;
 
 import static org.hibernate.annotations.QueryHints.READ_ONLY;
 import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
-import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface RecordRepository extends JpaRepository<Record, String>, JpaSpecificationExecutor<Record> {
@@ -44,9 +42,27 @@ public interface RecordRepository extends JpaRepository<Record, String>, JpaSpec
 	@Query(value = "SELECT MIN(modifiedAt) FROM Record")
 	Date findEarliest();
 
-	@QueryHints(value = { @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
-			@QueryHint(name = HINT_CACHEABLE, value = "false"), @QueryHint(name = READ_ONLY, value = "true") })
-	@Query("select record from Record record")
-	Stream<Record> getAll();
+	/**
+	 * The first records ordered by id, use {@link #findAllAfter(UUID, Pageable)} for the
+	 * following ones
+	 * @param pageable the size of the page, its offset is ignored
+	 * @return the first records
+	 */
+	@QueryHints(value = { @QueryHint(name = HINT_CACHEABLE, value = "false"),
+			@QueryHint(name = READ_ONLY, value = "true") })
+	@Query("SELECT r FROM Record r ORDER BY r.id")
+	List<Record> findAllOrderById(Pageable pageable);
+
+	/**
+	 * Keyset pagination over every record, a page costs the same wherever it is unlike
+	 * an offset
+	 * @param id the id of the last record of the previous page
+	 * @param pageable the size of the page, its offset is ignored
+	 * @return the records following the given id, ordered by id
+	 */
+	@QueryHints(value = { @QueryHint(name = HINT_CACHEABLE, value = "false"),
+			@QueryHint(name = READ_ONLY, value = "true") })
+	@Query("SELECT r FROM Record r WHERE r.id > ?1 ORDER BY r.id")
+	List<Record> findAllAfter(UUID id, Pageable pageable);
 
 }
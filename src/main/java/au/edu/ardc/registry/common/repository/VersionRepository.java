@@ -29,4 +29,6 @@ public interface VersionRepository extends JpaRepository<Version, String>, JpaSp
 
 	List<Version> findAllByRecordAndSchemaAndCurrentIsTrue(Record record, String schema);
 
+	List<Version> findAllByRecordAndCurrentIsTrue(Record record);
+
 }
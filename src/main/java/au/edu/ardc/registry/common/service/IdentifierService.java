@@ -5,6 +5,7 @@ import au.edu.ardc.registry.common.dto.mapper.IdentifierMapper;
 import au.edu.ardc.registry.common.entity.Identifier;
 import au.edu.ardc.registry.common.entity.Record;
 import au.edu.ardc.registry.common.model.Allocation;
+import au.edu.ardc.registry.common.model.IdentifierClassification;
 import au.edu.ardc.registry.common.model.Scope;
 import au.edu.ardc.registry.common.model.User;
 import au.edu.ardc.registry.common.repository.IdentifierRepository;
@@ -18,14 +19,28 @@ import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Service;
 
 import javax.persistence.LockModeType;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class IdentifierService {
 
+	/**
+	 * The number of values looked up in a single IN query, below the bind parameter limits
+	 * of the supported databases
+	 */
+	static final int LOOKUP_CHUNK_SIZE = 500;
+
 	private final IdentifierRepository repository;
 
 	private final IdentifierMapper mapper;
@@ -67,6 +82,63 @@ public class IdentifierService {
 		return repository.findFirstByValueIgnoreCaseAndType(value, type);
 	}
 
+	/**
+	 * Find the Identifiers with any of the values, in IN queries of
+	 * {@link #LOOKUP_CHUNK_SIZE} values instead of a query per value. Values are compared
+	 * ignoring case like {@link #findByValueAndType(String, Identifier.Type)}
+	 * @param values the Identifier values
+	 * @param type the {@link Identifier.Type}
+	 * @return the existing Identifiers by the value they were looked up with
+	 */
+	public Map<String, Identifier> findAllByValueAndType(Collection<String> values, Identifier.Type type) {
+		Set<String> upperValues = new LinkedHashSet<>();
+		for (String value : values) {
+			upperValues.add(value.toUpperCase(Locale.ROOT));
+		}
+
+		Map<String, Identifier> found = new HashMap<>();
+		List<String> chunk = new ArrayList<>(LOOKUP_CHUNK_SIZE);
+		for (String upperValue : upperValues) {
+			chunk.add(upperValue);
+			if (chunk.size() == LOOKUP_CHUNK_SIZE) {
+				findAllByUpperValue(chunk, type, found);
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			findAllByUpperValue(chunk, type, found);
+		}
+
+		Map<String, Identifier> identifiers = new LinkedHashMap<>();
+		for (String value : values) {
+			Identifier identifier = found.get(value.toUpperCase(Locale.ROOT));
+			if (identifier != null) {
+				identifiers.put(value, identifier);
+			}
+		}
+		return identifiers;
+	}
+
+	private void findAllByUpperValue(List<String> upperValues, Identifier.Type type, Map<String, Identifier> found) {
+		for (Identifier identifier : repository.findAllByTypeAndUpperValueIn(type, upperValues)) {
+			found.putIfAbsent(identifier.getValue().toUpperCase(Locale.ROOT), identifier);
+		}
+	}
+
+	/**
+	 * Classify all the Identifier values of a payload with
+	 * {@link #findAllByValueAndType(Collection, Identifier.Type)}
+	 * @param values the Identifier values
+	 * @param type the {@link Identifier.Type}
+	 * @param user the {@link User} the ownership of existing Records is validated for,
+	 * null to not classify any as owned
+	 * @return the {@link IdentifierClassification}
+	 */
+	public IdentifierClassification classify(Collection<String> values, Identifier.Type type, User user) {
+		return new IdentifierClassification(values, findAllByValueAndType(values, type),
+				record -> user != null && validationService.validateRecordOwnership(record, user));
+	}
+
 	/**
 	 * Tell if an identifier exists by id
 	 * @param id the uuid of the Identifier
@@ -1,29 +1,58 @@
 package au.edu.ardc.registry.common.service;
 
 import au.edu.ardc.registry.common.entity.Record;
+import au.edu.ardc.registry.common.entity.Request;
+import au.edu.ardc.registry.common.model.Attribute;
+import au.edu.ardc.registry.common.model.JobProgress;
 import au.edu.ardc.registry.common.repository.RecordRepository;
-import au.edu.ardc.registry.common.task.ProcessTitleTask;
-import au.edu.ardc.registry.common.task.TransformJSONLDTask;
-import au.edu.ardc.registry.common.task.TransformOAIDCTask;
+import au.edu.ardc.registry.common.repository.RequestRepository;
+import au.edu.ardc.registry.common.task.DerivationScheduler;
+import au.edu.ardc.registry.common.task.ProcessRecordTask;
+import au.edu.ardc.registry.common.task.ProcessRecordsJob;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.PostConstruct;
-import javax.persistence.EntityManager;
+import javax.annotation.PreDestroy;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
-import java.util.stream.Stream;
-
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Derives the records. The derivation tasks run on a {@link DerivationScheduler} with as
+ * many workers as there are processors, capped by app.derivation.max-parallelism, the
+ * tasks of a record run in order. The scheduler is monitored with the derivation.*
+ * metrics. On shut down the running job is interrupted, it can be resumed from its last
+ * checkpoint, and the scheduled derivation tasks are given
+ * app.derivation.shutdown-timeout seconds to finish
+ */
 @Service
 public class RecordProcessingService {
 
+	public static final String JOB_PROCESS_RECORDS = "records.process";
+
 	private static final Logger logger = LoggerFactory.getLogger(RecordProcessingService.class);
 
-	private ThreadPoolExecutor processQueue;
+	private DerivationScheduler scheduler;
+
+	private ThreadPoolExecutor jobQueue;
+
+	private final Map<UUID, ProcessRecordsJob> activeJobs = new ConcurrentHashMap<>();
 
 	@Autowired
 	private VersionService versionService;
@@ -38,33 +67,166 @@ public class RecordProcessingService {
 	private RecordRepository recordRepository;
 
 	@Autowired
-	private EntityManager entityManager;
+	private RequestRepository requestRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ObjectProvider<MeterRegistry> meterRegistry;
+
+	private TransactionTemplate transactionTemplate;
+
+	@Value("${app.derivation.max-parallelism:0}")
+	private int maxParallelism = 0;
+
+	@Value("${app.process-records.page-size:100}")
+	private int pageSize = 100;
+
+	@Value("${app.process-records.max-in-flight:0}")
+	private int maxInFlight = 0;
+
+	@Value("${app.derivation.shutdown-timeout:30}")
+	private long shutdownTimeout = 30;
 
 	@PostConstruct
 	public void init() {
-		processQueue = (ThreadPoolExecutor) Executors.newFixedThreadPool(4);
+		scheduler = new DerivationScheduler(DerivationScheduler.getParallelism(maxParallelism));
+		jobQueue = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		logger.info("Deriving records with {} workers", scheduler.getParallelism());
+
+		MeterRegistry registry = meterRegistry.getIfAvailable();
+		if (registry == null) {
+			return;
+		}
+		Gauge.builder("derivation.queue.depth", scheduler, DerivationScheduler::getQueueDepth).register(registry);
+		Gauge.builder("derivation.active", scheduler, DerivationScheduler::getActive).register(registry);
+		Gauge.builder("derivation.records.pending", scheduler, DerivationScheduler::getPendingRecords)
+				.register(registry);
+		Gauge.builder("derivation.parallelism", scheduler, DerivationScheduler::getParallelism).register(registry);
+		FunctionCounter.builder("derivation.steals", scheduler, DerivationScheduler::getStealCount)
+				.register(registry);
+	}
+
+	/**
+	 * Interrupt the running job and give the scheduled derivation tasks
+	 * app.derivation.shutdown-timeout seconds to finish before the threads are let go
+	 * @throws InterruptedException when interrupted while waiting
+	 */
+	@PreDestroy
+	public void destroy() throws InterruptedException {
+		// a job goes through every record, it is resumed from its checkpoint instead
+		List<Runnable> queuedJobs = jobQueue.shutdownNow();
+		if (!queuedJobs.isEmpty()) {
+			logger.warn("{} jobs were not started before shut down", queuedJobs.size());
+		}
+		scheduler.shutdown(shutdownTimeout, TimeUnit.SECONDS);
+		jobQueue.awaitTermination(shutdownTimeout, TimeUnit.SECONDS);
 	}
 
 	public void queueRecord(@NotNull Record record) {
 		logger.info("Queueing record: {}", record.getId());
 
-		processQueue.execute(new ProcessTitleTask(record, versionService, recordService, schemaService));
-		processQueue.execute(new TransformJSONLDTask(record, versionService, schemaService));
-		processQueue.execute(new TransformOAIDCTask(record, versionService, schemaService));
+		scheduler.execute(record.getId(), createTask(record));
+	}
+
+	/**
+	 * Start a job processing every record, jobs run one at a time
+	 * @return the {@link Request} keeping track of the job
+	 */
+	public Request queueAllRecords() {
+		Request job = new Request();
+		job.setType(JOB_PROCESS_RECORDS);
+		job.setStatus(Request.Status.QUEUED);
+		job.setCreatedAt(new Date());
+		job.setUpdatedAt(new Date());
+		job = requestRepository.saveAndFlush(job);
+		logger.info("Queueing All Records with job {}", job.getId());
+		queueJob(job);
+		return job;
+	}
+
+	/**
+	 * Resume a job from its last checkpoint, eg after a restart. A job that is completed
+	 * or already running is left alone
+	 * @param id the id of the job {@link Request}
+	 * @return the job {@link Request}, null if there's no such job
+	 */
+	public Request resume(String id) {
+		Request job = findJob(id);
+		if (job == null || job.getStatus() == Request.Status.COMPLETED || activeJobs.containsKey(job.getId())) {
+			return job;
+		}
+		logger.info("Resuming job {} from checkpoint {}", job.getId(), job.getAttribute(Attribute.CHECKPOINT));
+		job.setStatus(Request.Status.RESTARTED);
+		job = requestRepository.saveAndFlush(job);
+		queueJob(job);
+		return job;
+	}
+
+	/**
+	 * @param id the id of the job {@link Request}
+	 * @return the {@link JobProgress} of the job, live if it runs in this instance, as of
+	 * its last checkpoint otherwise. null if there's no such job
+	 */
+	public JobProgress getProgress(String id) {
+		Request job = findJob(id);
+		if (job == null) {
+			return null;
+		}
+		JobProgress progress = new JobProgress();
+		progress.setId(job.getId().toString());
+		progress.setStatus(job.getStatus() != null ? job.getStatus().toString() : null);
+		progress.setTotal(getCount(job, Attribute.NUM_OF_RECORDS_TOTAL));
+		progress.setProcessed(getCount(job, Attribute.NUM_OF_RECORDS_PROCESSED));
+		progress.setErrors(getCount(job, Attribute.NUM_OF_ERROR));
+		progress.setCheckpoint(job.getAttribute(Attribute.CHECKPOINT));
+		progress.setCreatedAt(job.getCreatedAt());
+		progress.setUpdatedAt(job.getUpdatedAt());
+
+		ProcessRecordsJob activeJob = activeJobs.get(job.getId());
+		if (activeJob != null) {
+			progress.setActive(true);
+			progress.setProcessed(activeJob.getProcessed());
+			progress.setErrors(activeJob.getErrors());
+			progress.setInFlight(activeJob.getInFlight());
+		}
+		return progress;
 	}
 
-	@Transactional(readOnly = true)
-	public void queueAllRecords() {
-		logger.info("Queueing All Records");
-		Stream<Record> bookStream = recordRepository.getAll();
-
-		bookStream.forEach(record -> {
-			logger.info("Queueing record: {}", record.getId());
-			processQueue.execute(new ProcessTitleTask(record, versionService, recordService, schemaService));
-			processQueue.execute(new TransformJSONLDTask(record, versionService, schemaService));
-			processQueue.execute(new TransformOAIDCTask(record, versionService, schemaService));
-			entityManager.detach(record);
+	private void queueJob(Request job) {
+		int limit = maxInFlight > 0 ? maxInFlight : scheduler.getParallelism() * 2;
+		ProcessRecordsJob processRecordsJob = new ProcessRecordsJob(job, recordRepository, requestRepository,
+				scheduler, this::createTask, pageSize, limit);
+		activeJobs.put(job.getId(), processRecordsJob);
+		jobQueue.execute(() -> {
+			try {
+				processRecordsJob.run();
+			}
+			finally {
+				activeJobs.remove(job.getId());
+			}
 		});
 	}
 
-}
\ No newline at end of file
+	private Request findJob(String id) {
+		try {
+			return requestRepository.findById(UUID.fromString(id)).filter(
+					request -> JOB_PROCESS_RECORDS.equals(request.getType())).orElse(null);
+		}
+		catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static int getCount(Request job, Attribute attribute) {
+		String value = job.getAttribute(attribute);
+		return value != null ? Integer.parseInt(value) : 0;
+	}
+
+	private ProcessRecordTask createTask(Record record) {
+		return new ProcessRecordTask(record, versionService, recordService, schemaService, transactionTemplate);
+	}
+
+}
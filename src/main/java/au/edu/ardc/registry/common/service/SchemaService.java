@@ -1,6 +1,8 @@
 package au.edu.ardc.registry.common.service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.*;
 
 import javax.annotation.PostConstruct;
@@ -11,16 +13,21 @@ import au.edu.ardc.registry.exception.JSONValidationException;
 import au.edu.ardc.registry.exception.XMLValidationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import au.edu.ardc.registry.common.model.ContentInfo;
 import au.edu.ardc.registry.common.model.Schema;
+import au.edu.ardc.registry.common.provider.ProviderRegistry;
+import au.edu.ardc.registry.common.transform.DerivationGraph;
+import au.edu.ardc.registry.common.util.ContentSniffer;
 import au.edu.ardc.registry.common.util.Helpers;
 
-import au.edu.ardc.registry.common.util.XMLUtil;
-
 /**
  * A Service that deals with supported Schema. Upon
  */
@@ -52,10 +59,17 @@ public class SchemaService {
 
 	private List<Schema> schemas;
 
+	private DerivationGraph derivationGraph;
+
+	@Value("${app.schema.warm-up:true}")
+	private boolean warmUpEnabled = true;
+
 	/**
 	 * Loads all schemas into locally accessible schema Go through the
-	 * schemaConfigLocation file and loads map all available schema
-	 * @throws Exception read file exception
+	 * schemaConfigLocation file and loads map all available schema. Every provider and
+	 * transformer class is resolved in the {@link ProviderRegistry} so a misconfigured
+	 * class fails at startup
+	 * @throws Exception read file exception or unresolvable provider and transformer
 	 */
 	public void loadSchemas() throws Exception {
 		logger.debug("Loading schema configuration from {}", schemaConfigLocation);
@@ -63,6 +77,9 @@ public class SchemaService {
 		logger.debug("Loaded schema configuration, data length: {}", data.length());
 		ObjectMapper mapper = new ObjectMapper();
 		List<Schema> schemas = Arrays.asList(mapper.readValue(data, Schema[].class));
+		for (Schema schema : schemas) {
+			ProviderRegistry.register(schema);
+		}
 		logger.debug("Found & registered {} schemas", schemas.size());
 		this.setSchemas(schemas);
 	}
@@ -72,6 +89,31 @@ public class SchemaService {
 		loadSchemas();
 	}
 
+	/**
+	 * Compile every supported XSD once the application is started so the first request
+	 * after a deploy doesn't pay for the compilation. Can be turned off with
+	 * app.schema.warm-up=false
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		if (!warmUpEnabled) {
+			return;
+		}
+		long start = System.currentTimeMillis();
+		for (Schema schema : getSchemas()) {
+			if (!(schema instanceof XMLSchema) || ((XMLSchema) schema).getLocalSchemaLocation() == null) {
+				continue;
+			}
+			try {
+				XMLValidator.warmUp((XMLSchema) schema);
+			}
+			catch (XMLValidationException e) {
+				logger.warn("Failed to compile schema {}: {}", schema.getId(), e.getMessage());
+			}
+		}
+		logger.info("Compiled XML schemas in {}ms", System.currentTimeMillis() - start);
+	}
+
 	/**
 	 * Get a Schema by ID
 	 * @param schemaID the ID of the supported Schema
@@ -131,6 +173,14 @@ public class SchemaService {
 	 */
 	public void setSchemas(List<Schema> schemas) {
 		this.schemas = schemas;
+		this.derivationGraph = new DerivationGraph(schemas);
+	}
+
+	/**
+	 * @return the {@link DerivationGraph} of the current schemas
+	 */
+	public DerivationGraph getDerivationGraph() {
+		return derivationGraph;
 	}
 
 	/**
@@ -168,8 +218,7 @@ public class SchemaService {
 		try {
 			SchemaValidator validator = SchemaValidatorFactory.getValidator(payload);
 			if (validator != null && validator.getClass().equals(XMLValidator.class)) {
-				String nameSpace = XMLUtil.getNamespaceURI(payload);
-				XMLSchema schema = this.getXMLSchemaByNameSpace(nameSpace);
+				XMLSchema schema = this.getXMLSchemaByNameSpace(getRootNamespace(ContentSniffer.sniff(payload)));
 				return validator.validate(schema, payload);
 			}
 			else if (validator != null && validator.getClass().equals(PlainTextValidator.class)) {
@@ -190,35 +239,59 @@ public class SchemaService {
 
 	/**
 	 * Get the Schema the given payload content is defined by gets the schema with the
-	 * targetNamespace of document's namespaceURI
+	 * targetNamespace of document's root element. Only the beginning of the payload is
+	 * looked at, see {@link ContentSniffer}
 	 * @param payload the content either XML or JSON String
 	 * @return Schema or null if schema not found or supported
 	 * @throws ContentNotSupportedException validation exception
 	 */
 	public Schema getSchemaForContent(String payload) throws ContentNotSupportedException {
+		return getSchemaFor(ContentSniffer.sniff(payload));
+	}
 
-		try {
-			SchemaValidator validator = SchemaValidatorFactory.getValidator(payload);
-			if (validator.getClass().equals(XMLValidator.class)) {
-				String nameSpace = XMLUtil.getNamespaceURI(payload);
-				return this.getXMLSchemaByNameSpace(nameSpace);
-			}
-			else if (validator.getClass().equals(PlainTextValidator.class)) {
-				String nameSpace = XMLUtil.getNamespaceURI(payload);
-				return this.getSchemaByID(SchemaService.IGSNList);
-			}
-			else if (validator.getClass().equals(JSONValidator.class)) {
-				throw new ContentNotSupportedException("JSON content import is not yet supported");
-				// return null;
-			}
-		}
-		catch (IOException e) {
-			throw new ContentNotSupportedException("Unable to determine the validator for content");
+	/**
+	 * Get the Schema of a payload stored on disk, only the beginning of the file is read
+	 * @param payload the {@link Path} to the payload file
+	 * @return Schema or null if schema not found or supported
+	 * @throws ContentNotSupportedException when the content is not supported
+	 * @throws IOException when the file can't be read
+	 */
+	public Schema getSchemaForContent(Path payload) throws ContentNotSupportedException, IOException {
+		return getSchemaFor(ContentSniffer.sniff(payload));
+	}
+
+	/**
+	 * Validate an XML payload as a stream, collecting the errors of every fragment
+	 * @param schema the {@link XMLSchema} to validate against
+	 * @param payload the {@link InputStream} of the payload
+	 * @param fragmentName the local name of the fragment elements, eg resource
+	 * @return the errors found per fragment, empty if the payload is valid
+	 * @throws XMLValidationException when the payload is not well formed
+	 */
+	public List<FragmentValidationError> validateFragments(XMLSchema schema, InputStream payload,
+			String fragmentName) throws XMLValidationException {
+		return new XMLValidator().validateFragments(schema, payload, fragmentName);
+	}
+
+	private Schema getSchemaFor(ContentInfo info) throws ContentNotSupportedException {
+		switch (info.getMediaType()) {
+		case "application/xml":
+			return this.getXMLSchemaByNameSpace(getRootNamespace(info));
+		case "text/plain":
+			throw new ContentNotSupportedException("Schema of plain text content can't be detected");
+		case "application/json":
+			throw new ContentNotSupportedException("JSON content import is not yet supported");
+		default:
+			return null;
 		}
-		catch (Exception e) {
-			throw new ContentNotSupportedException(e.getMessage());
+	}
+
+	private String getRootNamespace(ContentInfo info) throws ContentNotSupportedException {
+		String nameSpace = info.getNamespace();
+		if (nameSpace == null) {
+			throw new ContentNotSupportedException("Namespace unavailable");
 		}
-		return null;
+		return nameSpace;
 	}
 
 }
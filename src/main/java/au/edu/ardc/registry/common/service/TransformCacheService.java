@@ -0,0 +1,94 @@
+package au.edu.ardc.registry.common.service;
+
+import au.edu.ardc.registry.common.model.Schema;
+import au.edu.ardc.registry.common.transform.CachingTransformer;
+import au.edu.ardc.registry.common.transform.TransformCache;
+import au.edu.ardc.registry.common.transform.Transformer;
+import au.edu.ardc.registry.common.transform.TransformerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds the {@link TransformCache} of the application and hands out transformers going
+ * through it. The cache size is set with app.transform.cache.max-size in bytes, 0
+ * disables it. Its statistics are published as the transform.cache.* metrics
+ */
+@Service
+public class TransformCacheService {
+
+	private static final Logger logger = LoggerFactory.getLogger(TransformCacheService.class);
+
+	@Value("${app.transform.cache.max-size:67108864}")
+	private long maxSize = 67108864;
+
+	@Autowired
+	private ObjectProvider<MeterRegistry> meterRegistry;
+
+	private TransformCache cache;
+
+	@PostConstruct
+	public void init() {
+		cache = new TransformCache(maxSize);
+		MeterRegistry registry = meterRegistry.getIfAvailable();
+		if (registry == null) {
+			return;
+		}
+		FunctionCounter.builder("transform.cache.hits", cache, TransformCache::getHits).register(registry);
+		FunctionCounter.builder("transform.cache.misses", cache, TransformCache::getMisses).register(registry);
+		FunctionCounter.builder("transform.cache.evictions", cache, TransformCache::getEvictions).register(registry);
+		Gauge.builder("transform.cache.hit-rate", cache, TransformCache::getHitRate).register(registry);
+		Gauge.builder("transform.cache.size", cache, TransformCache::getSize).baseUnit("bytes").register(registry);
+		Gauge.builder("transform.cache.count", cache, TransformCache::getCount).register(registry);
+	}
+
+	/**
+	 * Obtain a new {@link Transformer} between 2 {@link Schema} going through the cache
+	 * @param fromSchema the {@link Schema} declaring the transform
+	 * @param toSchema the target {@link Schema}
+	 * @return the {@link Transformer}
+	 * @throws au.edu.ardc.registry.exception.TransformerNotFoundException when there's no
+	 * transform between the schemas
+	 */
+	public Transformer create(Schema fromSchema, Schema toSchema) {
+		Transformer transformer = (Transformer) TransformerFactory.create(fromSchema, toSchema);
+		if (maxSize <= 0) {
+			return transformer;
+		}
+		return new CachingTransformer(transformer, fromSchema, toSchema, cache);
+	}
+
+	/**
+	 * @return the statistics of the cache
+	 */
+	public Map<String, Object> getStatistics() {
+		Map<String, Object> statistics = new LinkedHashMap<>();
+		statistics.put("count", cache.getCount());
+		statistics.put("size", cache.getSize());
+		statistics.put("maxSize", cache.getMaxSize());
+		statistics.put("hits", cache.getHits());
+		statistics.put("misses", cache.getMisses());
+		statistics.put("hitRate", cache.getHitRate());
+		statistics.put("evictions", cache.getEvictions());
+		return statistics;
+	}
+
+	/**
+	 * Evict every cached transform result
+	 */
+	public void evict() {
+		logger.info("Evicting {} cached transform results", cache.getCount());
+		cache.clear();
+	}
+
+}
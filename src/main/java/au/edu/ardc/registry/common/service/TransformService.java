@@ -0,0 +1,134 @@
+package au.edu.ardc.registry.common.service;
+
+import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.model.Schema;
+import au.edu.ardc.registry.common.model.TransformResult;
+import au.edu.ardc.registry.common.provider.FragmentIterator;
+import au.edu.ardc.registry.common.provider.FragmentProvider;
+import au.edu.ardc.registry.common.transform.Transformer;
+import au.edu.ardc.registry.common.util.Helpers;
+import au.edu.ardc.registry.exception.ContentNotSupportedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
+
+/**
+ * Transforms every fragment of a bulk payload in parallel. Fragments are read from the
+ * payload as workers become available, at most a few per worker are held in memory at
+ * any time
+ */
+@Service
+public class TransformService {
+
+	private static final Logger logger = LoggerFactory.getLogger(TransformService.class);
+
+	@Value("${app.transform.bulk.threads:0}")
+	private int threads = 0;
+
+	private ThreadPoolExecutor bulkQueue;
+
+	@PostConstruct
+	public void init() {
+		bulkQueue = (ThreadPoolExecutor) Executors.newFixedThreadPool(Helpers.getThreads(threads));
+	}
+
+	/**
+	 * Let the threads go once the transforms in progress are done
+	 */
+	@PreDestroy
+	public void destroy() {
+		bulkQueue.shutdown();
+	}
+
+	/**
+	 * Transform every fragment of the payload, handing each result over as soon as it's
+	 * available. Results are handed over on the calling thread, in completion order. The
+	 * provider and the transformer are resolved by the caller, so that a payload that
+	 * can't be transformed fails before anything is written
+	 * @param fromSchema the {@link Schema} of the payload
+	 * @param fragmentProvider the {@link FragmentProvider} of the fromSchema
+	 * @param transformer the {@link Transformer} to the target schema, shared by the
+	 * workers
+	 * @param payload the {@link InputStream} of the payload, left open
+	 * @param consumer receives the {@link TransformResult} of every fragment
+	 * @throws IOException when the payload can't be read
+	 * @throws ContentNotSupportedException when the payload is malformed, the fragments
+	 * read before are handed over first
+	 */
+	public void transformFragments(Schema fromSchema, FragmentProvider fragmentProvider, Transformer transformer,
+			InputStream payload, Consumer<TransformResult> consumer) throws IOException {
+		CompletionService<TransformResult> completionService = new ExecutorCompletionService<>(bulkQueue);
+		int maxInFlight = bulkQueue.getMaximumPoolSize() * 2;
+		int inFlight = 0;
+		int position = 0;
+		try (FragmentIterator fragments = fragmentProvider.iterate(payload)) {
+			while (fragments.hasNext()) {
+				String fragment = fragments.next();
+				int fragmentPosition = position++;
+				completionService.submit(() -> transform(fromSchema, transformer, fragment, fragmentPosition));
+				inFlight++;
+
+				// wait for a result before reading further into the payload
+				if (inFlight >= maxInFlight) {
+					consumer.accept(take(completionService));
+					inFlight--;
+				}
+			}
+		}
+		catch (ContentNotSupportedException e) {
+			for (; inFlight > 0; inFlight--) {
+				consumer.accept(take(completionService));
+			}
+			throw e;
+		}
+		while (inFlight > 0) {
+			consumer.accept(take(completionService));
+			inFlight--;
+		}
+	}
+
+	private TransformResult transform(Schema fromSchema, Transformer transformer, String fragment, int position) {
+		try {
+			Version version = new Version();
+			version.setSchema(fromSchema.getId());
+			version.setContent(fragment.getBytes(StandardCharsets.UTF_8));
+			Version result = transformer.transform(version);
+			if (result == null) {
+				return TransformResult.failure(position, "Transform failed");
+			}
+			return TransformResult.success(position, result.getContent());
+		}
+		catch (Exception e) {
+			logger.warn("Failed transforming fragment {} from {}: {}", position, fromSchema.getId(), e.getMessage());
+			return TransformResult.failure(position, e.getMessage());
+		}
+	}
+
+	private TransformResult take(CompletionService<TransformResult> completionService) throws IOException {
+		try {
+			return completionService.take().get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while transforming", e);
+		}
+		catch (ExecutionException e) {
+			// transform() doesn't throw
+			throw new IOException(e.getCause());
+		}
+	}
+
+}
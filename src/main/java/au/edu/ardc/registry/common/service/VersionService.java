@@ -155,6 +155,15 @@ public class VersionService {
 		return repository.findFirstByRecordAndSchemaAndCurrentIsTrue(record, schema);
 	}
 
+	/**
+	 * Obtain every current version of a record in a single query
+	 * @param record the {@link Record} to look in
+	 * @return the current {@link Version} of every schema of the record
+	 */
+	public List<Version> findAllCurrentVersionsForRecord(Record record) {
+		return repository.findAllByRecordAndCurrentIsTrue(record);
+	}
+
 	/**
 	 * Tell if a version exists by id
 	 * @param id the uuid of the Version
@@ -0,0 +1,154 @@
+package au.edu.ardc.registry.common.task;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the derivation tasks of records on a work-stealing {@link ForkJoinPool}. The tasks
+ * of a record run one after the other in the order they are scheduled, so a record is
+ * never derived by 2 threads at once, while the tasks of different records run in
+ * parallel on whichever worker is idle
+ */
+public class DerivationScheduler {
+
+	private static final Logger logger = LoggerFactory.getLogger(DerivationScheduler.class);
+
+	private final ForkJoinPool pool;
+
+	private final Map<UUID, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+
+	private final AtomicInteger queued = new AtomicInteger();
+
+	private final AtomicInteger active = new AtomicInteger();
+
+	private volatile boolean shutdown = false;
+
+	/**
+	 * @param parallelism the number of worker threads
+	 */
+	public DerivationScheduler(int parallelism) {
+		this.pool = new ForkJoinPool(parallelism, pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("derivation-" + thread.getPoolIndex());
+			return thread;
+		}, null, true);
+	}
+
+	/**
+	 * @param ceiling the maximum number of worker threads, 0 for no limit
+	 * @return the number of available processors, capped to the ceiling
+	 */
+	public static int getParallelism(int ceiling) {
+		int processors = Runtime.getRuntime().availableProcessors();
+		return ceiling > 0 ? Math.min(processors, ceiling) : processors;
+	}
+
+	/**
+	 * Schedule a task of a record, it runs once the tasks scheduled before for the same
+	 * record are done
+	 * @param recordId the id of the record
+	 * @param task the task
+	 * @throws RejectedExecutionException when the scheduler is shut down
+	 */
+	public void execute(UUID recordId, Runnable task) {
+		if (shutdown) {
+			throw new RejectedExecutionException("Derivation scheduler is shut down");
+		}
+		queued.incrementAndGet();
+		Runnable run = () -> run(recordId, task);
+		try {
+			CompletableFuture<Void> future = pending.compute(recordId,
+					(key, previous) -> previous == null ? CompletableFuture.runAsync(run, pool)
+							: previous.thenRunAsync(run, pool));
+			future.whenComplete((result, e) -> pending.remove(recordId, future));
+		}
+		catch (RuntimeException e) {
+			queued.decrementAndGet();
+			throw e;
+		}
+	}
+
+	private void run(UUID recordId, Runnable task) {
+		queued.decrementAndGet();
+		active.incrementAndGet();
+		try {
+			task.run();
+		}
+		catch (Exception e) {
+			// caught so that the following tasks of the record still run
+			logger.error("Error processing record {} reason: {}", recordId, e.getMessage());
+		}
+		finally {
+			active.decrementAndGet();
+		}
+	}
+
+	/**
+	 * @return the number of tasks scheduled that haven't started
+	 */
+	public int getQueueDepth() {
+		return queued.get();
+	}
+
+	/**
+	 * @return the number of tasks running
+	 */
+	public int getActive() {
+		return active.get();
+	}
+
+	/**
+	 * @return the number of records with tasks queued or running
+	 */
+	public int getPendingRecords() {
+		return pending.size();
+	}
+
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * @return the number of tasks taken off another worker's queue
+	 */
+	public long getStealCount() {
+		return pool.getStealCount();
+	}
+
+	/**
+	 * Stop accepting tasks and wait for the scheduled ones to finish
+	 * @param timeout the maximum time to wait
+	 * @param unit the unit of the timeout
+	 * @return true if every task is done
+	 * @throws InterruptedException when interrupted while waiting
+	 */
+	public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+		shutdown = true;
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+		// the following tasks of a record are only submitted to the pool once the previous
+		// one is done, the pool is shut down when there's none left
+		CompletableFuture<?>[] futures = pending.values().toArray(new CompletableFuture<?>[0]);
+		try {
+			CompletableFuture.allOf(futures).get(timeout, unit);
+		}
+		catch (ExecutionException | TimeoutException e) {
+			logger.warn("Derivation scheduler shut down with {} tasks queued", queued.get());
+		}
+		pool.shutdown();
+		return pool.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+	}
+
+}
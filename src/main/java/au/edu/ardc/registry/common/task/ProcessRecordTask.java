@@ -0,0 +1,274 @@
+package au.edu.ardc.registry.common.task;
+
+import au.edu.ardc.registry.common.entity.Record;
+import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.model.Schema;
+import au.edu.ardc.registry.common.provider.ParsedContent;
+import au.edu.ardc.registry.common.service.RecordService;
+import au.edu.ardc.registry.common.service.SchemaService;
+import au.edu.ardc.registry.common.service.VersionService;
+import au.edu.ardc.registry.common.transform.Derivation;
+import au.edu.ardc.registry.common.transform.DerivationGraph;
+import au.edu.ardc.registry.common.transform.TransformPipeline;
+import au.edu.ardc.registry.common.transform.TransformRevision;
+import au.edu.ardc.registry.common.util.XMLUtil;
+import au.edu.ardc.registry.exception.RecordProcessingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.w3c.dom.Document;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Derives everything that is computed out of the source version of a record: its title
+ * and a version of every schema the {@link DerivationGraph} plans out of it. The current
+ * versions of the record are loaded with a single query, the source version is parsed
+ * once for all of the stylesheets and the title and the derived versions are persisted
+ * in a single transaction. Nothing is transformed for the branches whose derived versions
+ * were produced out of the same source content with the same transforms. A record that
+ * can't be processed, or only partly, ends with a {@link RecordProcessingException}
+ */
+public class ProcessRecordTask implements Runnable {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProcessRecordTask.class);
+
+	private final Record record;
+
+	private final VersionService versionService;
+
+	private final RecordService recordService;
+
+	private final SchemaService schemaService;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private int failedTransforms = 0;
+
+	public ProcessRecordTask(Record record, VersionService versionService, RecordService recordService,
+			SchemaService schemaService, TransactionTemplate transactionTemplate) {
+		this.record = record;
+		this.versionService = versionService;
+		this.recordService = recordService;
+		this.schemaService = schemaService;
+		this.transactionTemplate = transactionTemplate;
+	}
+
+	/**
+	 * @throws RecordProcessingException when the record has no valid version, its source
+	 * version can't be parsed or any of its transforms failed, the derived versions that
+	 * could be produced are saved first
+	 */
+	@Override
+	public void run() {
+		failedTransforms = 0;
+		Map<String, Version> currentVersions = new HashMap<>();
+		for (Version version : versionService.findAllCurrentVersionsForRecord(record)) {
+			currentVersions.putIfAbsent(version.getSchema(), version);
+		}
+
+		// obtain latest version out of the schemas other schemas are derived from
+		DerivationGraph derivationGraph = schemaService.getDerivationGraph();
+		Version version = derivationGraph.selectSource(currentVersions.values());
+
+		if (version == null) {
+			throw new RecordProcessingException(record.getId(), "no valid version found");
+		}
+
+		// only the branches with a derived version out of date are run
+		String sourceHash = TransformRevision.getSourceHash(version);
+		Map<String, String> revisions = new HashMap<>();
+		List<Derivation> plan = new ArrayList<>();
+		for (Derivation derivation : derivationGraph.plan(version.getSchema())) {
+			if (!isCurrent(derivation, currentVersions, sourceHash, revisions)) {
+				plan.add(derivation);
+			}
+		}
+		if (plan.isEmpty() && record.getTitle() != null) {
+			logger.debug("Record {} is up to date with version {}", record.getId(), version.getId());
+			return;
+		}
+
+		Schema fromSchema = schemaService.getSchemaByID(version.getSchema());
+		String content = new String(version.getContent(), StandardCharsets.UTF_8);
+
+		// obtain the title using the TitleProvider
+		String title = new ParsedContent(content, fromSchema).getTitle();
+
+		// every output schema is transformed from the same parsed document
+		Document document;
+		try {
+			document = XMLUtil.parseNamespaceAware(content);
+		}
+		catch (Exception e) {
+			throw new RecordProcessingException(record.getId(),
+					String.format("error parsing version %s reason: %s", version.getId(), e.getMessage()));
+		}
+		List<Version> derivedVersions = derive(version, document, plan);
+
+		Version sourceVersion = version;
+		transactionTemplate.execute(status -> {
+			record.setTitle(title);
+			recordService.save(record);
+			for (Version derived : derivedVersions) {
+				save(derived, sourceVersion, currentVersions.get(derived.getSchema()), sourceHash,
+						revisions.get(derived.getSchema()));
+			}
+			return null;
+		});
+		if (failedTransforms > 0) {
+			throw new RecordProcessingException(record.getId(),
+					String.format("%d transforms failed", failedTransforms));
+		}
+		logger.info("Processed record {}", record.getId());
+	}
+
+	/**
+	 * Run every branch of the plan over the source version. The stylesheet branches are
+	 * fed together from the parsed document, if that fails they are run one by one so a
+	 * failing branch doesn't hold back the others
+	 * @param version the source {@link Version}
+	 * @param document the parsed content of the source version
+	 * @param plan the {@link Derivation} branches to run
+	 * @return the derived versions
+	 */
+	private List<Version> derive(Version version, Document document, List<Derivation> plan) {
+		List<Version> derivedVersions = new ArrayList<>();
+		List<TransformPipeline> pipelines = new ArrayList<>();
+		for (Derivation derivation : plan) {
+			try {
+				pipelines.add(TransformPipeline.of(derivation));
+			}
+			catch (IllegalArgumentException e) {
+				derive(version, derivation, derivedVersions);
+			}
+			catch (Exception e) {
+				logger.error("Error transforming {} for record = {} reason: {}", derivation.getSchemas(),
+						record.getId(), e.getMessage());
+				failedTransforms++;
+			}
+		}
+		if (pipelines.isEmpty()) {
+			return derivedVersions;
+		}
+
+		try {
+			derivedVersions.addAll(TransformPipeline.transform(pipelines, version, document).values());
+			return derivedVersions;
+		}
+		catch (Exception e) {
+			logger.debug("Error transforming record = {} at once, reason: {}", record.getId(), e.getMessage());
+		}
+		for (TransformPipeline pipeline : pipelines) {
+			try {
+				derivedVersions.addAll(pipeline.transform(version, document).values());
+			}
+			catch (Exception e) {
+				logger.error("Error transforming record = {} reason: {}", record.getId(), e.getMessage());
+				failedTransforms++;
+			}
+		}
+		return derivedVersions;
+	}
+
+	/**
+	 * Run a branch that can't be chained, every step transforms the result of the
+	 * previous one
+	 * @param version the {@link Version} the branch is run on
+	 * @param derivation the {@link Derivation} branch
+	 * @param derivedVersions collects the derived versions
+	 */
+	private void derive(Version version, Derivation derivation, List<Version> derivedVersions) {
+		try {
+			Version derived = derivation.getTransformer().transform(version);
+			if (derived == null) {
+				return;
+			}
+			derivedVersions.add(derived);
+			for (Derivation next : derivation.getNext()) {
+				derive(derived, next, derivedVersions);
+			}
+		}
+		catch (Exception e) {
+			logger.error("Error transforming {} for record = {} reason: {}", derivation.getTo().getId(),
+					record.getId(), e.getMessage());
+			failedTransforms++;
+		}
+	}
+
+	/**
+	 * @param derivation a branch of the plan
+	 * @param currentVersions the current versions of the record by schema
+	 * @param sourceHash the hash of the source version
+	 * @param revisions collects the {@link TransformRevision} of every derived schema
+	 * @return true if every version of the branch is derived from the same source with
+	 * the same transforms already
+	 */
+	private boolean isCurrent(Derivation derivation, Map<String, Version> currentVersions, String sourceHash,
+			Map<String, String> revisions) {
+		Map<String, String> branchRevisions;
+		try {
+			branchRevisions = derivation.getRevisions(null);
+		}
+		catch (RuntimeException e) {
+			// the transform reports it
+			return false;
+		}
+		revisions.putAll(branchRevisions);
+		for (Map.Entry<String, String> revision : branchRevisions.entrySet()) {
+			if (!TransformRevision.isCurrent(currentVersions.get(revision.getKey()), sourceHash, revision.getValue())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Save the derived version as the current version of its schema, unless the current
+	 * one has the same content
+	 * @param derived the derived {@link Version}
+	 * @param sourceVersion the {@link Version} it was derived from
+	 * @param existingVersion the current {@link Version} of the schema, null if there's
+	 * none
+	 * @param sourceHash the hash of the source version
+	 * @param revision the {@link TransformRevision} the version is derived with
+	 */
+	private void save(Version derived, Version sourceVersion, Version existingVersion, String sourceHash,
+			String revision) {
+		String hash = VersionService.getHash(derived);
+		if (existingVersion != null) {
+			if (existingVersion.getHash() != null && existingVersion.getHash().equals(hash)) {
+				logger.debug("There's already a version with existing hash {} for schema {}, skipping",
+						existingVersion.getHash(), derived.getSchema());
+				if (!TransformRevision.isCurrent(existingVersion, sourceHash, revision)) {
+					// so the transform is skipped next time
+					existingVersion.setSourceHash(sourceHash);
+					existingVersion.setTransformRevision(revision);
+					versionService.save(existingVersion);
+				}
+				return;
+			}
+			existingVersion.setContent(derived.getContent());
+			existingVersion.setRequestID(sourceVersion.getRequestID());
+			existingVersion.setCreatedAt(sourceVersion.getCreatedAt());
+			existingVersion.setHash(hash);
+			existingVersion.setSourceHash(sourceHash);
+			existingVersion.setTransformRevision(revision);
+			versionService.save(existingVersion);
+			return;
+		}
+		derived.setRecord(record);
+		derived.setCurrent(true);
+		derived.setRequestID(sourceVersion.getRequestID());
+		derived.setCreatedAt(sourceVersion.getCreatedAt());
+		derived.setHash(hash);
+		derived.setSourceHash(sourceHash);
+		derived.setTransformRevision(revision);
+		versionService.save(derived);
+	}
+
+}
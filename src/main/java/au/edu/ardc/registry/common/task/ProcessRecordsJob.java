@@ -0,0 +1,232 @@
+package au.edu.ardc.registry.common.task;
+
+import au.edu.ardc.registry.common.entity.Record;
+import au.edu.ardc.registry.common.entity.Request;
+import au.edu.ardc.registry.common.model.Attribute;
+import au.edu.ardc.registry.common.repository.RecordRepository;
+import au.edu.ardc.registry.common.repository.RequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs a task for every record. The records are read by pages ordered by id (keyset
+ * pagination, every page costs the same) and at most maxInFlight of them are queued or
+ * being processed at any time, reading the next record waits for one of them to finish.
+ * The id of the last record up to which every record is processed is checkpointed on the
+ * job {@link Request} along with the counts up to it, a job that was interrupted resumes
+ * from there
+ */
+public class ProcessRecordsJob implements Runnable {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProcessRecordsJob.class);
+
+	private final Request job;
+
+	private final RecordRepository recordRepository;
+
+	private final RequestRepository requestRepository;
+
+	private final DerivationScheduler scheduler;
+
+	private final Function<Record, Runnable> taskFactory;
+
+	private final int pageSize;
+
+	private final int maxInFlight;
+
+	private final Semaphore inFlight;
+
+	private final AtomicInteger processed;
+
+	private final AtomicInteger errors;
+
+	private final Deque<Page> pages = new ArrayDeque<>();
+
+	private UUID checkpoint;
+
+	private int checkpointed;
+
+	private int checkpointedErrors;
+
+	/**
+	 * @param job the {@link Request} keeping track of the job, its checkpoint and counts
+	 * are picked up if it is resumed
+	 * @param scheduler runs the tasks
+	 * @param taskFactory creates the task of a record
+	 * @param pageSize the number of records read at once
+	 * @param maxInFlight the maximum number of records queued or being processed
+	 */
+	public ProcessRecordsJob(Request job, RecordRepository recordRepository, RequestRepository requestRepository,
+			DerivationScheduler scheduler, Function<Record, Runnable> taskFactory, int pageSize, int maxInFlight) {
+		this.job = job;
+		this.recordRepository = recordRepository;
+		this.requestRepository = requestRepository;
+		this.scheduler = scheduler;
+		this.taskFactory = taskFactory;
+		this.pageSize = pageSize;
+		this.maxInFlight = maxInFlight;
+		this.inFlight = new Semaphore(maxInFlight);
+		String lastCheckpoint = job.getAttribute(Attribute.CHECKPOINT);
+		this.checkpoint = lastCheckpoint != null ? UUID.fromString(lastCheckpoint) : null;
+		this.checkpointed = getCount(job, Attribute.NUM_OF_RECORDS_PROCESSED);
+		this.processed = new AtomicInteger(checkpointed);
+		this.checkpointedErrors = getCount(job, Attribute.NUM_OF_ERROR);
+		this.errors = new AtomicInteger(checkpointedErrors);
+	}
+
+	@Override
+	public void run() {
+		logger.info("Processing records for job {} from checkpoint {}", job.getId(), checkpoint);
+		job.setStatus(Request.Status.RUNNING);
+		job.setAttribute(Attribute.NUM_OF_RECORDS_TOTAL, recordRepository.count());
+		save();
+
+		try {
+			List<Record> records = checkpoint == null
+					? recordRepository.findAllOrderById(PageRequest.of(0, pageSize))
+					: recordRepository.findAllAfter(checkpoint, PageRequest.of(0, pageSize));
+			while (!records.isEmpty()) {
+				Page page = new Page(records.get(records.size() - 1).getId(), records.size());
+				pages.add(page);
+				for (Record record : records) {
+					submit(record, page);
+				}
+				if (records.size() < pageSize) {
+					break;
+				}
+				records = recordRepository.findAllAfter(page.lastId, PageRequest.of(0, pageSize));
+			}
+
+			// wait for the last records
+			inFlight.acquire(maxInFlight);
+			inFlight.release(maxInFlight);
+			checkpoint();
+			job.setStatus(Request.Status.COMPLETED);
+			logger.info("Processed {} records for job {}, {} errors", processed.get(), job.getId(), errors.get());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			// keep the pages finished since the last record was read
+			checkpoint();
+			logger.warn("Job {} interrupted at checkpoint {}", job.getId(), checkpoint);
+		}
+		catch (Exception e) {
+			logger.error("Job {} failed at checkpoint {} reason: {}", job.getId(), checkpoint, e.getMessage());
+			job.setStatus(Request.Status.FAILED);
+			job.setMessage(e.getMessage());
+		}
+		save();
+	}
+
+	/**
+	 * @return the number of records processed so far, including the ones processed
+	 * before the job was resumed
+	 */
+	public int getProcessed() {
+		return processed.get();
+	}
+
+	/**
+	 * @return the number of records that failed to be processed so far, including the
+	 * ones that failed before the job was resumed
+	 */
+	public int getErrors() {
+		return errors.get();
+	}
+
+	/**
+	 * @return the number of records queued or being processed
+	 */
+	public int getInFlight() {
+		return maxInFlight - inFlight.availablePermits();
+	}
+
+	private void submit(Record record, Page page) throws InterruptedException {
+		inFlight.acquire();
+		try {
+			scheduler.execute(record.getId(), () -> {
+				try {
+					taskFactory.apply(record).run();
+				}
+				catch (Exception e) {
+					errors.incrementAndGet();
+					page.errors.incrementAndGet();
+					logger.error("Error processing record {} for job {} reason: {}", record.getId(), job.getId(),
+							e.getMessage());
+				}
+				finally {
+					processed.incrementAndGet();
+					page.remaining.decrementAndGet();
+					inFlight.release();
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			inFlight.release();
+			throw e;
+		}
+		checkpoint();
+	}
+
+	/**
+	 * Move the checkpoint past every page that is done, in order
+	 */
+	private void checkpoint() {
+		boolean moved = false;
+		while (!pages.isEmpty() && pages.peek().remaining.get() == 0) {
+			Page page = pages.poll();
+			checkpoint = page.lastId;
+			checkpointed += page.size;
+			checkpointedErrors += page.errors.get();
+			moved = true;
+		}
+		if (moved) {
+			save();
+		}
+	}
+
+	private void save() {
+		if (checkpoint != null) {
+			job.setAttribute(Attribute.CHECKPOINT, checkpoint.toString());
+		}
+		job.setAttribute(Attribute.NUM_OF_RECORDS_PROCESSED, checkpointed);
+		job.setAttribute(Attribute.NUM_OF_ERROR, checkpointedErrors);
+		job.setUpdatedAt(new Date());
+		requestRepository.saveAndFlush(job);
+	}
+
+	private static int getCount(Request job, Attribute attribute) {
+		String value = job.getAttribute(attribute);
+		return value != null ? Integer.parseInt(value) : 0;
+	}
+
+	private static class Page {
+
+		private final UUID lastId;
+
+		private final int size;
+
+		private final AtomicInteger remaining;
+
+		private final AtomicInteger errors = new AtomicInteger();
+
+		Page(UUID lastId, int size) {
+			this.lastId = lastId;
+			this.size = size;
+			this.remaining = new AtomicInteger(size);
+		}
+
+	}
+
+}
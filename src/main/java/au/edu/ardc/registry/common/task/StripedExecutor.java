@@ -0,0 +1,203 @@
+package au.edu.ardc.registry.common.task;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks on a fixed number of stripes sharing a pool of threads. A task goes to the
+ * stripe of the hash of its key, the tasks of a stripe run one after the other in the
+ * order they are executed, so tasks with the same key never run at the same time, while
+ * the tasks of different stripes run in parallel on as many threads as the pool has
+ */
+public class StripedExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(StripedExecutor.class);
+
+	private final ThreadPoolExecutor pool;
+
+	private final Stripe[] stripes;
+
+	private final AtomicInteger activeStripes = new AtomicInteger();
+
+	private volatile boolean shutdown = false;
+
+	/**
+	 * @param stripes the number of stripes
+	 * @param threads the number of threads shared by the stripes
+	 * @param name the prefix of the thread names
+	 */
+	public StripedExecutor(int stripes, int threads, String name) {
+		AtomicInteger count = new AtomicInteger();
+		this.pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+				runnable -> new Thread(runnable, name + "-" + count.getAndIncrement()));
+		// idle threads are released, there's no pool per allocation to shut down anymore
+		this.pool.allowCoreThreadTimeOut(true);
+		this.stripes = new Stripe[stripes];
+		for (int i = 0; i < stripes; i++) {
+			this.stripes[i] = new Stripe();
+		}
+	}
+
+	/**
+	 * Execute a task once the tasks executed before with a key of the same stripe are done
+	 * @param key the key of the task
+	 * @param task the task
+	 * @throws RejectedExecutionException when the executor is shut down
+	 */
+	public void execute(Object key, Runnable task) {
+		if (shutdown) {
+			throw new RejectedExecutionException("Striped executor is shut down");
+		}
+		getStripe(key).add(task);
+	}
+
+	/**
+	 * @param key the key of a task
+	 * @return the tasks of the stripe of the key that haven't started
+	 */
+	public List<Runnable> getQueued(Object key) {
+		return getStripe(key).getQueued();
+	}
+
+	/**
+	 * @return the tasks of every stripe that haven't started
+	 */
+	public List<Runnable> getQueued() {
+		List<Runnable> queued = new ArrayList<>();
+		for (Stripe stripe : stripes) {
+			queued.addAll(stripe.getQueued());
+		}
+		return queued;
+	}
+
+	/**
+	 * @return the number of tasks that haven't started
+	 */
+	public int getQueueDepth() {
+		int depth = 0;
+		for (Stripe stripe : stripes) {
+			depth += stripe.size();
+		}
+		return depth;
+	}
+
+	public int getStripes() {
+		return stripes.length;
+	}
+
+	public int getThreads() {
+		return pool.getMaximumPoolSize();
+	}
+
+	/**
+	 * Stop accepting tasks, the queued ones still run and the threads are stopped once
+	 * they are done
+	 */
+	public void shutdown() {
+		shutdown = true;
+		if (activeStripes.get() == 0) {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Stop accepting tasks and wait for the queued ones to finish
+	 * @param timeout the maximum time to wait
+	 * @param unit the unit of the timeout
+	 * @return true if every task is done
+	 * @throws InterruptedException when interrupted while waiting
+	 */
+	public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+		shutdown();
+		return pool.awaitTermination(timeout, unit);
+	}
+
+	/**
+	 * @return true once shut down and every queued task is done
+	 */
+	public boolean isTerminated() {
+		return pool.isTerminated();
+	}
+
+	private Stripe getStripe(Object key) {
+		return stripes[Math.floorMod(key.hashCode(), stripes.length)];
+	}
+
+	/**
+	 * The tasks of a stripe. At most one of them is submitted to the pool at a time, it is
+	 * submitted again after every task so that the other stripes get their turn
+	 */
+	private class Stripe implements Runnable {
+
+		private final Deque<Runnable> tasks = new ArrayDeque<>();
+
+		private boolean running = false;
+
+		synchronized void add(Runnable task) {
+			tasks.add(task);
+			if (!running) {
+				running = true;
+				activeStripes.incrementAndGet();
+				try {
+					pool.execute(this);
+				}
+				catch (RejectedExecutionException e) {
+					// the pool was shut down since the executor was
+					tasks.removeLast();
+					running = false;
+					activeStripes.decrementAndGet();
+					throw e;
+				}
+			}
+		}
+
+		synchronized List<Runnable> getQueued() {
+			return new ArrayList<>(tasks);
+		}
+
+		synchronized int size() {
+			return tasks.size();
+		}
+
+		@Override
+		public void run() {
+			Runnable task;
+			synchronized (this) {
+				task = tasks.poll();
+			}
+			try {
+				task.run();
+			}
+			catch (Exception e) {
+				// caught so that the following tasks of the stripe still run
+				logger.error("Error running task {} reason: {}", task, e.getMessage());
+			}
+			finally {
+				synchronized (this) {
+					if (tasks.isEmpty()) {
+						running = false;
+						// the pool stops once the last stripe of a shut down executor is done
+						if (activeStripes.decrementAndGet() == 0 && shutdown) {
+							pool.shutdown();
+						}
+					}
+					else {
+						pool.execute(this);
+					}
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,68 @@
+package au.edu.ardc.registry.common.transform;
+
+import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.model.Schema;
+
+import java.util.Map;
+
+/**
+ * A {@link Transformer} looking the result up in a {@link TransformCache} before running
+ * the transform. The resulting {@link Version} is a new one on every call, built the same
+ * way the transformers build theirs
+ */
+public class CachingTransformer implements Transformer {
+
+	private final Transformer transformer;
+
+	private final Schema fromSchema;
+
+	private final Schema toSchema;
+
+	private final TransformCache cache;
+
+	public CachingTransformer(Transformer transformer, Schema fromSchema, Schema toSchema, TransformCache cache) {
+		this.transformer = transformer;
+		this.fromSchema = fromSchema;
+		this.toSchema = toSchema;
+		this.cache = cache;
+	}
+
+	@Override
+	public Version transform(Version version) {
+		String key = TransformCache.key(fromSchema, toSchema, transformer.getParams(), version.getContent());
+		Version cached = cache.get(key);
+		if (cached == null) {
+			Version result = transformer.transform(version);
+			if (result != null) {
+				cache.put(key, result);
+			}
+			return result;
+		}
+
+		cached.setCurrent(true);
+		cached.setRecord(version.getRecord());
+
+		// resulting version should have the same request ID as the original version
+		cached.setRequestID(version.getRequestID());
+		return cached;
+	}
+
+	@Override
+	public Transformer setParam(String key, String value) {
+		transformer.setParam(key, value);
+		return this;
+	}
+
+	@Override
+	public Map<String, String> getParams() {
+		return transformer.getParams();
+	}
+
+	/**
+	 * @return the {@link Transformer} doing the transforms
+	 */
+	public Transformer getTransformer() {
+		return transformer;
+	}
+
+}
@@ -0,0 +1,88 @@
+package au.edu.ardc.registry.common.transform;
+
+import au.edu.ardc.registry.common.model.Schema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A step of a {@link DerivationGraph#plan(String)}: the transform of one schema into
+ * another and the derivations that are run on its result
+ */
+public class Derivation {
+
+	private final Schema from;
+
+	private final Schema to;
+
+	private final List<Derivation> next = new ArrayList<>();
+
+	public Derivation(Schema from, Schema to) {
+		this.from = from;
+		this.to = to;
+	}
+
+	public Schema getFrom() {
+		return from;
+	}
+
+	public Schema getTo() {
+		return to;
+	}
+
+	/**
+	 * @return the derivations run on the result of this one
+	 */
+	public List<Derivation> getNext() {
+		return Collections.unmodifiableList(next);
+	}
+
+	void addNext(Derivation derivation) {
+		next.add(derivation);
+	}
+
+	/**
+	 * @return a new {@link Transformer} of this step
+	 */
+	public Transformer getTransformer() {
+		return (Transformer) TransformerFactory.create(from, to);
+	}
+
+	/**
+	 * @return the id of the schema produced by this step followed by the ones produced by
+	 * the following steps
+	 */
+	public List<String> getSchemas() {
+		List<String> schemas = new ArrayList<>();
+		schemas.add(to.getId());
+		for (Derivation derivation : next) {
+			schemas.addAll(derivation.getSchemas());
+		}
+		return schemas;
+	}
+
+	/**
+	 * @param upstream the revision of the transforms producing the input of this step,
+	 * null if it is run on a source version
+	 * @return the {@link TransformRevision} of every schema produced by this step and the
+	 * following ones
+	 */
+	public Map<String, String> getRevisions(String upstream) {
+		Map<String, String> revisions = new LinkedHashMap<>();
+		String revision = TransformRevision.of(upstream, getTransformer());
+		revisions.put(to.getId(), revision);
+		for (Derivation derivation : next) {
+			revisions.putAll(derivation.getRevisions(revision));
+		}
+		return revisions;
+	}
+
+	@Override
+	public String toString() {
+		return from.getId() + " -> " + to.getId();
+	}
+
+}
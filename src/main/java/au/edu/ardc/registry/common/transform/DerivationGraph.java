@@ -0,0 +1,186 @@
+package au.edu.ardc.registry.common.transform;
+
+import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.model.Schema;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The schemas that can be derived from one another, built from the transforms declared by
+ * every {@link Schema} in schemas.json. Only the schemas flagged autoDerive are
+ * regenerated when a schema upstream of them changes, the other targets (eg
+ * igsn-reg-1.0) need parameters that only their own workflow knows about.
+ *
+ * <pre>
+ * csiro-igsn-desc-3.0 -> ardc-igsn-desc-1.0, ardc-igsn-desc-1.0-jsonld, igsn-reg-1.0, oai_dc
+ * ardc-igsn-desc-1.0  -> ardc-igsn-desc-1.0-jsonld, igsn-reg-1.0, oai_dc
+ * </pre>
+ */
+public class DerivationGraph {
+
+	private final Map<String, Schema> schemas = new LinkedHashMap<>();
+
+	private final Map<String, List<String>> targets = new LinkedHashMap<>();
+
+	private final Map<String, List<String>> sources = new LinkedHashMap<>();
+
+	public DerivationGraph(Collection<Schema> schemas) {
+		for (Schema schema : schemas) {
+			this.schemas.put(schema.getId(), schema);
+		}
+		for (Schema schema : schemas) {
+			if (schema.getTransforms() == null) {
+				continue;
+			}
+			for (String target : schema.getTransforms().keySet()) {
+				if (!this.schemas.containsKey(target)) {
+					continue;
+				}
+				targets.computeIfAbsent(schema.getId(), id -> new ArrayList<>()).add(target);
+				sources.computeIfAbsent(target, id -> new ArrayList<>()).add(schema.getId());
+			}
+		}
+	}
+
+	/**
+	 * @param schemaID the id of a schema
+	 * @return the ids of the schemas the schema can be transformed into, in declaration
+	 * order
+	 */
+	public List<String> getTargets(String schemaID) {
+		return targets.getOrDefault(schemaID, Collections.emptyList());
+	}
+
+	/**
+	 * @param schemaID the id of a schema
+	 * @return the ids of the schemas that can be transformed into the schema
+	 */
+	public List<String> getSources(String schemaID) {
+		return sources.getOrDefault(schemaID, Collections.emptyList());
+	}
+
+	/**
+	 * @param schemaID the id of a schema
+	 * @return the ids of every schema that can be derived from the schema, through any
+	 * number of transforms, closest first
+	 */
+	public Set<String> getDownstream(String schemaID) {
+		Set<String> downstream = new LinkedHashSet<>();
+		Deque<String> queue = new ArrayDeque<>(getTargets(schemaID));
+		while (!queue.isEmpty()) {
+			String target = queue.poll();
+			if (!target.equals(schemaID) && downstream.add(target)) {
+				queue.addAll(getTargets(target));
+			}
+		}
+		return downstream;
+	}
+
+	/**
+	 * @param schemaID the id of a schema
+	 * @param ancestorID the id of another schema
+	 * @return true if the schema can be derived from the other one
+	 */
+	public boolean isDerivedFrom(String schemaID, String ancestorID) {
+		return getDownstream(ancestorID).contains(schemaID);
+	}
+
+	/**
+	 * Work out what has to be regenerated when a version of the given schema changes:
+	 * every autoDerive schema downstream of it, each one transformed from its cheapest
+	 * source, being the one the fewest transforms away from the changed schema. Schemas
+	 * that aren't autoDerive are never used as an intermediate as they aren't regenerated
+	 * @param schemaID the id of the changed schema
+	 * @return the independent branches of the plan, each one to run on a version of the
+	 * changed schema, empty if nothing derives from it
+	 */
+	public List<Derivation> plan(String schemaID) {
+		List<Derivation> roots = new ArrayList<>();
+		Set<String> planned = new HashSet<>();
+		planned.add(schemaID);
+
+		// breadth first so every schema is reached by its shortest chain of transforms
+		Deque<Derivation> queue = new ArrayDeque<>();
+		for (Derivation root : derive(schemaID, planned)) {
+			roots.add(root);
+			queue.add(root);
+		}
+		while (!queue.isEmpty()) {
+			Derivation derivation = queue.poll();
+			for (Derivation next : derive(derivation.getTo().getId(), planned)) {
+				derivation.addNext(next);
+				queue.add(next);
+			}
+		}
+		return roots;
+	}
+
+	/**
+	 * Pick the version to derive from among the current versions of a record: the newest
+	 * one out of the schemas that have something to derive. When two are as new, the one
+	 * derived from the other is picked, it was produced out of the same content
+	 * @param versions the current versions of a record
+	 * @return the source {@link Version}, null if none of the versions can be derived from
+	 */
+	public Version selectSource(Collection<Version> versions) {
+		Version source = null;
+		for (Version version : versions) {
+			if (!plan(version.getSchema()).isEmpty() && isNewer(version, source)) {
+				source = version;
+			}
+		}
+		return source;
+	}
+
+	/**
+	 * Pick the version to transform into the given schema among the current versions of
+	 * a record, the same way as {@link #selectSource(Collection)}
+	 * @param versions the current versions of a record
+	 * @param schemaID the id of the target schema
+	 * @return the source {@link Version}, null if none of the versions can be transformed
+	 * into the target schema
+	 */
+	public Version selectSource(Collection<Version> versions, String schemaID) {
+		List<String> candidates = getSources(schemaID);
+		Version source = null;
+		for (Version version : versions) {
+			if (candidates.contains(version.getSchema()) && isNewer(version, source)) {
+				source = version;
+			}
+		}
+		return source;
+	}
+
+	private List<Derivation> derive(String schemaID, Set<String> planned) {
+		List<Derivation> derivations = new ArrayList<>();
+		for (String target : getTargets(schemaID)) {
+			Schema schema = schemas.get(target);
+			if (schema.isAutoDerive() && planned.add(target)) {
+				derivations.add(new Derivation(schemas.get(schemaID), schema));
+			}
+		}
+		return derivations;
+	}
+
+	private boolean isNewer(Version version, Version current) {
+		if (current == null) {
+			return true;
+		}
+		int compared = version.getCreatedAt().compareTo(current.getCreatedAt());
+		if (compared != 0) {
+			return compared > 0;
+		}
+		return isDerivedFrom(version.getSchema(), current.getSchema());
+	}
+
+}
@@ -0,0 +1,25 @@
+package au.edu.ardc.registry.common.transform;
+
+import au.edu.ardc.registry.common.entity.Version;
+
+/**
+ * A {@link Transformer} backed by a single XSLT stylesheet. Exposing the stylesheet and
+ * the building of the resulting {@link Version} separately allows the transform to be
+ * run as a stage of a {@link TransformPipeline}
+ */
+public interface StylesheetTransformer extends Transformer {
+
+	/**
+	 * @return the classpath location of the XSLT stylesheet
+	 */
+	String getStylesheet();
+
+	/**
+	 * Build the resulting {@link Version} out of the output of the stylesheet
+	 * @param result the bytes written by the stylesheet
+	 * @param version the {@link Version} the transform originated from
+	 * @return the resulting {@link Version}
+	 */
+	Version toVersion(byte[] result, Version version);
+
+}
@@ -0,0 +1,153 @@
+package au.edu.ardc.registry.common.transform;
+
+import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.model.Schema;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A least recently used cache of transform results, bounded by the total size of the
+ * cached contents. Results are keyed by the schemas of the transform, its parameters and
+ * the sha1 of the input content, so the same payload transformed the same way is only
+ * transformed once. Thread safe
+ */
+public class TransformCache {
+
+	private final long maxSize;
+
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long size = 0;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param maxSize the maximum number of bytes of cached contents, 0 disables the cache
+	 */
+	public TransformCache(long maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @param fromSchema the {@link Schema} of the input
+	 * @param toSchema the {@link Schema} of the result
+	 * @param parameters the parameters of the transform, may be null
+	 * @param content the input content
+	 * @return the key of the transform result
+	 */
+	public static String key(Schema fromSchema, Schema toSchema, Map<String, String> parameters, byte[] content) {
+		StringBuilder key = new StringBuilder(fromSchema.getId()).append('|').append(toSchema.getId());
+		if (parameters != null && !parameters.isEmpty()) {
+			key.append('|').append(new TreeMap<>(parameters));
+		}
+		return key.append('|').append(DigestUtils.sha1Hex(content)).toString();
+	}
+
+	/**
+	 * @param key the key of the transform result
+	 * @return the schema and content of the cached result, null if it's not cached
+	 */
+	public synchronized Version get(String key) {
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		Version version = new Version();
+		version.setSchema(entry.schema);
+		version.setContent(entry.content);
+		return version;
+	}
+
+	/**
+	 * Cache the schema and content of a transform result, evicting the least recently used
+	 * results to make room. A result bigger than the cache isn't kept
+	 * @param key the key of the transform result
+	 * @param result the resulting {@link Version}
+	 */
+	public synchronized void put(String key, Version result) {
+		if (result.getContent() == null || result.getContent().length > maxSize) {
+			return;
+		}
+		Entry previous = entries.put(key, new Entry(result.getSchema(), result.getContent()));
+		size += result.getContent().length - (previous != null ? previous.content.length : 0);
+		Iterator<Entry> eldest = entries.values().iterator();
+		while (size > maxSize && eldest.hasNext()) {
+			size -= eldest.next().content.length;
+			eldest.remove();
+			evictions.increment();
+		}
+	}
+
+	/**
+	 * Evict every cached result
+	 */
+	public synchronized void clear() {
+		evictions.add(entries.size());
+		entries.clear();
+		size = 0;
+	}
+
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return the number of bytes of cached contents
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * @return the number of cached results
+	 */
+	public synchronized int getCount() {
+		return entries.size();
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * @return the ratio of lookups found in the cache, 0 if there's been none
+	 */
+	public double getHitRate() {
+		long hitCount = hits.sum();
+		long total = hitCount + misses.sum();
+		return total == 0 ? 0 : (double) hitCount / total;
+	}
+
+	private static class Entry {
+
+		private final String schema;
+
+		private final byte[] content;
+
+		Entry(String schema, byte[] content) {
+			this.schema = schema;
+			this.content = content;
+		}
+
+	}
+
+}
@@ -0,0 +1,396 @@
+package au.edu.ardc.registry.common.transform;
+
+import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.util.XMLUtil;
+import org.w3c.dom.Document;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.LexicalHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.Result;
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
+import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chains {@link StylesheetTransformer} in memory. The source document is parsed once,
+ * every stage hands its output to the following stages as SAX events while it is being
+ * serialized, so an intermediate schema (eg ardc-igsn-desc-1.0 out of
+ * csiro-igsn-desc-3.0) is never re-parsed to produce the schemas derived from it.
+ *
+ * <pre>
+ * TransformPipeline.of(csirov3ToARDCv1).then(ardcv1ToJSONLD, ardcv1ToOAIDC).transform(version);
+ * </pre>
+ */
+public class TransformPipeline {
+
+	private static final SAXTransformerFactory factory = (SAXTransformerFactory) SAXTransformerFactory
+			.newInstance();
+
+	private final StylesheetTransformer transformer;
+
+	private final List<TransformPipeline> stages = new ArrayList<>();
+
+	private TransformPipeline(StylesheetTransformer transformer) {
+		this.transformer = transformer;
+	}
+
+	/**
+	 * Start a pipeline with the given {@link Transformer} as its first stage
+	 * @param transformer the {@link Transformer} applied to the source {@link Version}
+	 * @return the pipeline
+	 * @throws IllegalArgumentException when the transformer is not a
+	 * {@link StylesheetTransformer}
+	 */
+	public static TransformPipeline of(Transformer transformer) {
+		if (!(transformer instanceof StylesheetTransformer)) {
+			throw new IllegalArgumentException(
+					String.format("%s can't be chained", transformer.getClass().getSimpleName()));
+		}
+		return new TransformPipeline((StylesheetTransformer) transformer);
+	}
+
+	/**
+	 * Build the pipeline of a {@link Derivation} and of all the derivations that follow it
+	 * @param derivation the {@link Derivation}, usually a branch of a
+	 * {@link DerivationGraph#plan(String)}
+	 * @return the pipeline
+	 * @throws IllegalArgumentException when a transformer of the derivations is not a
+	 * {@link StylesheetTransformer}
+	 */
+	public static TransformPipeline of(Derivation derivation) {
+		TransformPipeline pipeline = of(derivation.getTransformer());
+		for (Derivation next : derivation.getNext()) {
+			pipeline.then(of(next));
+		}
+		return pipeline;
+	}
+
+	/**
+	 * Run independent pipelines over the same source at once. The {@link Document} is
+	 * walked a single time and every event is handed to the first stage of all of the
+	 * pipelines, so each of them progresses alongside the others without the source
+	 * being read again. The {@link Document} isn't shared between threads, a DOM being
+	 * unsafe to read concurrently
+	 * @param pipelines the {@link TransformPipeline} to run
+	 * @param version the source {@link Version}
+	 * @param document the namespace aware {@link Document} of the version content, it is
+	 * only read
+	 * @return the resulting {@link Version} of every stage of every pipeline, keyed by
+	 * their schema
+	 * @throws TransformerException when any stage fails
+	 */
+	public static Map<String, Version> transform(List<TransformPipeline> pipelines, Version version,
+			Document document) throws TransformerException {
+		if (pipelines.size() == 1) {
+			return pipelines.get(0).transform(version, document);
+		}
+		List<Output> outputs = new ArrayList<>();
+		List<TransformerHandler> handlers = new ArrayList<>();
+		for (TransformPipeline pipeline : pipelines) {
+			handlers.add(pipeline.getHandler(outputs));
+		}
+		factory.newTransformer().transform(new DOMSource(document), tee(handlers));
+		return toVersions(outputs, version);
+	}
+
+	/**
+	 * Feed the output of this stage to each of the given {@link Transformer}
+	 * @param transformers the {@link Transformer} applied to the output of this stage
+	 * @return this pipeline for fluent API usage
+	 */
+	public TransformPipeline then(Transformer... transformers) {
+		for (Transformer next : transformers) {
+			stages.add(of(next));
+		}
+		return this;
+	}
+
+	/**
+	 * Feed the output of this stage to each of the given pipelines
+	 * @param pipelines the {@link TransformPipeline} applied to the output of this stage
+	 * @return this pipeline for fluent API usage
+	 */
+	public TransformPipeline then(TransformPipeline... pipelines) {
+		for (TransformPipeline next : pipelines) {
+			stages.add(next);
+		}
+		return this;
+	}
+
+	/**
+	 * Run every stage of the pipeline over the given {@link Version}. The first stage
+	 * reads a DOM of the source, the same way {@link XSLTransformer#transform(String,
+	 * String, Map)} does, so its output is identical to running it on its own
+	 * @param version the source {@link Version}
+	 * @return the resulting {@link Version} of every stage in pipeline order, keyed by
+	 * their schema
+	 * @throws TransformerException when the source can't be parsed or any stage fails
+	 */
+	public Map<String, Version> transform(Version version) throws TransformerException {
+		Document document;
+		try {
+			document = XMLUtil.parseNamespaceAware(new String(version.getContent(), StandardCharsets.UTF_8));
+		}
+		catch (ParserConfigurationException | SAXException | IOException e) {
+			throw new TransformerException(e.getMessage(), e);
+		}
+		return transform(version, document);
+	}
+
+	/**
+	 * Run every stage of the pipeline over an already parsed {@link Version}, so the same
+	 * {@link Document} can be shared by several pipelines
+	 * @param version the source {@link Version}
+	 * @param document the namespace aware {@link Document} of the version content, it is
+	 * only read
+	 * @return the resulting {@link Version} of every stage in pipeline order, keyed by
+	 * their schema
+	 * @throws TransformerException when any stage fails
+	 */
+	public Map<String, Version> transform(Version version, Document document) throws TransformerException {
+		List<Output> outputs = new ArrayList<>();
+		javax.xml.transform.Transformer first = XSLTransformer.getTemplates(transformer.getStylesheet())
+				.newTransformer();
+		setParameters(first, transformer.getParams());
+		first.transform(new DOMSource(document), getResult(outputs));
+		return toVersions(outputs, version);
+	}
+
+	private static Map<String, Version> toVersions(List<Output> outputs, Version version) {
+		Map<String, Version> results = new LinkedHashMap<>();
+		for (Output output : outputs) {
+			Version result = output.stage.transformer.toVersion(output.bytes.toByteArray(), version);
+			if (result != null) {
+				results.put(result.getSchema(), result);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * @param outputs collects the output of every stage in pipeline order
+	 * @return a {@link TransformerHandler} running this stage, writing to its result
+	 * @throws TransformerException when a stylesheet can't be loaded
+	 */
+	private TransformerHandler getHandler(List<Output> outputs) throws TransformerException {
+		TransformerHandler handler = factory
+				.newTransformerHandler(XSLTransformer.getTemplates(transformer.getStylesheet()));
+		setParameters(handler.getTransformer(), transformer.getParams());
+		handler.setResult(getResult(outputs));
+		return handler;
+	}
+
+	/**
+	 * Set up where this stage writes to: a stream for the last stages, a stream and the
+	 * following stages for the others
+	 * @param outputs collects the output of every stage in pipeline order
+	 * @return the {@link Result} this stage should write to
+	 * @throws TransformerException when a stylesheet can't be loaded
+	 */
+	private Result getResult(List<Output> outputs) throws TransformerException {
+		Output output = new Output(this);
+		outputs.add(output);
+		if (stages.isEmpty()) {
+			return new StreamResult(output.bytes);
+		}
+
+		// serialize this stage with its own output properties
+		Templates templates = XSLTransformer.getTemplates(transformer.getStylesheet());
+		TransformerHandler serializer = factory.newTransformerHandler();
+		serializer.getTransformer().setOutputProperties(templates.getOutputProperties());
+		serializer.setResult(new StreamResult(output.bytes));
+
+		List<TransformerHandler> handlers = new ArrayList<>();
+		handlers.add(serializer);
+		for (TransformPipeline stage : stages) {
+			handlers.add(stage.getHandler(outputs));
+		}
+		return tee(handlers);
+	}
+
+	private static Result tee(List<TransformerHandler> handlers) {
+		TeeHandler tee = new TeeHandler(handlers);
+		SAXResult result = new SAXResult(tee);
+		result.setLexicalHandler(tee);
+		return result;
+	}
+
+	private static void setParameters(javax.xml.transform.Transformer transformer, Map<String, String> parameters) {
+		if (parameters == null) {
+			return;
+		}
+		for (Map.Entry<String, String> entry : parameters.entrySet()) {
+			if (entry.getValue() != null) {
+				transformer.setParameter(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	private static class Output {
+
+		private final TransformPipeline stage;
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		Output(TransformPipeline stage) {
+			this.stage = stage;
+		}
+
+	}
+
+	/**
+	 * Passes every SAX event on to all of its handlers
+	 */
+	private static class TeeHandler implements ContentHandler, LexicalHandler {
+
+		private final List<TransformerHandler> handlers;
+
+		TeeHandler(List<TransformerHandler> handlers) {
+			this.handlers = handlers;
+		}
+
+		@Override
+		public void setDocumentLocator(Locator locator) {
+			for (ContentHandler handler : handlers) {
+				handler.setDocumentLocator(locator);
+			}
+		}
+
+		@Override
+		public void startDocument() throws SAXException {
+			for (ContentHandler handler : handlers) {
+				handler.startDocument();
+			}
+		}
+
+		@Override
+		public void endDocument() throws SAXException {
+			for (ContentHandler handler : handlers) {
+				handler.endDocument();
+			}
+		}
+
+		@Override
+		public void startPrefixMapping(String prefix, String uri) throws SAXException {
+			for (ContentHandler handler : handlers) {
+				handler.startPrefixMapping(prefix, uri);
+			}
+		}
+
+		@Override
+		public void endPrefixMapping(String prefix) throws SAXException {
+			for (ContentHandler handler : handlers) {
+				handler.endPrefixMapping(prefix);
+			}
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes atts)
+				throws SAXException {
+			for (ContentHandler handler : handlers) {
+				handler.startElement(uri, localName, qName, atts);
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) throws SAXException {
+			for (ContentHandler handler : handlers) {
+				handler.endElement(uri, localName, qName);
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) throws SAXException {
+			for (ContentHandler handler : handlers) {
+				handler.characters(ch, start, length);
+			}
+		}
+
+		@Override
+		public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+			for (ContentHandler handler : handlers) {
+				handler.ignorableWhitespace(ch, start, length);
+			}
+		}
+
+		@Override
+		public void processingInstruction(String target, String data) throws SAXException {
+			for (ContentHandler handler : handlers) {
+				handler.processingInstruction(target, data);
+			}
+		}
+
+		@Override
+		public void skippedEntity(String name) throws SAXException {
+			for (ContentHandler handler : handlers) {
+				handler.skippedEntity(name);
+			}
+		}
+
+		@Override
+		public void startDTD(String name, String publicId, String systemId) throws SAXException {
+			for (LexicalHandler handler : handlers) {
+				handler.startDTD(name, publicId, systemId);
+			}
+		}
+
+		@Override
+		public void endDTD() throws SAXException {
+			for (LexicalHandler handler : handlers) {
+				handler.endDTD();
+			}
+		}
+
+		@Override
+		public void startEntity(String name) throws SAXException {
+			for (LexicalHandler handler : handlers) {
+				handler.startEntity(name);
+			}
+		}
+
+		@Override
+		public void endEntity(String name) throws SAXException {
+			for (LexicalHandler handler : handlers) {
+				handler.endEntity(name);
+			}
+		}
+
+		@Override
+		public void startCDATA() throws SAXException {
+			for (LexicalHandler handler : handlers) {
+				handler.startCDATA();
+			}
+		}
+
+		@Override
+		public void endCDATA() throws SAXException {
+			for (LexicalHandler handler : handlers) {
+				handler.endCDATA();
+			}
+		}
+
+		@Override
+		public void comment(char[] ch, int start, int length) throws SAXException {
+			for (LexicalHandler handler : handlers) {
+				handler.comment(ch, start, length);
+			}
+		}
+
+	}
+
+}
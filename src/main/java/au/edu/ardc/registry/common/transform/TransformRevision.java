@@ -0,0 +1,81 @@
+package au.edu.ardc.registry.common.transform;
+
+import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.service.VersionService;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Identifies what a derived {@link Version} was produced with: the class of the
+ * {@link Transformer}, the content of its stylesheet and its parameters. Along with the
+ * hash of the source version, it tells whether running a transform again could produce
+ * anything different from the current derived version
+ */
+public class TransformRevision {
+
+	private static final Map<String, String> stylesheetHashes = new ConcurrentHashMap<>();
+
+	/**
+	 * @param transformer the {@link Transformer}
+	 * @return the revision of the transformer
+	 */
+	public static String of(Transformer transformer) {
+		StringBuilder revision = new StringBuilder(transformer.getClass().getName());
+		if (transformer instanceof StylesheetTransformer) {
+			revision.append('|').append(getStylesheetHash(((StylesheetTransformer) transformer).getStylesheet()));
+		}
+		if (transformer.getParams() != null) {
+			revision.append('|').append(new TreeMap<>(transformer.getParams()));
+		}
+		return DigestUtils.sha1Hex(revision.toString());
+	}
+
+	/**
+	 * @param upstream the revision of the transforms producing the input of the
+	 * transformer
+	 * @param transformer the {@link Transformer}
+	 * @return the revision of the chain of transforms ending with the transformer
+	 */
+	public static String of(String upstream, Transformer transformer) {
+		return upstream != null ? DigestUtils.sha1Hex(upstream + '|' + of(transformer)) : of(transformer);
+	}
+
+	/**
+	 * @param version the source {@link Version}
+	 * @return the hash of its content
+	 */
+	public static String getSourceHash(Version version) {
+		return version.getHash() != null ? version.getHash() : VersionService.getHash(version);
+	}
+
+	/**
+	 * @param derived the current derived {@link Version}, may be null
+	 * @param sourceHash the hash of the source version
+	 * @param revision the revision of the transforms producing the derived version
+	 * @return true if the derived version was produced out of the same source with the
+	 * same transforms, a transform would produce it again
+	 */
+	public static boolean isCurrent(Version derived, String sourceHash, String revision) {
+		return derived != null && revision != null && sourceHash.equals(derived.getSourceHash())
+				&& revision.equals(derived.getTransformRevision());
+	}
+
+	private static String getStylesheetHash(String path) {
+		return stylesheetHashes.computeIfAbsent(path, key -> {
+			try (InputStream stylesheet = new ClassPathResource(key).getInputStream()) {
+				return DigestUtils.sha1Hex(stylesheet);
+			}
+			catch (IOException e) {
+				// the transform fails on its own and produces nothing
+				return null;
+			}
+		});
+	}
+
+}
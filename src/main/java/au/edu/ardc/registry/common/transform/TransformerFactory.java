@@ -1,22 +1,27 @@
 package au.edu.ardc.registry.common.transform;
 
 import au.edu.ardc.registry.common.model.Schema;
-import au.edu.ardc.registry.exception.ContentProviderNotFoundException;
+import au.edu.ardc.registry.common.provider.ProviderRegistry;
 import au.edu.ardc.registry.exception.TransformerNotFoundException;
 
 public class TransformerFactory {
 
-
+	/**
+	 * Obtain a new {@link Transformer} between 2 {@link Schema}, as resolved by the
+	 * {@link ProviderRegistry}
+	 * @param fromSchema the {@link Schema} declaring the transform
+	 * @param toSchema the target {@link Schema}
+	 * @return the {@link Transformer} instance
+	 * @throws TransformerNotFoundException when there's no transform between the schemas
+	 */
 	public static Object create(Schema fromSchema, Schema toSchema) {
 		try {
 			String fqdn = fromSchema.getTransforms().get(toSchema.getId());
-			return Class.forName(fqdn).newInstance();
+			return ProviderRegistry.get(fqdn);
 		}
-		catch (NullPointerException | InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+		catch (NullPointerException | ReflectiveOperationException e) {
 			throw new TransformerNotFoundException(fromSchema.getId(), toSchema.getId());
 		}
 	}
 
-
-
 }
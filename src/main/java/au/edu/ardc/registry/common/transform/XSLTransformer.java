@@ -1,11 +1,10 @@
 package au.edu.ardc.registry.common.transform;
 
+import au.edu.ardc.registry.common.util.XMLUtil;
 import org.springframework.core.io.ClassPathResource;
 import org.w3c.dom.Document;
 import org.xml.sax.SAXException;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.*;
 import javax.xml.transform.Transformer;
@@ -14,17 +13,34 @@ import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import java.io.ByteArrayInputStream;
-import java.io.File;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringWriter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Runs the XSLT stylesheets found on the classpath. Every stylesheet is compiled once
+ * into thread safe {@link Templates}, each thread then reuses its own {@link Transformer}
+ * per stylesheet. The byte and stream overloads hand the input straight to the XSLT
+ * processor without building a DOM beforehand
+ */
 public class XSLTransformer {
 
+	private static final TransformerFactory factory = TransformerFactory.newInstance();
+
+	private static final Map<String, Templates> templates = new ConcurrentHashMap<>();
+
+	private static final ThreadLocal<Map<String, Transformer>> transformers = ThreadLocal.withInitial(HashMap::new);
+
 	/**
 	 * Using XSLT to transform a String into another String with the provided parameter
-	 * map
+	 * map. The input goes through a DOM, which presents attributes in alphabetical order
+	 * to the stylesheet, use this one when copied attributes must keep that order (eg
+	 * csiro_v3_to_ardc_v1.xsl, whose output is hashed)
 	 * @param schemaPath path to the schema
 	 * @param xml XML String
 	 * @param parameters a Map of xslt parameters
@@ -33,39 +49,13 @@ public class XSLTransformer {
 	public static String transform(String schemaPath, String xml, Map<String, String> parameters) {
 		try {
 			// setup document source from the provided xml
-			DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-			documentBuilderFactory.setNamespaceAware(true);
-			DocumentBuilder builder;
-			builder = documentBuilderFactory.newDocumentBuilder();
-			Document document = builder.parse(new ByteArrayInputStream(xml.getBytes()));
-			DOMSource DOMSource = new DOMSource(document);
-
-			// setup transformer factory with the xslt file at the provided path
-			TransformerFactory factory = TransformerFactory.newInstance();
-			Transformer transformer;
-
-			Source xslt = new StreamSource(new ClassPathResource(schemaPath).getInputStream());
-			transformer = factory.newTransformer(xslt);
-
-			// set parameters if any
-			if (parameters != null) {
-				for (Map.Entry<String, String> entry : parameters.entrySet()) {
-					if(entry.getValue() != null){
-						transformer.setParameter(entry.getKey(), entry.getValue());
-					}
-				}
-			}
+			Document document = XMLUtil.parseNamespaceAware(xml);
 
-			// setup input stream for the transformer
 			StringWriter stringWriter = new StringWriter();
-			StreamResult resultStream = new StreamResult(stringWriter);
-
-			// do the transform
-			transformer.transform(DOMSource, resultStream);
+			transform(schemaPath, new DOMSource(document), new StreamResult(stringWriter), parameters);
 
 			// the result is available via the StringWriter
 			return stringWriter.toString();
-
 		}
 		catch (SAXException | ParserConfigurationException | IOException | TransformerException e) {
 			e.printStackTrace();
@@ -73,4 +63,95 @@ public class XSLTransformer {
 		}
 	}
 
+	/**
+	 * Using XSLT to transform an XML document into bytes, the encoding of the result is
+	 * the one of the stylesheet output, UTF-8 by default
+	 * @param schemaPath path to the schema
+	 * @param xml the bytes of the XML document, the encoding is read from its declaration
+	 * @param parameters a Map of xslt parameters
+	 * @return the bytes of the result of the transformation
+	 * @throws TransformerException when the stylesheet can't be loaded or the transform
+	 * fails
+	 */
+	public static byte[] transform(String schemaPath, byte[] xml, Map<String, String> parameters)
+			throws TransformerException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream(xml.length);
+		transform(schemaPath, new ByteArrayInputStream(xml), result, parameters);
+		return result.toByteArray();
+	}
+
+	/**
+	 * Using XSLT to transform an XML stream straight into an {@link OutputStream}
+	 * @param schemaPath path to the schema
+	 * @param xml the {@link InputStream} of the XML document
+	 * @param result the {@link OutputStream} to write the result to, left open
+	 * @param parameters a Map of xslt parameters
+	 * @throws TransformerException when the stylesheet can't be loaded or the transform
+	 * fails
+	 */
+	public static void transform(String schemaPath, InputStream xml, OutputStream result,
+			Map<String, String> parameters) throws TransformerException {
+		transform(schemaPath, new StreamSource(xml), new StreamResult(result), parameters);
+	}
+
+	/**
+	 * Obtain the compiled stylesheet at the given path, compiling it on first use
+	 * @param schemaPath the classpath location of the stylesheet
+	 * @return the thread safe {@link Templates} of the stylesheet
+	 * @throws TransformerConfigurationException when the stylesheet can't be loaded or
+	 * compiled
+	 */
+	public static Templates getTemplates(String schemaPath) throws TransformerConfigurationException {
+		Templates compiled = templates.get(schemaPath);
+		if (compiled != null) {
+			return compiled;
+		}
+		try (InputStream xslt = new ClassPathResource(schemaPath).getInputStream()) {
+			compiled = factory.newTemplates(new StreamSource(xslt));
+		}
+		catch (IOException e) {
+			throw new TransformerConfigurationException(e.getMessage(), e);
+		}
+		templates.putIfAbsent(schemaPath, compiled);
+		return templates.get(schemaPath);
+	}
+
+	private static void transform(String schemaPath, Source source, Result result, Map<String, String> parameters)
+			throws TransformerException {
+		Transformer transformer = getTransformer(schemaPath);
+
+		// set parameters if any
+		if (parameters != null) {
+			for (Map.Entry<String, String> entry : parameters.entrySet()) {
+				if (entry.getValue() != null) {
+					transformer.setParameter(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+
+		// do the transform
+		try {
+			transformer.transform(source, result);
+		}
+		finally {
+			// clear the parameters for the next use on this thread
+			transformer.reset();
+		}
+	}
+
+	/**
+	 * @param schemaPath the classpath location of the stylesheet
+	 * @return the {@link Transformer} of the stylesheet for the current thread
+	 * @throws TransformerConfigurationException when the stylesheet can't be compiled
+	 */
+	private static Transformer getTransformer(String schemaPath) throws TransformerConfigurationException {
+		Map<String, Transformer> threadTransformers = transformers.get();
+		Transformer transformer = threadTransformers.get(schemaPath);
+		if (transformer == null) {
+			transformer = getTemplates(schemaPath).newTransformer();
+			threadTransformers.put(schemaPath, transformer);
+		}
+		return transformer;
+	}
+
 }
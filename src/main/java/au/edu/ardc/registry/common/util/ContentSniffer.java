@@ -0,0 +1,194 @@
+package au.edu.ardc.registry.common.util;
+
+import au.edu.ardc.registry.common.model.ContentInfo;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.tika.Tika;
+import org.apache.tika.mime.MimeTypeException;
+import org.apache.tika.mime.MimeTypes;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Determines the media type, root namespace and file extension of a content by only
+ * looking at its first few kilobytes. The {@link Tika} detector and the mime repository
+ * are created once, the root namespace is read with StAX up to the first start element
+ * and results are cached by the hash of the sniffed prefix, so the same payload going
+ * through several validators is only sniffed once
+ */
+public class ContentSniffer {
+
+	/**
+	 * The number of characters looked at, more than what Tika needs for its magic and
+	 * text detection and enough to hold the root element of any supported document
+	 */
+	public static final int PREFIX_LENGTH = 8192;
+
+	private static final int CACHE_SIZE = 256;
+
+	private static final String DEFAULT_EXTENSION = ".bin";
+
+	private static final Tika tika = new Tika();
+
+	private static final MimeTypes mimeTypes = MimeTypes.getDefaultMimeTypes();
+
+	private static final XMLInputFactory inputFactory = createInputFactory();
+
+	private static final Map<String, ContentInfo> cache = Collections
+			.synchronizedMap(new LinkedHashMap<String, ContentInfo>(CACHE_SIZE, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, ContentInfo> eldest) {
+					return size() > CACHE_SIZE;
+				}
+			});
+
+	/**
+	 * Sniff the given content
+	 * @param content the String content
+	 * @return the {@link ContentInfo} of the content
+	 */
+	public static ContentInfo sniff(String content) {
+		String prefix = content.length() > PREFIX_LENGTH ? content.substring(0, PREFIX_LENGTH) : content;
+		String key = DigestUtils.sha1Hex(prefix);
+		ContentInfo info = cache.get(key);
+		if (info != null) {
+			return info;
+		}
+
+		if (prefix.length() < content.length() && !hasRootElement(prefix)) {
+			// the root element doesn't fit in the prefix, the whole content has to be
+			// looked at and the result can't be cached against the prefix
+			return detect(content);
+		}
+
+		info = detect(prefix);
+		cache.put(key, info);
+		return info;
+	}
+
+	/**
+	 * Sniff a content stored on disk, only reading the beginning of the file unless its
+	 * root element doesn't fit in the prefix
+	 * @param path the {@link Path} of the file
+	 * @return the {@link ContentInfo} of the file content
+	 * @throws IOException when the file can't be read
+	 */
+	public static ContentInfo sniff(Path path) throws IOException {
+		char[] buffer = new char[PREFIX_LENGTH + 1];
+		int length = 0;
+		try (Reader reader = new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8)) {
+			int read;
+			while (length < buffer.length && (read = reader.read(buffer, length, buffer.length - length)) != -1) {
+				length += read;
+			}
+		}
+		if (length <= PREFIX_LENGTH) {
+			return sniff(new String(buffer, 0, length));
+		}
+		String prefix = new String(buffer, 0, PREFIX_LENGTH);
+		if (hasRootElement(prefix)) {
+			// same key as the whole content would have
+			return sniff(prefix);
+		}
+		return detect(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @param file the {@link File} to detect
+	 * @return the detected media type of the file
+	 * @throws IOException when the file can't be read
+	 */
+	public static String detect(File file) throws IOException {
+		return tika.detect(file);
+	}
+
+	/**
+	 * @param mediaType the media type, eg application/xml
+	 * @return the preferred file extension of the media type, eg .xml or ".bin" if it
+	 * can't be found
+	 */
+	public static String getExtension(String mediaType) {
+		try {
+			return mimeTypes.forName(mediaType).getExtension();
+		}
+		catch (MimeTypeException e) {
+			return DEFAULT_EXTENSION;
+		}
+	}
+
+	private static ContentInfo detect(String content) {
+		String mediaType = tika.detect(content.getBytes(StandardCharsets.UTF_8));
+		String namespace = null;
+		if (mediaType.equals("application/xml")) {
+			try {
+				namespace = getRootNamespace(content);
+			}
+			catch (XMLStreamException e) {
+				// not well formed up to the root element
+				namespace = null;
+			}
+		}
+		return new ContentInfo(mediaType, namespace, getExtension(mediaType));
+	}
+
+	/**
+	 * @param prefix the beginning of a content
+	 * @return false if the prefix looks like markup but its root element is cut off
+	 */
+	private static boolean hasRootElement(String prefix) {
+		if (!prefix.trim().startsWith("<")) {
+			return true;
+		}
+		try {
+			getRootNamespace(prefix);
+			return true;
+		}
+		catch (XMLStreamException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Read the XML content up to its first start element
+	 * @param xml the XML content, only the beginning up to the root element is needed
+	 * @return the namespace URI of the root element, null if there's none
+	 * @throws XMLStreamException when the content isn't XML up to the root element
+	 */
+	private static String getRootNamespace(String xml) throws XMLStreamException {
+		XMLStreamReader reader = inputFactory.createXMLStreamReader(new StringReader(xml));
+		try {
+			while (reader.hasNext()) {
+				if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+					String namespace = reader.getNamespaceURI();
+					return (namespace == null || namespace.isEmpty()) ? null : namespace;
+				}
+			}
+			throw new XMLStreamException("No root element found");
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	private static XMLInputFactory createInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		return factory;
+	}
+
+}
@@ -3,10 +3,6 @@ package au.edu.ardc.registry.common.util;
 import au.edu.ardc.registry.exception.ContentNotSupportedException;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
-import org.apache.tika.Tika;
-import org.apache.tika.config.TikaConfig;
-import org.apache.tika.mime.MimeType;
-import org.apache.tika.mime.MimeTypeException;
 import org.springframework.core.io.ClassPathResource;
 
 import javax.servlet.http.HttpServletRequest;
@@ -14,7 +10,6 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -49,7 +44,10 @@ public class Helpers {
 	}
 
 	public static void checkFileSize(String path, long maxSize) throws IOException, ContentNotSupportedException {
-		long byteSize = Files.size(Paths.get(path));
+		checkSize(Files.size(Paths.get(path)), maxSize);
+	}
+
+	public static void checkSize(long byteSize, long maxSize) throws ContentNotSupportedException {
 		long kiloBytes = byteSize / 1024;
 		long maxKiloBytes = maxSize /1024 ;
 		if(byteSize > maxSize){
@@ -109,15 +107,15 @@ public class Helpers {
 	 * ".bin" extension is 'assumed'
 	 */
 	public static String getFileExtensionForContent(String content) {
-		try {
-			String mediaType = Helpers.probeContentType(content);
-			TikaConfig config = TikaConfig.getDefaultConfig();
-			MimeType mimeType = config.getMimeRepository().forName(mediaType);
-			return mimeType.getExtension();
-		}
-		catch (MimeTypeException e) {
-			return ".bin";
-		}
+		return ContentSniffer.sniff(content).getExtension();
+	}
+
+	/**
+	 * @param threads the configured number of threads of a pool, 0 for the default
+	 * @return the configured number of threads, as many as there are processors by default
+	 */
+	public static int getThreads(int threads) {
+		return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
 	}
 
 	public static String readFileOnClassPath(String path) throws IOException {
@@ -125,14 +123,17 @@ public class Helpers {
 		return IOUtils.toString(resource, StandardCharsets.UTF_8.name());
 	}
 
+	/**
+	 * @param content a String content
+	 * @return the media type detected from the beginning of the content
+	 * @see ContentSniffer
+	 */
 	public static String probeContentType(String content) {
-		Charset charset = StandardCharsets.UTF_8;
-		byte[] byteArray = content.getBytes(charset);
-		return new Tika().detect(byteArray);
+		return ContentSniffer.sniff(content).getMediaType();
 	}
 
 	public static String probeContentType(File file) throws IOException {
-		return new Tika().detect(file);
+		return ContentSniffer.detect(file);
 	}
 
 	/**
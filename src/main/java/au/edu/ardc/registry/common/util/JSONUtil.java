@@ -0,0 +1,66 @@
+package au.edu.ardc.registry.common.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Reformats JSON documents token by token with the Jackson streaming API, without
+ * building a tree of the document. Field order and values are kept as is
+ */
+public class JSONUtil {
+
+	private static final JsonFactory factory = new JsonFactory();
+
+	/**
+	 * @param json the bytes of a JSON document
+	 * @return the same document without any insignificant whitespace
+	 * @throws IOException when the content is not valid JSON
+	 */
+	public static byte[] compact(byte[] json) throws IOException {
+		return copy(json, false);
+	}
+
+	/**
+	 * @param json the bytes of a JSON document
+	 * @return the same document indented for human consumption
+	 * @throws IOException when the content is not valid JSON
+	 */
+	public static byte[] prettyPrint(byte[] json) throws IOException {
+		return copy(json, true);
+	}
+
+	/**
+	 * JSON content is stored compact, it is indented when asked for
+	 * @param content the stored content
+	 * @param mediaType the {@link MediaType} of the content
+	 * @param pretty true to indent JSON content
+	 * @return the content as it is delivered
+	 * @throws IOException when JSON content to indent is not valid
+	 */
+	public static byte[] format(byte[] content, MediaType mediaType, boolean pretty) throws IOException {
+		if (pretty && MediaType.APPLICATION_JSON.equals(mediaType)) {
+			return prettyPrint(content);
+		}
+		return content;
+	}
+
+	private static byte[] copy(byte[] json, boolean pretty) throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream(json.length);
+		try (JsonParser parser = factory.createParser(json);
+				JsonGenerator generator = factory.createGenerator(result)) {
+			if (pretty) {
+				generator.useDefaultPrettyPrinter();
+			}
+			while (parser.nextToken() != null) {
+				generator.copyCurrentStructure(parser);
+			}
+		}
+		return result.toByteArray();
+	}
+
+}
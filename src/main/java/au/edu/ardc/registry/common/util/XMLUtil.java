@@ -1,11 +1,14 @@
 package au.edu.ardc.registry.common.util;
 
 import au.edu.ardc.registry.exception.ContentNotSupportedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Metrics;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 //import org.xmlunit.builder.Input;
@@ -20,32 +23,119 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 import java.io.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 public class XMLUtil {
 
+	/**
+	 * Upper bound of compiled XPath expressions kept per thread, the providers only ever
+	 * use a handful
+	 */
+	private static final int XPATH_CACHE_SIZE = 128;
+
+	private static final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+
+	private static final DocumentBuilderFactory namespaceAwareDocumentBuilderFactory = DocumentBuilderFactory
+			.newInstance();
+
+	private static final XPathFactory xPathFactory = XPathFactory.newInstance();
+
+	/**
+	 * DocumentBuilder, XPath and XPathExpression are not thread safe, each thread gets its
+	 * own reusable instance
+	 */
+	private static final ThreadLocal<DocumentBuilder> documentBuilders = new ThreadLocal<>();
+
+	private static final ThreadLocal<DocumentBuilder> namespaceAwareDocumentBuilders = new ThreadLocal<>();
+
+	private static final ThreadLocal<Map<String, XPathExpression>> xPathExpressions = ThreadLocal
+			.withInitial(() -> new LinkedHashMap<String, XPathExpression>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+					return size() > XPATH_CACHE_SIZE;
+				}
+			});
+
+	private static final LongAdder xPathCacheHits = new LongAdder();
+
+	private static final LongAdder xPathCacheMisses = new LongAdder();
+
+	static {
+		namespaceAwareDocumentBuilderFactory.setNamespaceAware(true);
+		FunctionCounter.builder("xml.xpath.cache", xPathCacheHits, LongAdder::doubleValue).tag("result", "hit")
+				.description("Compiled XPath expressions served from the cache").register(Metrics.globalRegistry);
+		FunctionCounter.builder("xml.xpath.cache", xPathCacheMisses, LongAdder::doubleValue).tag("result", "miss")
+				.description("XPath expressions compiled").register(Metrics.globalRegistry);
+	}
+
+	/**
+	 * Parse the XML String and evaluate the xpath against it
+	 * @param xml the XML String
+	 * @param xpath the xpath expression, compiled expressions are cached
+	 * @return the matching {@link NodeList}
+	 * @throws ParserConfigurationException when a parser can't be created
+	 * @throws IOException when the xml can't be read
+	 * @throws SAXException when the xml is not well formed
+	 * @throws XPathExpressionException when the xpath is not valid
+	 */
 	public static NodeList getXPath(String xml, String xpath)
 			throws ParserConfigurationException, IOException, SAXException, XPathExpressionException {
-		InputStream xmlStream = new ByteArrayInputStream(xml.getBytes());
+		return getXPath(parse(xml), xpath);
+	}
 
-		DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
-		DocumentBuilder builder = builderFactory.newDocumentBuilder();
-		Document xmlDocument = builder.parse(xmlStream);
+	/**
+	 * Evaluate the xpath against an already parsed {@link Node}, allowing multiple
+	 * lookups on the same document with a single parse
+	 * @param node the {@link Node} or {@link Document} to evaluate against
+	 * @param xpath the xpath expression, compiled expressions are cached
+	 * @return the matching {@link NodeList}
+	 * @throws XPathExpressionException when the xpath is not valid
+	 */
+	public static NodeList getXPath(Node node, String xpath) throws XPathExpressionException {
+		return (NodeList) compile(xpath).evaluate(node, XPathConstants.NODESET);
+	}
 
-		XPath xPath = XPathFactory.newInstance().newXPath();
-		return (NodeList) xPath.compile(xpath).evaluate(xmlDocument, XPathConstants.NODESET);
+	/**
+	 * Parse the XML String with the (non namespace aware) DocumentBuilder of the current
+	 * thread
+	 * @param xml the XML String
+	 * @return the parsed {@link Document}
+	 * @throws ParserConfigurationException when a parser can't be created
+	 * @throws IOException when the xml can't be read
+	 * @throws SAXException when the xml is not well formed
+	 */
+	public static Document parse(String xml) throws ParserConfigurationException, IOException, SAXException {
+		DocumentBuilder builder = getDocumentBuilder(documentBuilders, documentBuilderFactory);
+		return builder.parse(new InputSource(new StringReader(xml)));
+	}
+
+	/**
+	 * Parse the XML String with the namespace aware DocumentBuilder of the current thread
+	 * @param xml the XML String
+	 * @return the parsed {@link Document}
+	 * @throws ParserConfigurationException when a parser can't be created
+	 * @throws IOException when the xml can't be read
+	 * @throws SAXException when the xml is not well formed
+	 */
+	public static Document parseNamespaceAware(String xml)
+			throws ParserConfigurationException, IOException, SAXException {
+		DocumentBuilder builder = getDocumentBuilder(namespaceAwareDocumentBuilders,
+				namespaceAwareDocumentBuilderFactory);
+		return builder.parse(new InputSource(new StringReader(xml)));
 	}
 
 	public static String getNamespaceURI(String xml) throws ContentNotSupportedException {
 		String nameSpace = "";
 		try {
-			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-			factory.setNamespaceAware(true);
-			DocumentBuilder builder = factory.newDocumentBuilder();
-			InputStream xmlStream = new ByteArrayInputStream(xml.getBytes());
-			Document doc = builder.parse(xmlStream);
+			DocumentBuilder builder = getDocumentBuilder(namespaceAwareDocumentBuilders,
+					namespaceAwareDocumentBuilderFactory);
+			Document doc = builder.parse(new InputSource(new StringReader(xml)));
 			Element root = doc.getDocumentElement();
 			String rootPrefix = root.getPrefix();
 			// the default namespace (no prefix)
@@ -73,6 +163,52 @@ public class XMLUtil {
 		return nameSpace;
 	}
 
+	/**
+	 * @return the number of XPath lookups served by an already compiled expression
+	 */
+	public static long getXPathCacheHits() {
+		return xPathCacheHits.sum();
+	}
+
+	/**
+	 * @return the number of XPath lookups that required compiling the expression
+	 */
+	public static long getXPathCacheMisses() {
+		return xPathCacheMisses.sum();
+	}
+
+	private static XPathExpression compile(String xpath) throws XPathExpressionException {
+		Map<String, XPathExpression> expressions = xPathExpressions.get();
+		XPathExpression expression = expressions.get(xpath);
+		if (expression != null) {
+			xPathCacheHits.increment();
+			return expression;
+		}
+		xPathCacheMisses.increment();
+		XPath xPath;
+		synchronized (xPathFactory) {
+			xPath = xPathFactory.newXPath();
+		}
+		expression = xPath.compile(xpath);
+		expressions.put(xpath, expression);
+		return expression;
+	}
+
+	private static DocumentBuilder getDocumentBuilder(ThreadLocal<DocumentBuilder> builders,
+			DocumentBuilderFactory factory) throws ParserConfigurationException {
+		DocumentBuilder builder = builders.get();
+		if (builder == null) {
+			synchronized (factory) {
+				builder = factory.newDocumentBuilder();
+			}
+			builders.set(builder);
+		}
+		else {
+			builder.reset();
+		}
+		return builder;
+	}
+
 	public static boolean compareRegistrationMetadata(byte[] currentContent, byte[] newContent) {
 		boolean different = true;
 		return different;
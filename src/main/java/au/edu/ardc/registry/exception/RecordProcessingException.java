@@ -0,0 +1,23 @@
+package au.edu.ardc.registry.exception;
+
+import java.util.UUID;
+
+/**
+ * Exception when a record can't be processed, or only partly, so that the job processing
+ * it can count it as an error
+ */
+public class RecordProcessingException extends RuntimeException {
+
+	private final UUID recordId;
+
+	public RecordProcessingException(UUID recordId, String reason) {
+		// the reason only, the callers log it along with the record
+		super(reason);
+		this.recordId = recordId;
+	}
+
+	public UUID getRecordId() {
+		return recordId;
+	}
+
+}
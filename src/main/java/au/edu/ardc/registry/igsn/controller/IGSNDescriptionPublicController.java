@@ -10,6 +10,7 @@ import au.edu.ardc.registry.common.model.schema.XMLSchema;
 import au.edu.ardc.registry.common.service.IdentifierService;
 import au.edu.ardc.registry.common.service.SchemaService;
 import au.edu.ardc.registry.common.service.VersionService;
+import au.edu.ardc.registry.common.util.JSONUtil;
 import au.edu.ardc.registry.igsn.exception.IGSNNoValidContentForSchema;
 import au.edu.ardc.registry.igsn.exception.IGSNNotFoundException;
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,6 +23,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping(value = "/api/public/igsn-description")
 @ConditionalOnProperty(name = "app.igsn.enabled")
@@ -46,7 +49,8 @@ public class IGSNDescriptionPublicController {
 			description = "Return the content of the version associate with the record for a given identifier")
 	@PageableOperation
 	public ResponseEntity<?> index(@RequestParam(name = "identifier") String identifierValue,
-			@RequestParam(required = false, defaultValue = SchemaService.ARDCv1) String schema) {
+			@RequestParam(required = false, defaultValue = SchemaService.ARDCv1) String schema,
+			@RequestParam(required = false, defaultValue = "false") boolean pretty) throws IOException {
 		Identifier identifier = identifierService.findByValueAndType(identifierValue, Identifier.Type.IGSN);
 		if (identifier == null) {
 			throw new IGSNNotFoundException(identifierValue);
@@ -64,7 +68,8 @@ public class IGSNDescriptionPublicController {
 			mediaType = MediaType.APPLICATION_JSON;
 		}
 
-		return ResponseEntity.ok().contentType(mediaType).body(version.getContent());
+		return ResponseEntity.ok().contentType(mediaType)
+				.body(JSONUtil.format(version.getContent(), mediaType, pretty));
 	}
 
 }
@@ -1,5 +1,6 @@
 package au.edu.ardc.registry.igsn.controller;
 
+import au.edu.ardc.registry.common.chunk.MemoryChunk;
 import au.edu.ardc.registry.common.dto.AllocationDTO;
 import au.edu.ardc.registry.common.dto.RequestDTO;
 import au.edu.ardc.registry.common.dto.mapper.RequestMapper;
@@ -673,7 +674,7 @@ public class IGSNServiceController {
 		IdentifierProvider identifierProvider = (IdentifierProvider) MetadataProviderFactory
 				.create(schemaService.getSchemaByID(schemaID), Metadata.Identifier);
 		String identifierValue = identifierProvider.get(payload, 0);
-		ImportIGSNTask task = new ImportIGSNTask(identifierValue, new File(fragmentPath), request, importService,
+		ImportIGSNTask task = new ImportIGSNTask(identifierValue, new MemoryChunk(content), request, importService,
 				applicationEventPublisher, igsnRequestService);
 		task.run();
 
@@ -889,7 +890,7 @@ public class IGSNServiceController {
 		IdentifierProvider identifierProvider = (IdentifierProvider) MetadataProviderFactory
 				.create(schemaService.getSchemaByID(schemaID), Metadata.Identifier);
 		String identifierValue = identifierProvider.get(payload, 0);
-		UpdateIGSNTask task = new UpdateIGSNTask(identifierValue, new File(fragmentPath), request, importService,
+		UpdateIGSNTask task = new UpdateIGSNTask(identifierValue, new MemoryChunk(content), request, importService,
 				applicationEventPublisher, igsnRequestService);
 		task.run();
 
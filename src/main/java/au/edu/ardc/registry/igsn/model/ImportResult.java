@@ -0,0 +1,57 @@
+package au.edu.ardc.registry.igsn.model;
+
+import au.edu.ardc.registry.common.chunk.Chunk;
+import au.edu.ardc.registry.common.entity.Identifier;
+
+import java.io.IOException;
+
+/**
+ * The outcome of importing a {@link Chunk} of a batch, the imported {@link Identifier} or
+ * the exception the import failed with
+ */
+public class ImportResult {
+
+	private final Chunk chunk;
+
+	private final Identifier identifier;
+
+	private final Exception exception;
+
+	private ImportResult(Chunk chunk, Identifier identifier, Exception exception) {
+		this.chunk = chunk;
+		this.identifier = identifier;
+		this.exception = exception;
+	}
+
+	public static ImportResult of(Chunk chunk, Identifier identifier) {
+		return new ImportResult(chunk, identifier, null);
+	}
+
+	public static ImportResult failed(Chunk chunk, Exception exception) {
+		return new ImportResult(chunk, null, exception);
+	}
+
+	public Chunk getChunk() {
+		return chunk;
+	}
+
+	public Exception getException() {
+		return exception;
+	}
+
+	/**
+	 * @return the imported {@link Identifier}, null if none was created
+	 * @throws IOException when the import failed reading the chunk
+	 * @throws RuntimeException the exception the import failed with
+	 */
+	public Identifier get() throws IOException {
+		if (exception instanceof IOException) {
+			throw (IOException) exception;
+		}
+		if (exception instanceof RuntimeException) {
+			throw (RuntimeException) exception;
+		}
+		return identifier;
+	}
+
+}
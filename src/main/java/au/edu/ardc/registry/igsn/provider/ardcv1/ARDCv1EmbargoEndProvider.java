@@ -1,11 +1,14 @@
 package au.edu.ardc.registry.igsn.provider.ardcv1;
 
 import au.edu.ardc.registry.common.provider.EmbargoEndProvider;
+import au.edu.ardc.registry.common.provider.ParsedContent;
 import au.edu.ardc.registry.common.util.Helpers;
 import au.edu.ardc.registry.common.util.XMLUtil;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
+import javax.xml.xpath.XPathExpressionException;
 import java.util.Date;
 
 public class ARDCv1EmbargoEndProvider implements EmbargoEndProvider {
@@ -19,14 +22,35 @@ public class ARDCv1EmbargoEndProvider implements EmbargoEndProvider {
 	public Date get(String content) {
 		Date result;
 		try {
-			NodeList nodeList = XMLUtil.getXPath(content, "//isPublic");
-			Element resourceEmbargoEndNode = (Element) nodeList.item(0);
-			String embargoEndText = resourceEmbargoEndNode.getAttribute("embargoEnd");
-			result = (Helpers.convertDate(embargoEndText));
+			result = get(XMLUtil.parse(content));
 		} catch (Exception ex) {
 			ex.printStackTrace();
 			result = null;
 		}
 		return result;
 	}
+
+	/**
+	 * retrieve the embargoEnd of an already parsed IGSN record in ARDC v1 schema
+	 * @param content the {@link ParsedContent} of the ARDC v1 version
+	 * @return The embargoEnd as String if it exists
+	 */
+	@Override
+	public Date get(ParsedContent content) {
+		Date result;
+		try {
+			result = get(content.getDocument());
+		} catch (Exception ex) {
+			ex.printStackTrace();
+			result = null;
+		}
+		return result;
+	}
+
+	private Date get(Node document) throws XPathExpressionException {
+		NodeList nodeList = XMLUtil.getXPath(document, "//isPublic");
+		Element resourceEmbargoEndNode = (Element) nodeList.item(0);
+		String embargoEndText = resourceEmbargoEndNode.getAttribute("embargoEnd");
+		return Helpers.convertDate(embargoEndText);
+	}
 }
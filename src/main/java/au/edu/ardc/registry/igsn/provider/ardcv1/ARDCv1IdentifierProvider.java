@@ -6,7 +6,10 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPathExpressionException;
 
 import au.edu.ardc.registry.common.provider.IdentifierProvider;
+import au.edu.ardc.registry.common.provider.ParsedContent;
+import au.edu.ardc.registry.exception.ContentNotSupportedException;
 import org.jetbrains.annotations.NotNull;
+import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
@@ -24,13 +27,8 @@ public class ARDCv1IdentifierProvider implements IdentifierProvider {
 	@Override
 	public String get(String content) {
 		String identifierValue = "";
-
-		String xpath = "/resources/resource/resourceIdentifier";
 		try {
-			NodeList l = XMLUtil.getXPath(content, xpath);
-			if (l.getLength() > 0) {
-				identifierValue = l.item(0).getFirstChild().getNodeValue();
-			}
+			identifierValue = get(XMLUtil.parse(content));
 		}
 		catch (XPathExpressionException | ParserConfigurationException | IOException | SAXException e) {
 			// TODO Auto-generated catch block
@@ -40,6 +38,32 @@ public class ARDCv1IdentifierProvider implements IdentifierProvider {
 		return identifierValue.toUpperCase();
 	}
 
+	/**
+	 * Finds the resourceIdentifier of an already parsed IGSN record
+	 * @param content the {@link ParsedContent} of one Resource document
+	 * @return The resourceIdentifier as String
+	 */
+	@Override
+	public String get(ParsedContent content) {
+		String identifierValue = "";
+		try {
+			identifierValue = get(content.getDocument());
+		}
+		catch (XPathExpressionException | ContentNotSupportedException e) {
+			e.printStackTrace();
+		}
+
+		return identifierValue.toUpperCase();
+	}
+
+	private String get(Node document) throws XPathExpressionException {
+		NodeList l = XMLUtil.getXPath(document, "/resources/resource/resourceIdentifier");
+		if (l.getLength() > 0) {
+			return l.item(0).getFirstChild().getNodeValue();
+		}
+		return "";
+	}
+
 	@Override
 	public String get(String content, int position) {
 		String identifierValue = "";
@@ -6,6 +6,9 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPathExpressionException;
 
 import au.edu.ardc.registry.common.provider.LandingPageProvider;
+import au.edu.ardc.registry.common.provider.ParsedContent;
+import au.edu.ardc.registry.exception.ContentNotSupportedException;
+import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
@@ -24,12 +27,8 @@ public class ARDCv1LandingPageProvider implements LandingPageProvider {
 	@Override
 	public String get(String content) {
 		String landingPageValue = "";
-		String xpath = "/resources/resource/landingPage";
 		try {
-			NodeList l = XMLUtil.getXPath(content, xpath);
-			if (l.getLength() > 0) {
-				landingPageValue = l.item(0).getFirstChild().getNodeValue();
-			}
+			landingPageValue = get(XMLUtil.parse(content));
 		}
 		catch (XPathExpressionException | ParserConfigurationException | IOException | SAXException e) {
 			// TODO Auto-generated catch block
@@ -38,4 +37,29 @@ public class ARDCv1LandingPageProvider implements LandingPageProvider {
 		return landingPageValue;
 	}
 
+	/**
+	 * Finds the landingPage of 1 already parsed IGSN record in ARDCv1 schema
+	 * @param content the {@link ParsedContent} of the ARDC v1 version
+	 * @return The landing page (a url) as String
+	 */
+	@Override
+	public String get(ParsedContent content) {
+		String landingPageValue = "";
+		try {
+			landingPageValue = get(content.getDocument());
+		}
+		catch (XPathExpressionException | ContentNotSupportedException e) {
+			e.printStackTrace();
+		}
+		return landingPageValue;
+	}
+
+	private String get(Node document) throws XPathExpressionException {
+		NodeList l = XMLUtil.getXPath(document, "/resources/resource/landingPage");
+		if (l.getLength() > 0) {
+			return l.item(0).getFirstChild().getNodeValue();
+		}
+		return "";
+	}
+
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package au.edu.ardc.registry.igsn.provider.ardcv1;
 import au.edu.ardc.registry.common.entity.Identifier;
 import au.edu.ardc.registry.common.entity.Record;
 import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.provider.ParsedContent;
 import au.edu.ardc.registry.common.provider.StatusProvider;
 import au.edu.ardc.registry.common.service.SchemaService;
 import au.edu.ardc.registry.common.util.XMLUtil;
@@ -31,11 +32,20 @@ public class ARDCv1StatusProvider implements StatusProvider {
 			return Status.Unknown.toString();
 		}
 
+		return get(new ParsedContent(new String(ardcv1.getContent()), null));
+	};
+
+	/**
+	 * Obtain the status from the eventType of the logDate of an ARDC v1 content
+	 * @param content the {@link ParsedContent} of the ARDC v1 version
+	 * @return the Status as String
+	 */
+	@Override
+	public String get(ParsedContent content) {
 		// obtain eventType
-		String content = new String(ardcv1.getContent());
 		String eventType;
 		try {
-			NodeList nodeList = XMLUtil.getXPath(content, "//logDate");
+			NodeList nodeList = XMLUtil.getXPath(content.getDocument(), "//logDate");
 			Node logDateNode = nodeList.item(0);
 			Element elem = (Element) logDateNode;
 			eventType = elem.getAttribute("eventType");
@@ -57,7 +67,7 @@ public class ARDCv1StatusProvider implements StatusProvider {
 			default:
 				return Status.Unknown.toString();
 		}
-	};
+	}
 
 	public static enum Status {
 
@@ -1,11 +1,14 @@
 package au.edu.ardc.registry.igsn.provider.ardcv1;
 
 import au.edu.ardc.registry.common.model.Schema;
+import au.edu.ardc.registry.common.provider.ParsedContent;
 import au.edu.ardc.registry.common.provider.TitleProvider;
 import au.edu.ardc.registry.common.util.XMLUtil;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
+import javax.xml.xpath.XPathExpressionException;
+
 @SuppressWarnings("unused")
 public class ARDCv1TitleProvider implements TitleProvider {
 
@@ -16,17 +19,35 @@ public class ARDCv1TitleProvider implements TitleProvider {
 	 */
 	@Override
 	public String get(String content) {
-		String title = null;
 		try {
-			NodeList nodeList = XMLUtil.getXPath(content, "//resourceTitle");
-			Node resourceTitleNode = nodeList.item(0);
-			title = resourceTitleNode.getTextContent();
+			return get(XMLUtil.parse(content));
 		}
 		catch (Exception ex) {
 			ex.printStackTrace();
 			return null;
 		}
-		return title;
+	}
+
+	/**
+	 * retrieve the resourceTitle of an already parsed IGSN record in ARDC v1 schema
+	 * @param content the {@link ParsedContent} of the ARDC v1 version
+	 * @return The resourceTitle as String
+	 */
+	@Override
+	public String get(ParsedContent content) {
+		try {
+			return get(content.getDocument());
+		}
+		catch (Exception ex) {
+			ex.printStackTrace();
+			return null;
+		}
+	}
+
+	private String get(Node document) throws XPathExpressionException {
+		NodeList nodeList = XMLUtil.getXPath(document, "//resourceTitle");
+		Node resourceTitleNode = nodeList.item(0);
+		return resourceTitleNode.getTextContent();
 	}
 
 }
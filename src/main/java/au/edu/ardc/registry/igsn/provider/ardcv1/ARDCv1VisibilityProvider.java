@@ -1,10 +1,13 @@
 package au.edu.ardc.registry.igsn.provider.ardcv1;
 
+import au.edu.ardc.registry.common.provider.ParsedContent;
 import au.edu.ardc.registry.common.provider.VisibilityProvider;
 import au.edu.ardc.registry.common.util.XMLUtil;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
+import javax.xml.xpath.XPathExpressionException;
+
 @SuppressWarnings("unused")
 public class ARDCv1VisibilityProvider implements VisibilityProvider {
 
@@ -15,21 +18,42 @@ public class ARDCv1VisibilityProvider implements VisibilityProvider {
 	 */
 	@Override
 	public boolean get(String content) {
-		boolean visible = false;
-		// assume if the isPublic not set or ommited the record is visible
 		try {
-			NodeList nodeList = XMLUtil.getXPath(content, "//isPublic");
-			if (nodeList.getLength() > 0) {
-				Node isPublicNode = nodeList.item(0);
-				String isPublic = isPublicNode.getTextContent();
-				if (isPublic.toLowerCase().equals("true")) {
-					visible = true;
-				}
-			}
+			return get(XMLUtil.parse(content));
 		}
 		catch (Exception ex) {
 			ex.printStackTrace();
 		}
+		return false;
+	}
+
+	/**
+	 * try to determine if an already parsed IGSN record in ARDC v1 schema is visible
+	 * @param content the {@link ParsedContent} of the ARDC v1 version
+	 * @return the first 'isPublic' element's content
+	 */
+	@Override
+	public boolean get(ParsedContent content) {
+		try {
+			return get(content.getDocument());
+		}
+		catch (Exception ex) {
+			ex.printStackTrace();
+		}
+		return false;
+	}
+
+	private boolean get(Node document) throws XPathExpressionException {
+		boolean visible = false;
+		// assume if the isPublic not set or ommited the record is visible
+		NodeList nodeList = XMLUtil.getXPath(document, "//isPublic");
+		if (nodeList.getLength() > 0) {
+			Node isPublicNode = nodeList.item(0);
+			String isPublic = isPublicNode.getTextContent();
+			if (isPublic.toLowerCase().equals("true")) {
+				visible = true;
+			}
+		}
 		return visible;
 	}
 
@@ -1,27 +1,20 @@
 package au.edu.ardc.registry.igsn.provider.csirov3;
 
+import au.edu.ardc.registry.common.provider.FragmentIterator;
 import au.edu.ardc.registry.common.provider.FragmentProvider;
-import au.edu.ardc.registry.common.util.XMLUtil;
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
+import au.edu.ardc.registry.common.provider.xml.XMLFragmentIterator;
+import au.edu.ardc.registry.exception.ContentNotSupportedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.*;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import javax.xml.xpath.XPathExpressionException;
-import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
-import java.io.StringWriter;
 
 @SuppressWarnings("unused")
 public class CSIROv3FragmentProvider implements FragmentProvider {
 
+    private static final Logger logger = LoggerFactory.getLogger(CSIROv3FragmentProvider.class);
+
     /***
      * the resources container for CSIROv3 IGSN resource(s)
      *
@@ -34,37 +27,22 @@ public class CSIROv3FragmentProvider implements FragmentProvider {
      * @param content the entire content of the payload that contains one or many
      * resource(s)
      * @param position int the position of the resource element
-     * @return an XML String as an ARDC v1 resource document
+     * @return an XML String as an CSIRO v3 resource document
      */
     @Override
     public String get(String content, int position) {
         String fragment = "";
-
-        String xpath = "/resources/resource";
-
-        try {
-            NodeList l = XMLUtil.getXPath(content, xpath);
-            if (l.getLength() > 0) {
-                DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-                DocumentBuilder builder = factory.newDocumentBuilder();
-                InputSource is = new InputSource();
-                is.setCharacterStream(new StringReader(container));
-                Document doc = builder.parse(is);
-                Node e = doc.importNode(l.item(position), true);
-                doc.getElementsByTagName("resources").item(0).appendChild(e);
-                TransformerFactory transFactory = TransformerFactory.newInstance();
-                Transformer transformer = transFactory.newTransformer();
-                StringWriter buffer = new StringWriter();
-                transformer.transform(new DOMSource(doc), new StreamResult(buffer));
-                fragment = buffer.toString();
+        try (XMLFragmentIterator iterator = iterate(content)) {
+            for (int i = 0; i < position; i++) {
+                iterator.skip();
+            }
+            if (iterator.hasNext()) {
+                fragment = iterator.next();
             }
         }
-        catch (TransformerException | XPathExpressionException | ParserConfigurationException | IOException
-                | SAXException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
+        catch (ContentNotSupportedException e) {
+            logger.error("Failed to obtain fragment {}: {}", position, e.getMessage());
         }
-
         return fragment;
     }
 
@@ -76,16 +54,39 @@ public class CSIROv3FragmentProvider implements FragmentProvider {
     @Override
     public int getCount(String content) {
         int count = 0;
-        String xpath = "/resources/resource";
-        try {
-            NodeList l = XMLUtil.getXPath(content, xpath);
-            count = l.getLength();
+        try (XMLFragmentIterator iterator = iterate(content)) {
+            count = iterator.count();
         }
-        catch (XPathExpressionException | ParserConfigurationException | IOException | SAXException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
+        catch (ContentNotSupportedException e) {
+            logger.error("Failed to count fragments: {}", e.getMessage());
         }
         return count;
     }
 
+    /**
+     * Stream every resource element of the payload in a single StAX pass, each wrapped in
+     * the CSIRO v3 resources container
+     * @param content the {@link InputStream} of the entire payload
+     * @return a {@link FragmentIterator} of CSIRO v3 resource documents
+     */
+    @Override
+    public FragmentIterator iterate(InputStream content) {
+        return new XMLFragmentIterator(content, container, "resources", "resource");
+    }
+
+    /**
+     * @param content the {@link InputStream} of the entire payload
+     * @return the number of resource elements in the payload
+     */
+    @Override
+    public int getCount(InputStream content) {
+        try (XMLFragmentIterator iterator = new XMLFragmentIterator(content, container, "resources", "resource")) {
+            return iterator.count();
+        }
+    }
+
+    private XMLFragmentIterator iterate(String content) {
+        return new XMLFragmentIterator(new StringReader(content), container, "resources", "resource");
+    }
+
 }
@@ -1,7 +1,10 @@
 package au.edu.ardc.registry.igsn.provider.csirov3;
 
 import au.edu.ardc.registry.common.provider.IdentifierProvider;
+import au.edu.ardc.registry.common.provider.ParsedContent;
+import au.edu.ardc.registry.exception.ContentNotSupportedException;
 import au.edu.ardc.registry.common.util.XMLUtil;
+import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
@@ -23,13 +26,8 @@ public class CSIROv3IdentifierProvider implements IdentifierProvider {
 	@Override
 	public String get(String content) {
 		String identifierValue = "";
-
-		String xpath = "/resources/resource/resourceIdentifier";
 		try {
-			NodeList l = XMLUtil.getXPath(content, xpath);
-			if (l.getLength() > 0) {
-				identifierValue = String.format("%s%s", prefix, l.item(0).getFirstChild().getNodeValue()).toUpperCase();
-			}
+			identifierValue = get(XMLUtil.parse(content));
 		}
 		catch (XPathExpressionException | ParserConfigurationException | IOException | SAXException e) {
 			// TODO Auto-generated catch block
@@ -39,6 +37,32 @@ public class CSIROv3IdentifierProvider implements IdentifierProvider {
 		return identifierValue.toUpperCase();
 	}
 
+	/**
+	 * Finds the resourceIdentifier of an already parsed IGSN record
+	 * @param content the {@link ParsedContent} of one Resource document
+	 * @return The resourceIdentifier as String
+	 */
+	@Override
+	public String get(ParsedContent content) {
+		String identifierValue = "";
+		try {
+			identifierValue = get(content.getDocument());
+		}
+		catch (XPathExpressionException | ContentNotSupportedException e) {
+			e.printStackTrace();
+		}
+
+		return identifierValue.toUpperCase();
+	}
+
+	private String get(Node document) throws XPathExpressionException {
+		NodeList l = XMLUtil.getXPath(document, "/resources/resource/resourceIdentifier");
+		if (l.getLength() > 0) {
+			return String.format("%s%s", prefix, l.item(0).getFirstChild().getNodeValue());
+		}
+		return "";
+	}
+
 	@Override
 	public String get(String content, int position) {
 		String identifierValue = "";
@@ -4,10 +4,9 @@ import au.edu.ardc.registry.common.entity.*;
 import au.edu.ardc.registry.common.model.Allocation;
 import au.edu.ardc.registry.common.model.Attribute;
 import au.edu.ardc.registry.common.model.Schema;
-import au.edu.ardc.registry.common.provider.LandingPageProvider;
-import au.edu.ardc.registry.common.provider.Metadata;
-import au.edu.ardc.registry.common.provider.MetadataProviderFactory;
+import au.edu.ardc.registry.common.provider.ParsedContent;
 import au.edu.ardc.registry.common.service.*;
+import au.edu.ardc.registry.common.transform.DerivationGraph;
 import au.edu.ardc.registry.common.transform.Transformer;
 import au.edu.ardc.registry.common.transform.TransformerFactory;
 import au.edu.ardc.registry.common.util.XMLUtil;
@@ -55,8 +54,6 @@ public class IGSNRegistrationService {
 	@Autowired
 	private KeycloakService keycloakService;
 
-	private final List<String> supportedSchemas = Arrays.asList(SchemaService.ARDCv1, SchemaService.CSIROv3);
-
 
 	private static final org.slf4j.Logger logger = LoggerFactory.getLogger(IGSNRegistrationService.class);
 
@@ -103,21 +100,16 @@ public class IGSNRegistrationService {
 			throw new RecordNotFoundException(identifier.getId().toString());
 		}
 
-		// obtain latest version from supported schemas
-		// we need to support CSIROv3 and ARDCv1 at least !!
-		Version supportedVersion = null;
-
-		for(String supportedSchema: supportedSchemas){
-			Version v = igsnVersionService.getCurrentVersionForRecord(record, supportedSchema);
-			if(v != null){
-				if(supportedVersion == null){
-					supportedVersion = v;
-				}
-				else if(supportedVersion.getCreatedAt().before(v.getCreatedAt())){
-					supportedVersion = v;
-				}
+		// obtain latest version from the schemas that transform into registration metadata
+		DerivationGraph derivationGraph = schemaService.getDerivationGraph();
+		List<Version> candidates = new ArrayList<>();
+		for (String sourceSchema : derivationGraph.getSources(SchemaService.IGSNREGv1)) {
+			Version v = igsnVersionService.getCurrentVersionForRecord(record, sourceSchema);
+			if (v != null) {
+				candidates.add(v);
 			}
 		}
+		Version supportedVersion = derivationGraph.selectSource(candidates, SchemaService.IGSNREGv1);
 
 		if (supportedVersion == null) {
 			requestLog.error("Unable to generate registration metadata missing supported Schema version");
@@ -128,10 +120,8 @@ public class IGSNRegistrationService {
 		Schema fromSchema = schemaService.getSchemaByID(supportedVersion.getSchema());
 
 
-		LandingPageProvider landingPageProvider = (LandingPageProvider) MetadataProviderFactory.create(fromSchema,
-				Metadata.LandingPage);
-
-		String landingPage = landingPageProvider.get(new String(supportedVersion.getContent()));
+		ParsedContent parsedContent = new ParsedContent(new String(supportedVersion.getContent()), fromSchema);
+		String landingPage = parsedContent.getLandingPage();
 
 		boolean hasLandingPageChanged = updateLandingPage(landingPage, record, request);
 		// Update the URL of the IGSN at MDS
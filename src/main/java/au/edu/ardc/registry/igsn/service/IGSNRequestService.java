@@ -33,15 +33,53 @@ public class IGSNRequestService {
 	@Autowired
 	private RequestRepository repository;
 
+	@Autowired
+	RequestProgress requestProgress;
+
 	public Request findById(String id) {
 		return requestService.findById(id);
 	}
 
+	/**
+	 * Saves the Request with the latest counts of its {@link RequestProgress}. A COMPLETED
+	 * or FAILED Request is released from the {@link RequestProgress}
+	 * @param request the {@link Request} to save
+	 * @return the saved {@link Request}
+	 */
 	public Request save(Request request) {
+		if (RequestProgress.isCompleted(request)) {
+			// released first so that a pending flush never writes an older status back
+			requestProgress.release(request);
+		}
+		else {
+			requestProgress.apply(request);
+		}
 		request.setUpdatedAt(new Date());
 		return repository.saveAndFlush(request);
 	}
 
+	/**
+	 * Saves the Request with the next flush of the {@link RequestProgress}, coalescing the
+	 * updates of a running Request. A COMPLETED or FAILED Request is saved straight away
+	 * @param request the {@link Request} to save
+	 * @return the {@link Request}, the saved one when it's saved straight away
+	 */
+	public Request saveLater(Request request) {
+		if (RequestProgress.isCompleted(request)) {
+			return save(request);
+		}
+		requestProgress.saveLater(request);
+		return request;
+	}
+
+	/**
+	 * Writes the latest counts of the {@link RequestProgress} to the Request
+	 * @param request the {@link Request}
+	 */
+	public void applyProgress(Request request) {
+		requestProgress.apply(request);
+	}
+
 	/**
 	 * Creates an IGSN Request
 	 * @param user the {@link User} that initiate the Request
@@ -96,6 +134,26 @@ public class IGSNRequestService {
 		return request;
 	}
 
+	/**
+	 * Counts one more for an attribute of the Request. The count is saved with the next
+	 * save of the Request or flush of the {@link RequestProgress}
+	 * @param request the {@link Request}
+	 * @param attribute the counting {@link Attribute}
+	 * @return the new count
+	 */
+	public int incrementAttributeValue(Request request, Attribute attribute) {
+		return requestProgress.increment(request, attribute);
+	}
+
+	/**
+	 * @param request the {@link Request}
+	 * @param attribute the counting {@link Attribute}
+	 * @return the current count of the attribute
+	 */
+	public int getCount(Request request, Attribute attribute) {
+		return requestProgress.get(request, attribute);
+	}
+
 	public org.apache.logging.log4j.core.Logger getLoggerFor(Request request) {
 		return requestService.getLoggerFor(request);
 	}
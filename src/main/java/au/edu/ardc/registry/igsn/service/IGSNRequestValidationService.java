@@ -4,6 +4,10 @@ import au.edu.ardc.registry.common.entity.Identifier;
 import au.edu.ardc.registry.common.entity.Record;
 import au.edu.ardc.registry.common.entity.Request;
 import au.edu.ardc.registry.common.model.*;
+import au.edu.ardc.registry.common.model.schema.FragmentValidationError;
+import au.edu.ardc.registry.common.model.schema.XMLSchema;
+import au.edu.ardc.registry.common.provider.FragmentIterator;
+import au.edu.ardc.registry.common.provider.FragmentProvider;
 import au.edu.ardc.registry.common.provider.IdentifierProvider;
 import au.edu.ardc.registry.common.provider.Metadata;
 import au.edu.ardc.registry.common.provider.MetadataProviderFactory;
@@ -20,11 +24,17 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.regex.Pattern;
 
@@ -47,6 +57,13 @@ public class IGSNRequestValidationService {
 
 	final KeycloakService keycloakService;
 
+	final IGSNRequestService igsnRequestService;
+
+	/**
+	 * The local name of the resource elements validated individually in XML payloads
+	 */
+	static final String FRAGMENT_NAME = "resource";
+
 	final List<String> supportedOwnerTypes = Arrays.asList("User", "DataCenter");
 
 	@Value("${request.max-single-filesize:6144}")
@@ -59,13 +76,15 @@ public class IGSNRequestValidationService {
 	int maxNumOfRecords = 1000;
 
 	public IGSNRequestValidationService(SchemaService schemaService, IGSNService igsnService,
-			IdentifierService identifierService, RecordService recordService, ValidationService validationService, KeycloakService keycloakService) {
+			IdentifierService identifierService, RecordService recordService, ValidationService validationService, KeycloakService keycloakService,
+			IGSNRequestService igsnRequestService) {
 		this.schemaService = schemaService;
 		this.igsnService = igsnService;
 		this.identifierService = identifierService;
 		this.recordService = recordService;
 		this.validationService = validationService;
 		this.keycloakService = keycloakService;
+		this.igsnRequestService = igsnRequestService;
 	}
 
 	/**
@@ -89,14 +108,9 @@ public class IGSNRequestValidationService {
 			maxContentSize = maxSingleFileSize; // 60 KB
 		}
 
-		File file = new File(request.getAttribute(Attribute.PAYLOAD_PATH));
-
-		Helpers.checkFileSize(request.getAttribute(Attribute.PAYLOAD_PATH), maxContentSize);
+		Path payloadPath = Paths.get(request.getAttribute(Attribute.PAYLOAD_PATH));
 
-
-		String content = Helpers.readFile(file);
-
-		// validate well-formed and schema validation for all requests
+		Helpers.checkFileSize(payloadPath.toString(), maxContentSize);
 
 		Schema schema = null;
 		if(request.getAttribute(Attribute.SCHEMA_ID) != null){
@@ -106,10 +120,25 @@ public class IGSNRequestValidationService {
 						request.getAttribute(Attribute.SCHEMA_ID)));
 			}
 		}else{
-			schema = schemaService.getSchemaForContent(content);
+			schema = schemaService.getSchemaForContent(payloadPath);
 		}
 
-		schemaService.validate(content);
+		// validate well-formed and schema validation for all requests
+		// XML payloads are validated as a stream, collecting the errors per resource
+		List<FragmentValidationError> errors = new ArrayList<>();
+		if (schema instanceof XMLSchema) {
+			try (InputStream payload = Files.newInputStream(payloadPath)) {
+				errors = schemaService.validateFragments((XMLSchema) schema, payload, FRAGMENT_NAME);
+			}
+		}
+		else {
+			schemaService.validate(Helpers.readFile(payloadPath.toFile()));
+		}
+
+		boolean isBulk = type.equals(IGSNService.EVENT_BULK_MINT) || type.equals(IGSNService.EVENT_BULK_UPDATE);
+		if (!errors.isEmpty() && (!isBulk || errors.stream().anyMatch(FragmentValidationError::isDocumentError))) {
+			throw new XMLValidationException(errors.get(0).getMessage());
+		}
 
 		// get first IdentifierValue in the payload
 
@@ -124,7 +153,7 @@ public class IGSNRequestValidationService {
 
 		IdentifierProvider provider = (IdentifierProvider) MetadataProviderFactory.create(schema, Metadata.Identifier);
 
-		List<String> identifiers = provider.getAll(content);
+		List<String> identifiers = getIdentifiers(schema, provider, payloadPath, Collections.emptySet());
 
 		if(identifiers.isEmpty()){
 			request.setStatus(Request.Status.FAILED);
@@ -138,6 +167,22 @@ public class IGSNRequestValidationService {
 			throw new ContentNotSupportedException(String.format("Number of records received %d is greater than allowed %d", identifiers.size(), maxNumOfRecords));
 		}
 
+		// invalid resources of a bulk request are reported and skipped
+		Set<Integer> invalidPositions = new HashSet<>();
+		if (!errors.isEmpty()) {
+			if (errors.size() >= identifiers.size()) {
+				request.setStatus(Request.Status.FAILED);
+				throw new XMLValidationException(errors.get(0).getMessage());
+			}
+			for (FragmentValidationError error : errors) {
+				String identifier = identifiers.get(error.getPosition());
+				error.setIdentifier(identifier.isEmpty() ? null : identifier);
+				invalidPositions.add(error.getPosition());
+			}
+			reportInvalidFragments(request, errors);
+			identifiers = getValidIdentifiers(identifiers, invalidPositions);
+		}
+
 		String firstIdentifier = identifiers.get(0);
 
 		IGSNAllocation allocation = igsnService.getIGSNAllocationForIdentifier(firstIdentifier, user, scope);
@@ -157,7 +202,7 @@ public class IGSNRequestValidationService {
 		request.setAttribute(Attribute.SCHEMA_ID, schema.getId());
 		provider.setPrefix(allocation.getPrefix());
 		// fetch them again this time with Prefix
-		identifiers = provider.getAll(content);
+		identifiers = getIdentifiers(schema, provider, payloadPath, invalidPositions);
 		/*
 		User currently only able to mint, reserve , transfer as a datacenter they are member of
 		updates does not have ownerID
@@ -277,6 +322,66 @@ public class IGSNRequestValidationService {
 		}
 	}
 
+	/**
+	 * Stream the identifiers of the payload, XML payloads are read one resource at a time
+	 * @param schema the {@link Schema} of the payload
+	 * @param provider the {@link IdentifierProvider} of the schema
+	 * @param payloadPath the {@link Path} to the payload file
+	 * @param skipped the positions of the resources to leave out
+	 * @return the identifiers in document order
+	 * @throws IOException when the payload is not readable
+	 */
+	private List<String> getIdentifiers(Schema schema, IdentifierProvider provider, Path payloadPath,
+			Set<Integer> skipped) throws IOException {
+		List<String> identifiers = new ArrayList<>();
+		try (InputStream payload = Files.newInputStream(payloadPath)) {
+			if (!(schema instanceof XMLSchema)) {
+				provider.iterate(payload).forEachRemaining(identifiers::add);
+				return identifiers;
+			}
+			FragmentProvider fragmentProvider = (FragmentProvider) MetadataProviderFactory.create(schema,
+					Metadata.Fragment);
+			try (FragmentIterator fragments = fragmentProvider.iterate(payload)) {
+				for (int i = 0; fragments.hasNext(); i++) {
+					if (skipped.contains(i)) {
+						fragments.skip();
+						continue;
+					}
+					identifiers.add(provider.get(fragments.next()));
+				}
+			}
+		}
+		return identifiers;
+	}
+
+	private List<String> getValidIdentifiers(List<String> identifiers, Set<Integer> invalidPositions) {
+		List<String> validIdentifiers = new ArrayList<>();
+		for (int i = 0; i < identifiers.size(); i++) {
+			if (!invalidPositions.contains(i)) {
+				validIdentifiers.add(identifiers.get(i));
+			}
+		}
+		return validIdentifiers;
+	}
+
+	/**
+	 * Log every invalid resource to the {@link Request} log, count them as errors and keep
+	 * their positions so they are skipped when the payload is processed
+	 * @param request the bulk {@link Request}
+	 * @param errors the {@link FragmentValidationError} found in the payload
+	 */
+	private void reportInvalidFragments(Request request, List<FragmentValidationError> errors) {
+		org.apache.logging.log4j.core.Logger requestLogger = igsnRequestService.getLoggerFor(request);
+		List<String> positions = new ArrayList<>();
+		for (FragmentValidationError error : errors) {
+			requestLogger.error("Resource {} with Identifier {} failed validation and will be skipped: {}",
+					error.getPosition(), error.getIdentifier(), error.getMessage());
+			positions.add(String.valueOf(error.getPosition()));
+		}
+		request.setAttribute(Attribute.NUM_OF_ERROR, errors.size());
+		request.setAttribute(Attribute.INVALID_FRAGMENTS, String.join(",", positions));
+	}
+
 	public static boolean isvalidIdentifierFormat(String IdentifierValue){
 		String patternString = "[0-9\\.]+\\/[A-Z]{2}[A-Za-z0-9\\-.]+";
 		return IdentifierValue.matches(patternString);
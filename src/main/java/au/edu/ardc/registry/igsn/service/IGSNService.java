@@ -1,16 +1,23 @@
 package au.edu.ardc.registry.igsn.service;
 
+import au.edu.ardc.registry.common.chunk.Chunk;
+import au.edu.ardc.registry.common.chunk.ChunkStore;
+import au.edu.ardc.registry.common.chunk.MemoryChunkStore;
+import au.edu.ardc.registry.common.chunk.SpoolChunkStore;
 import au.edu.ardc.registry.common.entity.Identifier;
 import au.edu.ardc.registry.common.entity.Record;
 import au.edu.ardc.registry.common.entity.Request;
 import au.edu.ardc.registry.common.model.*;
+import au.edu.ardc.registry.common.provider.FragmentIterator;
 import au.edu.ardc.registry.common.provider.FragmentProvider;
 import au.edu.ardc.registry.common.provider.IdentifierProvider;
 import au.edu.ardc.registry.common.provider.Metadata;
 import au.edu.ardc.registry.common.provider.MetadataProviderFactory;
 import au.edu.ardc.registry.common.service.SchemaService;
 import au.edu.ardc.registry.common.service.VersionService;
+import au.edu.ardc.registry.common.task.StripedExecutor;
 import au.edu.ardc.registry.common.util.Helpers;
+import au.edu.ardc.registry.exception.ContentNotSupportedException;
 import au.edu.ardc.registry.igsn.model.IGSNAllocation;
 import au.edu.ardc.registry.igsn.model.IGSNTask;
 import au.edu.ardc.registry.igsn.task.*;
@@ -22,20 +29,23 @@ import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
-import java.io.File;
+import javax.annotation.PreDestroy;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -74,7 +84,9 @@ public class IGSNService {
 	@Autowired
 	ApplicationEventPublisher applicationEventPublisher;
 
-	private Map<UUID, ThreadPoolExecutor> importExecutors = new HashMap<>();
+	private StripedExecutor importExecutor;
+
+	private IGSNTaskRegistry taskRegistry = new IGSNTaskRegistry();
 
 	@Autowired
 	private ImportService importService;
@@ -83,63 +95,150 @@ public class IGSNService {
 	@Autowired
 	private IGSNRegistrationService igsnRegistrationService;
 
+	@Value("${app.igsn.chunks.in-memory-max-size:1048576}")
+	private long inMemoryChunksMaxSize = 1048576;
+
+	@Value("${app.igsn.import.batch-size:1}")
+	private int importBatchSize = 1;
+
+	@Value("${app.igsn.import.stripes:64}")
+	private int importStripes = 64;
+
+	@Value("${app.igsn.import.threads:0}")
+	private int importThreads = 0;
+
+	@Value("${app.igsn.import.shutdown-timeout:30}")
+	private long shutdownTimeout = 30;
+
+	/**
+	 * The import, update, reserve and transfer tasks of every allocation run on a single
+	 * {@link StripedExecutor} keyed by Identifier value, with app.igsn.import.stripes
+	 * stripes sharing app.igsn.import.threads threads, as many as there are processors by
+	 * default. Tasks of the same Identifier run in order, the others in parallel. Tasks
+	 * are counted by the {@link IGSNTaskRegistry} until they are done
+	 */
 	@PostConstruct
 	public void init() {
-		importExecutors = new HashMap<>();
+		if (importExecutor != null) {
+			importExecutor.shutdown();
+		}
+		importExecutor = new StripedExecutor(importStripes, Helpers.getThreads(importThreads), "igsn-import");
+		taskRegistry = new IGSNTaskRegistry();
+		logger.info("Importing with {} stripes on {} threads", importExecutor.getStripes(),
+				importExecutor.getThreads());
 	}
 
-	public void queueSync(Identifier identifier, Request request) {
-		if (syncIGSNExecutor == null) {
-			syncIGSNExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+	/**
+	 * Stop accepting tasks and give the queued ones app.igsn.import.shutdown-timeout
+	 * seconds to finish before the threads are let go
+	 * @throws InterruptedException when interrupted while waiting
+	 */
+	@PreDestroy
+	public void destroy() throws InterruptedException {
+		if (!importExecutor.shutdown(shutdownTimeout, TimeUnit.SECONDS)) {
+			logger.warn("Import executor shut down with {} tasks queued", importExecutor.getQueueDepth());
+		}
+		synchronized (this) {
+			if (syncIGSNExecutor != null) {
+				shutdownSync();
+			}
 		}
+	}
 
-		syncIGSNExecutor
-				.execute(new SyncIGSNTask(identifier, request, igsnRegistrationService, applicationEventPublisher, igsnRequestService));
+	public void queueSync(Identifier identifier, Request request) {
+		queue(getSyncExecutor()::execute, IGSNTask.TASK_SYNC, request, Collections.singleton(identifier.getValue()),
+				new SyncIGSNTask(identifier, request, igsnRegistrationService, applicationEventPublisher, igsnRequestService));
 	}
 
-	public void queueImport(UUID allocationID, String identifierValue, File file, Request request) {
-		if (!importExecutors.containsKey(allocationID)) {
-			importExecutors.put(allocationID, (ThreadPoolExecutor) Executors.newFixedThreadPool(1));
-		}
+	public void queueImport(UUID allocationID, String identifierValue, Chunk chunk, Request request) {
+		queue(task -> importExecutor.execute(getStripeKey(identifierValue), task), IGSNTask.TASK_IMPORT, request,
+				Collections.singleton(identifierValue),
+				new ImportIGSNTask(identifierValue, chunk, request, importService, applicationEventPublisher, igsnRequestService));
+	}
 
-		importExecutors.get(allocationID)
-				.execute(new ImportIGSNTask(identifierValue, file, request, importService, applicationEventPublisher, igsnRequestService));
+	/**
+	 * Queue the import of several chunks of a bulk mint in a single batch
+	 * @param allocationID the UUID of the Allocation
+	 * @param chunks the chunks and the value of their Identifier
+	 * @param request the {@link Request}
+	 */
+	public void queueImportBatch(UUID allocationID, Map<Chunk, String> chunks, Request request) {
+		// the other Identifiers of the batch are guarded by the unique constraint of the
+		// identifiers, a batch that fails on it is imported one by one
+		queue(task -> importExecutor.execute(getStripeKey(chunks.values().iterator().next()), task),
+				IGSNTask.TASK_IMPORT, request, new ArrayList<>(chunks.values()),
+				new ImportIGSNBatchTask(chunks, request, importService, applicationEventPublisher, igsnRequestService));
 	}
 
 	public void queueReserve(UUID allocationID, String identifierValue, Request request) {
-		if (!importExecutors.containsKey(allocationID)) {
-			importExecutors.put(allocationID, (ThreadPoolExecutor) Executors.newFixedThreadPool(1));
-		}
-
-		importExecutors.get(allocationID)
-				.execute(new ReserveIGSNTask(identifierValue, request, importService, applicationEventPublisher, igsnRequestService));
+		queue(task -> importExecutor.execute(getStripeKey(identifierValue), task), IGSNTask.TASK_RESERVE, request,
+				Collections.singleton(identifierValue),
+				new ReserveIGSNTask(identifierValue, request, importService, applicationEventPublisher, igsnRequestService));
 	}
 
 
 	public void queueTransfer(UUID allocationID, String identifierValue, Request request) {
-		if (!importExecutors.containsKey(allocationID)) {
-			importExecutors.put(allocationID, (ThreadPoolExecutor) Executors.newFixedThreadPool(1));
-		}
+		queue(task -> importExecutor.execute(getStripeKey(identifierValue), task), IGSNTask.TASK_TRANSFER, request,
+				Collections.singleton(identifierValue),
+				new TransferIGSNTask(identifierValue, request, importService, applicationEventPublisher, igsnRequestService));
+	}
 
-		importExecutors.get(allocationID)
-				.execute(new TransferIGSNTask(identifierValue, request, importService, applicationEventPublisher, igsnRequestService));
+	public void queueUpdate(UUID allocationID, String identifierValue, Chunk chunk, Request request) {
+		queue(task -> importExecutor.execute(getStripeKey(identifierValue), task), IGSNTask.TASK_UPDATE, request,
+				Collections.singleton(identifierValue),
+				new UpdateIGSNTask(identifierValue, chunk, request, importService, applicationEventPublisher, igsnRequestService));
 	}
 
-	public void queueUpdate(UUID allocationID, String identifierValue, File file, Request request) {
-		if (!importExecutors.containsKey(allocationID)) {
-			importExecutors.put(allocationID, (ThreadPoolExecutor) Executors.newFixedThreadPool(1));
+	/**
+	 * Execute a task, counted as in flight by the {@link IGSNTaskRegistry} until it is done.
+	 * The Request is checked again once its last task is done, in case the tasks that
+	 * finished together each saw the other one still running
+	 * @param executor executes the task
+	 * @param taskType the type of the task, one of the IGSNTask.TASK_* constants
+	 * @param request the {@link Request} of the task
+	 * @param identifierValues the Identifier values the task acts on
+	 * @param task the task
+	 */
+	private void queue(Consumer<Runnable> executor, String taskType, Request request,
+			Collection<String> identifierValues, Runnable task) {
+		IGSNTaskRegistry registry = taskRegistry;
+		IGSNTaskRegistry.QueuedTask queuedTask = registry.queue(taskType, request.getId(), identifierValues, task,
+				() -> {
+					try {
+						checkRequest(request);
+					}
+					finally {
+						registry.clearFinalized(request.getId());
+					}
+				});
+		try {
+			executor.accept(queuedTask);
+		}
+		catch (RuntimeException e) {
+			queuedTask.cancel();
+			throw e;
 		}
-
-		importExecutors.get(allocationID)
-				.execute(new UpdateIGSNTask(identifierValue, file, request, importService, applicationEventPublisher, igsnRequestService));
 	}
 
-	public void queueIGSNTransformer(Identifier identifier, String fromSchema, String toSchema, Map<String, String> parameters) {
+	private synchronized ThreadPoolExecutor getSyncExecutor() {
 		if (syncIGSNExecutor == null) {
 			syncIGSNExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
 		}
-		syncIGSNExecutor
-				.execute(new IGSNTransformerTask(identifier, versionService, schemaService, fromSchema, toSchema, parameters));
+		return syncIGSNExecutor;
+	}
+
+	/**
+	 * Queue a transform of the current fromSchema version of the identifier's record, the
+	 * schemas derived from the toSchema are produced out of its result in the same pass
+	 * @param identifier the {@link Identifier} of the record
+	 * @param fromSchema the id of the source schema
+	 * @param toSchema the id of the target schema
+	 * @param parameters the parameters of the transform
+	 */
+	public void queueIGSNTransformer(Identifier identifier, String fromSchema, String toSchema,
+			Map<String, String> parameters) {
+		getSyncExecutor().execute(new IGSNTransformerTask(identifier, versionService, schemaService, fromSchema,
+				toSchema, parameters));
 	}
 
 
@@ -156,53 +255,12 @@ public class IGSNService {
 	 * @return true if the request is considered finished
 	 */
 	public boolean isImportInQueue(UUID allocationID , @NotNull Request request) {
-		//
-
-
-		// early return if there's no queue setup
-		if (!importExecutors.containsKey(allocationID)) {
-			return false;
-		}
-
-		// early return if there's a queue but nothing in it
-		if (importExecutors.get(allocationID).getQueue().isEmpty()) {
-			return false;
-		}
-
-		// it has tasks in importqueue queue if there's any IGSNTask with a request ID
-		// matching
-
-		BlockingQueue<Runnable> queue = importExecutors.get(allocationID).getQueue();
-		return Arrays.stream(queue.toArray()).anyMatch(runnable -> {
-			try {
-				IGSNTask task = (IGSNTask) runnable;
-				return task.getRequestID().equals(request.getId());
-			}
-			catch (Exception e) {
-				logger.error(e.getMessage());
-				return false;
-			}
-		});
-
+		return taskRegistry.isQueued(request.getId(), IGSNTask.TASK_IMPORT, IGSNTask.TASK_UPDATE,
+				IGSNTask.TASK_RESERVE, IGSNTask.TASK_TRANSFER);
 	}
 
-
 	public boolean isSyncInQueue(Request request){
-		// it has tasks in sync queue if there's any SyncIGSNTask with a request ID
-		// matching
-		try {
-			if(syncIGSNExecutor.getQueue().isEmpty()){
-				return false;
-			}
-
-			boolean hasTasksInSyncQueue = syncIGSNExecutor.getQueue().stream().anyMatch(runnable -> {
-				IGSNTask task = (IGSNTask) runnable;
-				return task.getRequestID().equals(request.getId());
-			});
-			return hasTasksInSyncQueue;
-		}catch(Exception e) {
-			return false;
-		}
+		return taskRegistry.isQueued(request.getId(), IGSNTask.TASK_SYNC);
 	}
 
 	/**
@@ -220,7 +278,8 @@ public class IGSNService {
 	 * @param request the Request that has tasks in the queues
 	 */
 	public void checkRequest(Request request) {
-		request = igsnRequestService.save(request);
+		// the counts of the other tasks, the Request itself is saved by updateRequest
+		igsnRequestService.applyProgress(request);
 		UUID allocationID = UUID.fromString(request.getAttribute(Attribute.ALLOCATION_ID));
 		if (isRequestStillRunning(allocationID, request)) {
 			updateRequest(request);
@@ -237,24 +296,22 @@ public class IGSNService {
 			{
 				updateRequest(request);
 			}
-			else {
-				// finalize the request
+			else if (taskRegistry.markFinalized(request.getId())) {
+				// finalize the request, once even when several of its tasks get here
 				finalizeRequest(request);
-				// Also if no other Requests are running using this Allocation
-				// shutdown the import Queue (& de-reference) to prevent importExecutors from
-				// running
-				if(importExecutors.containsKey(allocationID) &&
-						importExecutors.get(allocationID).getQueue().isEmpty()){
-					importExecutors.get(allocationID).shutdown();
-					importExecutors.remove(allocationID);
-				}
 			}
 		}
 	}
 
+	/**
+	 * Updates the summary of the Request and saves it with the next flush, or straight
+	 * away once it's COMPLETED or FAILED
+	 * @param request the Request
+	 */
 	public void updateRequest(Request request){
+		request.setUpdatedAt(new Date());
 		request.setSummary(getSummaryText(request));
-		igsnRequestService.save(request);
+		igsnRequestService.saveLater(request);
 	}
 
 	public void finalizeRequest(@NotNull Request request) {
@@ -333,47 +390,37 @@ public class IGSNService {
 		return summaryText.toString();
 	}
 
-	public void shutdownSync() {
+	public synchronized void shutdownSync() {
 		syncIGSNExecutor.shutdown();
 		syncIGSNExecutor = null;
 	}
 
 	/**
-	 * Check if a certain type of task is already in the queue. Uses
-	 * {@link IGSNTask#equals(Object)} for comparison
+	 * Check if a certain type of task is already in the queue, in constant time with the
+	 * counters of the {@link IGSNTaskRegistry}. Identifier values are compared ignoring case
 	 * @param allocationID the {@link UUID} of the Allocation that we'll check in
 	 * @param taskType the String taskType
 	 * @param identifierValue the Identifier Value
 	 * @return true if the same IGSNTask acting on the same Identifier is found
 	 */
 	public boolean hasIGSNTaskQueued(UUID allocationID, String taskType, String identifierValue) {
+		return taskRegistry.isQueued(taskType, identifierValue);
+	}
 
-		// early return if there's no queue setup
-		if (!importExecutors.containsKey(allocationID)) {
-			return false;
-		}
-
-		// early return if there's a queue but nothing in it
-		if (importExecutors.get(allocationID).getTaskCount() == 0) {
-			return false;
-		}
-
-		// check the queue content for import task with identical identifierValue
-		BlockingQueue<Runnable> queue = importExecutors.get(allocationID).getQueue();
-		return Arrays.stream(queue.toArray()).anyMatch(runnable -> {
-			try {
-				ImportIGSNTask task = (ImportIGSNTask) runnable;
-				return task.getIdentifierValue().equals(identifierValue);
-			}
-			catch (Exception e) {
-				logger.error(e.getMessage());
-				return false;
-			}
-		});
+	/**
+	 * @param identifierValue the Identifier value of a task
+	 * @return the key of the stripe the tasks of the Identifier run on, Identifier values
+	 * are compared ignoring case
+	 */
+	private String getStripeKey(String identifierValue) {
+		return identifierValue.toUpperCase(Locale.ROOT);
 	}
 
 	/**
-	 * Chunk and Queue the Request. Specifically used for bulk requests.
+	 * Chunk and Queue the Request. Specifically used for bulk requests. The fragments of
+	 * a payload up to app.igsn.chunks.in-memory-max-size bytes are handed to the tasks in
+	 * memory, the ones of a bigger payload are spooled to a single file in the data path.
+	 * The fragments of a bulk mint are imported app.igsn.import.batch-size at a time
 	 * @param request the {@link Request} to chunk and queue if necessary.
 	 */
 	@Async
@@ -381,7 +428,6 @@ public class IGSNService {
 
 		String payloadPath = request.getAttribute(Attribute.PAYLOAD_PATH);
 		String dataPath = request.getAttribute(Attribute.DATA_PATH);
-		String chunkedPayloadPath = dataPath + File.separator + "chunks";
 		org.apache.logging.log4j.core.Logger requestLogger = igsnRequestService.getLoggerFor(request);
 
 		request.setAttribute(Attribute.START_TIME_CHUNKING, new Date().getTime());
@@ -389,21 +435,12 @@ public class IGSNService {
 
 
 		request.setStatus(Request.Status.RUNNING);
-		// read the payload
-		String payload = "";
-		try {
-			requestLogger.debug("Reading payload at {}", payloadPath);
-			payload = Helpers.readFile(payloadPath);
-		}
-		catch (IOException e) {
-			logger.error(e.getMessage());
-		}
+		String schemaId = request.getAttribute(Attribute.SCHEMA_ID);
 
-		// chunk the payload and queue an import task per payload
+		// stream the payload and queue an import task per fragment
 		try {
 			UUID allocationID = UUID.fromString(request.getAttribute(Attribute.ALLOCATION_ID));
-			Schema schema = schemaService.getSchemaForContent(payload);
-			String fileExtension = Helpers.getFileExtensionForContent(payload);
+			Schema schema = schemaService.getSchemaByID(schemaId);
 
 			// create required provider
 			FragmentProvider fragmentProvider = (FragmentProvider) MetadataProviderFactory.create(schema,
@@ -411,37 +448,66 @@ public class IGSNService {
 			IdentifierProvider identifierProvider = (IdentifierProvider) MetadataProviderFactory.create(schema,
 					Metadata.Identifier);
 
-			// todo check if chunkedPayloadPath is created properly
-			Files.createDirectories(Paths.get(chunkedPayloadPath));
-			requestLogger.debug("Created chunked directory at {}", chunkedPayloadPath);
-
-			int count = fragmentProvider.getCount(payload);
+			// the count has to be known before any task is queued for checkRequest to work
+			requestLogger.debug("Reading payload at {}", payloadPath);
+			int count;
+			try (InputStream payload = Files.newInputStream(Paths.get(payloadPath))) {
+				count = fragmentProvider.getCount(payload);
+			}
 			request.setAttribute(Attribute.NUM_OF_RECORDS_RECEIVED, count);
 			request.setMessage(String.format("Processing %d records", count));
 			requestLogger.debug("Found {} fragments in payload", count);
-			for (int i = 0; i < count; i++) {
-				String content = fragmentProvider.get(payload, i);
-				String outFilePath = chunkedPayloadPath + File.separator + i + fileExtension;
-				Helpers.writeFile(outFilePath, content);
-				requestLogger.debug("Written payload {} to {}", i, outFilePath);
-
-				// queue the job
-				String identifierValue = identifierProvider.get(content);
-				String taskType = IGSNTask.TASK_IMPORT;
-				if (request.getType().equals(IGSNService.EVENT_MINT)
-						|| request.getType().equals(IGSNService.EVENT_BULK_MINT)) {
-					queueImport(allocationID, identifierValue, new File(outFilePath), request);
+
+			// resources that failed validation are already counted as errors
+			Set<String> invalidFragments = new HashSet<>();
+			if (request.getAttribute(Attribute.INVALID_FRAGMENTS) != null) {
+				invalidFragments.addAll(Arrays.asList(request.getAttribute(Attribute.INVALID_FRAGMENTS).split(",")));
+			}
+
+			boolean batched = importBatchSize > 1 && request.getType().equals(IGSNService.EVENT_BULK_MINT);
+			Map<Chunk, String> batch = new LinkedHashMap<>();
+			try (InputStream payload = Files.newInputStream(Paths.get(payloadPath));
+					FragmentIterator fragments = fragmentProvider.iterate(payload);
+					ChunkStore chunks = createChunkStore(payloadPath, dataPath)) {
+				requestLogger.debug("Chunking payload with {}", chunks.getClass().getSimpleName());
+				for (int i = 0; fragments.hasNext(); i++) {
+					if (invalidFragments.contains(String.valueOf(i))) {
+						requestLogger.debug("Skipping invalid payload {}", i);
+						fragments.skip();
+						continue;
+					}
+					String content = fragments.next();
+					Chunk chunk = chunks.add(content);
+					requestLogger.debug("Chunked payload {} to {}", i, chunk);
+
+					// queue the job
+					String identifierValue = identifierProvider.get(content);
+					String taskType = IGSNTask.TASK_IMPORT;
+					if (batched) {
+						batch.put(chunk, identifierValue);
+						if (batch.size() >= importBatchSize) {
+							queueImportBatch(allocationID, batch, request);
+							batch = new LinkedHashMap<>();
+						}
+					}
+					else if (request.getType().equals(IGSNService.EVENT_MINT)
+							|| request.getType().equals(IGSNService.EVENT_BULK_MINT)) {
+						queueImport(allocationID, identifierValue, chunk, request);
+					}
+					else if (request.getType().equals(IGSNService.EVENT_UPDATE)
+							|| request.getType().equals(IGSNService.EVENT_BULK_UPDATE)) {
+						queueUpdate(allocationID, identifierValue, chunk, request);
+					}
+
+					logger.info("Queued task {} for Identifier: {}", taskType, identifierValue);
 				}
-				else if (request.getType().equals(IGSNService.EVENT_UPDATE)
-						|| request.getType().equals(IGSNService.EVENT_BULK_UPDATE)) {
-					queueUpdate(allocationID, identifierValue, new File(outFilePath), request);
+				if (!batch.isEmpty()) {
+					queueImportBatch(allocationID, batch, request);
 				}
-
-				logger.info("Queued task {} for Identifier: {}", taskType, identifierValue);
 			}
 			igsnRequestService.save(request);
 		}
-		catch (IOException e) {
+		catch (IOException | ContentNotSupportedException e) {
 			logger.error(e.getMessage());
 		}
 		request.setAttribute(Attribute.END_TIME_CHUNKING, new Date().getTime());
@@ -460,19 +526,9 @@ public class IGSNService {
 		request.setAttribute(Attribute.START_TIME_CHUNKING, new Date().getTime());
 
 		request.setStatus(Request.Status.RUNNING);
-		// read the payload
-		String payload = "";
-		try {
-			requestLogger.debug("Reading payload at {}", payloadPath);
-			payload = Helpers.readFile(payloadPath);
-		}
-		catch (IOException e) {
-			logger.error(e.getMessage());
-		}
 		String schemaId = request.getAttribute(Attribute.SCHEMA_ID);
 
-
-		// chunk the payload and queue an import task per payload
+		// stream the identifiers of the payload and queue a task per identifier
 		try {
 			UUID allocationID = UUID.fromString(request.getAttribute(Attribute.ALLOCATION_ID));
 
@@ -480,13 +536,19 @@ public class IGSNService {
 			IdentifierProvider identifierProvider = (IdentifierProvider) MetadataProviderFactory.create(schema,
 					Metadata.Identifier);
 
-			List<String> identifiers = identifierProvider.getAll(payload);
-			request.setAttribute(Attribute.NUM_OF_RECORDS_RECEIVED, identifiers.size());
-			requestLogger.debug("Found {} fragments in payload", identifiers.size());
-			for (String identifierValue : identifiers) {
-				String taskType = IGSNTask.TASK_RESERVE;
-				queueReserve(allocationID, identifierValue, request);
-				logger.info("Queued task {} for Identifier: {}", taskType, identifierValue);
+			// the count has to be known before any task is queued for checkRequest to work
+			requestLogger.debug("Reading payload at {}", payloadPath);
+			int count = countIdentifiers(identifierProvider, payloadPath);
+			request.setAttribute(Attribute.NUM_OF_RECORDS_RECEIVED, count);
+			requestLogger.debug("Found {} identifiers in payload", count);
+			try (InputStream payload = Files.newInputStream(Paths.get(payloadPath))) {
+				Iterator<String> identifiers = identifierProvider.iterate(payload);
+				while (identifiers.hasNext()) {
+					String identifierValue = identifiers.next();
+					String taskType = IGSNTask.TASK_RESERVE;
+					queueReserve(allocationID, identifierValue, request);
+					logger.info("Queued task {} for Identifier: {}", taskType, identifierValue);
+				}
 			}
 			igsnRequestService.save(request);
 		}
@@ -510,19 +572,9 @@ public class IGSNService {
 		request.setAttribute(Attribute.START_TIME_CHUNKING, new Date().getTime());
 
 		request.setStatus(Request.Status.RUNNING);
-		// read the payload
-		String payload = "";
-		try {
-			requestLogger.debug("Reading payload at {}", payloadPath);
-			payload = Helpers.readFile(payloadPath);
-		}
-		catch (IOException e) {
-			logger.error(e.getMessage());
-		}
 		String schemaId = request.getAttribute(Attribute.SCHEMA_ID);
 
-
-		// chunk the payload and queue an import task per payload
+		// stream the identifiers of the payload and queue a task per identifier
 		try {
 			UUID allocationID = UUID.fromString(request.getAttribute(Attribute.ALLOCATION_ID));
 
@@ -530,13 +582,19 @@ public class IGSNService {
 			IdentifierProvider identifierProvider = (IdentifierProvider) MetadataProviderFactory.create(schema,
 					Metadata.Identifier);
 
-			List<String> identifiers = identifierProvider.getAll(payload);
-			request.setAttribute(Attribute.NUM_OF_RECORDS_RECEIVED, identifiers.size());
-			requestLogger.debug("Found {} fragments in payload", identifiers.size());
-			for (String identifierValue : identifiers) {
-				String taskType = IGSNTask.TASK_TRANSFER;
-				queueTransfer(allocationID, identifierValue, request);
-				logger.info("Queued task {} for Identifier: {}", taskType, identifierValue);
+			// the count has to be known before any task is queued for checkRequest to work
+			requestLogger.debug("Reading payload at {}", payloadPath);
+			int count = countIdentifiers(identifierProvider, payloadPath);
+			request.setAttribute(Attribute.NUM_OF_RECORDS_RECEIVED, count);
+			requestLogger.debug("Found {} identifiers in payload", count);
+			try (InputStream payload = Files.newInputStream(Paths.get(payloadPath))) {
+				Iterator<String> identifiers = identifierProvider.iterate(payload);
+				while (identifiers.hasNext()) {
+					String identifierValue = identifiers.next();
+					String taskType = IGSNTask.TASK_TRANSFER;
+					queueTransfer(allocationID, identifierValue, request);
+					logger.info("Queued task {} for Identifier: {}", taskType, identifierValue);
+				}
 			}
 			igsnRequestService.save(request);
 		}
@@ -546,6 +604,39 @@ public class IGSNService {
 		request.setAttribute(Attribute.END_TIME_CHUNKING, new Date().getTime());
 	}
 
+	/**
+	 * @param payloadPath the path to the payload file
+	 * @param dataPath the data path of the request
+	 * @return a {@link MemoryChunkStore} for a payload small enough, a
+	 * {@link SpoolChunkStore} in the data path otherwise
+	 * @throws IOException when the spool file can't be created
+	 */
+	private ChunkStore createChunkStore(String payloadPath, String dataPath) throws IOException {
+		if (Files.size(Paths.get(payloadPath)) <= inMemoryChunksMaxSize) {
+			return new MemoryChunkStore();
+		}
+		return new SpoolChunkStore(Paths.get(dataPath, "chunks.spool"));
+	}
+
+	/**
+	 * Count the identifiers of a payload file without holding them in memory
+	 * @param identifierProvider the {@link IdentifierProvider} for the payload
+	 * @param payloadPath the path to the payload file
+	 * @return the number of identifiers
+	 * @throws IOException when the payload can't be read
+	 */
+	private int countIdentifiers(IdentifierProvider identifierProvider, String payloadPath) throws IOException {
+		int count = 0;
+		try (InputStream payload = Files.newInputStream(Paths.get(payloadPath))) {
+			Iterator<String> identifiers = identifierProvider.iterate(payload);
+			while (identifiers.hasNext()) {
+				identifiers.next();
+				count++;
+			}
+		}
+		return count;
+	}
+
 	/**
 	 * Return the {@link IGSNAllocation}. The Allocation is extracted with first
 	 * Identifier in the Content with {@link IdentifierProvider} and the User's Allocation
@@ -1,24 +1,31 @@
 package au.edu.ardc.registry.igsn.service;
 
+import au.edu.ardc.registry.common.chunk.Chunk;
+import au.edu.ardc.registry.common.chunk.FileChunk;
 import au.edu.ardc.registry.common.entity.*;
 import au.edu.ardc.registry.common.model.Attribute;
 import au.edu.ardc.registry.common.model.Schema;
 import au.edu.ardc.registry.common.provider.*;
+import au.edu.ardc.registry.common.repository.EmbargoRepository;
+import au.edu.ardc.registry.common.repository.IdentifierRepository;
+import au.edu.ardc.registry.common.repository.RecordRepository;
+import au.edu.ardc.registry.common.repository.VersionRepository;
 import au.edu.ardc.registry.common.service.*;
 import au.edu.ardc.registry.common.util.Helpers;
 import au.edu.ardc.registry.exception.*;
+import au.edu.ardc.registry.igsn.model.ImportResult;
 import org.apache.logging.log4j.core.Logger;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
-import java.util.Date;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
 
 @Service
 @ConditionalOnProperty(name = "app.igsn.enabled")
@@ -37,17 +44,35 @@ public class ImportService {
 
 	private final EmbargoService embargoService;
 
+	private final RecordRepository recordRepository;
+
+	private final IdentifierRepository identifierRepository;
+
+	private final VersionRepository versionRepository;
+
+	private final EmbargoRepository embargoRepository;
+
+	private final TransactionTemplate transactionTemplate;
+
 	private final long maxFileSize = 60 * 1024;
 
 	public ImportService(IdentifierService identifierService, RecordService recordService,
 						 IGSNVersionService igsnVersionService, SchemaService schemaService,
-						 IGSNRequestService igsnRequestService, EmbargoService embargoService) {
+						 IGSNRequestService igsnRequestService, EmbargoService embargoService,
+						 RecordRepository recordRepository, IdentifierRepository identifierRepository,
+						 VersionRepository versionRepository, EmbargoRepository embargoRepository,
+						 PlatformTransactionManager transactionManager) {
 		this.identifierService = identifierService;
 		this.recordService = recordService;
 		this.igsnVersionService = igsnVersionService;
 		this.schemaService = schemaService;
 		this.igsnRequestService = igsnRequestService;
 		this.embargoService = embargoService;
+		this.recordRepository = recordRepository;
+		this.identifierRepository = identifierRepository;
+		this.versionRepository = versionRepository;
+		this.embargoRepository = embargoRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
 	}
 
 	/**
@@ -58,14 +83,190 @@ public class ImportService {
 	 * @throws IOException when failing to read file or any other operation
 	 */
 	public Identifier importRequest(File file, Request request) throws IOException, ForbiddenOperationException , ContentNotSupportedException {
+		return importRequest(new FileChunk(file), request);
+	}
+
+	/**
+	 * Import (Ingest) a {@link Chunk} of the payload for a Request
+	 * @param chunk the {@link Chunk} of the payload
+	 * @param request the {@link Request} where additional details will be extracted from
+	 * @return the {@link Identifier}
+	 * @throws IOException when failing to read the chunk or any other operation
+	 */
+	public Identifier importRequest(Chunk chunk, Request request) throws IOException, ForbiddenOperationException , ContentNotSupportedException {
+		Logger requestLog = igsnRequestService.getLoggerFor(request);
+
+		ImportItem item = prepare(chunk, request);
+		String identifierValue = item.identifier.getValue();
+
+		Identifier identifier = identifierService.findByValueAndType(identifierValue, Identifier.Type.IGSN);
+		// if the request is being re-played don't create mew record, url identifier and
+		// version
+		// but do test to make sure they are all created and contains the correct value
+		if (identifier != null) {
+			return replay(identifier, chunk, request);
+		}
+
+		requestLog.debug("Ingesting Identifier: {} with Landing Page: {}", identifierValue, item.landingPage);
+
+		// add new Record, Identifier, URL and Version
+		Record record = item.record;
+		recordService.save(record);
+		requestLog.debug("Added Record: {}", record.getId());
+
+		identifier = item.identifier;
+		try {
+			identifierService.save(identifier);
+		}
+		catch (Exception e) {
+			requestLog.error("Failed creating Identifier: {}", identifierValue);
+			requestLog.error("Deleting created record: {}", record.getId());
+			logger.error(String.format("Failed creating Identifier: %s", identifierValue));
+			recordService.delete(record);
+			return null;
+		}
+		requestLog.debug("Added Identifier: {}", identifier.getId());
+
+		Version version = item.version;
+		igsnVersionService.save(version);
+		requestLog.debug("Added version: {}", version.getId());
+
+		if (item.embargo != null) {
+			embargoService.save(item.embargo);
+			requestLog.debug("Added embargo: {} {}", item.embargo.getId(), item.embargo.getEmbargoEnd());
+		}
+
+		// append identifierValue to the outputFile path for use in next step
+		requestLog.info("Ingested {}", identifierValue);
+
+		return identifier;
+	}
+
+	/**
+	 * Import (Ingest) several {@link Chunk} of the payload for a Request. The records of
+	 * the new Identifiers are inserted in a single transaction, flushed once as JDBC
+	 * batches when hibernate.jdbc.batch_size is set. If the transaction fails, each of its
+	 * chunks is imported on its own with {@link #importRequest(Chunk, Request)} so that
+	 * only the failing ones are reported. The Identifiers of the batch are looked up with
+	 * {@link IdentifierService#findAllByValueAndType}, chunks with an existing Identifier,
+	 * or with the same Identifier as another chunk of the batch, are imported on their own
+	 * as well
+	 * @param chunks the chunks of the payload
+	 * @param request the {@link Request} where additional details will be extracted from
+	 * @return the {@link ImportResult} of each chunk, in the same order
+	 */
+	public List<ImportResult> importBatch(List<Chunk> chunks, Request request) {
 		Logger requestLog = igsnRequestService.getLoggerFor(request);
+		Map<Chunk, ImportResult> results = new HashMap<>();
+		List<ImportItem> items = new ArrayList<>();
+		for (Chunk chunk : chunks) {
+			try {
+				items.add(prepare(chunk, request));
+			}
+			catch (IOException | RuntimeException e) {
+				results.put(chunk, ImportResult.failed(chunk, e));
+			}
+		}
 
+		// look up the Identifiers of the whole batch at once
+		List<String> values = new ArrayList<>();
+		for (ImportItem item : items) {
+			values.add(item.identifier.getValue());
+		}
+		Map<String, Identifier> existing = identifierService.findAllByValueAndType(values, Identifier.Type.IGSN);
+
+		List<ImportItem> batch = new ArrayList<>();
+		List<Chunk> individuals = new ArrayList<>();
+		Set<String> identifierValues = new HashSet<>();
+		for (ImportItem item : items) {
+			String identifierValue = item.identifier.getValue();
+			if (!identifierValues.add(identifierValue) || existing.containsKey(identifierValue)) {
+				individuals.add(item.chunk);
+				continue;
+			}
+			batch.add(item);
+		}
 
+		try {
+			transactionTemplate.execute(status -> {
+				for (ImportItem item : batch) {
+					recordRepository.save(item.record);
+					identifierRepository.save(item.identifier);
+					versionRepository.save(item.version);
+					if (item.embargo != null) {
+						embargoRepository.save(item.embargo);
+					}
+				}
+				return null;
+			});
+			for (ImportItem item : batch) {
+				requestLog.info("Ingested {}", item.identifier.getValue());
+				results.put(item.chunk, ImportResult.of(item.chunk, item.identifier));
+			}
+		}
+		catch (RuntimeException e) {
+			requestLog.warn("Failed importing a batch of {} records, importing them one by one", batch.size());
+			logger.warn("Failed importing a batch of {} records for request {} reason: {}", batch.size(),
+					request.getId(), e.getMessage());
+			for (ImportItem item : batch) {
+				individuals.add(item.chunk);
+			}
+		}
+
+		for (Chunk chunk : individuals) {
+			try {
+				results.put(chunk, ImportResult.of(chunk, importRequest(chunk, request)));
+			}
+			catch (IOException | RuntimeException e) {
+				results.put(chunk, ImportResult.failed(chunk, e));
+			}
+		}
+
+		List<ImportResult> orderedResults = new ArrayList<>();
+		for (Chunk chunk : chunks) {
+			orderedResults.add(results.get(chunk));
+		}
+		return orderedResults;
+	}
+
+	/**
+	 * Handle a chunk whose Identifier already exists. If it was created by the same
+	 * request, the request is being replayed and the content is refreshed
+	 * @param identifier the existing {@link Identifier}
+	 * @param chunk the {@link Chunk} of the payload
+	 * @param request the {@link Request}
+	 * @return the updated {@link Identifier}
+	 * @throws IOException when failing to read the chunk
+	 */
+	private Identifier replay(Identifier identifier, Chunk chunk, Request request) throws IOException {
+		String identifierValue = identifier.getValue();
+		if (!identifier.getRequestID().equals(request.getId())) {
+			logger.error("Identifier: {} already exists", identifierValue);
+			throw new ForbiddenOperationException(String.format("Identifier with value %s and type %s does exist",
+					identifierValue, Identifier.Type.IGSN));
+		}
+		// if the Identifier was created by the same request
+		// it means a record already exists
+		// then this is a request that was restarted manually
+		// continue to update instead and try to
+		igsnRequestService.getLoggerFor(request)
+				.info("Identifier: {} already exists attempting to refresh content", identifierValue);
+		return updateRequest(chunk, request);
+	}
+
+	/**
+	 * Read and parse a chunk, and build the entities it would be imported as
+	 * @param chunk the {@link Chunk} of the payload
+	 * @param request the {@link Request} where additional details will be extracted from
+	 * @return the {@link ImportItem}, nothing is persisted
+	 * @throws IOException when failing to read the chunk
+	 */
+	private ImportItem prepare(Chunk chunk, Request request) throws IOException {
 		// IGSN-217 each resource should be less than 64Kb (BLOB) in DB
-		Helpers.checkFileSize(file.getAbsolutePath(), maxFileSize);
+		Helpers.checkSize(chunk.getLength(), maxFileSize);
 
 		// read the content of the item Resource
-		String content = Helpers.readFile(file);
+		String content = chunk.getContent();
 
 		String creatorID = request.getAttribute(Attribute.CREATOR_ID);
 		String allocationID = request.getAttribute(Attribute.ALLOCATION_ID);
@@ -75,80 +276,38 @@ public class ImportService {
 		String prefix = request.getAttribute(Attribute.ALLOCATION_PREFIX);
 		//!= null ? request.getAttribute(Attribute.OWNER_ID) : creatorID;
 
-		// build the providers
+		// parse the content once for all the providers
 		Schema schema = schemaService.getSchemaForContent(content);
-		IdentifierProvider identifierProvider = (IdentifierProvider) MetadataProviderFactory.create(schema,
-				Metadata.Identifier);
-		identifierProvider.setPrefix(prefix);
-		VisibilityProvider visibilityProvider = (VisibilityProvider) MetadataProviderFactory.create(schema,
-				Metadata.Visibility);
-		LandingPageProvider landingPageProvider = (LandingPageProvider) MetadataProviderFactory.create(schema,
-				Metadata.LandingPage);
-		EmbargoEndProvider embargoEnd = (EmbargoEndProvider) MetadataProviderFactory.create(schema,
-				Metadata.EmbargoEnd);
+		ParsedContent parsedContent = new ParsedContent(content, schema, prefix);
 		Date currentDate = new Date();
 
-
-
 		// obtain the necessary information from the providers
-		String identifierValue = identifierProvider.get(content);
-		Date embargoDate = embargoEnd.get(content);
+		String identifierValue = parsedContent.getIdentifier();
+		Date embargoDate = parsedContent.getEmbargoEnd();
 
-		Identifier identifier = identifierService.findByValueAndType(identifierValue, Identifier.Type.IGSN);
-		// if the request is being re-played don't create mew record, url identifier and
-		// version
-		// but do test to make sure they are all created and contains the correct value
-		if (identifier != null) {
+		ImportItem item = new ImportItem(chunk);
+		item.landingPage = parsedContent.getLandingPage();
 
-			if (!identifier.getRequestID().equals(request.getId())) {
-				logger.error("Identifier: {} already exists", identifierValue);
-				throw new ForbiddenOperationException(String.format("Identifier with value %s and type %s does exist",
-						identifierValue, Identifier.Type.IGSN));
-			}
-			// if the Identifier was created by the same request
-			// it means a record already exists
-			// then this is a request that was restarted manually
-			// continue to update instead and try to
-			requestLog.info("Identifier: {} already exists attempting to refresh content", identifierValue);
-			return updateRequest(file, request);
-		}
-
-		String landingPage = landingPageProvider.get(content);
-
-		requestLog.debug("Ingesting Identifier: {} with Landing Page: {}", identifierValue, landingPage);
-
-		// add new Record, Identifier, URL and Version
 		Record record = new Record();
 		record.setCreatedAt(request.getCreatedAt());
 		record.setModifiedAt(request.getCreatedAt());
 		record.setOwnerID(UUID.fromString(ownerID));
 		record.setOwnerType(Record.OwnerType.valueOf(ownerType));
-		record.setVisible(visibilityProvider.get(content));
+		record.setVisible(parsedContent.isVisible());
 		record.setAllocationID(UUID.fromString(allocationID));
 		record.setCreatorID(UUID.fromString(creatorID));
 		record.setRequestID(request.getId());
 		record.setType(IGSNService.IGSNRecordType);
-		recordService.save(record);
-		requestLog.debug("Added Record: {}", record.getId());
+		item.record = record;
 
-		identifier = new Identifier();
+		Identifier identifier = new Identifier();
 		identifier.setCreatedAt(request.getCreatedAt());
 		identifier.setRecord(record);
 		identifier.setType(Identifier.Type.IGSN);
 		identifier.setValue(identifierValue);
 		identifier.setRequestID(request.getId());
 		identifier.setStatus(Identifier.Status.PENDING);
-		try {
-			identifierService.save(identifier);
-		}
-		catch (Exception e) {
-			requestLog.error("Failed creating Identifier: {}", identifierValue);
-			requestLog.error("Deleting created record: {}", record.getId());
-			logger.error(String.format("Failed creating Identifier: %s", identifierValue));
-			recordService.delete(record);
-			return null;
-		}
-		requestLog.debug("Added Identifier: {}", identifier.getId());
+		item.identifier = identifier;
 
 		Version version = new Version();
 		version.setRecord(record);
@@ -159,25 +318,15 @@ public class ImportService {
 		version.setCurrent(true);
 		version.setHash(VersionService.getHash(content));
 		version.setRequestID(request.getId());
-		igsnVersionService.save(version);
-		requestLog.debug("Added version: {}", version.getId());
-
+		item.version = version;
 
-		if(embargoDate != null && embargoDate.after(currentDate) ){
+		if (embargoDate != null && embargoDate.after(currentDate)) {
 			Embargo embargo = new Embargo();
 			embargo.setRecord(record);
 			embargo.setEmbargoEnd(embargoDate);
-			embargoService.save(embargo);
-			requestLog.debug("Added embargo: {} {}", embargo.getId(),embargoDate);
-		}else if (embargoDate != null && embargoDate.after(currentDate)){
-			record.setVisible(true);
-			recordService.save(record);
+			item.embargo = embargo;
 		}
-
-		// append identifierValue to the outputFile path for use in next step
-		requestLog.info("Ingested {}", identifierValue);
-
-		return identifier;
+		return item;
 	}
 
 	/**
@@ -191,22 +340,29 @@ public class ImportService {
 	 */
 	public Identifier updateRequest(@NotNull File file, Request request)
 			throws IOException, ContentNotSupportedException, ForbiddenOperationException, VersionIsOlderThanCurrentException {
-		logger.debug("Updating content for request:{} with file:{}", request, file.getAbsolutePath());
+		return updateRequest(new FileChunk(file), request);
+	}
+
+	/**
+	 * Update an existing IGSN Record with a {@link Chunk} of the payload
+	 * @param chunk the {@link Chunk} that contains the new updated version
+	 * @param request the {@link Request} that contains all additional parameters
+	 * @return the IGSN {@link Identifier} that is updated
+	 * @throws IOException when reading the chunk
+	 * @throws VersionContentAlreadyExistsException when the exact same version is updated
+	 */
+	public Identifier updateRequest(@NotNull Chunk chunk, Request request)
+			throws IOException, ContentNotSupportedException, ForbiddenOperationException, VersionIsOlderThanCurrentException {
+		logger.debug("Updating content for request:{} with chunk:{}", request, chunk);
 		// IGSN-217 each resource should be less than 64Kb (BLOB) in DB
-		Helpers.checkFileSize(file.getAbsolutePath(), maxFileSize);
+		Helpers.checkSize(chunk.getLength(), maxFileSize);
 		// read the content of the item Resource
-		String content = Helpers.readFile(file);
+		String content = chunk.getContent();
 		String creatorID = request.getAttribute(Attribute.CREATOR_ID);
 		Schema schema = schemaService.getSchemaForContent(content);
 		String prefix = request.getAttribute(Attribute.ALLOCATION_PREFIX);
-		IdentifierProvider identifierProvider = (IdentifierProvider) MetadataProviderFactory.create(schema,
-				Metadata.Identifier);
-		identifierProvider.setPrefix(prefix);
-		String identifierValue = identifierProvider.get(content);
-		VisibilityProvider visibilityProvider = (VisibilityProvider) MetadataProviderFactory.create(schema,
-				Metadata.Visibility);
-		EmbargoEndProvider embargoEnd = (EmbargoEndProvider) MetadataProviderFactory.create(schema,
-				Metadata.EmbargoEnd);
+		ParsedContent parsedContent = new ParsedContent(content, schema, prefix);
+		String identifierValue = parsedContent.getIdentifier();
 		Date currentDate = new Date();
 
 		Identifier identifier = identifierService.findByValueAndType(identifierValue, Identifier.Type.IGSN);
@@ -244,7 +400,7 @@ public class ImportService {
 		}
 
 		// update the record
-		record.setVisible(visibilityProvider.get(content));
+		record.setVisible(parsedContent.isVisible());
 		record.setModifierID(UUID.fromString(creatorID));
 		record.setModifiedAt(request.getCreatedAt());
 		recordService.save(record);
@@ -284,7 +440,7 @@ public class ImportService {
 					request.getCreatedAt());
 		}
 
-		Date embargoDate= embargoEnd.get(content);
+		Date embargoDate = parsedContent.getEmbargoEnd();
 		Embargo embargo = embargoService.findByRecord(record);
 		if(embargoDate != null && embargoDate.after(currentDate)){
 			//see if an embargo exists for this record
@@ -391,4 +547,27 @@ public class ImportService {
 		return identifier;
 	}
 
+	/**
+	 * The entities a chunk is imported as
+	 */
+	private static class ImportItem {
+
+		private final Chunk chunk;
+
+		private String landingPage;
+
+		private Record record;
+
+		private Identifier identifier;
+
+		private Version version;
+
+		private Embargo embargo;
+
+		ImportItem(Chunk chunk) {
+			this.chunk = chunk;
+		}
+
+	}
+
 }
@@ -0,0 +1,213 @@
+package au.edu.ardc.registry.igsn.service;
+
+import au.edu.ardc.registry.common.entity.Request;
+import au.edu.ardc.registry.common.model.Attribute;
+import au.edu.ardc.registry.common.repository.RequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the NUM_OF_* counters of the running {@link Request} as atomic counters, so that
+ * the import and sync tasks of a Request can count at the same time without losing
+ * counts. The counters are written to the {@link Request} attributes as they change.
+ * Requests that changed, by their counts or by {@link #saveLater(Request)}, are saved
+ * once every app.igsn.progress.flush-interval milliseconds with the last instance that
+ * changed, so the updates of a Request within that window are coalesced into one write.
+ * A COMPLETED or FAILED Request is released once it is saved, the counts it gets after
+ * that are written straight to its attributes
+ */
+@Service
+@ConditionalOnProperty(name = "app.igsn.enabled")
+public class RequestProgress {
+
+	private static final Logger logger = LoggerFactory.getLogger(RequestProgress.class);
+
+	private final RequestRepository repository;
+
+	private final Map<UUID, Progress> requests = new ConcurrentHashMap<>();
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	public RequestProgress(RequestRepository repository, ObjectProvider<MeterRegistry> meterRegistry) {
+		this.repository = repository;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@PostConstruct
+	public void init() {
+		MeterRegistry registry = meterRegistry.getIfAvailable();
+		if (registry == null) {
+			return;
+		}
+		Gauge.builder("igsn.requests.pending-flush", this, RequestProgress::getPending).register(registry);
+	}
+
+	/**
+	 * Increment a counter of the Request. The counter starts at the value of the attribute
+	 * when it is first incremented. A completed Request that isn't counted anymore has the
+	 * attribute incremented instead
+	 * @param request the {@link Request}
+	 * @param attribute the counting {@link Attribute}
+	 * @return the new count
+	 */
+	public int increment(Request request, Attribute attribute) {
+		Progress progress = isCompleted(request) ? requests.get(request.getId())
+				: requests.computeIfAbsent(request.getId(), id -> new Progress());
+		if (progress == null) {
+			synchronized (request) {
+				int count = getAttributeCount(request, attribute) + 1;
+				request.setAttribute(attribute, count);
+				return count;
+			}
+		}
+		AtomicInteger counter = progress.counters.computeIfAbsent(attribute,
+				key -> new AtomicInteger(getAttributeCount(request, key)));
+		int count = counter.incrementAndGet();
+		progress.request = request;
+		progress.dirty.set(true);
+		synchronized (request) {
+			// read again so that a late writer never puts back a lower count
+			request.setAttribute(attribute, counter.get());
+		}
+		return count;
+	}
+
+	/**
+	 * Save the Request with the next flush, replacing the instance of it saved by then
+	 * @param request the {@link Request}
+	 */
+	public void saveLater(Request request) {
+		Progress progress = requests.computeIfAbsent(request.getId(), id -> new Progress());
+		progress.request = request;
+		progress.dirty.set(true);
+	}
+
+	/**
+	 * @param request the {@link Request}
+	 * @param attribute the counting {@link Attribute}
+	 * @return the count, the value of the attribute if it isn't counted
+	 */
+	public int get(Request request, Attribute attribute) {
+		Progress progress = requests.get(request.getId());
+		AtomicInteger counter = progress != null ? progress.counters.get(attribute) : null;
+		return counter != null ? counter.get() : getAttributeCount(request, attribute);
+	}
+
+	/**
+	 * Write the counters to the attributes of a Request, another instance of the Request
+	 * may have been counted
+	 * @param request the {@link Request}
+	 */
+	public void apply(Request request) {
+		Progress progress = requests.get(request.getId());
+		if (progress == null) {
+			return;
+		}
+		synchronized (request) {
+			progress.counters.forEach((attribute, counter) -> request.setAttribute(attribute, counter.get()));
+		}
+	}
+
+	/**
+	 * Save the Requests whose counters changed since they were last saved
+	 */
+	@Scheduled(fixedDelayString = "${app.igsn.progress.flush-interval:5000}")
+	public void flush() {
+		for (Progress progress : requests.values()) {
+			synchronized (progress) {
+				// a released Request is saved by its completion, never with older status
+				if (!progress.released && progress.dirty.compareAndSet(true, false)) {
+					save(progress.request);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stop counting for a Request once it's completed, its counters are written to it
+	 * @param request the {@link Request}
+	 */
+	public void release(Request request) {
+		apply(request);
+		Progress progress = requests.remove(request.getId());
+		if (progress != null) {
+			synchronized (progress) {
+				progress.released = true;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of Requests counted
+	 */
+	public int size() {
+		return requests.size();
+	}
+
+	/**
+	 * @return the number of Requests waiting for the next flush
+	 */
+	public int getPending() {
+		int pending = 0;
+		for (Progress progress : requests.values()) {
+			if (progress.dirty.get()) {
+				pending++;
+			}
+		}
+		return pending;
+	}
+
+	private void save(Request request) {
+		apply(request);
+		try {
+			request.setUpdatedAt(new Date());
+			repository.saveAndFlush(request);
+		}
+		catch (RuntimeException e) {
+			logger.error("Failed saving progress of request {} reason: {}", request.getId(), e.getMessage());
+		}
+	}
+
+	/**
+	 * @param request the {@link Request}
+	 * @return true if the Request is COMPLETED or FAILED
+	 */
+	public static boolean isCompleted(Request request) {
+		return request.getStatus() == Request.Status.COMPLETED || request.getStatus() == Request.Status.FAILED;
+	}
+
+	private static int getAttributeCount(Request request, Attribute attribute) {
+		String value = request.getAttribute(attribute);
+		return value != null ? Integer.parseInt(value) : 0;
+	}
+
+	/**
+	 * The counters of a Request and the last instance of it that was counted
+	 */
+	private static class Progress {
+
+		private final Map<Attribute, AtomicInteger> counters = new ConcurrentHashMap<>();
+
+		private final AtomicBoolean dirty = new AtomicBoolean();
+
+		private volatile Request request;
+
+		private boolean released = false;
+
+	}
+
+}
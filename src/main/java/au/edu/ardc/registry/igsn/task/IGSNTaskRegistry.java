@@ -0,0 +1,228 @@
+package au.edu.ardc.registry.igsn.task;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the IGSN tasks that are queued or running, per task type and
+ * {@link au.edu.ardc.registry.common.entity.Request}, per task type and Identifier and per
+ * Request, so that the queues don't have to be scanned to tell whether a Request or an
+ * Identifier still has tasks in flight. A counter is removed once it is back to 0. A task
+ * asking about its own Request is not counted, and the Request is told once its last task
+ * is done, so that tasks finishing at the same time on different threads leave exactly
+ * one of them to complete the Request
+ */
+public class IGSNTaskRegistry {
+
+	private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+	private final Map<String, AtomicInteger> identifiers = new ConcurrentHashMap<>();
+
+	private final Map<UUID, AtomicInteger> totals = new ConcurrentHashMap<>();
+
+	private final Set<UUID> finalized = ConcurrentHashMap.newKeySet();
+
+	private final ThreadLocal<QueuedTask> running = new ThreadLocal<>();
+
+	/**
+	 * Count a task as in flight until it is done
+	 * @param taskType the type of the task, one of the IGSNTask.TASK_* constants
+	 * @param requestID the id of the Request of the task
+	 * @param identifierValues the Identifier values the task acts on
+	 * @param task the task
+	 * @return the {@link QueuedTask} to execute instead of the task
+	 */
+	public QueuedTask queue(String taskType, UUID requestID, Collection<String> identifierValues, Runnable task) {
+		return queue(taskType, requestID, identifierValues, task, null);
+	}
+
+	/**
+	 * Count a task as in flight until it is done
+	 * @param taskType the type of the task, one of the IGSNTask.TASK_* constants
+	 * @param requestID the id of the Request of the task
+	 * @param identifierValues the Identifier values the task acts on
+	 * @param task the task
+	 * @param whenIdle run after the task when it was the last one of the Request in flight,
+	 * may be null
+	 * @return the {@link QueuedTask} to execute instead of the task
+	 */
+	public QueuedTask queue(String taskType, UUID requestID, Collection<String> identifierValues, Runnable task,
+			Runnable whenIdle) {
+		increment(totals, requestID);
+		increment(requests, getRequestKey(taskType, requestID));
+		for (String identifierValue : identifierValues) {
+			increment(identifiers, getIdentifierKey(taskType, identifierValue));
+		}
+		// new work for a Request that was completed opens it again
+		finalized.remove(requestID);
+		return new QueuedTask(taskType, requestID, identifierValues, task, whenIdle);
+	}
+
+	/**
+	 * @param requestID the id of the Request
+	 * @param taskTypes the types of task
+	 * @return true if the Request has any task of the types in flight, other than the task
+	 * running on the calling thread
+	 */
+	public boolean isQueued(UUID requestID, String... taskTypes) {
+		QueuedTask self = running.get();
+		for (String taskType : taskTypes) {
+			int count = getQueued(requestID, taskType);
+			if (self != null && self.requestID.equals(requestID) && self.taskType.equals(taskType)) {
+				count--;
+			}
+			if (count > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param taskType the type of task
+	 * @param identifierValue the Identifier value, compared ignoring case
+	 * @return true if a task of the type is in flight for the Identifier
+	 */
+	public boolean isQueued(String taskType, String identifierValue) {
+		return identifiers.containsKey(getIdentifierKey(taskType, identifierValue));
+	}
+
+	/**
+	 * @param requestID the id of the Request
+	 * @param taskType the type of task
+	 * @return the number of tasks of the type in flight for the Request
+	 */
+	public int getQueued(UUID requestID, String taskType) {
+		AtomicInteger count = requests.get(getRequestKey(taskType, requestID));
+		return count != null ? count.get() : 0;
+	}
+
+	/**
+	 * Mark a Request as completed, once
+	 * @param requestID the id of the Request
+	 * @return true for the first caller only, until new tasks are queued for the Request
+	 */
+	public boolean markFinalized(UUID requestID) {
+		return finalized.add(requestID);
+	}
+
+	/**
+	 * Forget that a Request was completed, once it has no task in flight anymore
+	 * @param requestID the id of the Request
+	 */
+	public void clearFinalized(UUID requestID) {
+		finalized.remove(requestID);
+	}
+
+	private static <K> void increment(Map<K, AtomicInteger> counts, K key) {
+		counts.compute(key, (k, count) -> {
+			if (count == null) {
+				count = new AtomicInteger();
+			}
+			count.incrementAndGet();
+			return count;
+		});
+	}
+
+	/**
+	 * @return true if the counter is back to 0 and removed
+	 */
+	private static <K> boolean decrement(Map<K, AtomicInteger> counts, K key) {
+		AtomicBoolean removed = new AtomicBoolean();
+		counts.computeIfPresent(key, (k, count) -> {
+			if (count.decrementAndGet() > 0) {
+				return count;
+			}
+			removed.set(true);
+			return null;
+		});
+		return removed.get();
+	}
+
+	private static String getRequestKey(String taskType, UUID requestID) {
+		return taskType + "/" + requestID;
+	}
+
+	private static String getIdentifierKey(String taskType, String identifierValue) {
+		return taskType + "/" + identifierValue.toUpperCase(Locale.ROOT);
+	}
+
+	/**
+	 * A task counted as in flight until it is done or cancelled
+	 */
+	public class QueuedTask implements Runnable {
+
+		private final String taskType;
+
+		private final UUID requestID;
+
+		private final Collection<String> identifierValues;
+
+		private final Runnable task;
+
+		private final Runnable whenIdle;
+
+		private final AtomicBoolean counted = new AtomicBoolean(true);
+
+		private QueuedTask(String taskType, UUID requestID, Collection<String> identifierValues, Runnable task,
+				Runnable whenIdle) {
+			this.taskType = taskType;
+			this.requestID = requestID;
+			this.identifierValues = identifierValues;
+			this.task = task;
+			this.whenIdle = whenIdle;
+		}
+
+		@Override
+		public void run() {
+			running.set(this);
+			try {
+				task.run();
+			}
+			finally {
+				running.remove();
+				if (done() && whenIdle != null) {
+					whenIdle.run();
+				}
+			}
+		}
+
+		/**
+		 * Stop counting the task, when it couldn't be queued after all
+		 */
+		public void cancel() {
+			done();
+		}
+
+		/**
+		 * @return true if this was the last task of the Request in flight
+		 */
+		private boolean done() {
+			if (!counted.compareAndSet(true, false)) {
+				return false;
+			}
+			decrement(requests, getRequestKey(taskType, requestID));
+			for (String identifierValue : identifierValues) {
+				decrement(identifiers, getIdentifierKey(taskType, identifierValue));
+			}
+			return decrement(totals, requestID);
+		}
+
+		public Runnable getTask() {
+			return task;
+		}
+
+		@Override
+		public String toString() {
+			return task.toString();
+		}
+
+	}
+
+}
@@ -8,13 +8,18 @@ import au.edu.ardc.registry.common.entity.Version;
 import au.edu.ardc.registry.common.model.Schema;
 import au.edu.ardc.registry.common.service.SchemaService;
 import au.edu.ardc.registry.common.service.VersionService;
+import au.edu.ardc.registry.common.transform.Derivation;
+import au.edu.ardc.registry.common.transform.StylesheetTransformer;
+import au.edu.ardc.registry.common.transform.TransformPipeline;
+import au.edu.ardc.registry.common.transform.TransformRevision;
 import au.edu.ardc.registry.common.transform.Transformer;
 import au.edu.ardc.registry.common.transform.TransformerFactory;
 import au.edu.ardc.registry.exception.NotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -36,6 +41,11 @@ public class IGSNTransformerTask implements Runnable {
 
     private final Map<String, String> parameters;
 
+    /**
+     * The schemas planned out of the toSchema by the
+     * {@link au.edu.ardc.registry.common.transform.DerivationGraph} are produced in the
+     * same pass over the source version
+     */
     public IGSNTransformerTask(Identifier identifier, VersionService versionService, SchemaService schemaService,
                                String fromSchema, String toSchema, Map<String, String> parameters) {
         this.identifier = identifier;
@@ -77,32 +87,43 @@ public class IGSNTransformerTask implements Runnable {
         logger.debug("IGSNTransformer from {} to {} obtained", fromSchema.getId(), toSchema.getId());
 
         try {
-            Version newVersion = transformer.transform(sourceVersion);
-            String hash = VersionService.getHash(newVersion);
-            // check if there's existing current toSchema.getId() and if they're different
-            Version existingVersion = versionService.findVersionForRecord(record, toSchema.getId());
-            if (existingVersion != null) {
-                if (!existingVersion.getHash().equals(hash)) {
-                    existingVersion.setHash(hash);
-                    existingVersion.setContent(newVersion.getContent());
-                    existingVersion.setCreatedAt(sourceVersion.getCreatedAt());
-                    existingVersion.setRequestID(sourceVersion.getRequestID());
-                    versionService.save(existingVersion);
-                } else {
-                    logger.debug("{} Content didn't change for version with identifier {}, skipping",
-                             toSchema.getId(), identifier.getValue());
-                    return;
+            List<Derivation> plan = schemaService.getDerivationGraph().plan(toSchema.getId());
+            boolean chained = !plan.isEmpty() && transformer instanceof StylesheetTransformer;
+
+            // skip the transform when every version is derived from the same source with the same transforms
+            String sourceHash = TransformRevision.getSourceHash(sourceVersion);
+            Map<String, String> revisions = new LinkedHashMap<>();
+            revisions.put(toSchema.getId(), TransformRevision.of(transformer));
+            if (chained) {
+                for (Derivation derivation : plan) {
+                    revisions.putAll(derivation.getRevisions(revisions.get(toSchema.getId())));
                 }
-            }else{
-                newVersion.setRequestID(sourceVersion.getRequestID());
-                newVersion.setCreatedAt(sourceVersion.getCreatedAt());
-                newVersion.setRecord(record);
-                newVersion.setCurrent(true);
-                newVersion.setHash(hash);
-                versionService.save(newVersion);
+            }
+            Map<String, Version> existingVersions = new HashMap<>();
+            boolean current = true;
+            for (Map.Entry<String, String> revision : revisions.entrySet()) {
+                Version existingVersion = versionService.findVersionForRecord(record, revision.getKey());
+                existingVersions.put(revision.getKey(), existingVersion);
+                current = current && TransformRevision.isCurrent(existingVersion, sourceHash, revision.getValue());
+            }
+            if (current) {
+                logger.debug("{} is up to date for identifier {}, skipping", revisions.keySet(), identifier.getValue());
+                return;
             }
 
-            logger.info("Processed {} transformation for record with identifier {}", toSchema.getId(), identifier.getValue());
+            if (!chained) {
+                save(transformer.transform(sourceVersion), sourceVersion, existingVersions, sourceHash, revisions);
+                return;
+            }
+
+            // chain the derived schemas to the transform so the source is only parsed once
+            TransformPipeline pipeline = TransformPipeline.of(transformer);
+            for (Derivation derivation : plan) {
+                pipeline.then(TransformPipeline.of(derivation));
+            }
+            for (Version newVersion : pipeline.transform(sourceVersion).values()) {
+                save(newVersion, sourceVersion, existingVersions, sourceHash, revisions);
+            }
         }
         catch (Exception e) {
             e.printStackTrace();
@@ -110,4 +131,54 @@ public class IGSNTransformerTask implements Runnable {
         }
     }
 
+    /**
+     * Save the transformed version as the current version of its schema, unless the
+     * current one has the same content
+     * @param newVersion the transformed {@link Version}
+     * @param sourceVersion the {@link Version} it was transformed from
+     * @param existingVersions the current {@link Version} of every transformed schema
+     * @param sourceHash the hash of the source version
+     * @param revisions the {@link TransformRevision} of every transformed schema
+     */
+    private void save(Version newVersion, Version sourceVersion, Map<String, Version> existingVersions,
+                      String sourceHash, Map<String, String> revisions) {
+        String schemaID = newVersion.getSchema();
+        String hash = VersionService.getHash(newVersion);
+        String revision = revisions.get(schemaID);
+        // check if there's existing current version of the schema and if they're different
+        Version existingVersion = existingVersions.get(schemaID);
+        if (existingVersion != null) {
+            if (!existingVersion.getHash().equals(hash)) {
+                existingVersion.setHash(hash);
+                existingVersion.setContent(newVersion.getContent());
+                existingVersion.setCreatedAt(sourceVersion.getCreatedAt());
+                existingVersion.setRequestID(sourceVersion.getRequestID());
+                existingVersion.setSourceHash(sourceHash);
+                existingVersion.setTransformRevision(revision);
+                versionService.save(existingVersion);
+            } else {
+                logger.debug("{} Content didn't change for version with identifier {}, skipping",
+                         schemaID, identifier.getValue());
+                if (!TransformRevision.isCurrent(existingVersion, sourceHash, revision)) {
+                    // so the transform is skipped next time
+                    existingVersion.setSourceHash(sourceHash);
+                    existingVersion.setTransformRevision(revision);
+                    versionService.save(existingVersion);
+                }
+                return;
+            }
+        }else{
+            newVersion.setRequestID(sourceVersion.getRequestID());
+            newVersion.setCreatedAt(sourceVersion.getCreatedAt());
+            newVersion.setRecord(record);
+            newVersion.setCurrent(true);
+            newVersion.setHash(hash);
+            newVersion.setSourceHash(sourceHash);
+            newVersion.setTransformRevision(revision);
+            versionService.save(newVersion);
+        }
+
+        logger.info("Processed {} transformation for record with identifier {}", schemaID, identifier.getValue());
+    }
+
 }
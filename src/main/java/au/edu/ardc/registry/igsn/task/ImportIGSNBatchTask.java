@@ -0,0 +1,83 @@
+package au.edu.ardc.registry.igsn.task;
+
+import au.edu.ardc.registry.common.chunk.Chunk;
+import au.edu.ardc.registry.common.entity.Request;
+import au.edu.ardc.registry.common.model.Attribute;
+import au.edu.ardc.registry.igsn.event.RequestExceptionEvent;
+import au.edu.ardc.registry.igsn.model.IGSNTask;
+import au.edu.ardc.registry.igsn.model.ImportResult;
+import au.edu.ardc.registry.igsn.service.IGSNRequestService;
+import au.edu.ardc.registry.igsn.service.ImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Imports several chunks of a bulk mint with {@link ImportService#importBatch(List, Request)}
+ * and reports every one of them the same way an {@link ImportIGSNTask} does
+ */
+public class ImportIGSNBatchTask extends IGSNTask implements Runnable {
+
+	private static final Logger logger = LoggerFactory.getLogger(ImportIGSNBatchTask.class);
+
+	private final Map<Chunk, String> chunks;
+
+	private final Request request;
+
+	private final ImportService importService;
+
+	private final ApplicationEventPublisher applicationEventPublisher;
+
+	private final IGSNRequestService igsnRequestService;
+
+	/**
+	 * @param chunks the chunks to import and the value of their Identifier
+	 * @param request the {@link Request}
+	 */
+	public ImportIGSNBatchTask(Map<Chunk, String> chunks, Request request, ImportService importService,
+			ApplicationEventPublisher applicationEventPublisher, IGSNRequestService igsnRequestService) {
+		super(IGSNTask.TASK_IMPORT, chunks.values().iterator().next(), request.getId());
+		this.chunks = new LinkedHashMap<>(chunks);
+		this.request = request;
+		this.importService = importService;
+		this.applicationEventPublisher = applicationEventPublisher;
+		this.igsnRequestService = igsnRequestService;
+	}
+
+	@Override
+	public void run() {
+		logger.info("Processing a batch of {} chunks for request {}", chunks.size(), request.getId());
+		// only set it once
+		if (request.getAttribute(Attribute.START_TIME_IMPORT) == null) {
+			request.setAttribute(Attribute.START_TIME_IMPORT, new Date().getTime());
+		}
+		List<ImportResult> results = importService.importBatch(new ArrayList<>(chunks.keySet()), request);
+		for (ImportResult result : results) {
+			ImportIGSNTask task = new ImportIGSNTask(chunks.get(result.getChunk()), result.getChunk(), request,
+					importService, applicationEventPublisher, igsnRequestService);
+			try {
+				task.run(result);
+			}
+			catch (RuntimeException e) {
+				// a failed record doesn't stop the report of the others
+				igsnRequestService.getLoggerFor(request).warn(e.getMessage());
+				logger.warn(e.getMessage());
+				igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_ERROR);
+				applicationEventPublisher.publishEvent(new RequestExceptionEvent(e.getMessage(), request));
+			}
+		}
+		logger.info("Processed a batch of {} chunks for request {}", chunks.size(), request.getId());
+	}
+
+	public UUID getRequestID() {
+		return request.getId();
+	}
+
+}
@@ -1,5 +1,6 @@
 package au.edu.ardc.registry.igsn.task;
 
+import au.edu.ardc.registry.common.chunk.Chunk;
 import au.edu.ardc.registry.common.entity.Identifier;
 import au.edu.ardc.registry.common.entity.Record;
 import au.edu.ardc.registry.common.entity.Request;
@@ -10,6 +11,7 @@ import au.edu.ardc.registry.exception.ForbiddenOperationException;
 import au.edu.ardc.registry.igsn.entity.IGSNEventType;
 import au.edu.ardc.registry.igsn.event.IGSNUpdatedEvent;
 import au.edu.ardc.registry.igsn.event.RequestExceptionEvent;
+import au.edu.ardc.registry.igsn.model.ImportResult;
 import au.edu.ardc.registry.igsn.model.IGSNTask;
 import au.edu.ardc.registry.igsn.service.IGSNRequestService;
 import au.edu.ardc.registry.igsn.service.IGSNService;
@@ -19,7 +21,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.Date;
 import java.util.UUID;
@@ -28,7 +29,7 @@ public class ImportIGSNTask extends IGSNTask implements Runnable {
 
 	private static final Logger logger = LoggerFactory.getLogger(ImportIGSNTask.class);
 
-	private final File file;
+	private final Chunk chunk;
 
 	private final Request request;
 
@@ -41,10 +42,10 @@ public class ImportIGSNTask extends IGSNTask implements Runnable {
 	private String identifierValue;
 
 
-	public ImportIGSNTask(String identifierValue, File file, Request request, ImportService importService,
+	public ImportIGSNTask(String identifierValue, Chunk chunk, Request request, ImportService importService,
 			ApplicationEventPublisher applicationEventPublisher, IGSNRequestService  igsnRequestService) {
 		this.identifierValue = identifierValue;
-		this.file = file;
+		this.chunk = chunk;
 		this.request = request;
 		super.setIdentifierValue(identifierValue);
 		super.setRequestID(request.getId());
@@ -55,24 +56,34 @@ public class ImportIGSNTask extends IGSNTask implements Runnable {
 
 	@Override
 	public void run() {
+		run(() -> importService.importRequest(chunk, request));
+	}
+
+	/**
+	 * Report the import of the chunk, already imported in a batch
+	 * @param result the {@link ImportResult} of the chunk
+	 */
+	public void run(ImportResult result) {
+		run(result::get);
+	}
+
+	private void run(Import importer) {
 		org.apache.logging.log4j.core.Logger requestLog = igsnRequestService.getLoggerFor(request);
 		try {
-			logger.info("Processing import file: {}", file.getAbsoluteFile());
+			logger.info("Processing import chunk: {}", chunk);
 			// only set it once
 			if(request.getAttribute(Attribute.START_TIME_IMPORT) == null){
 				request.setAttribute(Attribute.START_TIME_IMPORT, new Date().getTime());
 			}
-			Identifier identifier = importService.importRequest(file, request);
+			Identifier identifier = importer.run();
 			request.setAttribute(Attribute.END_TIME_IMPORT, new Date().getTime());
 
 			if (identifier != null) {
-				request.incrementAttributeValue(Attribute.NUM_OF_RECORDS_CREATED);
+				int numCreated = igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_RECORDS_CREATED);
 				Record record = identifier.getRecord();
 				int totalCount = new Integer(request.getAttribute(Attribute.NUM_OF_RECORDS_RECEIVED));
-				int numCreated = new Integer(request.getAttribute(Attribute.NUM_OF_RECORDS_CREATED));
 				request.setMessage(String.format("Imported %d out of %d", numCreated, totalCount));
 				requestLog.info(String.format("Created Record with Identifier: %s", identifier.getValue()));
-				igsnRequestService.save(request);
 				if(record != null){
 					applicationEventPublisher.publishEvent(new RecordUpdatedEvent(identifier.getRecord()));
 					applicationEventPublisher.publishEvent(new IGSNUpdatedEvent(identifier, request));
@@ -85,12 +96,12 @@ public class ImportIGSNTask extends IGSNTask implements Runnable {
 					request.setMessage("Error creating Identifier");
 				}
 			}
-			logger.info("Processed import file: {}", file.getAbsoluteFile());
+			logger.info("Processed import chunk: {}", chunk);
 		}
 		catch (IOException | ContentNotSupportedException e) {
 			requestLog.warn(e.getMessage());
 			logger.warn(e.getMessage());
-			request.incrementAttributeValue(Attribute.NUM_OF_ERROR);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_ERROR);
 			if(request.getType().equals(IGSNService.EVENT_MINT)) {
 				request.setMessage(e.getMessage());
 			}
@@ -101,8 +112,8 @@ public class ImportIGSNTask extends IGSNTask implements Runnable {
 		catch (ForbiddenOperationException e) {
 			requestLog.warn(e.getMessage());
 			logger.warn(e.getMessage());
-			request.incrementAttributeValue(Attribute.NUM_OF_RECORDS_FORBIDDEN);
-			request.incrementAttributeValue(Attribute.NUM_OF_ERROR);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_RECORDS_FORBIDDEN);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_ERROR);
 			if(request.getType().equals(IGSNService.EVENT_MINT)) {
 				request.setMessage(e.getMessage());
 			}
@@ -125,4 +136,10 @@ public class ImportIGSNTask extends IGSNTask implements Runnable {
 		this.identifierValue = identifierValue;
 	}
 
+	private interface Import {
+
+		Identifier run() throws IOException;
+
+	}
+
 }
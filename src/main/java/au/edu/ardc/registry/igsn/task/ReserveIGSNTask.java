@@ -59,12 +59,12 @@ public class ReserveIGSNTask extends IGSNTask implements Runnable {
 			Identifier identifier = importService.reserveRequest(identifierValue, request);
 			if (identifier != null) {
 				int totalCount = new Integer(request.getAttribute(Attribute.NUM_OF_RECORDS_RECEIVED));
-				int numCreated = new Integer(request.getAttribute(Attribute.NUM_OF_RECORDS_CREATED));
+				int numCreated = igsnRequestService.getCount(request, Attribute.NUM_OF_RECORDS_CREATED);
 				requestLog.info(String.format("Successfully created Record with Identifier: %s , status: %s",
 						identifier.getValue(), identifier.getStatus()));
 				request.setMessage(String.format("Imported %d out of %d", numCreated, totalCount));
 			}
-			request.incrementAttributeValue(Attribute.NUM_OF_RECORDS_CREATED);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_RECORDS_CREATED);
 			request.setAttribute(Attribute.END_TIME_IMPORT, new Date().getTime());
 
 			String message = String.format("Processed Identifier: %s", identifierValue);
@@ -74,9 +74,9 @@ public class ReserveIGSNTask extends IGSNTask implements Runnable {
 		catch (ForbiddenOperationException e) {
 			requestLog.error(e.getMessage());
 			logger.warn(e.getMessage());
-			request.incrementAttributeValue(Attribute.NUM_OF_ERROR);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_ERROR);
 			// for import the only reason it is forbidden if the record already exists
-			request.incrementAttributeValue(Attribute.NUM_OF_RECORD_ALREADY_EXISTS);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_RECORD_ALREADY_EXISTS);
 			applicationEventPublisher.publishEvent(new RequestExceptionEvent(e.getMessage(), request));
 		}
 
@@ -58,11 +58,11 @@ public class SyncIGSNTask extends IGSNTask implements Runnable {
 				tMsg = "Updated";
 			}
 			logger.info("{} MDS record for:{} request: {}", tMsg, identifier.getValue(), request.getId());
-			request.incrementAttributeValue(Attribute.NUM_OF_IGSN_REGISTERED);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_IGSN_REGISTERED);
 			// only update request message for bulk
 			if(request.getType().equals(IGSNService.EVENT_BULK_UPDATE) || request.getType().equals(IGSNService.EVENT_BULK_MINT)){
 				int totalCount = new Integer(request.getAttribute(Attribute.NUM_OF_RECORDS_RECEIVED));
-				int numRegistered = new Integer(request.getAttribute(Attribute.NUM_OF_IGSN_REGISTERED));
+				int numRegistered = igsnRequestService.getCount(request, Attribute.NUM_OF_IGSN_REGISTERED);
 				request.setMessage(String.format("%s MDS record %d out of %d", tMsg, numRegistered, totalCount));
 			}
 
@@ -74,42 +74,42 @@ public class SyncIGSNTask extends IGSNTask implements Runnable {
 		catch (IOException e) {
 			// todo log the exception in the request log
 			requestLog.error(e.getMessage());
-			request.incrementAttributeValue(Attribute.NUM_OF_ERROR);
-			request.incrementAttributeValue(Attribute.NUM_OF_FAILED_REGISTRATION);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_ERROR);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_FAILED_REGISTRATION);
 			logger.error(e.getMessage());
 			applicationEventPublisher.publishEvent(new RequestExceptionEvent(e.getMessage(), request));
 		}
 		catch (VersionContentAlreadyExistsException e) {
 			requestLog.warn(e.getMessage());
-			request.incrementAttributeValue(Attribute.NUM_OF_ERROR);
-			request.incrementAttributeValue(Attribute.NUM_OF_FAILED_REGISTRATION);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_ERROR);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_FAILED_REGISTRATION);
 			logger.warn(e.getMessage());
 			applicationEventPublisher.publishEvent(new RequestExceptionEvent(e.getMessage(), request));
 		}
 		catch (VersionIsOlderThanCurrentException e) {
 			requestLog.warn(e.getMessage());
-			request.incrementAttributeValue(Attribute.NUM_OF_ERROR);
-			request.incrementAttributeValue(Attribute.NUM_OF_FAILED_REGISTRATION);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_ERROR);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_FAILED_REGISTRATION);
 			logger.warn(e.getMessage());
 			applicationEventPublisher.publishEvent(new RequestExceptionEvent(e.getMessage(), request));
 		}
 		catch (ForbiddenOperationException e) {
 			requestLog.error(e.getMessage());
-			request.incrementAttributeValue(Attribute.NUM_OF_ERROR);
-			request.incrementAttributeValue(Attribute.NUM_OF_FAILED_REGISTRATION);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_ERROR);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_FAILED_REGISTRATION);
 			logger.warn(e.getMessage());
 			applicationEventPublisher.publishEvent(new RequestExceptionEvent(e.getMessage(), request));
 		}
 		catch (RecordNotFoundException | NotFoundException | MDSClientException e){
 			requestLog.error(e.getMessage());
-			request.incrementAttributeValue(Attribute.NUM_OF_ERROR);
-			request.incrementAttributeValue(Attribute.NUM_OF_FAILED_REGISTRATION);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_ERROR);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_FAILED_REGISTRATION);
 			logger.error(e.getClass() + e.getMessage());
 			applicationEventPublisher.publishEvent(new RequestExceptionEvent(e.getMessage(), request));
 		} catch (Exception e) {
 			requestLog.error(e.getMessage());
-			request.incrementAttributeValue(Attribute.NUM_OF_ERROR);
-			request.incrementAttributeValue(Attribute.NUM_OF_FAILED_REGISTRATION);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_ERROR);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_FAILED_REGISTRATION);
 			logger.error(e.getClass() + e.getMessage());
 			applicationEventPublisher.publishEvent(new RequestExceptionEvent(e.getMessage(), request));
 		}
@@ -54,12 +54,12 @@ public class TransferIGSNTask extends IGSNTask implements Runnable {
 			Identifier identifier = importService.transferRequest(identifierValue, request);
 			if (identifier != null) {
 				int totalCount = new Integer(request.getAttribute(Attribute.NUM_OF_RECORDS_RECEIVED));
-				int numCreated = new Integer(request.getAttribute(Attribute.NUM_OF_RECORDS_UPDATED));
+				int numCreated = igsnRequestService.getCount(request, Attribute.NUM_OF_RECORDS_UPDATED);
 				requestLog.info(String.format("Successfully Transferred Ownership of Record with Identifier: %s",
 						identifier.getValue()));
 				request.setMessage(String.format("Imported %d out of %d", numCreated, totalCount));
 			}
-			request.incrementAttributeValue(Attribute.NUM_OF_RECORDS_UPDATED);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_RECORDS_UPDATED);
 			request.setAttribute(Attribute.END_TIME_IMPORT, new Date().getTime());
 
 			String message = String.format("Processed Identifier: %s", identifierValue);
@@ -69,7 +69,7 @@ public class TransferIGSNTask extends IGSNTask implements Runnable {
 		catch (ForbiddenOperationException | NotChangedException e) {
 			requestLog.error(e.getMessage());
 			logger.warn(e.getMessage());
-			request.incrementAttributeValue(Attribute.NUM_OF_ERROR);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_ERROR);
 			applicationEventPublisher.publishEvent(new RequestExceptionEvent(e.getMessage(), request));
 		}
 
@@ -1,5 +1,6 @@
 package au.edu.ardc.registry.igsn.task;
 
+import au.edu.ardc.registry.common.chunk.Chunk;
 import au.edu.ardc.registry.common.entity.Identifier;
 import au.edu.ardc.registry.common.entity.Record;
 import au.edu.ardc.registry.common.entity.Request;
@@ -20,7 +21,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.Date;
 import java.util.UUID;
@@ -29,7 +29,7 @@ public class UpdateIGSNTask extends IGSNTask implements Runnable {
 
 	private static final Logger logger = LoggerFactory.getLogger(UpdateIGSNTask.class);
 
-	private final File file;
+	private final Chunk chunk;
 
 	private final Request request;
 
@@ -43,12 +43,12 @@ public class UpdateIGSNTask extends IGSNTask implements Runnable {
 
 	private IGSNService igsnService;
 
-	public UpdateIGSNTask(String identifierValue, File file, Request request, ImportService importService,
+	public UpdateIGSNTask(String identifierValue, Chunk chunk, Request request, ImportService importService,
 			ApplicationEventPublisher applicationEventPublisher, IGSNRequestService igsnRequestService) {
 		this.identifierValue = identifierValue;
 		super.setIdentifierValue(identifierValue);
 		super.setRequestID(request.getId());
-		this.file = file;
+		this.chunk = chunk;
 		this.request = request;
 		this.applicationEventPublisher = applicationEventPublisher;
 		this.importService = importService;
@@ -63,14 +63,14 @@ public class UpdateIGSNTask extends IGSNTask implements Runnable {
 			if(request.getAttribute(Attribute.START_TIME_UPDATE) == null){
 				request.setAttribute(Attribute.START_TIME_UPDATE, new Date().getTime());
 			}
-			Identifier identifier = importService.updateRequest(file, request);
-			request.incrementAttributeValue(Attribute.NUM_OF_RECORDS_UPDATED);
+			Identifier identifier = importService.updateRequest(chunk, request);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_RECORDS_UPDATED);
 			request.setAttribute(Attribute.END_TIME_UPDATE, new Date().getTime());
 			if (identifier != null) {
 				Record record = identifier.getRecord();
 				if(record != null){
 					int totalCount = new Integer(request.getAttribute(Attribute.NUM_OF_RECORDS_RECEIVED));
-					int numUpdated = new Integer(request.getAttribute(Attribute.NUM_OF_RECORDS_UPDATED));
+					int numUpdated = igsnRequestService.getCount(request, Attribute.NUM_OF_RECORDS_UPDATED);
 					request.setMessage(String.format("Updated %d out of %d", numUpdated, totalCount));
 					requestLog.info(String.format("Updated Record with Identifier: %s", identifier.getValue()));
 					applicationEventPublisher.publishEvent(new RecordUpdatedEvent(identifier.getRecord()));
@@ -89,7 +89,7 @@ public class UpdateIGSNTask extends IGSNTask implements Runnable {
 		catch (IOException | ContentNotSupportedException e) {
 			requestLog.warn(e.getMessage());
 			logger.warn(e.getMessage());
-			request.incrementAttributeValue(Attribute.NUM_OF_ERROR);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_ERROR);
 			if(request.getType().equals(IGSNService.EVENT_UPDATE)) {
 				request.setMessage(e.getMessage());
 			}
@@ -99,8 +99,8 @@ public class UpdateIGSNTask extends IGSNTask implements Runnable {
 		}catch(ForbiddenOperationException e){
 			requestLog.warn(e.getMessage());
 			logger.warn(e.getMessage());
-			request.incrementAttributeValue(Attribute.NUM_OF_RECORDS_FORBIDDEN);
-			request.incrementAttributeValue(Attribute.NUM_OF_ERROR);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_RECORDS_FORBIDDEN);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_ERROR);
 			if(request.getType().equals(IGSNService.EVENT_UPDATE)) {
 				request.setMessage(e.getMessage());
 			}
@@ -110,8 +110,8 @@ public class UpdateIGSNTask extends IGSNTask implements Runnable {
 		}catch(VersionIsOlderThanCurrentException | VersionContentAlreadyExistsException e){
 			requestLog.warn(e.getMessage());
 			logger.warn(e.getMessage());
-			request.incrementAttributeValue(Attribute.NUM_OF_RECORD_CONTENT_NOT_CHANGED);
-			request.incrementAttributeValue(Attribute.NUM_OF_ERROR);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_RECORD_CONTENT_NOT_CHANGED);
+			igsnRequestService.incrementAttributeValue(request, Attribute.NUM_OF_ERROR);
 			if(request.getType().equals(IGSNService.EVENT_UPDATE)) {
 				request.setMessage(e.getMessage());
 			}
@@ -2,14 +2,21 @@ package au.edu.ardc.registry.igsn.transform.ardcv1;
 
 import au.edu.ardc.registry.common.entity.Version;
 import au.edu.ardc.registry.common.service.SchemaService;
+import au.edu.ardc.registry.common.transform.StylesheetTransformer;
 import au.edu.ardc.registry.common.transform.Transformer;
 import au.edu.ardc.registry.common.transform.XSLTransformer;
-import org.json.JSONObject;
+import au.edu.ardc.registry.common.util.JSONUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.xml.transform.TransformerException;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
-public class ARDCv1ToJSONLDTransformer implements Transformer {
+public class ARDCv1ToJSONLDTransformer implements StylesheetTransformer {
+
+	private static final Logger logger = LoggerFactory.getLogger(ARDCv1ToJSONLDTransformer.class);
 
 	private static final String path = "xslt/ardc_v1_to_jsonld.xsl";
 
@@ -24,20 +31,41 @@ public class ARDCv1ToJSONLDTransformer implements Transformer {
 	 * value
 	 */
 	public Version transform(Version version) {
-		// the result is available via the StringWriter
-		String resultDocument = XSLTransformer.transform(path, new String(version.getContent()), null);
-		// todo check resultDocument for null | try catch exception
+		byte[] resultDocument;
+		try {
+			resultDocument = XSLTransformer.transform(path, version.getContent(), null);
+		}
+		catch (TransformerException e) {
+			logger.error("Failed transforming Version {}: {}", version.getId(), e.getMessage());
+			return null;
+		}
+
+		return toVersion(resultDocument, version);
+	}
 
-		// prettify result json
-		JSONObject json = new JSONObject(resultDocument);
-		String formattedJSONString = json.toString(2);
+	@Override
+	public String getStylesheet() {
+		return path;
+	}
+
+	@Override
+	public Version toVersion(byte[] result, Version version) {
+		// store the json compact, it's pretty printed on request
+		byte[] compactJSON;
+		try {
+			compactJSON = JSONUtil.compact(result);
+		}
+		catch (IOException e) {
+			logger.error("Invalid JSON produced from Version {}: {}", version.getId(), e.getMessage());
+			return null;
+		}
 
 		// build resultVersion
 		Version resultVersion = new Version();
 		resultVersion.setCurrent(true);
 		resultVersion.setRecord(version.getRecord());
 		resultVersion.setSchema(targetSchemaID);
-		resultVersion.setContent(formattedJSONString.getBytes());
+		resultVersion.setContent(compactJSON);
 
 		// resulting version should have the same request ID as the original version
 		resultVersion.setRequestID(version.getRequestID());
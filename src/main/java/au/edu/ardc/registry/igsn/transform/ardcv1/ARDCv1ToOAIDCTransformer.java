@@ -2,13 +2,19 @@ package au.edu.ardc.registry.igsn.transform.ardcv1;
 
 import au.edu.ardc.registry.common.entity.Version;
 import au.edu.ardc.registry.common.service.SchemaService;
+import au.edu.ardc.registry.common.transform.StylesheetTransformer;
 import au.edu.ardc.registry.common.transform.Transformer;
 import au.edu.ardc.registry.common.transform.XSLTransformer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.xml.transform.TransformerException;
 import java.util.HashMap;
 import java.util.Map;
 
-public class ARDCv1ToOAIDCTransformer implements Transformer {
+public class ARDCv1ToOAIDCTransformer implements StylesheetTransformer {
+
+	private static final Logger logger = LoggerFactory.getLogger(ARDCv1ToOAIDCTransformer.class);
 
 	private static final String path = "xslt/ardc_v1_to_oai_dc.xsl";
 
@@ -19,16 +25,30 @@ public class ARDCv1ToOAIDCTransformer implements Transformer {
 	@Override
 	public Version transform(Version version) {
 
-		String resultDocument = XSLTransformer.transform(path, new String(version.getContent()), new HashMap<>());
-
-		if (resultDocument == null)
+		byte[] resultDocument;
+		try {
+			resultDocument = XSLTransformer.transform(path, version.getContent(), new HashMap<>());
+		}
+		catch (TransformerException e) {
+			logger.error("Failed transforming Version {}: {}", version.getId(), e.getMessage());
 			return null;
+		}
+
+		return toVersion(resultDocument, version);
+	}
 
+	@Override
+	public String getStylesheet() {
+		return path;
+	}
+
+	@Override
+	public Version toVersion(byte[] result, Version version) {
 		Version resultVersion = new Version();
 		resultVersion.setSchema(targetSchemaID);
 		resultVersion.setCurrent(true);
 		resultVersion.setRecord(version.getRecord());
-		resultVersion.setContent(resultDocument.getBytes());
+		resultVersion.setContent(result);
 
 		// resulting version should have the same request ID as the original version
 		resultVersion.setRequestID(version.getRequestID());
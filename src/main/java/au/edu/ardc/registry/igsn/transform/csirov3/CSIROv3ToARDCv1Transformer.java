@@ -3,13 +3,13 @@ package au.edu.ardc.registry.igsn.transform.csirov3;
 import au.edu.ardc.registry.common.entity.Version;
 import au.edu.ardc.registry.common.service.SchemaService;
 import au.edu.ardc.registry.common.service.VersionService;
-import au.edu.ardc.registry.common.transform.Transformer;
+import au.edu.ardc.registry.common.transform.StylesheetTransformer;
 import au.edu.ardc.registry.common.transform.XSLTransformer;
 
 import java.util.HashMap;
 import java.util.Map;
 
-public class CSIROv3ToARDCv1Transformer implements Transformer {
+public class CSIROv3ToARDCv1Transformer implements StylesheetTransformer {
 
     private static final String path = "xslt/csiro_v3_to_ardc_v1.xsl";
 
@@ -31,10 +31,20 @@ public class CSIROv3ToARDCv1Transformer implements Transformer {
         if (resultDocument == null)
             return null;
 
+        return toVersion(resultDocument.getBytes(), version);
+    }
+
+    @Override
+    public String getStylesheet() {
+        return path;
+    }
+
+    @Override
+    public Version toVersion(byte[] result, Version version) {
         Version resultVersion = new Version();
         resultVersion.setSchema(targetSchemaID);
-        resultVersion.setContent(resultDocument.getBytes());
-        resultVersion.setHash(VersionService.getHash(new String(resultDocument.getBytes())));
+        resultVersion.setContent(result);
+        resultVersion.setHash(VersionService.getHash(new String(result)));
 
         // resulting version should have the same request ID as the original version
         resultVersion.setRequestID(version.getRequestID());
@@ -3,13 +3,19 @@ package au.edu.ardc.registry.igsn.transform.csirov3;
 import au.edu.ardc.registry.common.entity.Version;
 import au.edu.ardc.registry.common.service.SchemaService;
 import au.edu.ardc.registry.common.service.VersionService;
-import au.edu.ardc.registry.common.transform.Transformer;
+import au.edu.ardc.registry.common.transform.StylesheetTransformer;
 import au.edu.ardc.registry.common.transform.XSLTransformer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.xml.transform.TransformerException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
-public class CSIROv3ToRegistrationMetadataTransformer implements Transformer {
+public class CSIROv3ToRegistrationMetadataTransformer implements StylesheetTransformer {
+
+	private static final Logger logger = LoggerFactory.getLogger(CSIROv3ToRegistrationMetadataTransformer.class);
 
 	private static final String path = "xslt/csiro_v3_to_registration_metadata_v1.xsl";
 
@@ -26,15 +32,29 @@ public class CSIROv3ToRegistrationMetadataTransformer implements Transformer {
 	 */
 	public Version transform(Version version) {
 		// the result is available via the StringWriter
-		String resultDocument = XSLTransformer.transform(path, new String(version.getContent()), this.parameters);
-		// build resultVersion
-		if (resultDocument == null)
+		byte[] resultDocument;
+		try {
+			resultDocument = XSLTransformer.transform(path, version.getContent(), this.parameters);
+		}
+		catch (TransformerException e) {
+			logger.error("Failed transforming Version {}: {}", version.getId(), e.getMessage());
 			return null;
+		}
+
+		return toVersion(resultDocument, version);
+	}
+
+	@Override
+	public String getStylesheet() {
+		return path;
+	}
 
+	@Override
+	public Version toVersion(byte[] result, Version version) {
 		Version resultVersion = new Version();
 		resultVersion.setSchema(targetSchemaID);
-		resultVersion.setContent(resultDocument.getBytes());
-		resultVersion.setHash(VersionService.getHash(new String(resultDocument.getBytes())));
+		resultVersion.setContent(result);
+		resultVersion.setHash(VersionService.getHash(new String(result, StandardCharsets.UTF_8)));
 
 		// resulting version should have the same request ID as the original version
 		resultVersion.setRequestID(version.getRequestID());
@@ -93,8 +93,9 @@ public class PayloadValidator {
 		// check if the current user has insert or update access for the records with the
 		// given identifiers
 		userAccessValidator.canUserUpdateIGSNRecord(content, user);
-		// check if the contents are new compared what stored in the registry
-		versionContentValidator.isNewContent(content);
+		// check if the contents are new compared what stored in the registry, reusing the
+		// identifiers already classified by the user access validation
+		versionContentValidator.isNewContent(content, userAccessValidator.getClassification());
 	}
 
 }
@@ -3,6 +3,7 @@ package au.edu.ardc.registry.igsn.validator;
 import au.edu.ardc.registry.common.entity.Identifier;
 import au.edu.ardc.registry.common.entity.Record;
 import au.edu.ardc.registry.common.model.Allocation;
+import au.edu.ardc.registry.common.model.IdentifierClassification;
 import au.edu.ardc.registry.common.model.Schema;
 import au.edu.ardc.registry.common.model.Scope;
 import au.edu.ardc.registry.common.model.User;
@@ -34,6 +35,8 @@ public class UserAccessValidator {
 
 	private UUID allocationID;
 
+	private IdentifierClassification classification;
+
 	public UserAccessValidator(IdentifierService identifierService, ValidationService validationService,
 			SchemaService schemaService) {
 		this.identifierService = identifierService;
@@ -108,9 +111,20 @@ public class UserAccessValidator {
 		return canUserUpdateIGSNIdentifier(identifiers, user);
 	}
 
+	/**
+	 * Classifies all the identifiers with a single lookup and tests that each of them
+	 * exists and is owned by the user. The classification is kept for
+	 * {@link #getClassification()}
+	 * @param identifiers the IGSN Identifier values
+	 * @param user the user making the update request
+	 * @return true if user has access to all Records of the identifiers
+	 * @throws ForbiddenOperationException when an identifier doesn't exist or the user
+	 * has no access to its Record
+	 */
 	public boolean canUserUpdateIGSNIdentifier(List<String> identifiers, User user) throws ForbiddenOperationException{
+		classification = identifierService.classify(identifiers, Identifier.Type.IGSN, user);
 		for (String identifierValue : identifiers) {
-			Identifier existingIdentifier = identifierService.findByValueAndType(identifierValue, Identifier.Type.IGSN);
+			Identifier existingIdentifier = classification.getIdentifier(identifierValue);
 			if (existingIdentifier == null) {
 				throw new ForbiddenOperationException("Identifier doesn't exists with value: " + identifierValue);
 			}
@@ -118,7 +132,7 @@ public class UserAccessValidator {
 			if(record == null){
 				throw new ForbiddenOperationException("Record doesn't exists for identifier: " + identifierValue);
 			}
-			if (!hasAccessToRecord(record, user)) {
+			if (classification.getStatus(identifierValue) != IdentifierClassification.Status.OWNED) {
 				throw new ForbiddenOperationException("User has no access to the Record: " + record.getId());
 			}
 			allocationID = record.getAllocationID();
@@ -155,6 +169,14 @@ public class UserAccessValidator {
 		return allocationID;
 	}
 
+	/**
+	 * @return the {@link IdentifierClassification} of the last update validated, null if
+	 * none was
+	 */
+	public IdentifierClassification getClassification() {
+		return classification;
+	}
+
 	public boolean hasAccessToRecord(Record record, User user) {
 		return validationService.validateRecordOwnership(record, user);
 	}
@@ -3,7 +3,9 @@ package au.edu.ardc.registry.igsn.validator;
 import au.edu.ardc.registry.common.entity.Identifier;
 import au.edu.ardc.registry.common.entity.Record;
 import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.model.IdentifierClassification;
 import au.edu.ardc.registry.common.model.Schema;
+import au.edu.ardc.registry.common.provider.FragmentIterator;
 import au.edu.ardc.registry.common.provider.FragmentProvider;
 import au.edu.ardc.registry.common.provider.IdentifierProvider;
 import au.edu.ardc.registry.common.provider.Metadata;
@@ -11,9 +13,14 @@ import au.edu.ardc.registry.common.provider.MetadataProviderFactory;
 import au.edu.ardc.registry.common.service.IdentifierService;
 import au.edu.ardc.registry.common.service.SchemaService;
 import au.edu.ardc.registry.common.service.VersionService;
+import au.edu.ardc.registry.exception.ContentNotSupportedException;
 import au.edu.ardc.registry.exception.ContentProviderNotFoundException;
 import au.edu.ardc.registry.exception.VersionContentAlreadyExistsException;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -32,8 +39,8 @@ public class VersionContentValidator {
 	}
 
 	/**
-	 * Checks if a Payload has all new content. Calls {@link #isIdentifierNewContent}
-	 * internally for each Fragment found
+	 * Checks if a Payload has all new content. The identifiers of the payload are
+	 * classified with a single lookup before each Fragment is checked
 	 * @param payload String payload to check, requires a supported {@link Schema}
 	 * document
 	 * @return true if the payload (all content) is considered new and ready for ingest.
@@ -44,15 +51,47 @@ public class VersionContentValidator {
 	 */
 	public boolean isNewContent(String payload)
 			throws VersionContentAlreadyExistsException, ContentProviderNotFoundException {
+		return isNewContent(payload, null);
+	}
+
+	/**
+	 * Checks if a Payload has all new content. Calls
+	 * {@link #isIdentifierNewContent(String, Identifier, String, String)} internally for
+	 * each Fragment found
+	 * @param payload String payload to check, requires a supported {@link Schema}
+	 * document
+	 * @param classification the {@link IdentifierClassification} of the payload
+	 * identifiers, null to classify them
+	 * @return true if the payload (all content) is considered new and ready for ingest.
+	 * @throws VersionContentAlreadyExistsException bubble up from
+	 * {@link #isVersionNewContent}
+	 * @throws ContentProviderNotFoundException bubble up from {@link FragmentProvider}
+	 * and {@link IdentifierProvider}
+	 */
+	public boolean isNewContent(String payload, IdentifierClassification classification)
+			throws VersionContentAlreadyExistsException, ContentProviderNotFoundException {
 		Schema schema = schemaService.getSchemaForContent(payload);
 		FragmentProvider fProvider = (FragmentProvider) MetadataProviderFactory.create(schema, Metadata.Fragment);
 		IdentifierProvider iProvider = (IdentifierProvider) MetadataProviderFactory.create(schema, Metadata.Identifier);
 
-		int numberOfFragments = fProvider.getCount(payload);
-		for (int i = 0; i < numberOfFragments; i++) {
-			String content = fProvider.get(payload, i);
-			String identifier = iProvider.get(content);
-			isIdentifierNewContent(content, identifier, schema.getId());
+		if (classification == null) {
+			List<String> identifiers = iProvider.getAll(payload);
+			classification = identifierService.classify(identifiers, Identifier.Type.IGSN, null);
+		}
+
+		try (FragmentIterator fragments = fProvider
+				.iterate(new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8)))) {
+			while (fragments.hasNext()) {
+				String content = fragments.next();
+				String identifierValue = iProvider.get(content);
+				Identifier identifier = classification.contains(identifierValue)
+						? classification.getIdentifier(identifierValue)
+						: identifierService.findByValueAndType(identifierValue, Identifier.Type.IGSN);
+				isIdentifierNewContent(content, identifier, identifierValue, schema.getId());
+			}
+		}
+		catch (IOException e) {
+			throw new ContentNotSupportedException(e.getMessage());
 		}
 		return true;
 	}
@@ -70,7 +109,21 @@ public class VersionContentValidator {
 	public boolean isIdentifierNewContent(String content, String identifierValue, String schemaID)
 			throws VersionContentAlreadyExistsException {
 		Identifier identifier = identifierService.findByValueAndType(identifierValue, Identifier.Type.IGSN);
+		return isIdentifierNewContent(content, identifier, identifierValue, schemaID);
+	}
 
+	/**
+	 * Checks if a Content is new for an Identifier that was already looked up
+	 * @param content String content to compare
+	 * @param identifier the existing {@link Identifier}, null if there is none
+	 * @param identifierValue the String value of the Identifier
+	 * @param schemaID the String schemaID
+	 * @return true if the content is new for this Identifier
+	 * @throws VersionContentAlreadyExistsException bubble up from
+	 * {@link #isVersionNewContent(String, Version, String)}
+	 */
+	public boolean isIdentifierNewContent(String content, Identifier identifier, String identifierValue,
+			String schemaID) throws VersionContentAlreadyExistsException {
 		// if the identifier doesn't exist, this is new content
 		if (identifier == null) {
 			return true;
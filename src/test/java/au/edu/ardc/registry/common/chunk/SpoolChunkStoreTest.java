@@ -0,0 +1,131 @@
+package au.edu.ardc.registry.common.chunk;
+
+import au.edu.ardc.registry.common.util.Helpers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpoolChunkStoreTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void add() throws IOException {
+		Path path = tempDir.resolve("chunks.spool");
+		SpoolChunkStore store = new SpoolChunkStore(path);
+		Chunk first = store.add("<resource>first</resource>");
+		Chunk second = store.add("<resource>second – ü</resource>");
+
+		// chunks are readable while the store is still written to
+		assertThat(first.getContent()).isEqualTo("<resource>first</resource>");
+		Chunk third = store.add("<resource>third</resource>");
+		assertThat(third.getContent()).isEqualTo("<resource>third</resource>");
+		assertThat(second.getContent()).isEqualTo("<resource>second – ü</resource>");
+
+		// every chunk is an offset and a length in the single spool file
+		assertThat(((SpoolChunkStore.SpoolChunk) first).getOffset()).isEqualTo(0);
+		assertThat(((SpoolChunkStore.SpoolChunk) second).getOffset()).isEqualTo(first.getLength());
+		assertThat(second.getLength())
+				.isEqualTo("<resource>second – ü</resource>".getBytes(StandardCharsets.UTF_8).length);
+		assertThat(Files.size(path)).isEqualTo(first.getLength() + second.getLength() + third.getLength());
+		assertThat(store.getChunks()).containsExactly(first, second, third);
+
+		// and stay readable once closed
+		store.close();
+		assertThat(first.getContent()).isEqualTo("<resource>first</resource>");
+		assertThat(third.getContent()).isEqualTo("<resource>third</resource>");
+	}
+
+	@Test
+	void add_fragments() throws IOException {
+		String content = Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml");
+		try (SpoolChunkStore store = new SpoolChunkStore(tempDir.resolve("chunks.spool"))) {
+			for (int i = 0; i < 100; i++) {
+				store.add(content);
+			}
+			List<Chunk> chunks = store.getChunks();
+			assertThat(chunks).hasSize(100);
+			for (Chunk chunk : chunks) {
+				assertThat(chunk.getContent()).isEqualTo(content);
+			}
+		}
+	}
+
+	@Test
+	void read_whileAdding_mapsTheFileLogarithmically() throws IOException {
+		try (SpoolChunkStore store = new SpoolChunkStore(tempDir.resolve("chunks.spool"))) {
+			for (int i = 0; i < 1000; i++) {
+				Chunk chunk = store.add("<resource>" + i + "</resource>");
+				assertThat(chunk.getContent()).isEqualTo("<resource>" + i + "</resource>");
+			}
+			assertThat(store.getMapCount()).isLessThan(20);
+			assertThat(store.getChunks().get(500).getContent()).isEqualTo("<resource>500</resource>");
+		}
+	}
+
+	@Test
+	void add_replacesTheSpoolOfAPreviousStore() throws IOException {
+		Path path = tempDir.resolve("chunks.spool");
+		SpoolChunkStore previous = new SpoolChunkStore(path);
+		Chunk chunk = previous.add("<resource>previous run</resource>");
+		previous.close();
+
+		// a re-run spools to the same path while the previous chunks are still referenced
+		try (SpoolChunkStore store = new SpoolChunkStore(path)) {
+			store.add("<resource>re-run</resource>");
+			assertThat(store.getChunks().get(0).getContent()).isEqualTo("<resource>re-run</resource>");
+			assertThat(chunk.getContent()).isEqualTo("<resource>previous run</resource>");
+		}
+	}
+
+	@Test
+	void read_interruptedReader_doesNotBreakTheStore() throws Exception {
+		try (SpoolChunkStore store = new SpoolChunkStore(tempDir.resolve("chunks.spool"))) {
+			Chunk first = store.add("<resource>first</resource>");
+
+			// a reader interrupted while the file is mapped
+			assertThat(readInterrupted(first)).isInstanceOf(ClosedByInterruptException.class);
+			assertThat(first.getContent()).isEqualTo("<resource>first</resource>");
+
+			// and while a chunk past the mapping is read from the file
+			Chunk second = store.add("<resource>2</resource>");
+			int mapCount = store.getMapCount();
+			assertThat(readInterrupted(second)).isInstanceOf(ClosedByInterruptException.class);
+
+			assertThat(store.getMapCount()).isEqualTo(mapCount);
+
+			// the other readers and the writer carry on
+			assertThat(second.getContent()).isEqualTo("<resource>2</resource>");
+			Chunk third = store.add("<resource>third</resource>");
+			assertThat(third.getContent()).isEqualTo("<resource>third</resource>");
+			assertThat(first.getContent()).isEqualTo("<resource>first</resource>");
+		}
+	}
+
+	private static Throwable readInterrupted(Chunk chunk) throws InterruptedException {
+		AtomicReference<Throwable> thrown = new AtomicReference<>();
+		Thread reader = new Thread(() -> {
+			Thread.currentThread().interrupt();
+			try {
+				chunk.getContent();
+			}
+			catch (Throwable e) {
+				thrown.set(e);
+			}
+		});
+		reader.start();
+		reader.join();
+		return thrown.get();
+	}
+
+}
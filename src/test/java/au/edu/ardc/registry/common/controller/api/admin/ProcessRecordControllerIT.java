@@ -0,0 +1,84 @@
+package au.edu.ardc.registry.common.controller.api.admin;
+
+import au.edu.ardc.registry.TestHelper;
+import au.edu.ardc.registry.WebIntegrationTest;
+import au.edu.ardc.registry.common.entity.Record;
+import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.model.JobProgress;
+import au.edu.ardc.registry.common.repository.RecordRepository;
+import au.edu.ardc.registry.common.repository.VersionRepository;
+import au.edu.ardc.registry.common.service.SchemaService;
+import au.edu.ardc.registry.common.service.VersionService;
+import au.edu.ardc.registry.common.util.Helpers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessRecordControllerIT extends WebIntegrationTest {
+
+	private final String baseUrl = "/api/admin/process-records";
+
+	@Autowired
+	RecordRepository recordRepository;
+
+	@Autowired
+	VersionRepository versionRepository;
+
+	@Autowired
+	VersionService versionService;
+
+	@Test
+	void processAllRecords() throws IOException, InterruptedException {
+		// given 3 records with an ardcv1 version
+		String validXML = Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml");
+		for (int i = 0; i < 3; i++) {
+			Record record = TestHelper.mockRecord();
+			recordRepository.saveAndFlush(record);
+			Version version = TestHelper.mockVersion(record);
+			version.setCurrent(true);
+			version.setContent(validXML.getBytes());
+			version.setSchema(SchemaService.ARDCv1);
+			versionRepository.saveAndFlush(version);
+		}
+
+		// when all records are queued, a job is started
+		JobProgress started = webTestClient.get().uri(baseUrl).exchange().expectStatus().isAccepted()
+				.expectBody(JobProgress.class).returnResult().getResponseBody();
+		assertThat(started).isNotNull();
+		assertThat(started.getId()).isNotNull();
+
+		// and its progress is reported until it's completed
+		JobProgress progress = null;
+		for (int i = 0; i < 100; i++) {
+			progress = webTestClient.get().uri(baseUrl + "/jobs/" + started.getId()).exchange().expectStatus()
+					.isOk().expectBody(JobProgress.class).returnResult().getResponseBody();
+			if (progress != null && "COMPLETED".equals(progress.getStatus()) && !progress.isActive()) {
+				break;
+			}
+			Thread.sleep(100);
+		}
+		assertThat(progress).isNotNull();
+		assertThat(progress.getStatus()).isEqualTo("COMPLETED");
+		assertThat(progress.getTotal()).isEqualTo(3);
+		assertThat(progress.getProcessed()).isEqualTo(3);
+		assertThat(progress.getCheckpoint()).isNotNull();
+		recordRepository.findAll().forEach(record -> assertThat(
+				versionService.findVersionForRecord(record, SchemaService.JSONLD)).isNotNull());
+
+		// resuming a completed job doesn't process it again
+		webTestClient.post().uri(baseUrl + "/jobs/" + started.getId() + "/resume").exchange().expectStatus()
+				.isAccepted().expectBody().jsonPath("$.status").isEqualTo("COMPLETED");
+	}
+
+	@Test
+	void show_notFound() {
+		webTestClient.get().uri(baseUrl + "/jobs/" + UUID.randomUUID()).exchange().expectStatus()
+				.isNotFound();
+		webTestClient.get().uri(baseUrl + "/jobs/not-an-id").exchange().expectStatus().isNotFound();
+	}
+
+}
@@ -0,0 +1,30 @@
+package au.edu.ardc.registry.common.controller.api.services;
+
+import au.edu.ardc.registry.WebIntegrationTest;
+import au.edu.ardc.registry.common.service.SchemaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+class TransformServiceControllerIT extends WebIntegrationTest {
+
+	private final String baseUrl = "/api/services/transform/";
+
+	@Test
+	void bulkTransform_notFragmentable_400() {
+		this.webTestClient.post()
+				.uri(uriBuilder -> uriBuilder.path(baseUrl + "bulk").queryParam("fromSchemaID", SchemaService.OAIDC)
+						.queryParam("toSchemaID", SchemaService.ARDCv1).build())
+				.contentType(MediaType.APPLICATION_XML).bodyValue("<oai_dc:dc/>").exchange().expectStatus()
+				.isBadRequest();
+	}
+
+	@Test
+	void bulkTransform_noTransformer_400() {
+		this.webTestClient.post()
+				.uri(uriBuilder -> uriBuilder.path(baseUrl + "bulk").queryParam("fromSchemaID", SchemaService.ARDCv1)
+						.queryParam("toSchemaID", SchemaService.CSIROv3).build())
+				.contentType(MediaType.APPLICATION_XML).bodyValue("<resources/>").exchange().expectStatus()
+				.isBadRequest();
+	}
+
+}
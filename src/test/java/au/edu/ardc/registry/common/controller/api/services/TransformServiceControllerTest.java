@@ -0,0 +1,114 @@
+package au.edu.ardc.registry.common.controller.api.services;
+
+import au.edu.ardc.registry.common.service.APILoggingService;
+import au.edu.ardc.registry.common.service.KeycloakService;
+import au.edu.ardc.registry.common.service.SchemaService;
+import au.edu.ardc.registry.common.service.TransformCacheService;
+import au.edu.ardc.registry.common.service.TransformService;
+import au.edu.ardc.registry.common.util.Helpers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.xpath;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = TransformServiceController.class)
+@Import({ APILoggingService.class, SchemaService.class, TransformService.class, TransformCacheService.class })
+@AutoConfigureMockMvc
+class TransformServiceControllerTest {
+
+	private final String baseUrl = "/api/services/transform/";
+
+	@MockBean
+	KeycloakService kcService;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void bulkTransform_xml() throws Exception {
+		String payload = Helpers.readFile("src/test/resources/xml/sample_csirov3_batch.xml");
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(baseUrl + "bulk")
+				.param("fromSchemaID", SchemaService.CSIROv3).param("toSchemaID", SchemaService.ARDCv1)
+				.content(payload).contentType(MediaType.APPLICATION_XML);
+
+		MvcResult result = mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+
+		mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_XML))
+				.andExpect(xpath("count(/transforms/transform)").number(3.0))
+				.andExpect(xpath("count(/transforms/transform/@error)").number(0.0));
+	}
+
+	@Test
+	void bulkTransform_ndjson() throws Exception {
+		String payload = Helpers.readFile("src/test/resources/xml/sample_ardcv1_batch.xml");
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(baseUrl + "bulk")
+				.param("fromSchemaID", SchemaService.ARDCv1).param("toSchemaID", SchemaService.JSONLD)
+				.param("format", TransformServiceController.FORMAT_NDJSON).content(payload)
+				.contentType(MediaType.APPLICATION_XML);
+
+		MvcResult result = mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+
+		String body = mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(TransformServiceController.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString();
+		String[] lines = body.split("\n");
+		assertThat(lines).hasSize(3);
+		assertThat(Arrays.stream(lines)).allMatch(line -> line.startsWith("{\"position\":")
+				&& line.contains("\"content\":"));
+	}
+
+	@Test
+	void bulkTransform_malformedPayload_closedWithAnError() throws Exception {
+		String payload = Helpers.readFile("src/test/resources/xml/sample_ardcv1_batch.xml");
+		payload = payload.substring(0, payload.indexOf("<resource ", payload.indexOf("</resource>")) + 200);
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(baseUrl + "bulk")
+				.param("fromSchemaID", SchemaService.ARDCv1).param("toSchemaID", SchemaService.OAIDC)
+				.content(payload).contentType(MediaType.APPLICATION_XML);
+
+		MvcResult result = mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+
+		// the document is still well formed, with the fragment read before the error
+		mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+				.andExpect(xpath("count(/transforms/transform)").number(1.0))
+				.andExpect(xpath("count(/transforms/error)").number(1.0));
+	}
+
+	@Test
+	void bulkTransform_noTransformer_400() throws Exception {
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(baseUrl + "bulk")
+				.param("fromSchemaID", SchemaService.ARDCv1).param("toSchemaID", SchemaService.CSIROv3)
+				.content("<resources/>").contentType(MediaType.APPLICATION_XML);
+
+		mockMvc.perform(request).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void bulkTransform_unknownSchema_400() throws Exception {
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(baseUrl + "bulk")
+				.param("fromSchemaID", "not-a-schema").param("toSchemaID", SchemaService.ARDCv1).content("<resources/>")
+				.contentType(MediaType.APPLICATION_XML);
+
+		mockMvc.perform(request).andExpect(status().isBadRequest());
+	}
+
+}
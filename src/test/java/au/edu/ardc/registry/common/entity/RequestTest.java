@@ -1,6 +1,7 @@
 package au.edu.ardc.registry.common.entity;
 
 import au.edu.ardc.registry.common.entity.Request;
+import au.edu.ardc.registry.common.model.Attribute;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,7 +9,12 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.Date;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
@@ -30,4 +36,51 @@ class RequestTest {
 		assertThat(request.getId().toString()).matches("([a-f0-9]{8}(-[a-f0-9]{4}){4}[a-f0-9]{8})");
 	}
 
-}
\ No newline at end of file
+	@Test
+	void save_whileAttributesChange() throws InterruptedException {
+		Request request = new Request();
+		request.setAttribute(Attribute.NUM_OF_RECORDS_CREATED, 0);
+		for (int i = 0; i < 30; i++) {
+			request.setAttribute("fixed-" + i, "value-" + i);
+		}
+		entityManager.persistAndFlush(request);
+
+		// the tasks of the request set its attributes while it is saved
+		AtomicBoolean running = new AtomicBoolean(true);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		for (int i = 0; i < 4; i++) {
+			int thread = i;
+			executor.execute(() -> {
+				int count = 0;
+				while (running.get()) {
+					String key = "attribute-" + thread + "-" + (count % 10);
+					request.setAttribute(key, String.valueOf(count));
+					request.setMessage("message " + count++);
+					request.getAttributes().remove(key);
+				}
+			});
+		}
+		try {
+			for (int i = 0; i < 200; i++) {
+				request.setUpdatedAt(new Date());
+				entityManager.persistAndFlush(request);
+				// a map changed while serialized was saved as null by the converter
+				Object saved = entityManager.getEntityManager()
+						.createNativeQuery("SELECT attributes FROM requests").getSingleResult();
+				assertThat(saved).isNotNull();
+			}
+		}
+		finally {
+			running.set(false);
+			executor.shutdown();
+		}
+		assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+		entityManager.persistAndFlush(request);
+		entityManager.clear();
+		Request saved = entityManager.find(Request.class, request.getId());
+		assertThat(saved.getAttribute(Attribute.NUM_OF_RECORDS_CREATED)).isEqualTo("0");
+		assertThat(saved.getMessage()).isEqualTo(request.getMessage());
+	}
+
+}
@@ -0,0 +1,59 @@
+package au.edu.ardc.registry.common.provider;
+
+import au.edu.ardc.registry.common.model.Schema;
+import au.edu.ardc.registry.common.service.SchemaService;
+import au.edu.ardc.registry.common.util.Helpers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = { SchemaService.class })
+class ParsedContentTest {
+
+	@Autowired
+	SchemaService schemaService;
+
+	@Test
+	void ardcv1() throws IOException {
+		Schema schema = schemaService.getSchemaByID(SchemaService.ARDCv1);
+		String xml = Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml");
+		ParsedContent parsedContent = new ParsedContent(xml, schema);
+
+		assertThat(parsedContent.getIdentifier()).isEqualTo("10273/XX0TUIAYLV");
+		assertThat(parsedContent.getLandingPage()).isEqualTo(
+				((LandingPageProvider) MetadataProviderFactory.create(schema, Metadata.LandingPage)).get(xml));
+		assertThat(parsedContent.getTitle())
+				.isEqualTo(((TitleProvider) MetadataProviderFactory.create(schema, Metadata.Title)).get(xml));
+		assertThat(parsedContent.isVisible()).isTrue();
+		assertThat(parsedContent.getEmbargoEnd()).isNull();
+		assertThat(parsedContent.getStatus()).isEqualTo("Registered");
+	}
+
+	@Test
+	void parsesOnce() throws IOException {
+		Schema schema = schemaService.getSchemaByID(SchemaService.ARDCv1);
+		String xml = Helpers.readFile("src/test/resources/xml/sample_ardcv1_embargoEnd.xml");
+		ParsedContent parsedContent = new ParsedContent(xml, schema);
+
+		assertThat(parsedContent.getDocument()).isSameAs(parsedContent.getDocument());
+		assertThat(parsedContent.getEmbargoEnd()).isNotNull();
+		assertThat(parsedContent.getEmbargoEnd()).isSameAs(parsedContent.getEmbargoEnd());
+	}
+
+	@Test
+	void csirov3_withPrefix() throws IOException {
+		Schema schema = schemaService.getSchemaByID(SchemaService.CSIROv3);
+		String xml = Helpers.readFile("src/test/resources/xml/sample_igsn_csiro_v3.xml");
+		ParsedContent parsedContent = new ParsedContent(xml, schema, "10273");
+
+		assertThat(parsedContent.getIdentifier()).isEqualTo("10273/CSTSTDOCO1");
+	}
+
+}
@@ -0,0 +1,65 @@
+package au.edu.ardc.registry.common.provider;
+
+import au.edu.ardc.registry.common.model.Schema;
+import au.edu.ardc.registry.common.service.SchemaService;
+import au.edu.ardc.registry.common.transform.TransformerFactory;
+import au.edu.ardc.registry.exception.ContentProviderNotFoundException;
+import au.edu.ardc.registry.exception.TransformerNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = { SchemaService.class })
+class ProviderRegistryTest {
+
+	@Autowired
+	SchemaService schemaService;
+
+	@Test
+	void get_statelessProviderIsShared() {
+		Schema schema = schemaService.getSchemaByID(SchemaService.ARDCv1);
+		Object first = MetadataProviderFactory.create(schema, Metadata.Title);
+		Object second = MetadataProviderFactory.create(schema, Metadata.Title);
+		assertThat(first).isSameAs(second);
+	}
+
+	@Test
+	void get_statefulProviderIsNotShared() {
+		Schema schema = schemaService.getSchemaByID(SchemaService.CSIROv3);
+		Object first = MetadataProviderFactory.create(schema, Metadata.Identifier);
+		Object second = MetadataProviderFactory.create(schema, Metadata.Identifier);
+		assertThat(first).isNotSameAs(second);
+		assertThat(first.getClass()).isEqualTo(second.getClass());
+	}
+
+	@Test
+	void get_transformerIsNotShared() {
+		Schema fromSchema = schemaService.getSchemaByID(SchemaService.ARDCv1);
+		Schema toSchema = schemaService.getSchemaByID(SchemaService.IGSNREGv1);
+		assertThat(TransformerFactory.create(fromSchema, toSchema))
+				.isNotSameAs(TransformerFactory.create(fromSchema, toSchema));
+	}
+
+	@Test
+	void register_failsOnUnknownProvider() {
+		Schema schema = new Schema("broken");
+		schema.setProviders(Collections.singletonMap(Metadata.Title, "au.edu.ardc.registry.NotAProvider"));
+		assertThrows(ContentProviderNotFoundException.class, () -> ProviderRegistry.register(schema));
+	}
+
+	@Test
+	void register_failsOnUnknownTransformer() {
+		Schema schema = new Schema("broken");
+		schema.setTransforms(Collections.singletonMap(SchemaService.JSONLD, "au.edu.ardc.registry.NotATransformer"));
+		assertThrows(TransformerNotFoundException.class, () -> ProviderRegistry.register(schema));
+	}
+
+}
@@ -12,7 +12,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -63,4 +71,38 @@ class LineContentProviderTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    void iterate_identifiers() throws IOException {
+        Schema schema = schemaService.getSchemaByID(SchemaService.IGSNList);
+        IdentifierProvider provider = (IdentifierProvider) MetadataProviderFactory.create(schema, Metadata.Identifier);
+        List<String> identifiers = new ArrayList<>();
+        try (InputStream payload = Files.newInputStream(Paths.get("src/test/resources/data/igsn.txt"))) {
+            provider.iterate(payload).forEachRemaining(identifiers::add);
+        }
+        assertEquals(provider.getAll(Helpers.readFile("src/test/resources/data/igsn.txt")), identifiers);
+    }
+
+    @Test
+    void iterate_skipsBlankLines() throws IOException {
+        Schema schema = schemaService.getSchemaByID(SchemaService.IGSNList);
+        IdentifierProvider provider = (IdentifierProvider) MetadataProviderFactory.create(schema, Metadata.Identifier);
+        String text = "10273/xxab0011p\r\n\n10273/XXAB00312\n\n";
+        Iterator<String> identifiers = provider.iterate(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+        assertEquals("10273/XXAB0011P", identifiers.next());
+        assertEquals("10273/XXAB00312", identifiers.next());
+        assertFalse(identifiers.hasNext());
+    }
+
+    @Test
+    void get_skipsBlankLines() {
+        Schema schema = schemaService.getSchemaByID(SchemaService.IGSNList);
+        IdentifierProvider provider = (IdentifierProvider) MetadataProviderFactory.create(schema, Metadata.Identifier);
+        String text = "\n  \r\n10273/xxab0011p\r\n\n10273/XXAB00312\n\n";
+        assertEquals("10273/XXAB0011P", provider.get(text));
+        assertEquals("10273/XXAB00312", provider.get(text, 1));
+        assertNull(provider.get(text, 2));
+        assertEquals(Arrays.asList("10273/XXAB0011P", "10273/XXAB00312"), provider.getAll(text));
+        assertNull(provider.get("\n\n"));
+    }
+
+}
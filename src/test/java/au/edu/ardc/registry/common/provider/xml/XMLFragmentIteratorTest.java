@@ -0,0 +1,60 @@
+package au.edu.ardc.registry.common.provider.xml;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class XMLFragmentIteratorTest {
+
+	private static final String container = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><items xmlns=\"urn:test\"></items>";
+
+	private static final String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+			+ "<items xmlns=\"urn:test\"><item id=\"1\"><name>first</name></item>"
+			+ "<other><item id=\"nested\"/></other>" + "<item id=\"2\"><name>second &amp; last</name></item></items>";
+
+	@Test
+	void iterate() {
+		XMLFragmentIterator iterator = new XMLFragmentIterator(
+				new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), container, "items", "item");
+
+		assertThat(iterator.hasNext()).isTrue();
+		assertThat(iterator.next())
+				.endsWith("<items xmlns=\"urn:test\"><item id=\"1\"><name>first</name></item></items>");
+		assertThat(iterator.next()).contains("<name>second &amp; last</name>").doesNotContain("first");
+		assertThat(iterator.hasNext()).isFalse();
+		assertThrows(NoSuchElementException.class, iterator::next);
+		iterator.close();
+	}
+
+	@Test
+	void skip() {
+		XMLFragmentIterator iterator = new XMLFragmentIterator(new StringReader(xml), container, "items", "item");
+
+		assertThat(iterator.skip()).isTrue();
+		assertThat(iterator.next()).contains("id=\"2\"");
+		assertThat(iterator.skip()).isFalse();
+		iterator.close();
+	}
+
+	@Test
+	void count() {
+		XMLFragmentIterator iterator = new XMLFragmentIterator(new StringReader(xml), container, "items", "item");
+		assertThat(iterator.count()).isEqualTo(2);
+		iterator.close();
+	}
+
+	@Test
+	void count_differentRootHasNoFragment() {
+		XMLFragmentIterator iterator = new XMLFragmentIterator(new StringReader(xml), container, "resources",
+				"item");
+		assertThat(iterator.count()).isEqualTo(0);
+		iterator.close();
+	}
+
+}
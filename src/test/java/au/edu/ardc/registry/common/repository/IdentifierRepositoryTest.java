@@ -10,6 +10,8 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -60,4 +62,52 @@ class IdentifierRepositoryTest {
 		assertThat(repository.existsById(id)).isTrue();
 	}
 
+	@Test
+	void findAllByTypeAndUpperValueIn_returnsIdentifiersWithRecord() {
+		// given 2 identifiers
+		for (String value : Arrays.asList("10273/XX0TFIRST", "10273/xx0tSecond")) {
+			Record record = TestHelper.mockRecord();
+			entityManager.persistAndFlush(record);
+			Identifier identifier = TestHelper.mockIdentifier(record);
+			identifier.setValue(value);
+			repository.save(identifier);
+		}
+
+		// when looked up by their upper cased values
+		List<Identifier> found = repository.findAllByTypeAndUpperValueIn(Identifier.Type.IGSN,
+				Arrays.asList("10273/XX0TFIRST", "10273/XX0TSECOND", "10273/XX0TTHIRD"));
+
+		// both are found, along with their record
+		assertThat(found).extracting(Identifier::getValue).containsExactlyInAnyOrder("10273/XX0TFIRST",
+				"10273/xx0tSecond");
+		assertThat(found).allMatch(identifier -> identifier.getRecord() != null);
+	}
+
+	@Test
+	void findAllByTypeAndUpperValueIn_withoutRecord_returnsIdentifier() {
+		// given an identifier left without a record, which the current schema doesn't allow
+		entityManager.getEntityManager()
+				.createNativeQuery("ALTER TABLE identifiers ALTER COLUMN record_id SET NULL").executeUpdate();
+		Identifier identifier = TestHelper.mockIdentifier((Record) null);
+		identifier.setValue("10273/XX0TORPHAN");
+		entityManager.persistAndFlush(identifier);
+
+		try {
+			// when looked up by its value
+			List<Identifier> found = repository.findAllByTypeAndUpperValueIn(Identifier.Type.IGSN,
+					Arrays.asList("10273/XX0TORPHAN"));
+
+			// it is found, without a record
+			assertThat(found).extracting(Identifier::getValue).containsExactly("10273/XX0TORPHAN");
+			assertThat(found.get(0).getRecord()).isNull();
+		}
+		finally {
+			// the schema is shared with the other tests
+			entityManager.remove(identifier);
+			entityManager.flush();
+			entityManager.getEntityManager()
+					.createNativeQuery("ALTER TABLE identifiers ALTER COLUMN record_id SET NOT NULL").executeUpdate();
+		}
+	}
+
 }
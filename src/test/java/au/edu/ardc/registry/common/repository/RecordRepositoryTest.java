@@ -15,6 +15,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -196,4 +197,25 @@ public class RecordRepositoryTest {
 		assertThat(privateRecords).hasSize(2);
 	}
 
+	@Test
+	public void findAllAfter_keysetPagination() {
+		// given 5 records
+		for (int i = 0; i < 5; i++) {
+			repository.save(TestHelper.mockRecord());
+		}
+
+		// when paginating by id 2 at a time
+		List<UUID> ids = new ArrayList<>();
+		List<Record> page = repository.findAllOrderById(PageRequest.of(0, 2));
+		while (!page.isEmpty()) {
+			page.forEach(record -> ids.add(record.getId()));
+			page = repository.findAllAfter(page.get(page.size() - 1).getId(), PageRequest.of(0, 2));
+		}
+
+		// every record is found once, in the same order as the first page
+		assertThat(ids).hasSize(5).doesNotHaveDuplicates();
+		assertThat(repository.findAllOrderById(PageRequest.of(0, 5))).extracting(Record::getId)
+				.containsExactlyElementsOf(ids);
+	}
+
 }
@@ -7,6 +7,7 @@ import au.edu.ardc.registry.common.entity.Identifier;
 import au.edu.ardc.registry.common.entity.Record;
 import au.edu.ardc.registry.exception.ForbiddenOperationException;
 import au.edu.ardc.registry.exception.RecordNotFoundException;
+import au.edu.ardc.registry.common.model.IdentifierClassification;
 import au.edu.ardc.registry.common.model.User;
 import au.edu.ardc.registry.common.repository.IdentifierRepository;
 import au.edu.ardc.registry.common.repository.specs.IdentifierSpecification;
@@ -23,7 +24,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -171,4 +176,67 @@ class IdentifierServiceTest {
 		verify(repository, times(1)).findAll(any(IdentifierSpecification.class), any(Pageable.class));
 	}
 
+	@Test
+	void findAllByValueAndType_lookupInChunks_returnsIdentifiersByValue() {
+		// given 1201 values, one of them exists with a different case
+		List<String> values = new ArrayList<>();
+		for (int i = 0; i < 1201; i++) {
+			values.add("10273/XX0T" + i);
+		}
+		values.add("10273/xx0t5");
+		Identifier identifier = TestHelper.mockIdentifier(UUID.randomUUID());
+		identifier.setValue("10273/XX0T5");
+		when(repository.findAllByTypeAndUpperValueIn(eq(Identifier.Type.IGSN), anyCollection()))
+				.thenReturn(Collections.singletonList(identifier));
+
+		Map<String, Identifier> actual = service.findAllByValueAndType(values, Identifier.Type.IGSN);
+
+		// looked up in 3 chunks, the duplicated value is looked up once
+		verify(repository, times(3)).findAllByTypeAndUpperValueIn(eq(Identifier.Type.IGSN), anyCollection());
+		verify(repository, never()).findFirstByValueIgnoreCaseAndType(anyString(), any(Identifier.Type.class));
+		assertThat(actual).hasSize(2);
+		assertThat(actual.get("10273/XX0T5")).isEqualTo(identifier);
+		assertThat(actual.get("10273/xx0t5")).isEqualTo(identifier);
+	}
+
+	@Test
+	void classify_returnsNewExistingAndOwned() {
+		User user = TestHelper.mockUser();
+		Identifier owned = TestHelper.mockIdentifier(UUID.randomUUID());
+		owned.setValue("10273/XX0TOWNED");
+		Identifier existing = TestHelper.mockIdentifier(UUID.randomUUID());
+		existing.setValue("10273/XX0TEXISTING");
+		when(repository.findAllByTypeAndUpperValueIn(eq(Identifier.Type.IGSN), anyCollection()))
+				.thenReturn(Arrays.asList(owned, existing));
+		when(validationService.validateRecordOwnership(owned.getRecord(), user)).thenReturn(true);
+
+		IdentifierClassification classification = service.classify(
+				Arrays.asList("10273/XX0TNEW", "10273/XX0TOWNED", "10273/XX0TEXISTING"), Identifier.Type.IGSN, user);
+
+		assertThat(classification.getStatus("10273/XX0TNEW")).isEqualTo(IdentifierClassification.Status.NEW);
+		assertThat(classification.getStatus("10273/XX0TOWNED")).isEqualTo(IdentifierClassification.Status.OWNED);
+		assertThat(classification.getStatus("10273/XX0TEXISTING"))
+				.isEqualTo(IdentifierClassification.Status.EXISTING);
+		assertThat(classification.getIdentifier("10273/XX0TOWNED")).isEqualTo(owned);
+		assertThat(classification.getIdentifier("10273/XX0TNEW")).isNull();
+		assertThat(classification.contains("10273/XX0TOTHER")).isFalse();
+		verify(repository, times(1)).findAllByTypeAndUpperValueIn(eq(Identifier.Type.IGSN), anyCollection());
+	}
+
+	@Test
+	void classify_withoutRecord_isExisting() {
+		User user = TestHelper.mockUser();
+		Identifier orphan = TestHelper.mockIdentifier((Record) null);
+		orphan.setValue("10273/XX0TORPHAN");
+		when(repository.findAllByTypeAndUpperValueIn(eq(Identifier.Type.IGSN), anyCollection()))
+				.thenReturn(Collections.singletonList(orphan));
+
+		IdentifierClassification classification = service.classify(Collections.singletonList("10273/XX0TORPHAN"),
+				Identifier.Type.IGSN, user);
+
+		assertThat(classification.getStatus("10273/XX0TORPHAN")).isEqualTo(IdentifierClassification.Status.EXISTING);
+		assertThat(classification.getIdentifier("10273/XX0TORPHAN")).isEqualTo(orphan);
+		verify(validationService, never()).validateRecordOwnership(any(), any());
+	}
+
 }
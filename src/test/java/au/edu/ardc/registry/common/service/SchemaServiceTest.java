@@ -6,9 +6,12 @@ import au.edu.ardc.registry.common.provider.MetadataProviderFactory;
 import au.edu.ardc.registry.common.provider.OAIProvider;
 import au.edu.ardc.registry.exception.XMLValidationException;
 import au.edu.ardc.registry.common.model.Schema;
+import au.edu.ardc.registry.common.model.schema.FragmentValidationError;
 import au.edu.ardc.registry.common.model.schema.JSONSchema;
 import au.edu.ardc.registry.common.model.schema.XMLSchema;
+import au.edu.ardc.registry.common.model.schema.XMLValidator;
 import au.edu.ardc.registry.common.util.Helpers;
+import org.junit.Assert;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.slf4j.Logger;
@@ -17,8 +20,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -105,6 +113,15 @@ class SchemaServiceTest {
 	}
 
 
+	@Test
+	void getSchemaForContent() throws Exception {
+		String ardcv1 = Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml");
+		assertThat(service.getSchemaForContent(ardcv1).getId()).isEqualTo(SchemaService.ARDCv1);
+
+		String prefixed = Helpers.readFile("src/test/resources/xml/sample_xml_prefix_cs_igsn.xml");
+		assertThat(service.getSchemaForContent(prefixed).getId()).isEqualTo(SchemaService.CSIROv3);
+	}
+
 	@Test
 	void validate_text_file_with_igsn_list() throws Exception{
 		String texfile = Helpers.readFile("src/test/resources/data/igsn.txt");
@@ -148,6 +165,52 @@ class SchemaServiceTest {
 		}
 	}
 
+	@Test
+	void validate_reusesCompiledSchemaAfterInvalidContent() throws Exception {
+		String invalid = Helpers.readFile("src/test/resources/xml/invalid_sample_igsn_csiro_v3.xml");
+		String valid = Helpers.readFile("src/test/resources/xml/sample_igsn_csiro_v3.xml");
+		Assert.assertThrows(XMLValidationException.class, () -> service.validate(invalid));
+		assertTrue(service.validate(valid));
+	}
+
+	@Test
+	void validateFragments_collectsErrorsPerFragment() throws Exception {
+		XMLSchema schema = (XMLSchema) service.getSchemaByID(SchemaService.ARDCv1);
+		try (InputStream payload = new FileInputStream("src/test/resources/xml/sample_ardcv1_batch.xml")) {
+			assertThat(service.validateFragments(schema, payload, "resource")).isEmpty();
+		}
+
+		try (InputStream payload = new FileInputStream("src/test/resources/xml/sample_ardcv1_batch_invalid.xml")) {
+			List<FragmentValidationError> errors = service.validateFragments(schema, payload, "resource");
+			assertThat(errors).hasSize(1);
+			assertThat(errors.get(0).getPosition()).isEqualTo(1);
+			assertThat(errors.get(0).isDocumentError()).isFalse();
+			assertThat(errors.get(0).getMessage()).isNotBlank();
+		}
+	}
+
+	@Test
+	void getSchemaForContent_fromPath() throws Exception {
+		Schema schema = service.getSchemaForContent(Paths.get("src/test/resources/xml/sample_ardcv1_batch.xml"));
+		assertThat(schema.getId()).isEqualTo(SchemaService.ARDCv1);
+	}
+
+	@Test
+	void warmUp_compilesXMLSchemas() {
+		// a schema no other test has compiled, the compiled schemas are kept for the JVM
+		XMLSchema ardcv1 = (XMLSchema) service.getSchemaByID(SchemaService.ARDCv1);
+		XMLSchema schema = new XMLSchema();
+		schema.setId("warm-up-" + UUID.randomUUID());
+		schema.setLocalSchemaLocation(ardcv1.getLocalSchemaLocation());
+		SchemaService schemaService = new SchemaService();
+		schemaService.setSchemas(Collections.singletonList(schema));
+		assertThat(XMLValidator.isCompiled(schema)).isFalse();
+
+		schemaService.warmUp();
+
+		assertThat(XMLValidator.isCompiled(schema)).isTrue();
+	}
+
 	@Test
 	void getNamespace() {
 		Schema schema1 = service.getSchemaByID(SchemaService.ARDCv1);
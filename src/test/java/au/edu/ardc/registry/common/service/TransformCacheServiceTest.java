@@ -0,0 +1,67 @@
+package au.edu.ardc.registry.common.service;
+
+import au.edu.ardc.registry.TestHelper;
+import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.transform.CachingTransformer;
+import au.edu.ardc.registry.common.transform.Transformer;
+import au.edu.ardc.registry.common.util.Helpers;
+import au.edu.ardc.registry.exception.TransformerNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = { SchemaService.class, TransformCacheService.class })
+class TransformCacheServiceTest {
+
+	@Autowired
+	SchemaService schemaService;
+
+	@Autowired
+	TransformCacheService transformCacheService;
+
+	@Test
+	void create() throws IOException {
+		Transformer transformer = transformCacheService.create(schemaService.getSchemaByID(SchemaService.ARDCv1),
+				schemaService.getSchemaByID(SchemaService.OAIDC));
+		assertThat(transformer).isInstanceOf(CachingTransformer.class);
+
+		Version version = TestHelper.mockVersion();
+		version.setContent(Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml").getBytes());
+		Version first = transformer.transform(version);
+
+		// the same payload is served from the cache as a new version
+		transformCacheService.evict();
+		long hits = (long) transformCacheService.getStatistics().get("hits");
+		first = transformer.transform(version);
+		Version second = transformer.transform(version);
+		assertThat(transformCacheService.getStatistics().get("hits")).isEqualTo(hits + 1);
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getContent()).isEqualTo(first.getContent());
+		assertThat(second.getSchema()).isEqualTo(SchemaService.OAIDC);
+		assertThat(second.getRequestID()).isEqualTo(version.getRequestID());
+		assertThat(second.getRecord()).isEqualTo(version.getRecord());
+		assertThat(second.isCurrent()).isTrue();
+
+		// evicted, it is transformed again
+		transformCacheService.evict();
+		assertThat(transformCacheService.getStatistics().get("count")).isEqualTo(0);
+		assertThat(transformer.transform(version).getContent()).isEqualTo(first.getContent());
+		assertThat(transformCacheService.getStatistics().get("hits")).isEqualTo(hits + 1);
+	}
+
+	@Test
+	void create_notFound() {
+		assertThrows(TransformerNotFoundException.class,
+				() -> transformCacheService.create(schemaService.getSchemaByID(SchemaService.OAIDC),
+						schemaService.getSchemaByID(SchemaService.ARDCv1)));
+	}
+
+}
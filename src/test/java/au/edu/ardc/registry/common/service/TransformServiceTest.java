@@ -0,0 +1,85 @@
+package au.edu.ardc.registry.common.service;
+
+import au.edu.ardc.registry.common.model.Schema;
+import au.edu.ardc.registry.common.model.TransformResult;
+import au.edu.ardc.registry.common.provider.FragmentProvider;
+import au.edu.ardc.registry.common.provider.Metadata;
+import au.edu.ardc.registry.common.provider.MetadataProviderFactory;
+import au.edu.ardc.registry.common.util.Helpers;
+import au.edu.ardc.registry.exception.ContentNotSupportedException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = { SchemaService.class, TransformService.class, TransformCacheService.class })
+class TransformServiceTest {
+
+	@Autowired
+	SchemaService schemaService;
+
+	@Autowired
+	TransformService transformService;
+
+	@Autowired
+	TransformCacheService transformCacheService;
+
+	@Test
+	void transformFragments() throws IOException {
+		Schema fromSchema = schemaService.getSchemaByID(SchemaService.ARDCv1);
+		Schema toSchema = schemaService.getSchemaByID(SchemaService.OAIDC);
+		List<TransformResult> results = new ArrayList<>();
+
+		try (InputStream payload = Files.newInputStream(Paths.get("src/test/resources/xml/sample_ardcv1_batch.xml"))) {
+			transformService.transformFragments(fromSchema, getFragmentProvider(fromSchema),
+					transformCacheService.create(fromSchema, toSchema), payload, results::add);
+		}
+
+		// every fragment is transformed once, in any order
+		assertThat(results.stream().map(TransformResult::getPosition).collect(Collectors.toList()))
+				.containsExactlyInAnyOrder(0, 1, 2);
+		results.forEach(result -> {
+			assertThat(result.isSuccess()).isTrue();
+			assertThat(new String(result.getContent())).contains("<title>");
+		});
+	}
+
+	@Test
+	void transformFragments_malformedPayload() throws IOException {
+		Schema fromSchema = schemaService.getSchemaByID(SchemaService.ARDCv1);
+		Schema toSchema = schemaService.getSchemaByID(SchemaService.OAIDC);
+		// the payload is cut off in the middle of its second resource
+		String content = Helpers.readFile("src/test/resources/xml/sample_ardcv1_batch.xml");
+		int cut = content.indexOf("<resource ", content.indexOf("</resource>")) + 200;
+		InputStream payload = new ByteArrayInputStream(content.substring(0, cut).getBytes(StandardCharsets.UTF_8));
+		List<TransformResult> results = new ArrayList<>();
+
+		assertThrows(ContentNotSupportedException.class,
+				() -> transformService.transformFragments(fromSchema, getFragmentProvider(fromSchema),
+						transformCacheService.create(fromSchema, toSchema), payload, results::add));
+
+		// the fragment read before is still handed over
+		assertThat(results).extracting(TransformResult::getPosition).containsExactly(0);
+		assertThat(results.get(0).isSuccess()).isTrue();
+	}
+
+	private static FragmentProvider getFragmentProvider(Schema schema) {
+		return (FragmentProvider) MetadataProviderFactory.create(schema, Metadata.Fragment);
+	}
+
+}
@@ -0,0 +1,127 @@
+package au.edu.ardc.registry.common.task;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DerivationSchedulerTest {
+
+	private final DerivationScheduler scheduler = new DerivationScheduler(4);
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		scheduler.shutdown(1, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void getParallelism() {
+		int processors = Runtime.getRuntime().availableProcessors();
+		assertThat(DerivationScheduler.getParallelism(0)).isEqualTo(processors);
+		assertThat(DerivationScheduler.getParallelism(1)).isEqualTo(1);
+		assertThat(DerivationScheduler.getParallelism(processors + 1)).isEqualTo(processors);
+		assertThat(scheduler.getParallelism()).isEqualTo(4);
+	}
+
+	@Test
+	void execute_sameRecordRunsInOrder() throws InterruptedException {
+		UUID recordId = UUID.randomUUID();
+		List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		CountDownLatch done = new CountDownLatch(20);
+		for (int i = 0; i < 20; i++) {
+			int index = i;
+			scheduler.execute(recordId, () -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				order.add(index);
+				running.decrementAndGet();
+				done.countDown();
+			});
+		}
+
+		assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(maxRunning.get()).isEqualTo(1);
+		for (int i = 0; i < 20; i++) {
+			assertThat(order.get(i)).isEqualTo(i);
+		}
+	}
+
+	@Test
+	void execute_recordsRunInParallel() throws InterruptedException {
+		// both tasks only finish if they run at the same time
+		CountDownLatch started = new CountDownLatch(2);
+		CountDownLatch done = new CountDownLatch(2);
+		for (int i = 0; i < 2; i++) {
+			scheduler.execute(UUID.randomUUID(), () -> {
+				started.countDown();
+				try {
+					if (started.await(5, TimeUnit.SECONDS)) {
+						done.countDown();
+					}
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+
+		assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void execute_failingTaskDoesNotStopTheRecord() throws InterruptedException {
+		UUID recordId = UUID.randomUUID();
+		CountDownLatch done = new CountDownLatch(1);
+		scheduler.execute(recordId, () -> {
+			throw new RuntimeException("failed");
+		});
+		scheduler.execute(recordId, done::countDown);
+
+		assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void getQueueDepth() throws InterruptedException {
+		UUID recordId = UUID.randomUUID();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		scheduler.execute(recordId, () -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		scheduler.execute(recordId, () -> {
+		});
+		scheduler.execute(recordId, () -> {
+		});
+
+		// the next tasks of the record wait for the running one
+		assertThat(scheduler.getActive()).isEqualTo(1);
+		assertThat(scheduler.getQueueDepth()).isEqualTo(2);
+		assertThat(scheduler.getPendingRecords()).isEqualTo(1);
+
+		release.countDown();
+		assertThat(scheduler.shutdown(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(scheduler.getQueueDepth()).isEqualTo(0);
+		assertThat(scheduler.getActive()).isEqualTo(0);
+		assertThrows(RejectedExecutionException.class, () -> scheduler.execute(UUID.randomUUID(), () -> {
+		}));
+	}
+
+}
@@ -12,10 +12,12 @@ import au.edu.ardc.registry.common.service.VersionService;
 import au.edu.ardc.registry.common.util.Helpers;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-class TransformJSONLDTaskIT extends WebIntegrationTest {
+class ProcessRecordTaskIT extends WebIntegrationTest {
 
 	@Autowired
 	VersionService versionService;
@@ -26,6 +28,9 @@ class TransformJSONLDTaskIT extends WebIntegrationTest {
 	@Autowired
 	SchemaService schemaService;
 
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
 	@Autowired
 	private RecordRepository recordRepository;
 
@@ -34,9 +39,9 @@ class TransformJSONLDTaskIT extends WebIntegrationTest {
 
 	@Test
 	void run() throws Exception {
-
 		// given a record with a current version with schema ardcv1
 		Record record = TestHelper.mockRecord();
+		record.setTitle(null);
 		recordRepository.saveAndFlush(record);
 
 		Version version = TestHelper.mockVersion(record);
@@ -47,25 +52,26 @@ class TransformJSONLDTaskIT extends WebIntegrationTest {
 		versionRepository.saveAndFlush(version);
 
 		// when process
-		TransformJSONLDTask task = new TransformJSONLDTask(record, versionService, schemaService);
-		task.run();
+		new ProcessRecordTask(record, versionService, recordService, schemaService,
+				new TransactionTemplate(transactionManager)).run();
 
+		// the title is set, json-ld and oai-dc versions are created
 		Record actual = recordService.findById(record.getId().toString());
+		assertThat(actual.getTitle()).isEqualTo("This Tiltle also left blank on purpose");
+		assertThat(versionService.findAllCurrentVersionsForRecord(actual)).hasSize(3);
 
-		// a new version is created and it's json-ld with content
-		assertThat(actual).isNotNull();
-		assertThat(actual.getCurrentVersions()).hasSize(2);
-
-		Version actualVersion = versionService.findVersionForRecord(actual, SchemaService.JSONLD);
-		assertThat(actualVersion.isCurrent()).isTrue();
-		assertThat(actualVersion).isNotNull();
-		assertThat(actualVersion.getContent()).isNotEmpty();
+		Version jsonld = versionService.findVersionForRecord(actual, SchemaService.JSONLD);
+		assertThat(jsonld).isNotNull();
+		assertThat(jsonld.isCurrent()).isTrue();
+		assertThat(jsonld.getContent()).isNotEmpty();
+		assertThat(versionService.findVersionForRecord(actual, SchemaService.OAIDC)).isNotNull();
 
 		// if process again, there shouldn't be any change
-		(new TransformJSONLDTask(record, versionService, schemaService)).run();
-		Record processedAgain = recordService.findById(record.getId().toString());
-		assertThat(processedAgain).isNotNull();
-		assertThat(processedAgain.getCurrentVersions()).hasSize(2);
+		new ProcessRecordTask(actual, versionService, recordService, schemaService,
+				new TransactionTemplate(transactionManager)).run();
+		assertThat(versionService.findAllCurrentVersionsForRecord(actual)).hasSize(3);
+		assertThat(versionService.findVersionForRecord(actual, SchemaService.JSONLD).getHash())
+				.isEqualTo(jsonld.getHash());
 	}
 
-}
\ No newline at end of file
+}
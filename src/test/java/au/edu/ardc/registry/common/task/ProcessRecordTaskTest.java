@@ -0,0 +1,174 @@
+package au.edu.ardc.registry.common.task;
+
+import au.edu.ardc.registry.TestHelper;
+import au.edu.ardc.registry.common.entity.Record;
+import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.service.RecordService;
+import au.edu.ardc.registry.common.service.SchemaService;
+import au.edu.ardc.registry.common.service.VersionService;
+import au.edu.ardc.registry.common.util.Helpers;
+import au.edu.ardc.registry.exception.RecordProcessingException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = { SchemaService.class })
+class ProcessRecordTaskTest {
+
+	@MockBean
+	VersionService versionService;
+
+	@MockBean
+	RecordService recordService;
+
+	@MockBean
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	SchemaService schemaService;
+
+	@Test
+	void run() throws IOException {
+		// record without title and a current ardcv1 version
+		Record record = TestHelper.mockRecord(UUID.randomUUID());
+		record.setTitle(null);
+		Version version = TestHelper.mockVersion(record);
+		version.setContent(Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml").getBytes());
+		version.setSchema(SchemaService.ARDCv1);
+		when(versionService.findAllCurrentVersionsForRecord(record)).thenReturn(Collections.singletonList(version));
+
+		new ProcessRecordTask(record, versionService, recordService, schemaService,
+				new TransactionTemplate(transactionManager)).run();
+
+		// the current versions are loaded once
+		verify(versionService, times(1)).findAllCurrentVersionsForRecord(record);
+		verify(versionService, never()).findVersionForRecord(any(Record.class), any());
+
+		// the title is set and persisted
+		assertThat(record.getTitle()).isEqualTo("This Tiltle also left blank on purpose");
+		verify(recordService, times(1)).save(record);
+
+		// a json-ld and an oai-dc version are created
+		ArgumentCaptor<Version> captor = ArgumentCaptor.forClass(Version.class);
+		verify(versionService, times(2)).save(captor.capture());
+		assertThat(captor.getAllValues().stream().map(Version::getSchema).collect(Collectors.toList()))
+				.containsExactlyInAnyOrder(SchemaService.JSONLD, SchemaService.OAIDC);
+		captor.getAllValues().forEach(derived -> {
+			assertThat(derived.getRecord()).isEqualTo(record);
+			assertThat(derived.isCurrent()).isTrue();
+			assertThat(derived.getHash()).isNotNull();
+			assertThat(derived.getRequestID()).isEqualTo(version.getRequestID());
+		});
+
+		// in a single transaction
+		verify(transactionManager, times(1)).getTransaction(any());
+		verify(transactionManager, times(1)).commit(any());
+	}
+
+	@Test
+	void run_unchangedDerivedVersionsAreSkipped() throws IOException {
+		Record record = TestHelper.mockRecord(UUID.randomUUID());
+		Version version = TestHelper.mockVersion(record);
+		version.setContent(Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml").getBytes());
+		version.setSchema(SchemaService.ARDCv1);
+		when(versionService.findAllCurrentVersionsForRecord(record)).thenReturn(Collections.singletonList(version));
+		ProcessRecordTask task = new ProcessRecordTask(record, versionService, recordService, schemaService,
+				new TransactionTemplate(transactionManager));
+		task.run();
+		ArgumentCaptor<Version> captor = ArgumentCaptor.forClass(Version.class);
+		verify(versionService, times(2)).save(captor.capture());
+
+		// when processed again with the derived versions being current
+		reset(versionService, recordService);
+		when(versionService.findAllCurrentVersionsForRecord(record)).thenReturn(
+				Arrays.asList(version, captor.getAllValues().get(0), captor.getAllValues().get(1)));
+		task.run();
+
+		// nothing is transformed nor saved
+		verify(versionService, never()).save(any(Version.class));
+		verify(recordService, never()).save(any(Record.class));
+	}
+
+	@Test
+	void run_derivedVersionsOfAnotherRevisionAreDerivedAgain() throws IOException {
+		Record record = TestHelper.mockRecord(UUID.randomUUID());
+		Version version = TestHelper.mockVersion(record);
+		version.setContent(Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml").getBytes());
+		version.setSchema(SchemaService.ARDCv1);
+		when(versionService.findAllCurrentVersionsForRecord(record)).thenReturn(Collections.singletonList(version));
+		ProcessRecordTask task = new ProcessRecordTask(record, versionService, recordService, schemaService,
+				new TransactionTemplate(transactionManager));
+		task.run();
+		ArgumentCaptor<Version> captor = ArgumentCaptor.forClass(Version.class);
+		verify(versionService, times(2)).save(captor.capture());
+		Version jsonld = captor.getAllValues().stream()
+				.filter(derived -> derived.getSchema().equals(SchemaService.JSONLD)).findFirst().orElse(null);
+		assertThat(jsonld).isNotNull();
+		assertThat(jsonld.getSourceHash()).isEqualTo(VersionService.getHash(version));
+		assertThat(jsonld.getTransformRevision()).isNotNull();
+		String revision = jsonld.getTransformRevision();
+
+		// when the json-ld was produced by another revision of its transformer
+		jsonld.setTransformRevision("outdated");
+		reset(versionService);
+		when(versionService.findAllCurrentVersionsForRecord(record)).thenReturn(
+				Arrays.asList(version, captor.getAllValues().get(0), captor.getAllValues().get(1)));
+		task.run();
+
+		// it is transformed again, its content is the same so only the revision is updated
+		verify(versionService, times(1)).save(jsonld);
+		verify(versionService, times(1)).save(any(Version.class));
+		assertThat(jsonld.getTransformRevision()).isEqualTo(revision);
+	}
+
+	@Test
+	void run_derivesTheSchemasPlannedOutOfTheSource() throws IOException {
+		// record with a current csirov3 version only
+		Record record = TestHelper.mockRecord(UUID.randomUUID());
+		Version version = TestHelper.mockVersion(record);
+		version.setContent(Helpers.readFile("src/test/resources/xml/sample_igsn_csiro_v3.xml").getBytes());
+		version.setSchema(SchemaService.CSIROv3);
+		when(versionService.findAllCurrentVersionsForRecord(record)).thenReturn(Collections.singletonList(version));
+
+		new ProcessRecordTask(record, versionService, recordService, schemaService,
+				new TransactionTemplate(transactionManager)).run();
+
+		// only the automatically derived schemas are produced, straight out of csirov3
+		ArgumentCaptor<Version> captor = ArgumentCaptor.forClass(Version.class);
+		verify(versionService, times(2)).save(captor.capture());
+		assertThat(captor.getAllValues().stream().map(Version::getSchema).collect(Collectors.toList()))
+				.containsExactlyInAnyOrder(SchemaService.JSONLD, SchemaService.OAIDC);
+	}
+
+	@Test
+	void run_noSupportedVersion() {
+		Record record = TestHelper.mockRecord(UUID.randomUUID());
+		when(versionService.findAllCurrentVersionsForRecord(record)).thenReturn(Collections.emptyList());
+
+		ProcessRecordTask task = new ProcessRecordTask(record, versionService, recordService, schemaService,
+				new TransactionTemplate(transactionManager));
+
+		assertThrows(RecordProcessingException.class, task::run);
+		verify(recordService, never()).save(any(Record.class));
+		verify(versionService, never()).save(any(Version.class));
+	}
+
+}
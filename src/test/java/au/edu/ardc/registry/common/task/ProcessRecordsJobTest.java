@@ -0,0 +1,233 @@
+package au.edu.ardc.registry.common.task;
+
+import au.edu.ardc.registry.TestHelper;
+import au.edu.ardc.registry.common.entity.Record;
+import au.edu.ardc.registry.common.entity.Request;
+import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.model.Attribute;
+import au.edu.ardc.registry.common.repository.RecordRepository;
+import au.edu.ardc.registry.common.repository.RequestRepository;
+import au.edu.ardc.registry.common.service.RecordService;
+import au.edu.ardc.registry.common.service.SchemaService;
+import au.edu.ardc.registry.common.service.VersionService;
+import au.edu.ardc.registry.common.util.Helpers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProcessRecordsJobTest {
+
+	private final RecordRepository recordRepository = mock(RecordRepository.class);
+
+	private final RequestRepository requestRepository = mock(RequestRepository.class);
+
+	private final List<Record> records = new ArrayList<>();
+
+	private DerivationScheduler scheduler;
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < 5; i++) {
+			records.add(TestHelper.mockRecord(UUID.randomUUID()));
+		}
+		records.sort((a, b) -> a.getId().compareTo(b.getId()));
+		when(recordRepository.count()).thenReturn((long) records.size());
+		when(recordRepository.findAllOrderById(any(Pageable.class)))
+				.thenAnswer(invocation -> page(null, invocation.getArgument(0)));
+		when(recordRepository.findAllAfter(any(UUID.class), any(Pageable.class)))
+				.thenAnswer(invocation -> page(invocation.getArgument(0), invocation.getArgument(1)));
+		scheduler = new DerivationScheduler(4);
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		scheduler.shutdown(1, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void run() {
+		Request job = new Request();
+		job.setId(UUID.randomUUID());
+		Set<UUID> processed = ConcurrentHashMap.newKeySet();
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+
+		new ProcessRecordsJob(job, recordRepository, requestRepository, scheduler, record -> () -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			processed.add(record.getId());
+			running.decrementAndGet();
+		}, 2, 2).run();
+
+		// every record is processed, never more than 2 at once
+		assertThat(processed).hasSize(5);
+		assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+
+		// the job is completed and checkpointed at the last record
+		assertThat(job.getStatus()).isEqualTo(Request.Status.COMPLETED);
+		assertThat(job.getAttribute(Attribute.CHECKPOINT)).isEqualTo(records.get(4).getId().toString());
+		assertThat(job.getAttribute(Attribute.NUM_OF_RECORDS_PROCESSED)).isEqualTo("5");
+		assertThat(job.getAttribute(Attribute.NUM_OF_RECORDS_TOTAL)).isEqualTo("5");
+		assertThat(job.getAttribute(Attribute.NUM_OF_ERROR)).isEqualTo("0");
+		verify(requestRepository, atLeast(2)).saveAndFlush(job);
+	}
+
+	@Test
+	void run_resumesFromCheckpoint() {
+		// a job interrupted after the first 2 records
+		Request job = new Request();
+		job.setId(UUID.randomUUID());
+		job.setStatus(Request.Status.RUNNING);
+		job.setAttribute(Attribute.CHECKPOINT, records.get(1).getId().toString());
+		job.setAttribute(Attribute.NUM_OF_RECORDS_PROCESSED, 2);
+		Set<UUID> processed = ConcurrentHashMap.newKeySet();
+
+		new ProcessRecordsJob(job, recordRepository, requestRepository, scheduler,
+				record -> () -> processed.add(record.getId()), 2, 2).run();
+
+		// only the remaining records are processed
+		assertThat(processed).containsExactlyInAnyOrderElementsOf(
+				records.subList(2, 5).stream().map(Record::getId).collect(Collectors.toList()));
+		verify(recordRepository, never()).findAllOrderById(any(Pageable.class));
+		assertThat(job.getStatus()).isEqualTo(Request.Status.COMPLETED);
+		assertThat(job.getAttribute(Attribute.NUM_OF_RECORDS_PROCESSED)).isEqualTo("5");
+	}
+
+	@Test
+	void run_failingRecordsAreCounted() {
+		Request job = new Request();
+		job.setId(UUID.randomUUID());
+		UUID failing = records.get(2).getId();
+
+		ProcessRecordsJob processRecordsJob = new ProcessRecordsJob(job, recordRepository, requestRepository,
+				scheduler, record -> () -> {
+					if (record.getId().equals(failing)) {
+						throw new RuntimeException("failed");
+					}
+				}, 2, 3);
+		processRecordsJob.run();
+
+		assertThat(processRecordsJob.getProcessed()).isEqualTo(5);
+		assertThat(processRecordsJob.getErrors()).isEqualTo(1);
+		assertThat(processRecordsJob.getInFlight()).isEqualTo(0);
+		assertThat(job.getStatus()).isEqualTo(Request.Status.COMPLETED);
+		assertThat(job.getAttribute(Attribute.NUM_OF_ERROR)).isEqualTo("1");
+	}
+
+	@Test
+	void run_resumed_failingRecordsAfterCheckpointAreCountedOnce() throws Exception {
+		Request job = new Request();
+		job.setId(UUID.randomUUID());
+		UUID blocking = records.get(2).getId();
+		UUID failing = records.get(3).getId();
+		CountDownLatch release = new CountDownLatch(1);
+
+		// the page of the failing record never finishes, the job is interrupted past the checkpoint
+		ProcessRecordsJob interrupted = new ProcessRecordsJob(job, recordRepository, requestRepository, scheduler,
+				record -> () -> {
+					if (record.getId().equals(blocking)) {
+						awaitUninterruptibly(release);
+					}
+					if (record.getId().equals(failing)) {
+						throw new RuntimeException("failed");
+					}
+				}, 2, 5);
+		Thread thread = new Thread(interrupted);
+		thread.start();
+		try {
+			long deadline = System.currentTimeMillis() + 5000;
+			while (interrupted.getProcessed() < 4 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			assertThat(interrupted.getErrors()).isEqualTo(1);
+			thread.interrupt();
+			thread.join(5000);
+		}
+		finally {
+			release.countDown();
+		}
+		assertThat(job.getAttribute(Attribute.CHECKPOINT)).isEqualTo(records.get(1).getId().toString());
+		assertThat(job.getAttribute(Attribute.NUM_OF_RECORDS_PROCESSED)).isEqualTo("2");
+
+		// when resumed, the failing record is processed and counted again, only once
+		ProcessRecordsJob resumed = new ProcessRecordsJob(job, recordRepository, requestRepository, scheduler,
+				record -> () -> {
+					if (record.getId().equals(failing)) {
+						throw new RuntimeException("failed");
+					}
+				}, 2, 5);
+		resumed.run();
+
+		assertThat(job.getStatus()).isEqualTo(Request.Status.COMPLETED);
+		assertThat(job.getAttribute(Attribute.NUM_OF_RECORDS_PROCESSED)).isEqualTo("5");
+		assertThat(job.getAttribute(Attribute.NUM_OF_ERROR)).isEqualTo("1");
+		assertThat(resumed.getErrors()).isEqualTo(1);
+	}
+
+	@Test
+	void run_recordsFailingToBeProcessedAreCounted() throws Exception {
+		SchemaService schemaService = new SchemaService();
+		schemaService.init();
+		VersionService versionService = mock(VersionService.class);
+		String content = Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml");
+		when(versionService.findAllCurrentVersionsForRecord(any(Record.class))).thenAnswer(invocation -> {
+			Record record = invocation.getArgument(0);
+			// the record in the middle has no version to derive from
+			return record.getId().equals(records.get(2).getId()) ? Collections.emptyList()
+					: Collections.singletonList(mockVersion(record, content));
+		});
+		Request job = new Request();
+		job.setId(UUID.randomUUID());
+
+		ProcessRecordsJob processRecordsJob = new ProcessRecordsJob(job, recordRepository, requestRepository,
+				scheduler, record -> new ProcessRecordTask(record, versionService, mock(RecordService.class),
+						schemaService, new TransactionTemplate(mock(PlatformTransactionManager.class))),
+				2, 3);
+		processRecordsJob.run();
+
+		assertThat(processRecordsJob.getProcessed()).isEqualTo(5);
+		assertThat(processRecordsJob.getErrors()).isEqualTo(1);
+		assertThat(job.getStatus()).isEqualTo(Request.Status.COMPLETED);
+		assertThat(job.getAttribute(Attribute.NUM_OF_ERROR)).isEqualTo("1");
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static Version mockVersion(Record record, String content) {
+		Version version = TestHelper.mockVersion(record);
+		version.setContent(content.getBytes());
+		version.setSchema(SchemaService.ARDCv1);
+		return version;
+	}
+
+	private List<Record> page(UUID after, Pageable pageable) {
+		List<Record> page = records.stream().filter(record -> after == null || record.getId().compareTo(after) > 0)
+				.limit(pageable.getPageSize()).collect(Collectors.toList());
+		return page.isEmpty() ? Collections.emptyList() : page;
+	}
+
+}
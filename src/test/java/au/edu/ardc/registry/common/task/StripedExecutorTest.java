@@ -0,0 +1,137 @@
+package au.edu.ardc.registry.common.task;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StripedExecutorTest {
+
+	private final StripedExecutor executor = new StripedExecutor(8, 4, "test");
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	void execute_sameKeyRunsInOrder() throws InterruptedException {
+		List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		CountDownLatch done = new CountDownLatch(20);
+		for (int i = 0; i < 20; i++) {
+			int index = i;
+			executor.execute("10273/XX0TUIAYLV", () -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				order.add(index);
+				running.decrementAndGet();
+				done.countDown();
+			});
+		}
+
+		assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(maxRunning.get()).isEqualTo(1);
+		for (int i = 0; i < 20; i++) {
+			assertThat(order.get(i)).isEqualTo(i);
+		}
+	}
+
+	@Test
+	void execute_stripesRunInParallel() throws InterruptedException {
+		// keys 0 and 1 are on different stripes, both tasks only finish if they run at
+		// the same time
+		CountDownLatch started = new CountDownLatch(2);
+		CountDownLatch done = new CountDownLatch(2);
+		for (int i = 0; i < 2; i++) {
+			executor.execute(i, () -> {
+				started.countDown();
+				try {
+					if (started.await(5, TimeUnit.SECONDS)) {
+						done.countDown();
+					}
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+
+		assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void execute_failingTaskDoesNotStopTheStripe() throws InterruptedException {
+		CountDownLatch done = new CountDownLatch(1);
+		executor.execute("key", () -> {
+			throw new RuntimeException("failed");
+		});
+		executor.execute("key", done::countDown);
+
+		assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void getQueued() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		executor.execute("key", () -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		Runnable next = () -> {
+		};
+		executor.execute("key", next);
+
+		// the next task of the key waits for the running one
+		assertThat(executor.getQueued("key")).containsExactly(next);
+		assertThat(executor.getQueued()).containsExactly(next);
+		assertThat(executor.getQueueDepth()).isEqualTo(1);
+
+		release.countDown();
+		executor.shutdown();
+		assertThrows(RejectedExecutionException.class, () -> executor.execute("key", () -> {
+		}));
+	}
+
+	@Test
+	void shutdown_drainsQueuedTasksAndStopsThreads() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger ran = new AtomicInteger();
+		executor.execute("key", () -> {
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			ran.incrementAndGet();
+		});
+		executor.execute("key", ran::incrementAndGet);
+
+		executor.shutdown();
+		assertThat(executor.isTerminated()).isFalse();
+		assertThrows(RejectedExecutionException.class, () -> executor.execute("other", ran::incrementAndGet));
+
+		release.countDown();
+		assertThat(executor.shutdown(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(executor.isTerminated()).isTrue();
+		assertThat(ran.get()).isEqualTo(2);
+	}
+
+}
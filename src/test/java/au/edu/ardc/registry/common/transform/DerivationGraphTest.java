@@ -0,0 +1,133 @@
+package au.edu.ardc.registry.common.transform;
+
+import au.edu.ardc.registry.TestHelper;
+import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.model.Schema;
+import au.edu.ardc.registry.common.service.SchemaService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = { SchemaService.class })
+class DerivationGraphTest {
+
+	@Autowired
+	SchemaService schemaService;
+
+	@Test
+	void getTargets_getSources() {
+		DerivationGraph graph = schemaService.getDerivationGraph();
+		assertThat(graph.getTargets(SchemaService.ARDCv1)).containsExactly(SchemaService.JSONLD,
+				SchemaService.IGSNREGv1, SchemaService.OAIDC);
+		assertThat(graph.getTargets(SchemaService.OAIDC)).isEmpty();
+		assertThat(graph.getSources(SchemaService.IGSNREGv1)).containsExactlyInAnyOrder(SchemaService.ARDCv1,
+				SchemaService.CSIROv3);
+	}
+
+	@Test
+	void getDownstream() {
+		DerivationGraph graph = schemaService.getDerivationGraph();
+		assertThat(graph.getDownstream(SchemaService.CSIROv3)).containsExactlyInAnyOrder(SchemaService.ARDCv1,
+				SchemaService.JSONLD, SchemaService.IGSNREGv1, SchemaService.OAIDC);
+		assertThat(graph.isDerivedFrom(SchemaService.ARDCv1, SchemaService.CSIROv3)).isTrue();
+		assertThat(graph.isDerivedFrom(SchemaService.CSIROv3, SchemaService.ARDCv1)).isFalse();
+	}
+
+	@Test
+	void plan_onlyAutoDerivedSchemas() {
+		DerivationGraph graph = schemaService.getDerivationGraph();
+
+		// igsn-reg and ardcv1 out of csirov3 need parameters, they're left to their own
+		// workflow
+		List<Derivation> plan = graph.plan(SchemaService.ARDCv1);
+		assertThat(plan).extracting(derivation -> derivation.getTo().getId()).containsExactly(SchemaService.JSONLD,
+				SchemaService.OAIDC);
+		plan.forEach(derivation -> {
+			assertThat(derivation.getFrom().getId()).isEqualTo(SchemaService.ARDCv1);
+			assertThat(derivation.getNext()).isEmpty();
+			assertThat(derivation.getTransformer()).isInstanceOf(StylesheetTransformer.class);
+		});
+
+		assertThat(graph.plan(SchemaService.CSIROv3)).extracting(derivation -> derivation.getFrom().getId())
+				.containsOnly(SchemaService.CSIROv3);
+		assertThat(graph.plan(SchemaService.JSONLD)).isEmpty();
+	}
+
+	@Test
+	void plan_cheapestSourceAndChains() {
+		// a -> b -> c, a -> c, c -> d, all derived automatically
+		DerivationGraph graph = new DerivationGraph(
+				Arrays.asList(schema("a", "b", "c"), schema("b", "c"), schema("c", "d"), schema("d")));
+
+		List<Derivation> plan = graph.plan("a");
+
+		// c is transformed straight from a, d is chained to c
+		assertThat(plan).extracting(Derivation::toString).containsExactly("a -> b", "a -> c");
+		assertThat(plan.get(0).getNext()).isEmpty();
+		assertThat(plan.get(1).getNext()).extracting(Derivation::toString).containsExactly("c -> d");
+		assertThat(plan.get(1).getSchemas()).containsExactly("c", "d");
+
+		// when b changes, c and d are regenerated from it
+		List<Derivation> planOfB = graph.plan("b");
+		assertThat(planOfB).hasSize(1);
+		assertThat(planOfB.get(0).getSchemas()).containsExactly("c", "d");
+	}
+
+	@Test
+	void selectSource() {
+		DerivationGraph graph = schemaService.getDerivationGraph();
+		Date now = new Date();
+
+		Version csiro = version(SchemaService.CSIROv3, new Date(now.getTime() - 1000));
+		Version ardc = version(SchemaService.ARDCv1, now);
+		Version jsonld = version(SchemaService.JSONLD, new Date(now.getTime() + 1000));
+
+		// the newest version that has something derived from it
+		assertThat(graph.selectSource(Arrays.asList(csiro, ardc, jsonld))).isEqualTo(ardc);
+		assertThat(graph.selectSource(Arrays.asList(csiro, jsonld))).isEqualTo(csiro);
+		assertThat(graph.selectSource(Collections.singletonList(jsonld))).isNull();
+
+		// as new as each other, the derived one is picked
+		csiro.setCreatedAt(now);
+		assertThat(graph.selectSource(Arrays.asList(csiro, ardc))).isEqualTo(ardc);
+		assertThat(graph.selectSource(Arrays.asList(ardc, csiro))).isEqualTo(ardc);
+		assertThat(graph.selectSource(Arrays.asList(ardc, csiro), SchemaService.IGSNREGv1)).isEqualTo(ardc);
+
+		// only the sources of the target are considered
+		csiro.setCreatedAt(new Date(now.getTime() + 1000));
+		assertThat(graph.selectSource(Arrays.asList(ardc, csiro), SchemaService.IGSNREGv1)).isEqualTo(csiro);
+		assertThat(graph.selectSource(Arrays.asList(ardc, csiro), SchemaService.ARDCv1)).isEqualTo(csiro);
+		assertThat(graph.selectSource(Collections.singletonList(ardc), SchemaService.ARDCv1)).isNull();
+	}
+
+	private static Schema schema(String id, String... targets) {
+		Schema schema = new Schema(id);
+		schema.setAutoDerive(true);
+		Map<String, String> transforms = new LinkedHashMap<>();
+		for (String target : targets) {
+			transforms.put(target, target + "Transformer");
+		}
+		schema.setTransforms(transforms);
+		return schema;
+	}
+
+	private static Version version(String schema, Date createdAt) {
+		Version version = TestHelper.mockVersion();
+		version.setSchema(schema);
+		version.setCreatedAt(createdAt);
+		return version;
+	}
+
+}
@@ -0,0 +1,78 @@
+package au.edu.ardc.registry.common.transform;
+
+import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.model.Schema;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransformCacheTest {
+
+	private final Schema from = new Schema("from");
+
+	private final Schema to = new Schema("to");
+
+	@Test
+	void key() {
+		String key = TransformCache.key(from, to, null, "content".getBytes());
+		assertThat(key).isEqualTo(TransformCache.key(from, to, Collections.emptyMap(), "content".getBytes()));
+		assertThat(key).isNotEqualTo(TransformCache.key(from, to, null, "another".getBytes()));
+		assertThat(key).isNotEqualTo(TransformCache.key(to, from, null, "content".getBytes()));
+		assertThat(key).isNotEqualTo(
+				TransformCache.key(from, to, Collections.singletonMap("prefix", "10273"), "content".getBytes()));
+	}
+
+	@Test
+	void getPut() {
+		TransformCache cache = new TransformCache(1024);
+		assertThat(cache.get("key")).isNull();
+
+		cache.put("key", version("result"));
+		Version cached = cache.get("key");
+		assertThat(cached).isNotNull();
+		assertThat(cached.getSchema()).isEqualTo("to");
+		assertThat(cached.getContent()).isEqualTo("result".getBytes());
+
+		assertThat(cache.getHits()).isEqualTo(1);
+		assertThat(cache.getMisses()).isEqualTo(1);
+		assertThat(cache.getHitRate()).isEqualTo(0.5);
+		assertThat(cache.getCount()).isEqualTo(1);
+		assertThat(cache.getSize()).isEqualTo(6);
+	}
+
+	@Test
+	void put_evictsLeastRecentlyUsed() {
+		TransformCache cache = new TransformCache(10);
+		cache.put("a", version("aaaa"));
+		cache.put("b", version("bbbb"));
+
+		// a is used, b is the least recently used
+		cache.get("a");
+		cache.put("c", version("cccc"));
+
+		assertThat(cache.get("b")).isNull();
+		assertThat(cache.get("a")).isNotNull();
+		assertThat(cache.get("c")).isNotNull();
+		assertThat(cache.getSize()).isEqualTo(8);
+		assertThat(cache.getEvictions()).isEqualTo(1);
+
+		// a result bigger than the cache isn't kept
+		cache.put("d", version("ddddddddddd"));
+		assertThat(cache.get("d")).isNull();
+		assertThat(cache.getCount()).isEqualTo(2);
+
+		cache.clear();
+		assertThat(cache.getCount()).isEqualTo(0);
+		assertThat(cache.getSize()).isEqualTo(0);
+	}
+
+	private Version version(String content) {
+		Version version = new Version();
+		version.setSchema(to.getId());
+		version.setContent(content.getBytes());
+		return version;
+	}
+
+}
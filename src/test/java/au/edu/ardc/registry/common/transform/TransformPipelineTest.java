@@ -0,0 +1,83 @@
+package au.edu.ardc.registry.common.transform;
+
+import au.edu.ardc.registry.TestHelper;
+import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.service.SchemaService;
+import au.edu.ardc.registry.common.util.Helpers;
+import au.edu.ardc.registry.common.util.XMLUtil;
+import au.edu.ardc.registry.igsn.transform.ardcv1.ARDCv1ToJSONLDTransformer;
+import au.edu.ardc.registry.igsn.transform.ardcv1.ARDCv1ToOAIDCTransformer;
+import au.edu.ardc.registry.igsn.transform.csirov3.CSIROv3ToARDCv1Transformer;
+import au.edu.ardc.registry.igsn.transform.csirov3.CSIROv3ToJSONLDTransformer;
+import au.edu.ardc.registry.igsn.transform.csirov3.CSIROv3ToOAIDCTransformer;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+import javax.xml.transform.TransformerException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class TransformPipelineTest {
+
+	@Test
+	void transform_matchesChainedTransformers() throws IOException, TransformerException {
+		String xml = Helpers.readFile("src/test/resources/xml/sample_igsn_csiro_v3.xml");
+		Version version = TestHelper.mockVersion();
+		version.setContent(xml.getBytes());
+
+		CSIROv3ToARDCv1Transformer csiroToARDC = new CSIROv3ToARDCv1Transformer();
+		csiroToARDC.setParam("prefix", "20.500.11812");
+
+		Map<String, Version> results = TransformPipeline.of(csiroToARDC)
+				.then(new ARDCv1ToJSONLDTransformer(), new ARDCv1ToOAIDCTransformer()).transform(version);
+
+		// every stage is produced, in pipeline order
+		assertThat(results.keySet()).containsExactly(SchemaService.ARDCv1, SchemaService.JSONLD, SchemaService.OAIDC);
+		results.values().forEach(result -> assertThat(result.getRequestID()).isEqualTo(version.getRequestID()));
+
+		// and is the same as transforming the serialized intermediate version
+		Version ardc = csiroToARDC.transform(version);
+		assertThat(results.get(SchemaService.ARDCv1).getContent()).isEqualTo(ardc.getContent());
+		assertThat(results.get(SchemaService.ARDCv1).getHash()).isEqualTo(ardc.getHash());
+		assertThat(results.get(SchemaService.JSONLD).getContent())
+				.isEqualTo(new ARDCv1ToJSONLDTransformer().transform(ardc).getContent());
+		assertThat(results.get(SchemaService.OAIDC).getContent())
+				.isEqualTo(new ARDCv1ToOAIDCTransformer().transform(ardc).getContent());
+	}
+
+	@Test
+	void transform_independentPipelinesInOnePass() throws Exception {
+		for (String fixture : Arrays.asList("sample_ardcv1.xml", "sample_igsn_csiro_v3.xml")) {
+			String xml = Helpers.readFile("src/test/resources/xml/" + fixture);
+			Version version = TestHelper.mockVersion();
+			version.setContent(xml.getBytes());
+			Document document = XMLUtil.parseNamespaceAware(xml);
+
+			StylesheetTransformer toJSONLD = fixture.contains("csiro") ? new CSIROv3ToJSONLDTransformer()
+					: new ARDCv1ToJSONLDTransformer();
+			StylesheetTransformer toOAIDC = fixture.contains("csiro") ? new CSIROv3ToOAIDCTransformer()
+					: new ARDCv1ToOAIDCTransformer();
+
+			Map<String, Version> results = TransformPipeline.transform(
+					Arrays.asList(TransformPipeline.of(toJSONLD), TransformPipeline.of(toOAIDC)), version, document);
+
+			// identical to running every transformer on its own
+			assertThat(results.keySet()).containsExactly(SchemaService.JSONLD, SchemaService.OAIDC);
+			assertThat(results.get(SchemaService.JSONLD).getContent())
+					.isEqualTo(toJSONLD.transform(version).getContent());
+			assertThat(results.get(SchemaService.OAIDC).getContent())
+					.isEqualTo(toOAIDC.transform(version).getContent());
+		}
+	}
+
+	@Test
+	void of_requiresStylesheetTransformer() {
+		assertThrows(IllegalArgumentException.class, () -> TransformPipeline.of(mock(Transformer.class)));
+	}
+
+}
@@ -0,0 +1,53 @@
+package au.edu.ardc.registry.common.transform;
+
+import au.edu.ardc.registry.TestHelper;
+import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.service.VersionService;
+import au.edu.ardc.registry.igsn.transform.ardcv1.ARDCv1ToJSONLDTransformer;
+import au.edu.ardc.registry.igsn.transform.ardcv1.ARDCv1ToOAIDCTransformer;
+import au.edu.ardc.registry.igsn.transform.csirov3.CSIROv3ToARDCv1Transformer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransformRevisionTest {
+
+	@Test
+	void of() {
+		String jsonld = TransformRevision.of(new ARDCv1ToJSONLDTransformer());
+
+		// stable for the same transformer, different between transformers
+		assertThat(jsonld).isEqualTo(TransformRevision.of(new ARDCv1ToJSONLDTransformer()));
+		assertThat(jsonld).isNotEqualTo(TransformRevision.of(new ARDCv1ToOAIDCTransformer()));
+
+		// parameters are part of the revision
+		CSIROv3ToARDCv1Transformer transformer = new CSIROv3ToARDCv1Transformer();
+		transformer.setParam("prefix", "20.500.11812");
+		String revision = TransformRevision.of(transformer);
+		transformer.setParam("prefix", "10273");
+		assertThat(TransformRevision.of(transformer)).isNotEqualTo(revision);
+
+		// and so is the upstream revision of a chained transform
+		assertThat(TransformRevision.of(null, new ARDCv1ToJSONLDTransformer())).isEqualTo(jsonld);
+		assertThat(TransformRevision.of(revision, new ARDCv1ToJSONLDTransformer())).isNotEqualTo(jsonld);
+	}
+
+	@Test
+	void isCurrent() {
+		Version source = TestHelper.mockVersion();
+		source.setContent("source".getBytes());
+		String sourceHash = TransformRevision.getSourceHash(source);
+		assertThat(sourceHash).isEqualTo(VersionService.getHash(source));
+
+		Version derived = TestHelper.mockVersion();
+		derived.setSourceHash(sourceHash);
+		derived.setTransformRevision("revision");
+
+		assertThat(TransformRevision.isCurrent(derived, sourceHash, "revision")).isTrue();
+		assertThat(TransformRevision.isCurrent(derived, sourceHash, "another")).isFalse();
+		assertThat(TransformRevision.isCurrent(derived, "another", "revision")).isFalse();
+		assertThat(TransformRevision.isCurrent(derived, sourceHash, null)).isFalse();
+		assertThat(TransformRevision.isCurrent(null, sourceHash, "revision")).isFalse();
+	}
+
+}
@@ -0,0 +1,55 @@
+package au.edu.ardc.registry.common.transform;
+
+import au.edu.ardc.registry.common.util.Helpers;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.transform.TransformerException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+class XSLTransformerTest {
+
+	private static final String path = "xslt/ardc_v1_to_oai_dc.xsl";
+
+	@Test
+	void getTemplates_isCompiledOnce() throws TransformerException {
+		assertThat(XSLTransformer.getTemplates(path)).isSameAs(XSLTransformer.getTemplates(path));
+	}
+
+	@Test
+	void getTemplates_notFound() {
+		assertThrows(TransformerException.class, () -> XSLTransformer.getTemplates("xslt/not_found.xsl"));
+	}
+
+	@Test
+	void transform_bytesMatchString() throws IOException, TransformerException {
+		String xml = Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml");
+
+		String expected = XSLTransformer.transform(path, xml, new HashMap<>());
+		byte[] actual = XSLTransformer.transform(path, xml.getBytes(StandardCharsets.UTF_8), new HashMap<>());
+
+		assertThat(expected).contains("Classification");
+		assertThat(new String(actual, StandardCharsets.UTF_8)).isEqualTo(expected);
+	}
+
+	@Test
+	void transform_stream() throws IOException, TransformerException {
+		String xml = Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml");
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+
+		// the same thread runs the transform twice, reusing its Transformer
+		XSLTransformer.transform(path, new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), result, null);
+		byte[] first = result.toByteArray();
+		result.reset();
+		XSLTransformer.transform(path, new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), result, null);
+
+		assertThat(result.toByteArray()).isEqualTo(first);
+	}
+
+}
@@ -0,0 +1,52 @@
+package au.edu.ardc.registry.common.util;
+
+import au.edu.ardc.registry.common.model.ContentInfo;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentSnifferTest {
+
+	@Test
+	void sniff_xml() throws IOException {
+		String xml = Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml");
+		ContentInfo info = ContentSniffer.sniff(xml);
+		assertThat(info.getMediaType()).isEqualTo("application/xml");
+		assertThat(info.getExtension()).isEqualTo(".xml");
+		assertThat(info.getNamespace()).isEqualTo("https://identifiers.ardc.edu.au/schemas/ardc-igsn-desc");
+	}
+
+	@Test
+	void sniff_prefixedRootElement() throws IOException {
+		String xml = Helpers.readFile("src/test/resources/xml/sample_xml_prefix_cs_igsn.xml");
+		assertThat(ContentSniffer.sniff(xml).getNamespace()).isEqualTo("https://igsn.csiro.au/schemas/3.0");
+	}
+
+	@Test
+	void sniff_text() throws IOException {
+		String text = Helpers.readFile("src/test/resources/data/igsn.txt");
+		ContentInfo info = ContentSniffer.sniff(text);
+		assertThat(info.getMediaType()).isEqualTo("text/plain");
+		assertThat(info.getExtension()).isEqualTo(".txt");
+		assertThat(info.getNamespace()).isNull();
+	}
+
+	@Test
+	void sniff_isCachedByPrefix() throws IOException {
+		String xml = Helpers.readFile("src/test/resources/xml/sample_ardcv1_batch.xml");
+		assertThat(ContentSniffer.sniff(xml)).isSameAs(ContentSniffer.sniff(xml));
+	}
+
+	@Test
+	void sniff_rootElementBeyondPrefix() {
+		StringBuilder xml = new StringBuilder("<?xml version=\"1.0\"?>\n<resources note=\"");
+		while (xml.length() < ContentSniffer.PREFIX_LENGTH) {
+			xml.append(" padding");
+		}
+		xml.append("\" xmlns=\"https://example.com/ns\"/>");
+		assertThat(ContentSniffer.sniff(xml.toString()).getNamespace()).isEqualTo("https://example.com/ns");
+	}
+
+}
@@ -119,4 +119,10 @@ public class HelpersTest {
 		assertThat(result == null);
 	}
 
-}
\ No newline at end of file
+	@Test
+	void getThreads() {
+		assertThat(Helpers.getThreads(3)).isEqualTo(3);
+		assertThat(Helpers.getThreads(0)).isEqualTo(Runtime.getRuntime().availableProcessors());
+	}
+
+}
@@ -0,0 +1,56 @@
+package au.edu.ardc.registry.common.util;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+class JSONUtilTest {
+
+	@Test
+	void compact() throws IOException {
+		String json = Helpers.readFile("src/test/resources/json/sample_ardcv1_jsonld.json");
+
+		String actual = new String(JSONUtil.compact(json.getBytes()));
+
+		assertThat(actual).doesNotContain("\n");
+		assertThat(actual.length()).isLessThan(json.length());
+		assertThat(new JSONObject(actual).similar(new JSONObject(json))).isTrue();
+	}
+
+	@Test
+	void compact_keepsFieldOrderAndStrings() throws IOException {
+		String json = "{\n  \"b\" : \"a  value\",\n  \"a\" : [ 1, 2 ]\n}";
+		assertThat(new String(JSONUtil.compact(json.getBytes()))).isEqualTo("{\"b\":\"a  value\",\"a\":[1,2]}");
+	}
+
+	@Test
+	void prettyPrint() throws IOException {
+		byte[] compact = "{\"b\":\"value\",\"a\":[1,2]}".getBytes();
+
+		String actual = new String(JSONUtil.prettyPrint(compact));
+
+		assertThat(actual).contains("\n");
+		assertThat(JSONUtil.compact(actual.getBytes())).isEqualTo(compact);
+	}
+
+	@Test
+	void format() throws IOException {
+		byte[] compact = "{\"a\":1}".getBytes();
+		byte[] xml = "<a>1</a>".getBytes();
+
+		assertThat(new String(JSONUtil.format(compact, MediaType.APPLICATION_JSON, true))).contains("\n");
+		assertThat(JSONUtil.format(compact, MediaType.APPLICATION_JSON, false)).isSameAs(compact);
+		assertThat(JSONUtil.format(xml, MediaType.APPLICATION_XML, true)).isSameAs(xml);
+	}
+
+	@Test
+	void compact_invalidJSON() {
+		assertThrows(IOException.class, () -> JSONUtil.compact("{\"a\":".getBytes()));
+	}
+
+}
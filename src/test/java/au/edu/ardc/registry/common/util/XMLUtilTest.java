@@ -1,8 +1,16 @@
 package au.edu.ardc.registry.common.util;
 
 import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
 import org.w3c.dom.NodeList;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class XMLUtilTest {
@@ -48,4 +56,45 @@ public class XMLUtilTest {
 		assertEquals(nameSpace, "https://igsn.csiro.au/schemas/3.0");
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void getXPath_reusesCompiledExpression() throws Exception {
+		String xml = Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml");
+		String xpath = "/resources/resource/resourceIdentifier";
+		XMLUtil.getXPath(xml, xpath);
+
+		long hits = XMLUtil.getXPathCacheHits();
+		long misses = XMLUtil.getXPathCacheMisses();
+		XMLUtil.getXPath(xml, xpath);
+
+		assertThat(XMLUtil.getXPathCacheHits()).isEqualTo(hits + 1);
+		assertThat(XMLUtil.getXPathCacheMisses()).isEqualTo(misses);
+	}
+
+	@Test
+	public void getXPath_onParsedDocument() throws Exception {
+		Document doc = XMLUtil.parse(Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml"));
+		assertEquals("10273/XX0TUIAYLV",
+				XMLUtil.getXPath(doc, "/resources/resource/resourceIdentifier").item(0).getTextContent());
+		assertThat(XMLUtil.getXPath(doc, "//resourceTitle").getLength()).isEqualTo(1);
+	}
+
+	@Test
+	public void getXPath_concurrently() throws Exception {
+		String ardc = Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml");
+		String csiro = Helpers.readFile("src/test/resources/xml/sample_igsn_csiro_v3.xml");
+		String xpath = "/resources/resource/resourceIdentifier";
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			String xml = i % 2 == 0 ? ardc : csiro;
+			results.add(executor.submit(() -> XMLUtil.getXPath(xml, xpath).item(0).getTextContent()));
+		}
+		executor.shutdown();
+
+		for (int i = 0; i < results.size(); i++) {
+			assertEquals(i % 2 == 0 ? "10273/XX0TUIAYLV" : "CSTSTDOCO1", results.get(i).get());
+		}
+	}
+
+}
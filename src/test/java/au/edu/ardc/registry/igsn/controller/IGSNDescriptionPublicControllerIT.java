@@ -10,6 +10,7 @@ import au.edu.ardc.registry.common.repository.RecordRepository;
 import au.edu.ardc.registry.common.repository.VersionRepository;
 import au.edu.ardc.registry.common.service.SchemaService;
 import au.edu.ardc.registry.common.util.Helpers;
+import au.edu.ardc.registry.common.util.JSONUtil;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -19,6 +20,8 @@ import org.springframework.test.context.junit.jupiter.EnabledIf;
 import java.io.IOException;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 class IGSNDescriptionPublicControllerIT extends WebIntegrationTest {
 
 	final String baseUrl = "/api/public/igsn-description/";
@@ -87,6 +90,34 @@ class IGSNDescriptionPublicControllerIT extends WebIntegrationTest {
 				.json(validJSON);
 	}
 
+	@Test
+	void index_prettyRequest_returnsIndentedJSONLD() throws IOException {
+		// given a record with a compact json-ld version and an identifier
+		Record record = TestHelper.mockRecord();
+		recordRepository.saveAndFlush(record);
+
+		Version jsonld = TestHelper.mockVersion(record);
+		jsonld.setCurrent(true);
+		jsonld.setSchema(SchemaService.JSONLD);
+		String validJSON = Helpers.readFile("src/test/resources/json/sample_ardcv1_jsonld.json");
+		jsonld.setContent(JSONUtil.compact(validJSON.getBytes()));
+		versionRepository.saveAndFlush(jsonld);
+
+		Identifier identifier = TestHelper.mockIdentifier(record);
+		identifier.setType(Identifier.Type.IGSN);
+		identifier.setValue("10273/XXAB");
+		identifierRepository.saveAndFlush(identifier);
+
+		// when get igsn-description?schema=json-ld&pretty=true, returns the indented content
+		String expected = new String(JSONUtil.prettyPrint(validJSON.getBytes()));
+		this.webTestClient.get()
+				.uri(uriBuilder -> uriBuilder.path(baseUrl).queryParam("identifier", "10273/XXAB")
+						.queryParam("schema", SchemaService.JSONLD).queryParam("pretty", true).build())
+				.exchange().expectStatus().isOk().expectHeader().contentType(MediaType.APPLICATION_JSON).expectBody()
+				.json(validJSON).consumeWith(response -> assertThat(new String(response.getResponseBody()))
+						.isEqualTo(expected));
+	}
+
 	@Test
 	void index_notFoundIdentifier_404() {
 		this.webTestClient.get().uri(
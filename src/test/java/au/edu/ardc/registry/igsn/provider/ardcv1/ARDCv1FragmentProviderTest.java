@@ -1,6 +1,7 @@
 package au.edu.ardc.registry.igsn.provider.ardcv1;
 
 import au.edu.ardc.registry.common.model.Schema;
+import au.edu.ardc.registry.common.provider.FragmentIterator;
 import au.edu.ardc.registry.common.provider.FragmentProvider;
 import au.edu.ardc.registry.common.provider.Metadata;
 import au.edu.ardc.registry.common.provider.MetadataProviderFactory;
@@ -16,6 +17,11 @@ import org.springframework.test.context.junit.jupiter.EnabledIf;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -61,4 +67,31 @@ class ARDCv1FragmentProviderTest {
 		assertThat(firstFragmentOnce).isEqualTo(firstFragmentAgain);
 	}
 
-}
\ No newline at end of file
+	@Test
+	void iterate() throws IOException {
+		Schema schema = service.getSchemaByID(SchemaService.ARDCv1);
+		String xml = Helpers.readFile("src/test/resources/xml/sample_ardcv1_batch.xml");
+		FragmentProvider fProvider = (FragmentProvider) MetadataProviderFactory.create(schema, Metadata.Fragment);
+
+		List<String> fragments = new ArrayList<>();
+		try (FragmentIterator iterator = fProvider
+				.iterate(Files.newInputStream(Paths.get("src/test/resources/xml/sample_ardcv1_batch.xml")))) {
+			iterator.forEachRemaining(fragments::add);
+		}
+
+		assertThat(fragments).hasSize(3);
+		for (int i = 0; i < fragments.size(); i++) {
+			assertThat(fragments.get(i)).isEqualTo(fProvider.get(xml, i));
+		}
+	}
+
+	@Test
+	void getCount_InputStream() throws IOException {
+		Schema schema = service.getSchemaByID(SchemaService.ARDCv1);
+		FragmentProvider fProvider = (FragmentProvider) MetadataProviderFactory.create(schema, Metadata.Fragment);
+		try (InputStream payload = Files.newInputStream(Paths.get("src/test/resources/xml/sample_ardcv1_batch.xml"))) {
+			assertThat(fProvider.getCount(payload)).isEqualTo(3);
+		}
+	}
+
+}
@@ -1,6 +1,7 @@
 package au.edu.ardc.registry.igsn.provider.csirov3;
 
 import au.edu.ardc.registry.common.model.Schema;
+import au.edu.ardc.registry.common.provider.FragmentIterator;
 import au.edu.ardc.registry.common.provider.FragmentProvider;
 import au.edu.ardc.registry.common.provider.IdentifierProvider;
 import au.edu.ardc.registry.common.provider.Metadata;
@@ -14,6 +15,8 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -71,4 +74,17 @@ public class CSIROv3IProviderTest {
 
         assertThat(firstFragmentOnce).isEqualTo(firstFragmentAgain);
     }
-}
\ No newline at end of file
+
+    @Test
+    void iterate_fragments() throws IOException {
+        Schema schema = service.getSchemaByID(SchemaService.CSIROv3);
+        FragmentProvider fProvider = (FragmentProvider) MetadataProviderFactory.create(schema, Metadata.Fragment);
+        try (FragmentIterator iterator = fProvider
+                .iterate(Files.newInputStream(Paths.get("src/test/resources/xml/sample_csirov3_batch.xml")))) {
+            assertThat(iterator.next()).contains("<resourceTitle>A title worthy for FIRST kings</resourceTitle>");
+            assertThat(iterator.skip()).isTrue();
+            assertThat(iterator.next()).contains("<resourceTitle>A title worthy for THIRD kings");
+            assertThat(iterator.hasNext()).isFalse();
+        }
+    }
+}
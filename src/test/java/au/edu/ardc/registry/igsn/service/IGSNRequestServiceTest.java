@@ -1,8 +1,10 @@
 package au.edu.ardc.registry.igsn.service;
 
+import au.edu.ardc.registry.TestHelper;
 import au.edu.ardc.registry.common.config.ApplicationProperties;
 import au.edu.ardc.registry.common.dto.mapper.RequestMapper;
 import au.edu.ardc.registry.common.entity.Request;
+import au.edu.ardc.registry.common.model.Attribute;
 import au.edu.ardc.registry.common.repository.RequestRepository;
 import au.edu.ardc.registry.common.service.RequestService;
 import org.junit.jupiter.api.Test;
@@ -26,7 +28,7 @@ import static org.mockito.Mockito.*;
 @ExtendWith(SpringExtension.class)
 @EnableAutoConfiguration
 @ContextConfiguration(classes = { IGSNRequestService.class, RequestService.class, ApplicationProperties.class,
-		RequestMapper.class, ModelMapper.class })
+		RequestMapper.class, ModelMapper.class, RequestProgress.class })
 @TestPropertySource("classpath:application.properties")
 class IGSNRequestServiceTest {
 
@@ -39,6 +41,9 @@ class IGSNRequestServiceTest {
 	@Autowired
 	private IGSNRequestService service;
 
+	@Autowired
+	private RequestProgress requestProgress;
+
 	@Test
 	void findById_foundRecord_returnsIGSNServiceRequest() {
 		Request request = new Request();
@@ -58,4 +63,47 @@ class IGSNRequestServiceTest {
 		assertThat(actual).isNull();
 	}
 
-}
\ No newline at end of file
+
+	@Test
+	void saveLater_runningRequest_savedByFlush() {
+		Request request = TestHelper.mockRequest();
+		request.setStatus(Request.Status.RUNNING);
+
+		service.saveLater(request);
+		service.saveLater(request);
+
+		verify(repository, never()).saveAndFlush(any(Request.class));
+	}
+
+	@Test
+	void saveLater_completedRequest_savedStraightAway() {
+		Request request = TestHelper.mockRequest();
+		request.setStatus(Request.Status.RUNNING);
+		service.incrementAttributeValue(request, Attribute.NUM_OF_RECORDS_CREATED);
+		service.saveLater(request);
+
+		request.setStatus(Request.Status.COMPLETED);
+		service.saveLater(request);
+
+		verify(repository, times(1)).saveAndFlush(request);
+		assertThat(request.getAttribute(Attribute.NUM_OF_RECORDS_CREATED)).isEqualTo("1");
+	}
+
+	@Test
+	void save_failedRequest_releasesProgress() {
+		Request request = TestHelper.mockRequest();
+		request.setStatus(Request.Status.RUNNING);
+		service.incrementAttributeValue(request, Attribute.NUM_OF_ERROR);
+
+		request.setStatus(Request.Status.FAILED);
+		service.save(request);
+
+		// counted straight on the Request and never flushed again
+		service.incrementAttributeValue(request, Attribute.NUM_OF_ERROR);
+		requestProgress.flush();
+		verify(repository, times(1)).saveAndFlush(request);
+		assertThat(request.getAttribute(Attribute.NUM_OF_ERROR)).isEqualTo("2");
+		assertThat(service.getCount(request, Attribute.NUM_OF_ERROR)).isEqualTo(2);
+	}
+
+}
@@ -1,16 +1,104 @@
 package au.edu.ardc.registry.igsn.service;
 
+import au.edu.ardc.registry.TestHelper;
+import au.edu.ardc.registry.common.entity.Request;
+import au.edu.ardc.registry.common.model.Attribute;
+import au.edu.ardc.registry.common.model.Scope;
+import au.edu.ardc.registry.common.model.User;
+import au.edu.ardc.registry.common.service.IdentifierService;
+import au.edu.ardc.registry.common.service.KeycloakService;
+import au.edu.ardc.registry.common.service.RecordService;
+import au.edu.ardc.registry.common.service.SchemaService;
+import au.edu.ardc.registry.common.service.ValidationService;
+import au.edu.ardc.registry.common.util.Helpers;
+import au.edu.ardc.registry.exception.XMLValidationException;
+import au.edu.ardc.registry.igsn.model.IGSNAllocation;
+import org.apache.logging.log4j.Level;
 import org.junit.Assert;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class IGSNRequestValidationServiceTest {
 
+    private static final String BATCH_INVALID = "src/test/resources/xml/sample_ardcv1_batch_invalid.xml";
+
+    @TempDir
+    Path tempDir;
+
+    private final IGSNService igsnService = mock(IGSNService.class);
+
+    private final IGSNRequestService igsnRequestService = mock(IGSNRequestService.class);
+
+    private IGSNRequestValidationService service;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SchemaService schemaService = new SchemaService();
+        schemaService.init();
+        service = new IGSNRequestValidationService(schemaService, igsnService, mock(IdentifierService.class),
+                mock(RecordService.class), mock(ValidationService.class), mock(KeycloakService.class),
+                igsnRequestService);
+        service.maxBulkFileSize = 5242880;
+        when(igsnRequestService.getLoggerFor(any(Request.class))).thenReturn(
+                TestHelper.getConsoleLogger(IGSNRequestValidationServiceTest.class.getName(), Level.DEBUG));
+
+        // the user has the allocation of every identifier of the payload
+        user = TestHelper.mockUser();
+        IGSNAllocation allocation = TestHelper.mockIGSNAllocation();
+        allocation.getAttributes().put("prefix", Collections.singletonList("10273"));
+        allocation.getAttributes().put("namespace", Collections.singletonList("XXAB"));
+        allocation.setAttributes(allocation.getAttributes());
+        when(igsnService.getIGSNAllocationForIdentifier(anyString(), any(User.class), any(Scope.class)))
+                .thenReturn(allocation);
+    }
+
     @Test
     void validate() {
     }
 
+    @Test
+    void validate_bulkWithInvalidResources_acceptedWithoutThem() throws Exception {
+        Request request = mockBulkMintRequest(BATCH_INVALID);
+
+        service.validate(request, user);
+
+        // the second resource is invalid, it's counted and skipped
+        assertThat(request.getStatus()).isNotEqualTo(Request.Status.FAILED);
+        assertThat(request.getAttribute(Attribute.NUM_OF_ERROR)).isEqualTo("1");
+        assertThat(request.getAttribute(Attribute.INVALID_FRAGMENTS)).isEqualTo("1");
+        assertThat(request.getAttribute(Attribute.SCHEMA_ID)).isEqualTo(SchemaService.ARDCv1);
+    }
+
+    @Test
+    void validate_bulkWithEveryResourceInvalid_fails() throws Exception {
+        // only the invalid resource of the payload is kept
+        String content = Helpers.readFile(BATCH_INVALID);
+        int start = content.indexOf("<resource ", content.indexOf("</resource>"));
+        int end = content.indexOf("</resource>", start) + "</resource>".length();
+        Path payload = tempDir.resolve("payload.xml");
+        Files.write(payload, (content.substring(0, content.indexOf("<resource ")) + content.substring(start, end)
+                + "\n</resources>").getBytes());
+        Request request = mockBulkMintRequest(payload.toString());
+
+        assertThrows(XMLValidationException.class, () -> service.validate(request, user));
+        assertThat(request.getStatus()).isEqualTo(Request.Status.FAILED);
+        assertThat(request.getAttribute(Attribute.INVALID_FRAGMENTS)).isNull();
+    }
+
     @Test
      void isvalidIdentifierFormat(){
             Assert.assertTrue(IGSNRequestValidationService.isvalidIdentifierFormat("20.500.11812/XXZT1JBCSV33"));
@@ -21,4 +109,13 @@ class IGSNRequestValidationServiceTest {
             Assert.assertTrue(IGSNRequestValidationService.isvalidIdentifierFormat("20.500.11812/XXZT1VDOHF93EPI234...."));
             Assert.assertFalse(IGSNRequestValidationService.isvalidIdentifierFormat("20.500.11812/XXZT1bBWfc3aaa$"));
         }
-}
\ No newline at end of file
+
+    private Request mockBulkMintRequest(String payloadPath) {
+        Request request = TestHelper.mockRequest();
+        request.setType(IGSNService.EVENT_BULK_MINT);
+        request.setAttribute(Attribute.PAYLOAD_PATH, payloadPath);
+        request.setAttribute(Attribute.OWNER_TYPE, "User");
+        request.setAttribute(Attribute.OWNER_ID, user.getId().toString());
+        return request;
+    }
+}
@@ -1,7 +1,10 @@
 package au.edu.ardc.registry.igsn.service;
 
 import au.edu.ardc.registry.TestHelper;
+import au.edu.ardc.registry.common.chunk.Chunk;
+import au.edu.ardc.registry.common.entity.Request;
 import au.edu.ardc.registry.common.model.Allocation;
+import au.edu.ardc.registry.common.model.Attribute;
 import au.edu.ardc.registry.common.model.Scope;
 import au.edu.ardc.registry.common.model.User;
 import au.edu.ardc.registry.common.service.SchemaService;
@@ -14,7 +17,10 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.apache.logging.log4j.Level;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -25,18 +31,24 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(classes = { IGSNService.class, SchemaService.class, IGSNApplicationConfig.class })
-@TestPropertySource(properties="app.igsn.enabled=true")
+@TestPropertySource(properties = { "app.igsn.enabled=true", "app.igsn.import.threads=2" })
 class IGSNServiceTest {
 
 	@Autowired
@@ -95,4 +107,100 @@ class IGSNServiceTest {
 		assertThat(igsnService.getIGSNAllocationForContent(xml, user, Scope.UPDATE)).isInstanceOf(IGSNAllocation.class);
 	}
 
-}
\ No newline at end of file
+	@Test
+	@DisplayName("Tasks are counted per request and per identifier until they are done")
+	void hasIGSNTaskQueued() throws InterruptedException {
+		Request request = mockReserveRequest(2);
+		UUID allocationID = UUID.randomUUID();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(importService.reserveRequest(anyString(), any(Request.class))).thenAnswer(invocation -> {
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return null;
+		});
+
+		// the second task of the identifier waits for the first one
+		igsnService.queueReserve(allocationID, "10273/XX0TUIAYLV", request);
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		igsnService.queueReserve(allocationID, "10273/XX0TUIAYLV", request);
+
+		assertThat(igsnService.hasIGSNTaskQueued(allocationID, IGSNTask.TASK_RESERVE, "10273/XX0TUIAYLV")).isTrue();
+		assertThat(igsnService.hasIGSNTaskQueued(allocationID, IGSNTask.TASK_IMPORT, "10273/XX0TUIAYLV")).isFalse();
+		assertThat(igsnService.isImportInQueue(allocationID, request)).isTrue();
+		assertThat(igsnService.isSyncInQueue(request)).isFalse();
+
+		release.countDown();
+		// the request is completed once its last task is done
+		verify(igsnRequestService, timeout(5000).times(1)).closeLoggerFor(request);
+		verify(importService, times(2)).reserveRequest(anyString(), any(Request.class));
+		assertThat(igsnService.hasIGSNTaskQueued(allocationID, IGSNTask.TASK_RESERVE, "10273/XX0TUIAYLV")).isFalse();
+		assertThat(igsnService.isImportInQueue(allocationID, request)).isFalse();
+	}
+
+	@Test
+	@DisplayName("Tasks of a request finishing at the same time on different stripes complete it once")
+	void checkRequest_tasksFinishingTogether() throws InterruptedException {
+		Request request = mockReserveRequest(2);
+		UUID allocationID = UUID.randomUUID();
+		CyclicBarrier finishing = new CyclicBarrier(2);
+		when(importService.reserveRequest(anyString(), any(Request.class))).thenAnswer(invocation -> {
+			finishing.await(5, TimeUnit.SECONDS);
+			// as the TaskCompletedEvent listener does, each task sees the other one in flight
+			igsnService.checkRequest(request);
+			return null;
+		});
+
+		// the identifiers are on different stripes
+		igsnService.queueReserve(allocationID, "10273/XX0TUIAYLV", request);
+		igsnService.queueReserve(allocationID, "10273/XX0TUIAYLW", request);
+
+		verify(igsnRequestService, timeout(5000).times(1)).closeLoggerFor(request);
+		Thread.sleep(200);
+		verify(igsnRequestService, times(1)).closeLoggerFor(request);
+		assertThat(request.getStatus()).isEqualTo(Request.Status.COMPLETED);
+		assertThat(igsnService.isRequestStillRunning(allocationID, request)).isFalse();
+	}
+
+	@Test
+	@DisplayName("Only the valid resources of a bulk mint are queued to be imported")
+	void processMintOrUpdate_skipsInvalidFragments(@TempDir Path tempDir) throws IOException {
+		when(igsnRequestService.getLoggerFor(any(Request.class)))
+				.thenReturn(TestHelper.getConsoleLogger(IGSNServiceTest.class.getName(), Level.DEBUG));
+		Request request = TestHelper.mockRequest();
+		request.setType(IGSNService.EVENT_BULK_MINT);
+		request.setAttribute(Attribute.PAYLOAD_PATH, "src/test/resources/xml/sample_ardcv1_batch_invalid.xml");
+		request.setAttribute(Attribute.DATA_PATH, tempDir.toString());
+		request.setAttribute(Attribute.SCHEMA_ID, SchemaService.ARDCv1);
+		request.setAttribute(Attribute.ALLOCATION_ID, UUID.randomUUID().toString());
+		// as validated, the second resource is invalid
+		request.setAttribute(Attribute.NUM_OF_ERROR, 1);
+		request.setAttribute(Attribute.INVALID_FRAGMENTS, "1");
+
+		igsnService.processMintOrUpdate(request);
+
+		ArgumentCaptor<Chunk> chunks = ArgumentCaptor.forClass(Chunk.class);
+		verify(importService, timeout(5000).times(2)).importRequest(chunks.capture(), eq(request));
+		List<String> contents = new ArrayList<>();
+		for (Chunk chunk : chunks.getAllValues()) {
+			contents.add(chunk.getContent());
+		}
+		assertThat(contents).anyMatch(content -> content.contains("10273/XXABUIAYLV"));
+		assertThat(contents).anyMatch(content -> content.contains("10273/XXAB0002C"));
+		assertThat(contents).noneMatch(content -> content.contains("10273/XXAB00020"));
+		assertThat(request.getAttribute(Attribute.NUM_OF_RECORDS_RECEIVED)).isEqualTo("3");
+	}
+
+	private Request mockReserveRequest(int count) {
+		Request request = TestHelper.mockRequest();
+		request.setType(IGSNService.EVENT_RESERVE);
+		request.setAttribute(Attribute.ALLOCATION_ID, UUID.randomUUID().toString());
+		request.setAttribute(Attribute.NUM_OF_RECORDS_RECEIVED, count);
+		request.setAttribute(Attribute.NUM_OF_RECORDS_CREATED, count);
+		request.setAttribute(Attribute.NUM_OF_RECORDS_UPDATED, 0);
+		request.setAttribute(Attribute.NUM_OF_IGSN_REGISTERED, 0);
+		request.setAttribute(Attribute.NUM_OF_ERROR, 0);
+		return request;
+	}
+
+}
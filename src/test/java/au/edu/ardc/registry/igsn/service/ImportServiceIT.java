@@ -0,0 +1,108 @@
+package au.edu.ardc.registry.igsn.service;
+
+import au.edu.ardc.registry.IntegrationTest;
+import au.edu.ardc.registry.TestHelper;
+import au.edu.ardc.registry.common.chunk.Chunk;
+import au.edu.ardc.registry.common.chunk.MemoryChunk;
+import au.edu.ardc.registry.common.entity.Identifier;
+import au.edu.ardc.registry.common.entity.Request;
+import au.edu.ardc.registry.common.model.Attribute;
+import au.edu.ardc.registry.common.repository.IdentifierRepository;
+import au.edu.ardc.registry.common.repository.RecordRepository;
+import au.edu.ardc.registry.common.repository.VersionRepository;
+import au.edu.ardc.registry.common.util.Helpers;
+import au.edu.ardc.registry.exception.ForbiddenOperationException;
+import au.edu.ardc.registry.igsn.model.ImportResult;
+import org.apache.logging.log4j.Level;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class ImportServiceIT extends IntegrationTest {
+
+	@Autowired
+	ImportService importService;
+
+	@Autowired
+	IdentifierRepository identifierRepository;
+
+	@Autowired
+	VersionRepository versionRepository;
+
+	@Autowired
+	RecordRepository recordRepository;
+
+	@MockBean
+	IGSNRequestService igsnRequestService;
+
+	@AfterEach
+	void tearDown() {
+		identifierRepository.deleteAll();
+		versionRepository.deleteAll();
+		recordRepository.deleteAll();
+	}
+
+	@Test
+	void importBatch() throws IOException {
+		when(igsnRequestService.getLoggerFor(any(Request.class)))
+				.thenReturn(TestHelper.getConsoleLogger(ImportServiceIT.class.getName(), Level.DEBUG));
+
+		List<ImportResult> results = importService.importBatch(mockChunks("A", "B", "C"), mockRequest());
+
+		assertThat(results).hasSize(3);
+		for (ImportResult result : results) {
+			Identifier identifier = result.get();
+			assertThat(identifier).isNotNull();
+			assertThat(identifierRepository.existsByTypeAndValue(Identifier.Type.IGSN, identifier.getValue())).isTrue();
+		}
+		assertThat(recordRepository.count()).isEqualTo(3);
+		assertThat(versionRepository.count()).isEqualTo(3);
+	}
+
+	@Test
+	void importBatch_existingIdentifier() throws IOException {
+		when(igsnRequestService.getLoggerFor(any(Request.class)))
+				.thenReturn(TestHelper.getConsoleLogger(ImportServiceIT.class.getName(), Level.DEBUG));
+		importService.importBatch(mockChunks("B"), mockRequest());
+
+		// B was minted by another request, its batch mates are still imported
+		List<ImportResult> results = importService.importBatch(mockChunks("A", "B", "C"), mockRequest());
+
+		assertThat(results.get(0).get()).isNotNull();
+		assertThat(results.get(1).getException()).isInstanceOf(ForbiddenOperationException.class);
+		assertThat(results.get(2).get()).isNotNull();
+		assertThat(recordRepository.count()).isEqualTo(3);
+	}
+
+	private List<Chunk> mockChunks(String... suffixes) throws IOException {
+		String content = Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml");
+		List<Chunk> chunks = new ArrayList<>();
+		for (String suffix : suffixes) {
+			chunks.add(new MemoryChunk(content.replace("XX0TUIAYLV", "XX0TUIAYL" + suffix)));
+		}
+		return chunks;
+	}
+
+	private Request mockRequest() {
+		Request request = TestHelper.mockRequest();
+		String ownerId = UUID.randomUUID().toString();
+		request.setAttribute(Attribute.OWNER_TYPE, "User");
+		request.setAttribute(Attribute.CREATOR_ID, ownerId);
+		request.setAttribute(Attribute.OWNER_ID, ownerId);
+		request.setAttribute(Attribute.ALLOCATION_ID, UUID.randomUUID().toString());
+		return request;
+	}
+
+}
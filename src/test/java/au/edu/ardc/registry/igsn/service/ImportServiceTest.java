@@ -1,13 +1,21 @@
 package au.edu.ardc.registry.igsn.service;
 
 import au.edu.ardc.registry.TestHelper;
+import au.edu.ardc.registry.common.chunk.Chunk;
+import au.edu.ardc.registry.common.chunk.MemoryChunk;
 import au.edu.ardc.registry.common.entity.*;
 import au.edu.ardc.registry.common.model.Attribute;
+import au.edu.ardc.registry.common.repository.EmbargoRepository;
+import au.edu.ardc.registry.common.repository.IdentifierRepository;
+import au.edu.ardc.registry.common.repository.RecordRepository;
+import au.edu.ardc.registry.common.repository.VersionRepository;
 import au.edu.ardc.registry.common.service.*;
 import au.edu.ardc.registry.common.util.Helpers;
+import au.edu.ardc.registry.exception.ContentNotSupportedException;
 import au.edu.ardc.registry.exception.ForbiddenOperationException;
 import au.edu.ardc.registry.exception.VersionContentAlreadyExistsException;
 import au.edu.ardc.registry.exception.VersionIsOlderThanCurrentException;
+import au.edu.ardc.registry.igsn.model.ImportResult;
 import org.apache.logging.log4j.Level;
 import org.junit.Assert;
 import org.junit.jupiter.api.DisplayName;
@@ -20,14 +28,18 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.EnabledIf;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.io.File;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -60,6 +72,21 @@ class ImportServiceTest {
 	@MockBean
 	EmbargoService embargoService;
 
+	@MockBean
+	RecordRepository recordRepository;
+
+	@MockBean
+	IdentifierRepository identifierRepository;
+
+	@MockBean
+	VersionRepository versionRepository;
+
+	@MockBean
+	EmbargoRepository embargoRepository;
+
+	@MockBean
+	PlatformTransactionManager transactionManager;
+
 	@Test
 	@DisplayName("Import valid payload and valid request")
 	void importRequest_validCreation() throws IOException {
@@ -84,6 +111,132 @@ class ImportServiceTest {
 		verify(igsnVersionService, times(1)).save(any(Version.class));
 	}
 
+	@Test
+	@DisplayName("Import a chunk of a payload held in memory")
+	void importRequest_chunk() throws IOException {
+		when(igsnRequestService.getLoggerFor(any(Request.class)))
+				.thenReturn(TestHelper.getConsoleLogger(ImportServiceTest.class.getName(), Level.DEBUG));
+
+		Request request = TestHelper.mockRequest();
+		String ownerId = UUID.randomUUID().toString();
+		request.setAttribute(Attribute.OWNER_TYPE, "User");
+		request.setAttribute(Attribute.CREATOR_ID, ownerId);
+		request.setAttribute(Attribute.OWNER_ID, ownerId);
+		request.setAttribute(Attribute.ALLOCATION_ID, UUID.randomUUID().toString());
+
+		String content = Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml");
+		Identifier result = importService.importRequest(new MemoryChunk(content), request);
+
+		assertThat(result).isInstanceOf(Identifier.class);
+		verify(igsnVersionService, times(1)).save(any(Version.class));
+	}
+
+	@Test
+	@DisplayName("Import a chunk bigger than a resource can be throws ContentNotSupportedException")
+	void importRequest_chunkTooBig_throwsException() {
+		when(igsnRequestService.getLoggerFor(any(Request.class)))
+				.thenReturn(TestHelper.getConsoleLogger(ImportServiceTest.class.getName(), Level.DEBUG));
+
+		char[] content = new char[61 * 1024];
+		Arrays.fill(content, ' ');
+		Assert.assertThrows(ContentNotSupportedException.class,
+				() -> importService.importRequest(new MemoryChunk(new String(content)), TestHelper.mockRequest()));
+		verify(recordService, never()).save(any(Record.class));
+	}
+
+	@Test
+	@DisplayName("Import a batch of chunks inserts them in a single transaction")
+	void importBatch() throws IOException {
+		when(igsnRequestService.getLoggerFor(any(Request.class)))
+				.thenReturn(TestHelper.getConsoleLogger(ImportServiceTest.class.getName(), Level.DEBUG));
+
+		List<Chunk> chunks = mockChunks(3);
+		List<ImportResult> results = importService.importBatch(chunks, mockImportRequest());
+
+		assertThat(results).hasSize(3);
+		for (int i = 0; i < 3; i++) {
+			assertThat(results.get(i).getChunk()).isEqualTo(chunks.get(i));
+			assertThat(results.get(i).get().getValue()).isEqualTo("10273/XX0TUIAYL" + i);
+		}
+
+		// the identifiers are looked up at once
+		verify(identifierService, times(1)).findAllByValueAndType(anyCollection(), eq(Identifier.Type.IGSN));
+		verify(identifierService, never()).findByValueAndType(anyString(), any(Identifier.Type.class));
+
+		// persisted through the repositories in 1 transaction, not flushed 1 by 1
+		verify(transactionManager, times(1)).getTransaction(any());
+		verify(transactionManager, times(1)).commit(any());
+		verify(recordRepository, times(3)).save(any(Record.class));
+		verify(identifierRepository, times(3)).save(any(Identifier.class));
+		verify(versionRepository, times(3)).save(any(Version.class));
+		verify(recordService, never()).save(any(Record.class));
+		verify(identifierService, never()).save(any(Identifier.class));
+	}
+
+	@Test
+	@DisplayName("Import a batch that fails imports its chunks one by one")
+	void importBatch_failingBatch_importsOneByOne() throws IOException {
+		when(igsnRequestService.getLoggerFor(any(Request.class)))
+				.thenReturn(TestHelper.getConsoleLogger(ImportServiceTest.class.getName(), Level.DEBUG));
+		when(identifierRepository.save(any(Identifier.class))).thenThrow(new RuntimeException("constraint"));
+		when(identifierService.save(any(Identifier.class))).thenAnswer(invocation -> {
+			Identifier identifier = invocation.getArgument(0);
+			if (identifier.getValue().equals("10273/XX0TUIAYL1")) {
+				throw new ForbiddenOperationException("bad");
+			}
+			return identifier;
+		});
+
+		List<ImportResult> results = importService.importBatch(mockChunks(3), mockImportRequest());
+
+		// the batch is rolled back, only the failing chunk isn't imported
+		verify(transactionManager, times(1)).rollback(any());
+		assertThat(results.get(0).get()).isNotNull();
+		assertThat(results.get(1).get()).isNull();
+		assertThat(results.get(2).get()).isNotNull();
+		verify(recordService, times(3)).save(any(Record.class));
+		verify(recordService, times(1)).delete(any(Record.class));
+	}
+
+	@Test
+	@DisplayName("Import a batch reports an existing Identifier without failing the batch")
+	void importBatch_existingIdentifier() throws IOException {
+		when(igsnRequestService.getLoggerFor(any(Request.class)))
+				.thenReturn(TestHelper.getConsoleLogger(ImportServiceTest.class.getName(), Level.DEBUG));
+		Identifier existing = TestHelper.mockIdentifier(UUID.randomUUID());
+		existing.setValue("10273/XX0TUIAYL1");
+		existing.setRequestID(UUID.randomUUID());
+		when(identifierService.findAllByValueAndType(anyCollection(), eq(Identifier.Type.IGSN)))
+				.thenReturn(Collections.singletonMap("10273/XX0TUIAYL1", existing));
+		when(identifierService.findByValueAndType("10273/XX0TUIAYL1", Identifier.Type.IGSN)).thenReturn(existing);
+
+		List<ImportResult> results = importService.importBatch(mockChunks(3), mockImportRequest());
+
+		assertThat(results.get(0).get()).isNotNull();
+		assertThat(results.get(1).getException()).isInstanceOf(ForbiddenOperationException.class);
+		assertThat(results.get(2).get()).isNotNull();
+		verify(recordRepository, times(2)).save(any(Record.class));
+	}
+
+	private List<Chunk> mockChunks(int count) throws IOException {
+		String content = Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml");
+		List<Chunk> chunks = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			chunks.add(new MemoryChunk(content.replace("XX0TUIAYLV", "XX0TUIAYL" + i)));
+		}
+		return chunks;
+	}
+
+	private Request mockImportRequest() {
+		Request request = TestHelper.mockRequest();
+		String ownerId = UUID.randomUUID().toString();
+		request.setAttribute(Attribute.OWNER_TYPE, "User");
+		request.setAttribute(Attribute.CREATOR_ID, ownerId);
+		request.setAttribute(Attribute.OWNER_ID, ownerId);
+		request.setAttribute(Attribute.ALLOCATION_ID, UUID.randomUUID().toString());
+		return request;
+	}
+
 	@Test
 	@DisplayName("Import valid payload but error creating Identifier should returns null and delete Record")
 	void importRequest_errorCreatingIdentifier_returnsNull() throws IOException {
@@ -0,0 +1,131 @@
+package au.edu.ardc.registry.igsn.service;
+
+import au.edu.ardc.registry.TestHelper;
+import au.edu.ardc.registry.common.entity.Request;
+import au.edu.ardc.registry.common.model.Attribute;
+import au.edu.ardc.registry.common.repository.RequestRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = { RequestProgress.class })
+@TestPropertySource("classpath:application.properties")
+class RequestProgressTest {
+
+	@Autowired
+	RequestProgress requestProgress;
+
+	@MockBean
+	RequestRepository repository;
+
+	// released after every test, the bean is shared by the tests
+	private final List<Request> counted = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		counted.forEach(requestProgress::release);
+	}
+
+	@Test
+	void increment_concurrently() throws InterruptedException {
+		Request request = TestHelper.mockRequest();
+		counted.add(request);
+		request.setAttribute(Attribute.NUM_OF_RECORDS_CREATED, 5);
+		// the sync tasks count on another instance of the same Request
+		Request other = TestHelper.mockRequest();
+		other.setId(request.getId());
+		other.setAttribute(Attribute.NUM_OF_RECORDS_CREATED, 5);
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 1000; i++) {
+			Request instance = i % 2 == 0 ? request : other;
+			executor.execute(() -> requestProgress.increment(instance, Attribute.NUM_OF_RECORDS_CREATED));
+		}
+		executor.shutdown();
+		assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(requestProgress.get(request, Attribute.NUM_OF_RECORDS_CREATED)).isEqualTo(1005);
+		requestProgress.apply(other);
+		assertThat(other.getAttribute(Attribute.NUM_OF_RECORDS_CREATED)).isEqualTo("1005");
+	}
+
+	@Test
+	void flush_savesChangedRequestsOnce() {
+		Request request = TestHelper.mockRequest();
+		counted.add(request);
+		requestProgress.increment(request, Attribute.NUM_OF_ERROR);
+		requestProgress.increment(request, Attribute.NUM_OF_ERROR);
+
+		requestProgress.flush();
+		requestProgress.flush();
+
+		verify(repository, times(1)).saveAndFlush(any(Request.class));
+		assertThat(request.getAttribute(Attribute.NUM_OF_ERROR)).isEqualTo("2");
+	}
+
+	@Test
+	void release_stopsFlushing() {
+		Request request = TestHelper.mockRequest();
+		counted.add(request);
+		requestProgress.increment(request, Attribute.NUM_OF_IGSN_REGISTERED);
+
+		requestProgress.release(request);
+		requestProgress.flush();
+
+		verify(repository, never()).saveAndFlush(any(Request.class));
+		assertThat(request.getAttribute(Attribute.NUM_OF_IGSN_REGISTERED)).isEqualTo("1");
+		assertThat(requestProgress.get(request, Attribute.NUM_OF_IGSN_REGISTERED)).isEqualTo(1);
+		assertThat(requestProgress.size()).isEqualTo(0);
+	}
+
+	@Test
+	void saveLater_coalescesUpdates() {
+		Request request = TestHelper.mockRequest();
+		counted.add(request);
+		Request latest = TestHelper.mockRequest();
+		latest.setId(request.getId());
+		latest.setMessage("Imported 2 out of 2");
+
+		requestProgress.saveLater(request);
+		requestProgress.saveLater(latest);
+		assertThat(requestProgress.getPending()).isEqualTo(1);
+		requestProgress.flush();
+
+		verify(repository, times(1)).saveAndFlush(latest);
+		assertThat(requestProgress.getPending()).isEqualTo(0);
+	}
+
+	@Test
+	void increment_completedRequest_notCountedAnymore() {
+		Request request = TestHelper.mockRequest();
+		counted.add(request);
+		requestProgress.increment(request, Attribute.NUM_OF_RECORDS_UPDATED);
+		request.setStatus(Request.Status.COMPLETED);
+		requestProgress.release(request);
+
+		// a task finishing after the completion
+		assertThat(requestProgress.increment(request, Attribute.NUM_OF_RECORDS_UPDATED)).isEqualTo(2);
+
+		assertThat(request.getAttribute(Attribute.NUM_OF_RECORDS_UPDATED)).isEqualTo("2");
+		assertThat(requestProgress.size()).isEqualTo(0);
+	}
+
+}
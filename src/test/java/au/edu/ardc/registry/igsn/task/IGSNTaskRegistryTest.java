@@ -0,0 +1,91 @@
+package au.edu.ardc.registry.igsn.task;
+
+import au.edu.ardc.registry.igsn.model.IGSNTask;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IGSNTaskRegistryTest {
+
+	private final IGSNTaskRegistry registry = new IGSNTaskRegistry();
+
+	@Test
+	void queue_countedUntilDone() {
+		UUID requestID = UUID.randomUUID();
+		AtomicBoolean ran = new AtomicBoolean();
+		IGSNTaskRegistry.QueuedTask first = registry.queue(IGSNTask.TASK_IMPORT, requestID,
+				Collections.singleton("10273/XX0TUIAYLV"), () -> ran.set(true));
+		IGSNTaskRegistry.QueuedTask second = registry.queue(IGSNTask.TASK_IMPORT, requestID,
+				Collections.singleton("10273/XX0TUIAYLW"), () -> {
+				});
+
+		assertThat(registry.getQueued(requestID, IGSNTask.TASK_IMPORT)).isEqualTo(2);
+		assertThat(registry.isQueued(requestID, IGSNTask.TASK_SYNC)).isFalse();
+		assertThat(registry.isQueued(requestID, IGSNTask.TASK_SYNC, IGSNTask.TASK_IMPORT)).isTrue();
+		assertThat(registry.isQueued(IGSNTask.TASK_IMPORT, "10273/xx0tuiaylv")).isTrue();
+		assertThat(registry.isQueued(IGSNTask.TASK_UPDATE, "10273/XX0TUIAYLV")).isFalse();
+
+		first.run();
+		assertThat(ran.get()).isTrue();
+		assertThat(registry.getQueued(requestID, IGSNTask.TASK_IMPORT)).isEqualTo(1);
+		assertThat(registry.isQueued(IGSNTask.TASK_IMPORT, "10273/XX0TUIAYLV")).isFalse();
+
+		// a task is only counted down once
+		second.cancel();
+		second.run();
+		assertThat(registry.getQueued(requestID, IGSNTask.TASK_IMPORT)).isEqualTo(0);
+		assertThat(registry.isQueued(requestID, IGSNTask.TASK_IMPORT)).isFalse();
+		assertThat(registry.isQueued(IGSNTask.TASK_IMPORT, "10273/XX0TUIAYLW")).isFalse();
+	}
+
+	@Test
+	void queue_taskOfSeveralIdentifiers() {
+		UUID requestID = UUID.randomUUID();
+		IGSNTaskRegistry.QueuedTask batch = registry.queue(IGSNTask.TASK_IMPORT, requestID,
+				Arrays.asList("10273/XX0TA", "10273/XX0TB"), () -> {
+				});
+
+		assertThat(registry.getQueued(requestID, IGSNTask.TASK_IMPORT)).isEqualTo(1);
+		assertThat(registry.isQueued(IGSNTask.TASK_IMPORT, "10273/XX0TA")).isTrue();
+		assertThat(registry.isQueued(IGSNTask.TASK_IMPORT, "10273/XX0TB")).isTrue();
+
+		batch.run();
+		assertThat(registry.isQueued(IGSNTask.TASK_IMPORT, "10273/XX0TA")).isFalse();
+		assertThat(registry.isQueued(IGSNTask.TASK_IMPORT, "10273/XX0TB")).isFalse();
+	}
+
+	@Test
+	void run_excludesItselfAndTellsWhenIdle() {
+		UUID requestID = UUID.randomUUID();
+		AtomicInteger idle = new AtomicInteger();
+		AtomicBoolean othersSeen = new AtomicBoolean(true);
+		IGSNTaskRegistry.QueuedTask sync = registry.queue(IGSNTask.TASK_SYNC, requestID,
+				Collections.singleton("10273/XX0TA"), () -> {
+				}, idle::incrementAndGet);
+		IGSNTaskRegistry.QueuedTask reserve = registry.queue(IGSNTask.TASK_RESERVE, requestID,
+				Collections.singleton("10273/XX0TA"), () -> {
+					// a running task still counts for the others, not for itself
+					othersSeen.set(registry.isQueued(requestID, IGSNTask.TASK_RESERVE));
+					assertThat(registry.isQueued(requestID, IGSNTask.TASK_SYNC)).isTrue();
+					assertThat(registry.isQueued(IGSNTask.TASK_RESERVE, "10273/XX0TA")).isTrue();
+				}, idle::incrementAndGet);
+
+		reserve.run();
+		assertThat(othersSeen.get()).isFalse();
+		assertThat(idle.get()).isEqualTo(0);
+
+		sync.run();
+		assertThat(idle.get()).isEqualTo(1);
+		assertThat(registry.markFinalized(requestID)).isTrue();
+		assertThat(registry.markFinalized(requestID)).isFalse();
+		registry.clearFinalized(requestID);
+		assertThat(registry.markFinalized(requestID)).isTrue();
+	}
+
+}
@@ -6,6 +6,7 @@ import au.edu.ardc.registry.common.dto.mapper.RecordMapper;
 import au.edu.ardc.registry.common.entity.Identifier;
 import au.edu.ardc.registry.common.entity.Record;
 import au.edu.ardc.registry.common.model.Allocation;
+import au.edu.ardc.registry.common.model.IdentifierClassification;
 import au.edu.ardc.registry.common.model.Scope;
 import au.edu.ardc.registry.common.model.User;
 import au.edu.ardc.registry.common.repository.IdentifierRepository;
@@ -146,10 +147,12 @@ class UserAccessValidatorTest {
 		mockedIdentifier.setValue("10273/XX0TUIAYLV");
 		mockedIdentifier.setType(Identifier.Type.IGSN);
 		mockedIdentifier.setRecord(mockRecord);
-		Mockito.when(identifierRepository.findFirstByValueIgnoreCaseAndType("10273/XX0TUIAYLV", Identifier.Type.IGSN))
-				.thenReturn(mockedIdentifier);
+		Mockito.when(identifierRepository.findAllByTypeAndUpperValueIn(Identifier.Type.IGSN,
+				Collections.singletonList("10273/XX0TUIAYLV"))).thenReturn(Collections.singletonList(mockedIdentifier));
 
 		Assert.assertTrue(userAccessValidator.canUserUpdateIGSNRecord(xml, user));
+		Assertions.assertThat(userAccessValidator.getClassification().getStatus("10273/XX0TUIAYLV"))
+				.isEqualTo(IdentifierClassification.Status.OWNED);
 	}
 
 	@Test
@@ -168,8 +171,8 @@ class UserAccessValidatorTest {
 		allocation.setScopes(Arrays.asList(Scope.CREATE, Scope.UPDATE));
 		user.setAllocations(Collections.singletonList(allocation));
 
-		Mockito.when(identifierRepository.findFirstByValueIgnoreCaseAndType("10273/XX0TUIAYLV", Identifier.Type.IGSN))
-				.thenReturn(null);
+		Mockito.when(identifierRepository.findAllByTypeAndUpperValueIn(Identifier.Type.IGSN,
+				Collections.singletonList("10273/XX0TUIAYLV"))).thenReturn(Collections.emptyList());
 
 		Assert.assertThrows(ForbiddenOperationException.class, () -> {
 			userAccessValidator.canUserUpdateIGSNRecord(xml, user);
@@ -203,8 +206,8 @@ class UserAccessValidatorTest {
 		mockedIdentifier.setValue("10273/XX0TUIAYLV");
 		mockedIdentifier.setType(Identifier.Type.IGSN);
 		mockedIdentifier.setRecord(mockRecord);
-		Mockito.when(identifierRepository.findFirstByValueIgnoreCaseAndType("10273/XX0tuiAYlv", Identifier.Type.IGSN))
-				.thenReturn(mockedIdentifier);
+		Mockito.when(identifierRepository.findAllByTypeAndUpperValueIn(Identifier.Type.IGSN,
+				Collections.singletonList("10273/XX0TUIAYLV"))).thenReturn(Collections.singletonList(mockedIdentifier));
 
 		Assert.assertThrows(ForbiddenOperationException.class, () -> {
 			userAccessValidator.canUserUpdateIGSNRecord(xml, user);
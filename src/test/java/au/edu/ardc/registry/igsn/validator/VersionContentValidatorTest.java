@@ -4,6 +4,7 @@ import au.edu.ardc.registry.TestHelper;
 import au.edu.ardc.registry.common.entity.Identifier;
 import au.edu.ardc.registry.common.entity.Record;
 import au.edu.ardc.registry.common.entity.Version;
+import au.edu.ardc.registry.common.model.IdentifierClassification;
 import au.edu.ardc.registry.common.model.Schema;
 import au.edu.ardc.registry.common.provider.FragmentProvider;
 import au.edu.ardc.registry.common.provider.IdentifierProvider;
@@ -29,6 +30,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Map;
 
 import static org.assertj.core.api.Java6Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -146,6 +148,7 @@ class VersionContentValidatorTest {
 	void isNewContent() throws IOException {
 		VersionContentValidator versionContentValidator = new VersionContentValidator(identifierService, schemaService);
 		String validXML = Helpers.readFile("src/test/resources/xml/sample_ardcv1.xml");
+		mockClassify(Collections.emptyMap());
 		Assert.assertTrue(versionContentValidator.isNewContent(validXML));
 	}
 
@@ -183,12 +186,20 @@ class VersionContentValidatorTest {
 		version.setHash(VersionService.getHash(original));
 		record.setCurrentVersions(Collections.singletonList(version));
 		Identifier identifier = TestHelper.mockIdentifier(record);
-		Mockito.when(identifierService.findByValueAndType("10273/XX0TUIAYLV", Identifier.Type.IGSN))
-				.thenReturn(identifier);
+		mockClassify(Collections.singletonMap("10273/XX0TUIAYLV", identifier));
 
 		Assert.assertThrows(VersionContentAlreadyExistsException.class, () -> {
 			versionContentValidator.isNewContent(original);
 		});
+		// the identifiers of the payload are looked up at once
+		Mockito.verify(identifierService, Mockito.never()).findByValueAndType(Mockito.anyString(),
+				Mockito.any(Identifier.Type.class));
+	}
+
+	private void mockClassify(Map<String, Identifier> identifiers) {
+		Mockito.when(identifierService.classify(Mockito.anyCollection(), Mockito.eq(Identifier.Type.IGSN),
+				Mockito.isNull())).thenAnswer(invocation -> new IdentifierClassification(invocation.getArgument(0),
+						identifiers, record -> false));
 	}
 
 }
\ No newline at end of file